@@ -0,0 +1,270 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A minimal build cache server, storing entries in a directory:
+ *
+ * <ul>
+ *   <li>{@code GET /<name>} (or {@code HEAD}) returns the entry, or a {@code 404} if it does not exist.</li>
+ *   <li>{@code PUT /<name>} stores the entry, replacing any existing one.</li>
+ * </ul>
+ *
+ * Entry names are restricted to letters, digits, {@code '.'}, {@code '-'} and {@code '_'}.
+ *
+ * <p>
+ *
+ * This server does not implement any authentication nor eviction: it is designed to be used as a local
+ * stand-in for a real remote cache, for example in integration tests. It can be started from java code, or
+ * from the command line:
+ *
+ * <pre><code>
+ *   java -cp node-maven-plugin.jar com.github.mjeanroy.maven.plugins.node.cache.BuildCacheServer 5071 /tmp/build-cache
+ * </code></pre>
+ */
+public final class BuildCacheServer implements Closeable {
+
+	/**
+	 * The pattern of valid entry names.
+	 */
+	private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+
+	/**
+	 * The number of threads handling requests.
+	 */
+	private static final int THREADS = 8;
+
+	/**
+	 * Start a server.
+	 *
+	 * @param args The port (zero to use any free port), and the directory storing entries.
+	 * @throws IOException If the server cannot be started.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: BuildCacheServer <port> <directory>");
+			System.exit(1);
+			return;
+		}
+
+		BuildCacheServer server = start(Integer.parseInt(args[0]), new File(args[1]));
+		System.out.println("Build cache server listening on " + server.getUrl());
+	}
+
+	/**
+	 * Start a server, listening on the loopback address.
+	 *
+	 * @param port The port, zero to use any free port.
+	 * @param directory The directory storing entries, created if it does not exist.
+	 * @return The running server.
+	 * @throws IOException If the server cannot be started.
+	 */
+	public static BuildCacheServer start(int port, File directory) throws IOException {
+		Files.createDirectories(directory.toPath());
+
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "node-maven-plugin-build-cache-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		BuildCacheServer buildCacheServer = new BuildCacheServer(server, executor, directory);
+		server.createContext("/", buildCacheServer::handle);
+		server.setExecutor(executor);
+		server.start();
+		return buildCacheServer;
+	}
+
+	/**
+	 * The HTTP server.
+	 */
+	private final HttpServer server;
+
+	/**
+	 * The executor handling requests.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The directory storing entries.
+	 */
+	private final File directory;
+
+	/**
+	 * Create server.
+	 *
+	 * @param server The HTTP server.
+	 * @param executor The executor handling requests.
+	 * @param directory The directory storing entries.
+	 */
+	private BuildCacheServer(HttpServer server, ExecutorService executor, File directory) {
+		this.server = server;
+		this.executor = executor;
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the port the server is listening on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Get the URL of the server, to be used as the remote cache URL.
+	 *
+	 * @return The URL.
+	 */
+	public String getUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + getPort();
+	}
+
+	/**
+	 * Stop the server.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Handle a request.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @throws IOException If an error occurred.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String name = exchange.getRequestURI().getPath().substring(1);
+			if (!NAME.matcher(name).matches()) {
+				sendError(exchange, 400, "Bad Request");
+				return;
+			}
+
+			File file = new File(directory, name);
+			String method = exchange.getRequestMethod();
+
+			if ("GET".equals(method) || "HEAD".equals(method)) {
+				if (!file.isFile()) {
+					sendError(exchange, 404, "Not Found");
+				} else if ("HEAD".equals(method)) {
+					exchange.getResponseHeaders().set("Content-Length", Long.toString(file.length()));
+					exchange.sendResponseHeaders(200, -1);
+				} else {
+					exchange.sendResponseHeaders(200, file.length());
+					try (OutputStream output = exchange.getResponseBody()) {
+						Files.copy(file.toPath(), output);
+					}
+				}
+			} else if ("PUT".equals(method)) {
+				store(exchange.getRequestBody(), file.toPath());
+				exchange.sendResponseHeaders(201, -1);
+			} else {
+				sendError(exchange, 405, "Method Not Allowed");
+			}
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Send an error response.
+	 *
+	 * <p>
+	 *
+	 * The response has a (short) body, unless the request is a {@code HEAD} request: an error response
+	 * without any body prevents some clients (such as {@link java.net.HttpURLConnection}) from reusing the
+	 * connection properly, so that the next streamed upload may fail.
+	 *
+	 * @param exchange The HTTP exchange.
+	 * @param status The response status.
+	 * @param reason The response body.
+	 * @throws IOException If an error occurred.
+	 */
+	private static void sendError(HttpExchange exchange, int status, String reason) throws IOException {
+		if ("HEAD".equals(exchange.getRequestMethod())) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+
+		byte[] body = reason.getBytes(UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	/**
+	 * Store an entry: the entry is written to a temporary file, and atomically moved, so that a partial entry is never read.
+	 *
+	 * @param input The entry content.
+	 * @param target The entry file.
+	 * @throws IOException If an error occurred.
+	 */
+	private void store(InputStream input, Path target) throws IOException {
+		Path tmp = Files.createTempFile(directory.toPath(), target.getFileName().toString(), ".tmp");
+
+		try {
+			Files.copy(input, tmp, REPLACE_EXISTING);
+
+			try {
+				Files.move(tmp, target, ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tmp, target, REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+}
@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Output handler decoupling the threads reading command output from the (slower) output handler: lines
+ * are pushed to a bounded queue, and drained in batches by a single writer thread.
+ *
+ * <p>
+ *
+ * This avoids the command being stalled on its standard output while the maven logger is busy (for example,
+ * when maven logger is synchronized across modules with a parallel build).
+ *
+ * <p>
+ *
+ * This class is thread-safe.
+ */
+final class AsyncOutputHandler implements OutputHandler, Closeable {
+
+	/**
+	 * The maximum number of lines waiting to be processed.
+	 */
+	static final int DEFAULT_CAPACITY = 8192;
+
+	/**
+	 * The maximum number of lines processed before flushing the output handler.
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	/**
+	 * The line marking the end of the output.
+	 */
+	private static final Line EOF = new Line("", null);
+
+	/**
+	 * The output handler processing lines.
+	 */
+	private final OutputHandler delegate;
+
+	/**
+	 * What happens when the queue is full.
+	 */
+	private final LogBackpressure backpressure;
+
+	/**
+	 * The lines waiting to be processed.
+	 */
+	private final BlockingQueue<Line> queue;
+
+	/**
+	 * The number of lines being dropped.
+	 */
+	private final AtomicLong dropped;
+
+	/**
+	 * The writer thread.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Create the handler, and start the writer thread.
+	 *
+	 * @param delegate The output handler processing lines.
+	 * @param capacity The maximum number of lines waiting to be processed.
+	 * @param backpressure What happens when the queue is full.
+	 */
+	AsyncOutputHandler(OutputHandler delegate, int capacity, LogBackpressure backpressure) {
+		this.delegate = delegate;
+		this.backpressure = backpressure;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.dropped = new AtomicLong(0);
+		this.writer = new Thread(this::drain, "node-maven-plugin-log");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public void process(String line) {
+		enqueue(new Line(line, null));
+	}
+
+	@Override
+	public void process(String line, OutputLevel level) {
+		enqueue(new Line(line, level));
+	}
+
+	@Override
+	public boolean isEnabled(OutputLevel level) {
+		return delegate.isEnabled(level);
+	}
+
+	/**
+	 * Push given line to the queue, applying the backpressure policy if the queue is full.
+	 *
+	 * @param line The line.
+	 */
+	private void enqueue(Line line) {
+		if (backpressure == LogBackpressure.DROP) {
+			if (!queue.offer(line)) {
+				dropped.incrementAndGet();
+			}
+
+			return;
+		}
+
+		try {
+			queue.put(line);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Get {@link #dropped}
+	 *
+	 * @return {@link #dropped}
+	 */
+	long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Wait for all pending lines to be processed, and stop the writer thread: if some lines have been
+	 * dropped, a warning is written to the output handler.
+	 */
+	@Override
+	public void close() {
+		try {
+			queue.put(EOF);
+			writer.join();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		long count = dropped.get();
+		if (count > 0) {
+			String message = count + " line(s) of output have been dropped, since they were produced faster than they could be logged";
+			processLine(new Line(message, OutputLevel.WARN));
+			flushDelegate();
+		}
+	}
+
+	/**
+	 * Process lines until the end of the output.
+	 */
+	private void drain() {
+		List<Line> batch = new ArrayList<>(BATCH_SIZE);
+
+		while (true) {
+			try {
+				batch.add(queue.take());
+			}
+			catch (InterruptedException ex) {
+				return;
+			}
+
+			queue.drainTo(batch, BATCH_SIZE - 1);
+
+			for (Line line : batch) {
+				if (line == EOF) {
+					flushDelegate();
+					return;
+				}
+
+				processLine(line);
+			}
+
+			flushDelegate();
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Process given line: as with the threads reading command output, a failure is ignored, so that
+	 * the output is still drained (and the command is never stalled).
+	 *
+	 * @param line The line.
+	 */
+	private void processLine(Line line) {
+		try {
+			if (line.level == null) {
+				delegate.process(line.text);
+			} else {
+				delegate.process(line.text, line.level);
+			}
+		}
+		catch (RuntimeException ex) {
+			// Ignore, and process next lines.
+		}
+	}
+
+	/**
+	 * Flush the output handler, ignoring failures.
+	 */
+	private void flushDelegate() {
+		try {
+			delegate.flush();
+		}
+		catch (RuntimeException ex) {
+			// Ignore, and process next lines.
+		}
+	}
+
+	/**
+	 * A line waiting to be processed.
+	 */
+	private static final class Line {
+
+		/**
+		 * The line.
+		 */
+		private final String text;
+
+		/**
+		 * The line level, {@code null} if it has not been detected.
+		 */
+		private final OutputLevel level;
+
+		private Line(String text, OutputLevel level) {
+			this.text = text;
+			this.level = level;
+		}
+	}
+}
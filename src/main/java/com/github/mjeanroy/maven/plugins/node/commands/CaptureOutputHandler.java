@@ -25,38 +25,208 @@ package com.github.mjeanroy.maven.plugins.node.commands;
 
 import com.github.mjeanroy.maven.plugins.node.commons.lang.Strings;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
- * Handler that will capture line being processed.
+ * Handler that will capture line being processed, according to a given {@link OutputCapture} policy.
+ *
+ * <p>
+ *
+ * Lines may be processed concurrently (for example, standard output and standard error are pumped
+ * by two different threads), so this class is thread-safe.
  */
-public final class CaptureOutputHandler implements OutputHandler {
+public final class CaptureOutputHandler implements OutputHandler, Closeable {
+
+	/**
+	 * The capture policy.
+	 */
+	private final OutputCapture capture;
+
+	/**
+	 * The lines being kept in memory.
+	 */
+	private final Deque<String> lines;
+
+	/**
+	 * The number of characters being kept in memory.
+	 */
+	private long size;
+
+	/**
+	 * The file where output is written, once it has been spilled to disk.
+	 */
+	private File outFile;
+
+	/**
+	 * The writer of {@link #outFile}, until the handler is closed.
+	 */
+	private Writer writer;
 
 	/**
-	 * The lines being processed.
+	 * Whether capture has been stopped, because output could not be spilled to disk.
 	 */
-	private final List<String> lines;
+	private boolean failed;
 
 	CaptureOutputHandler() {
-		this.lines = new ArrayList<>();
+		this(OutputCapture.full());
+	}
+
+	CaptureOutputHandler(OutputCapture capture) {
+		this.capture = capture;
+		this.lines = new ArrayDeque<>();
 	}
 
 	@Override
-	public void process(String line) {
-		lines.add(line);
+	public synchronized void process(String line) {
+		switch (capture.getMode()) {
+			case NONE:
+				break;
+
+			case TAIL:
+				if (lines.size() == capture.getLines()) {
+					lines.removeFirst();
+				}
+
+				lines.addLast(line);
+				break;
+
+			case SPILL:
+				spill(line);
+				break;
+
+			default:
+				lines.addLast(line);
+				break;
+		}
+	}
+
+	@Override
+	public boolean isEnabled(OutputLevel level) {
+		return capture.getMode() != OutputCapture.Mode.NONE;
 	}
 
 	/**
-	 * Get the output value.
+	 * Get the output value: if output has been spilled to disk, the output value is empty, and the
+	 * output should be read from {@link #getOutFile()}.
 	 *
 	 * @return Output value.
 	 */
-	public String getOut() {
+	public synchronized String getOut() {
 		if (lines.isEmpty()) {
 			return "";
 		}
 
 		return Strings.join(lines, System.lineSeparator());
 	}
+
+	/**
+	 * Get the file containing the whole output, if it has been spilled to disk.
+	 *
+	 * @return The output file, {@code null} if output has not been spilled to disk.
+	 */
+	public synchronized File getOutFile() {
+		return outFile;
+	}
+
+	/**
+	 * Flush and close the output file, if output has been spilled to disk.
+	 */
+	@Override
+	public synchronized void close() {
+		if (writer == null) {
+			return;
+		}
+
+		try {
+			writer.close();
+		}
+		catch (IOException ex) {
+			abort();
+		}
+		finally {
+			writer = null;
+		}
+	}
+
+	/**
+	 * Capture given line, spilling the output to disk if the threshold is reached.
+	 *
+	 * @param line The line.
+	 */
+	private void spill(String line) {
+		if (failed) {
+			return;
+		}
+
+		try {
+			if (outFile != null) {
+				write(line);
+				return;
+			}
+
+			lines.addLast(line);
+			size += line.length();
+
+			if (size > capture.getThreshold()) {
+				File directory = capture.getDirectory();
+				Files.createDirectories(directory.toPath());
+				outFile = Files.createTempFile(directory.toPath(), "output", ".log").toFile();
+				writer = Files.newBufferedWriter(outFile.toPath(), UTF_8);
+
+				for (String l : lines) {
+					write(l);
+				}
+
+				lines.clear();
+				size = 0;
+			}
+		}
+		catch (IOException ex) {
+			abort();
+		}
+	}
+
+	/**
+	 * Write given line to the output file.
+	 *
+	 * @param line The line.
+	 * @throws IOException If an error occurred.
+	 */
+	private void write(String line) throws IOException {
+		writer.write(line);
+		writer.write(System.lineSeparator());
+	}
+
+	/**
+	 * Stop capturing output: what has been captured so far is discarded, since it would be incomplete.
+	 */
+	private void abort() {
+		failed = true;
+		lines.clear();
+		size = 0;
+
+		if (writer != null) {
+			try {
+				writer.close();
+			}
+			catch (IOException ex) {
+				// Nothing to do.
+			}
+
+			writer = null;
+		}
+
+		if (outFile != null) {
+			outFile.delete();
+			outFile = null;
+		}
+	}
 }
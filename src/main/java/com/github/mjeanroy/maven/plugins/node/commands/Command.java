@@ -26,6 +26,7 @@ package com.github.mjeanroy.maven.plugins.node.commands;
 import java.util.*;
 
 import static com.github.mjeanroy.maven.plugins.node.commands.StringCommandArg.arg;
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
 
 /**
  * Provide necessary api to execute a command line on operating system.
@@ -54,6 +55,21 @@ public class Command {
 	 */
 	private final List<CommandArg> arguments;
 
+	/**
+	 * The output capture policy, defaults to {@link OutputCapture#full()}.
+	 */
+	private OutputCapture capture;
+
+	/**
+	 * What happens when output is produced faster than it can be logged, defaults to {@link LogBackpressure#BLOCK}.
+	 */
+	private LogBackpressure logBackpressure;
+
+	/**
+	 * Whether arguments containing spaces or quotes are quoted by the executor, defaults to {@code true}.
+	 */
+	private boolean quoteArguments;
+
 	/**
 	 * Create new command providing executable path.
 	 *
@@ -62,6 +78,9 @@ public class Command {
 	Command(String executable) {
 		this.executable = executable;
 		this.arguments = new LinkedList<>();
+		this.capture = OutputCapture.full();
+		this.logBackpressure = LogBackpressure.BLOCK;
+		this.quoteArguments = true;
 	}
 
 	/**
@@ -82,6 +101,46 @@ public class Command {
 		arguments.add(arg(argument));
 	}
 
+	/**
+	 * Create a copy of this command: arguments added to the copy are not added to this command.
+	 *
+	 * @return The new command.
+	 */
+	public Command copy() {
+		Command cmd = new Command(executable);
+		cmd.capture = capture;
+		cmd.logBackpressure = logBackpressure;
+		cmd.quoteArguments = quoteArguments;
+		cmd.arguments.addAll(arguments);
+		return cmd;
+	}
+
+	/**
+	 * Create a copy of this command, where the first occurrence of given argument is replaced.
+	 *
+	 * @param argument The argument to replace.
+	 * @param replacement The new argument.
+	 * @return The new command.
+	 */
+	public Command replaceArgument(String argument, String replacement) {
+		Command cmd = new Command(executable);
+		cmd.capture = capture;
+		cmd.logBackpressure = logBackpressure;
+		cmd.quoteArguments = quoteArguments;
+
+		boolean replaced = false;
+		for (CommandArg arg : arguments) {
+			if (!replaced && arg.toArgument().equals(argument)) {
+				cmd.addArgument(replacement);
+				replaced = true;
+			} else {
+				cmd.addArgument(arg);
+			}
+		}
+
+		return cmd;
+	}
+
 	/**
 	 * Get executable path, can be used to execute command.
 	 *
@@ -127,6 +186,60 @@ public class Command {
 		return args;
 	}
 
+	/**
+	 * Get {@link #capture}
+	 *
+	 * @return {@link #capture}
+	 */
+	public OutputCapture getCapture() {
+		return capture;
+	}
+
+	/**
+	 * Set {@link #capture}
+	 *
+	 * @param capture {@link #capture}
+	 */
+	public void setCapture(OutputCapture capture) {
+		this.capture = notNull(capture, "Output capture policy must be defined");
+	}
+
+	/**
+	 * Get {@link #logBackpressure}
+	 *
+	 * @return {@link #logBackpressure}
+	 */
+	public LogBackpressure getLogBackpressure() {
+		return logBackpressure;
+	}
+
+	/**
+	 * Set {@link #logBackpressure}
+	 *
+	 * @param logBackpressure {@link #logBackpressure}
+	 */
+	public void setLogBackpressure(LogBackpressure logBackpressure) {
+		this.logBackpressure = notNull(logBackpressure, "Log backpressure must be defined");
+	}
+
+	/**
+	 * Get {@link #quoteArguments}
+	 *
+	 * @return {@link #quoteArguments}
+	 */
+	public boolean isQuoteArguments() {
+		return quoteArguments;
+	}
+
+	/**
+	 * Set {@link #quoteArguments}
+	 *
+	 * @param quoteArguments {@link #quoteArguments}
+	 */
+	public void setQuoteArguments(boolean quoteArguments) {
+		this.quoteArguments = quoteArguments;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder cmd = new StringBuilder();
@@ -41,6 +41,16 @@ public final class CommandExecutors {
 		return DefaultCommandExecutor.getInstance();
 	}
 
+	/**
+	 * Create new executor of given type.
+	 *
+	 * @param type The executor type.
+	 * @return New Executor.
+	 */
+	public static CommandExecutor newExecutor(CommandExecutorType type) {
+		return type == CommandExecutorType.PROCESS ? ProcessCommandExecutor.getInstance() : newExecutor();
+	}
+
 	/**
 	 * Create new executor that will do nothing.
 	 *
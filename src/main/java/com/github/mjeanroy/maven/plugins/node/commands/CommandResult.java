@@ -60,6 +60,16 @@ public final class CommandResult {
 	 */
 	private final String out;
 
+	/**
+	 * The file containing the command output, if it has been spilled to disk (see {@link OutputCapture#spill(long, File)}).
+	 */
+	private final File outFile;
+
+	/**
+	 * The resources used by the command, {@code null} if they have not been measured.
+	 */
+	private final ResourceUsage resourceUsage;
+
 	/**
 	 * Create new result object.
 	 *
@@ -67,8 +77,33 @@ public final class CommandResult {
 	 * @param out Command output.
 	 */
 	public CommandResult(int status, String out) {
+		this(status, out, null);
+	}
+
+	/**
+	 * Create new result object.
+	 *
+	 * @param status Status value.
+	 * @param out Command output.
+	 * @param outFile The file containing the command output, {@code null} if output has not been spilled to disk.
+	 */
+	public CommandResult(int status, String out, File outFile) {
+		this(status, out, outFile, null);
+	}
+
+	/**
+	 * Create new result object.
+	 *
+	 * @param status Status value.
+	 * @param out Command output.
+	 * @param outFile The file containing the command output, {@code null} if output has not been spilled to disk.
+	 * @param resourceUsage The resources used by the command, {@code null} if they have not been measured.
+	 */
+	public CommandResult(int status, String out, File outFile, ResourceUsage resourceUsage) {
 		this.status = status;
 		this.out = firstNonNull(out, "");
+		this.outFile = outFile;
+		this.resourceUsage = resourceUsage;
 	}
 
 	/**
@@ -89,6 +124,24 @@ public final class CommandResult {
 		return out;
 	}
 
+	/**
+	 * Get {@link #outFile}
+	 *
+	 * @return {@link #outFile}
+	 */
+	public File getOutFile() {
+		return outFile;
+	}
+
+	/**
+	 * Get {@link #resourceUsage}
+	 *
+	 * @return {@link #resourceUsage}
+	 */
+	public ResourceUsage getResourceUsage() {
+		return resourceUsage;
+	}
+
 	/**
 	 * Check if result is a success: this is a shortcut for checking if {@link #status} is equal
 	 * to zero.
@@ -117,7 +170,8 @@ public final class CommandResult {
 
 		if (o instanceof CommandResult) {
 			CommandResult r = (CommandResult) o;
-			return Objects.equals(status, r.status) && Objects.equals(out, r.out);
+			return Objects.equals(status, r.status) && Objects.equals(out, r.out) && Objects.equals(outFile, r.outFile)
+					&& Objects.equals(resourceUsage, r.resourceUsage);
 		}
 
 		return false;
@@ -125,7 +179,7 @@ public final class CommandResult {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(status, out);
+		return Objects.hash(status, out, outFile, resourceUsage);
 	}
 
 	@Override
@@ -133,6 +187,8 @@ public final class CommandResult {
 		return ToStringBuilder.builder(getClass())
 				.append("status", status)
 				.append("out", out)
+				.append("outFile", outFile)
+				.append("resourceUsage", resourceUsage)
 				.build();
 	}
 }
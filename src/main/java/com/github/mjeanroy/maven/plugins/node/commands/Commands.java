@@ -78,6 +78,35 @@ public final class Commands {
 		return wrap(new Command(firstNonNull(path, "node")));
 	}
 
+	/**
+	 * Create new command running given script with the system shell ({@code sh} on unix, {@code cmd} on windows),
+	 * as {@code npm} does to run {@code package.json} scripts.
+	 *
+	 * <p>
+	 *
+	 * On unix, the script is given as is to the shell: it is never quoted, even if it contains spaces.
+	 *
+	 * @param script The script.
+	 * @return New shell command.
+	 */
+	public static Command shell(String script) {
+		Command command;
+
+		if (isWindows()) {
+			command = new Command("cmd");
+			command.addArgument("/d");
+			command.addArgument("/s");
+			command.addArgument("/c");
+		} else {
+			command = new Command("sh");
+			command.addArgument("-c");
+			command.setQuoteArguments(false);
+		}
+
+		command.addArgument(script);
+		return command;
+	}
+
 	private static Command wrap(Command command) {
 		return isWindows() ? new MsDos(command) : command;
 	}
@@ -111,6 +140,16 @@ public final class Commands {
 			cmd.addArgument(argument);
 		}
 
+		@Override
+		public Command copy() {
+			return wrapCopy(cmd.copy());
+		}
+
+		@Override
+		public Command replaceArgument(String argument, String replacement) {
+			return wrapCopy(cmd.replaceArgument(argument, replacement));
+		}
+
 		@Override
 		public Collection<String> getArguments() {
 			List<String> args = new LinkedList<>(super.getArguments());
@@ -123,5 +162,13 @@ public final class Commands {
 		public String toString() {
 			return cmd.toString();
 		}
+
+		private Command wrapCopy(Command command) {
+			MsDos copy = new MsDos(command);
+			copy.setCapture(getCapture());
+			copy.setLogBackpressure(getLogBackpressure());
+			copy.setQuoteArguments(isQuoteArguments());
+			return copy;
+		}
 	}
 }
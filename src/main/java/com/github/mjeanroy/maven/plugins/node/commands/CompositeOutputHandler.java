@@ -44,4 +44,31 @@ final class CompositeOutputHandler implements OutputHandler {
 			handler.process(line);
 		}
 	}
+
+	@Override
+	public void process(String line, OutputLevel level) {
+		for (OutputHandler handler : handlers) {
+			if (handler.isEnabled(level)) {
+				handler.process(line, level);
+			}
+		}
+	}
+
+	@Override
+	public boolean isEnabled(OutputLevel level) {
+		for (OutputHandler handler : handlers) {
+			if (handler.isEnabled(level)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public void flush() {
+		for (OutputHandler handler : handlers) {
+			handler.flush();
+		}
+	}
 }
@@ -27,8 +27,10 @@ import org.apache.commons.exec.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Arrays.asList;
 
@@ -61,36 +63,84 @@ class DefaultCommandExecutor implements CommandExecutor {
 	@Override
 	public CommandResult execute(File workingDirectory, Command command, OutputHandler outputHandler, Map<String, String> environment) {
 		CommandLine commandLine = new CommandLine(command.getExecutable());
+		boolean handleQuoting = command.isQuoteArguments();
 		for (String argument : command.getArguments()) {
-			commandLine.addArgument(argument);
+			commandLine.addArgument(argument, handleQuoting);
 		}
 
-		CaptureOutputHandler captureOutputHandler = new CaptureOutputHandler();
+		CaptureOutputHandler captureOutputHandler = new CaptureOutputHandler(command.getCapture());
+
+		// Output is logged asynchronously, so that the command is not stalled by a slow (or busy) logger.
+		AsyncOutputHandler asyncOutputHandler = new AsyncOutputHandler(
+				outputHandler,
+				AsyncOutputHandler.DEFAULT_CAPACITY,
+				command.getLogBackpressure()
+		);
+
+		// Sample the resources used by the process tree, as soon as the process is started.
+		AtomicReference<ProcessSampler> sampler = new AtomicReference<>();
 
 		try {
-			Executor executor = new DefaultExecutor();
+			Executor executor = new DefaultExecutor() {
+				@Override
+				protected Process launch(CommandLine command, Map<String, String> env, Path dir) throws IOException {
+					Process process = super.launch(command, env, dir);
+					sampler.set(ProcessSampler.start(process));
+					return process;
+				}
+			};
+
 			executor.setWorkingDirectory(workingDirectory);
 			executor.setExitValue(0);
 
-			// Define custom output stream
-			LogStreamHandler stream = new LogStreamHandler(new CompositeOutputHandler(asList(
-					outputHandler,
+			// Define custom output streams: one for each output, since they are pumped concurrently.
+			OutputHandler handler = new CompositeOutputHandler(asList(
+					asyncOutputHandler,
 					captureOutputHandler
-			)));
+			));
 
 			executor.setStreamHandler(
-					new PumpStreamHandler(stream)
+					new PumpStreamHandler(new LogStreamHandler(handler), new LogStreamHandler(handler))
 			);
 
 			int status = executor.execute(commandLine, computeEnvironment(environment));
-			return new CommandResult(status, captureOutputHandler.getOut());
+			return result(status, captureOutputHandler, sampler.get());
 		}
 		catch (ExecuteException ex) {
-			return new CommandResult(ex.getExitValue(), captureOutputHandler.getOut());
+			return result(ex.getExitValue(), captureOutputHandler, sampler.get());
 		}
 		catch (IOException ex) {
+			captureOutputHandler.close();
+			stop(sampler.get());
 			throw new CommandException(ex);
 		}
+		finally {
+			// Wait for the whole output to be logged before returning.
+			asyncOutputHandler.close();
+		}
+	}
+
+	/**
+	 * Create the command result, once all output has been processed.
+	 *
+	 * @param status The exit status.
+	 * @param captureOutputHandler The captured output.
+	 * @param sampler The process sampler, {@code null} if the process has not been started.
+	 * @return The command result.
+	 */
+	private static CommandResult result(int status, CaptureOutputHandler captureOutputHandler, ProcessSampler sampler) {
+		captureOutputHandler.close();
+		return new CommandResult(status, captureOutputHandler.getOut(), captureOutputHandler.getOutFile(), stop(sampler));
+	}
+
+	/**
+	 * Stop given sampler.
+	 *
+	 * @param sampler The process sampler, {@code null} if the process has not been started.
+	 * @return The resources used by the process, {@code null} if the process has not been started.
+	 */
+	private static ResourceUsage stop(ProcessSampler sampler) {
+		return sampler == null ? null : sampler.stop();
 	}
 
 	/**
@@ -21,31 +21,182 @@
  * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
 
+
 package com.github.mjeanroy.maven.plugins.node.commands;
 
-import org.apache.commons.exec.LogOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 /**
  * Output Stream handler used to log command line output.
+ *
+ * <p>
+ *
+ * Output is split into lines over chunks of bytes (a line ends with {@code \n}, {@code \r} or {@code \r\n}):
+ * the level of each line is detected on raw bytes, and a line is decoded only if it is processed by the
+ * output handler. A line contained in a single chunk is never copied.
+ *
+ * <p>
+ *
+ * This class is not thread-safe: a stream must be used for each output (standard output and standard error).
  */
-class LogStreamHandler extends LogOutputStream {
+class LogStreamHandler extends OutputStream {
+
+	/**
+	 * The initial size of the buffer used for lines spanning several chunks.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 256;
 
 	/**
 	 * Logger instance.
 	 */
 	private final OutputHandler out;
 
+	/**
+	 * The charset used to decode lines.
+	 */
+	private final Charset charset;
+
+	/**
+	 * The start of the current line, if it spans several chunks.
+	 */
+	private byte[] buffer;
+
+	/**
+	 * The number of bytes in {@link #buffer}.
+	 */
+	private int size;
+
+	/**
+	 * Whether the last byte was a {@code \r}: in this case, a following {@code \n} does not start a new line.
+	 */
+	private boolean skipLineFeed;
+
+	/**
+	 * Buffer used by {@link #write(int)}.
+	 */
+	private final byte[] single;
+
 	/**
 	 * Build output stream.
 	 *
 	 * @param logger Logger.
 	 */
 	LogStreamHandler(OutputHandler logger) {
+		this(logger, Charset.defaultCharset());
+	}
+
+	/**
+	 * Build output stream.
+	 *
+	 * @param logger Logger.
+	 * @param charset The charset used to decode lines.
+	 */
+	LogStreamHandler(OutputHandler logger, Charset charset) {
 		this.out = logger;
+		this.charset = charset;
+		this.buffer = new byte[INITIAL_BUFFER_SIZE];
+		this.size = 0;
+		this.single = new byte[1];
 	}
 
 	@Override
-	protected void processLine(String line, int level) {
-		out.process(line);
+	public void write(int b) {
+		single[0] = (byte) b;
+		write(single, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		int end = offset + length;
+		int start = offset;
+
+		for (int i = offset; i < end; ++i) {
+			byte c = bytes[i];
+
+			if (c == '\n' && skipLineFeed) {
+				skipLineFeed = false;
+				start = i + 1;
+				continue;
+			}
+
+			skipLineFeed = false;
+
+			if (c == '\n' || c == '\r') {
+				endLine(bytes, start, i - start);
+				skipLineFeed = c == '\r';
+				start = i + 1;
+			}
+		}
+
+		if (start < end) {
+			append(bytes, start, end - start);
+		}
+	}
+
+	/**
+	 * Process the pending line, if any: this is called once the command is over, so that the last line is
+	 * processed even if it does not end with a line separator.
+	 */
+	@Override
+	public void flush() {
+		if (size > 0) {
+			processLine(buffer, 0, size);
+			size = 0;
+		}
+	}
+
+	@Override
+	public void close() {
+		flush();
+	}
+
+	/**
+	 * Process the line ending with given bytes.
+	 *
+	 * @param bytes The buffer.
+	 * @param offset The offset of the end of the line.
+	 * @param length The length of the end of the line.
+	 */
+	private void endLine(byte[] bytes, int offset, int length) {
+		if (size == 0) {
+			processLine(bytes, offset, length);
+			return;
+		}
+
+		append(bytes, offset, length);
+		processLine(buffer, 0, size);
+		size = 0;
+	}
+
+	/**
+	 * Append given bytes to the pending line.
+	 *
+	 * @param bytes The buffer.
+	 * @param offset The offset of the bytes to append.
+	 * @param length The number of bytes to append.
+	 */
+	private void append(byte[] bytes, int offset, int length) {
+		if (size + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+		}
+
+		System.arraycopy(bytes, offset, buffer, size, length);
+		size += length;
+	}
+
+	/**
+	 * Process given line: the line is decoded only if its level is processed by the output handler.
+	 *
+	 * @param bytes The buffer.
+	 * @param offset The offset of the line.
+	 * @param length The length of the line.
+	 */
+	private void processLine(byte[] bytes, int offset, int length) {
+		OutputLevel level = OutputLevel.of(bytes, offset, length);
+		if (out.isEnabled(level)) {
+			out.process(new String(bytes, offset, length, charset), level);
+		}
 	}
 }
@@ -0,0 +1,215 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import com.github.mjeanroy.maven.plugins.node.commons.lang.ToStringBuilder;
+
+import java.io.File;
+import java.util.Objects;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+
+/**
+ * Define how the output of a command is captured, and returned in the {@link CommandResult}.
+ *
+ * <p>
+ *
+ * Available policies are:
+ *
+ * <ul>
+ *   <li>{@link #none()}: nothing is captured.</li>
+ *   <li>{@link #tail(int)}: the last lines are kept in a ring buffer.</li>
+ *   <li>{@link #full()}: every line is kept in memory (this is the default).</li>
+ *   <li>{@link #spill(long, File)}: lines are kept in memory, until a threshold is reached, then the full output is written to a file.</li>
+ * </ul>
+ *
+ * This class is immutable and, consequently, thread safe.
+ */
+public final class OutputCapture {
+
+	/**
+	 * The capture mode.
+	 */
+	enum Mode {
+		NONE,
+		TAIL,
+		FULL,
+		SPILL
+	}
+
+	/**
+	 * Policy that does not capture anything.
+	 */
+	private static final OutputCapture NONE = new OutputCapture(Mode.NONE, 0, 0, null);
+
+	/**
+	 * Policy that captures everything in memory.
+	 */
+	private static final OutputCapture FULL = new OutputCapture(Mode.FULL, 0, 0, null);
+
+	/**
+	 * Create a policy that does not capture anything: the command result output is always empty.
+	 *
+	 * @return The policy.
+	 */
+	public static OutputCapture none() {
+		return NONE;
+	}
+
+	/**
+	 * Create a policy that captures everything in memory.
+	 *
+	 * @return The policy.
+	 */
+	public static OutputCapture full() {
+		return FULL;
+	}
+
+	/**
+	 * Create a policy that keeps the last lines only.
+	 *
+	 * @param lines The maximum number of lines to keep.
+	 * @return The policy.
+	 */
+	public static OutputCapture tail(int lines) {
+		if (lines <= 0) {
+			throw new IllegalArgumentException("Number of lines to capture must be strictly positive");
+		}
+
+		return new OutputCapture(Mode.TAIL, lines, 0, null);
+	}
+
+	/**
+	 * Create a policy that keeps lines in memory until given threshold is reached: once the threshold is
+	 * reached, the whole output is written to a temporary file created in given directory (this file is
+	 * available with {@link CommandResult#getOutFile()}, and should be deleted by the caller).
+	 *
+	 * @param threshold The maximum number of characters to keep in memory.
+	 * @param directory The directory where the output file is created.
+	 * @return The policy.
+	 */
+	public static OutputCapture spill(long threshold, File directory) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Spill threshold must be positive");
+		}
+
+		return new OutputCapture(Mode.SPILL, 0, threshold, notNull(directory, "Spill directory must be defined"));
+	}
+
+	/**
+	 * The capture mode.
+	 */
+	private final Mode mode;
+
+	/**
+	 * The number of lines to keep, with {@link Mode#TAIL}.
+	 */
+	private final int lines;
+
+	/**
+	 * The number of characters to keep in memory, with {@link Mode#SPILL}.
+	 */
+	private final long threshold;
+
+	/**
+	 * The directory where output is written, with {@link Mode#SPILL}.
+	 */
+	private final File directory;
+
+	private OutputCapture(Mode mode, int lines, long threshold, File directory) {
+		this.mode = mode;
+		this.lines = lines;
+		this.threshold = threshold;
+		this.directory = directory;
+	}
+
+	/**
+	 * Get {@link #mode}
+	 *
+	 * @return {@link #mode}
+	 */
+	Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Get {@link #lines}
+	 *
+	 * @return {@link #lines}
+	 */
+	int getLines() {
+		return lines;
+	}
+
+	/**
+	 * Get {@link #threshold}
+	 *
+	 * @return {@link #threshold}
+	 */
+	long getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Get {@link #directory}
+	 *
+	 * @return {@link #directory}
+	 */
+	File getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof OutputCapture) {
+			OutputCapture c = (OutputCapture) o;
+			return Objects.equals(mode, c.mode)
+					&& Objects.equals(lines, c.lines)
+					&& Objects.equals(threshold, c.threshold)
+					&& Objects.equals(directory, c.directory);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(mode, lines, threshold, directory);
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.builder(getClass())
+				.append("mode", mode)
+				.append("lines", lines)
+				.append("threshold", threshold)
+				.append("directory", directory)
+				.build();
+	}
+}
@@ -23,6 +23,8 @@
 
 package com.github.mjeanroy.maven.plugins.node.commands;
 
+import java.lang.ProcessBuilder.Redirect;
+
 /**
  * Log writer that will process output line returned by command
  * execution process.
@@ -35,4 +37,41 @@ public interface OutputHandler {
 	 * @param line The line.
 	 */
 	void process(String line);
+
+	/**
+	 * Process a line, whose level has already been detected: by default, the level is ignored.
+	 *
+	 * @param line The line.
+	 * @param level The line level.
+	 */
+	default void process(String line, OutputLevel level) {
+		process(line);
+	}
+
+	/**
+	 * Check if lines with given level are processed: if not, the line does not even need to be decoded.
+	 *
+	 * @param level The line level.
+	 * @return {@code true} if lines with given level are processed, {@code false} otherwise.
+	 */
+	default boolean isEnabled(OutputLevel level) {
+		return true;
+	}
+
+	/**
+	 * Get the destination where command output can be redirected, without being processed line by line
+	 * by the JVM (see {@link CommandExecutorType#PROCESS}).
+	 *
+	 * @return The destination, {@code null} if lines must be processed by this handler.
+	 */
+	default Redirect getRedirect() {
+		return null;
+	}
+
+	/**
+	 * Flush lines processed so far: this method is called after each batch of lines, so that
+	 * buffered lines can be written at once.
+	 */
+	default void flush() {
+	}
 }
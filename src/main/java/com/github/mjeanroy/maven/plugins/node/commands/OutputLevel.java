@@ -0,0 +1,166 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * The level of a command output line.
+ *
+ * <h2>How is the level detected?</h2>
+ *
+ * The level is detected using the output of {@code npm} (or {@code yarn}, or {@code webpack}):
+ *
+ * <ul>
+ *   <li>If the line starts with {@code "npm ERR! "} or {@code "error "}, then the level {@code ERROR} is used.</li>
+ *   <li>If the line starts with {@code "npm WARN "}, {@code "warning "} or {@code "WARNING "}, or contains {@code "DeprecationWarning: "}, then the level {@code WARN} is used.</li>
+ *   <li>Otherwise, the level {@code INFO} is used by default.</li>
+ * </ul>
+ *
+ * The level can be detected on raw bytes, before the line is decoded: since all markers are ASCII, this
+ * assumes that output is written with an ASCII compatible charset (such as {@code UTF-8}).
+ */
+public enum OutputLevel {
+
+	/**
+	 * Default level.
+	 */
+	INFO,
+
+	/**
+	 * Warning level.
+	 */
+	WARN,
+
+	/**
+	 * Error level.
+	 */
+	ERROR;
+
+	/**
+	 * The {@code npm} warn prefix used when warning are displayed by
+	 * npm script.
+	 */
+	private static final byte[] NPM_WARN_PREFIX = "npm WARN ".getBytes(US_ASCII);
+
+	/**
+	 * The {@code npm} error prefix used when errors are displayed by
+	 * npm script.
+	 */
+	private static final byte[] NPM_ERROR_PREFIX = "npm ERR! ".getBytes(US_ASCII);
+
+	/**
+	 * The {@code yarn} warn prefix used when warning are displayed by
+	 * yarn script.
+	 */
+	private static final byte[] YARN_WARN_PREFIX = "warning ".getBytes(US_ASCII);
+
+	/**
+	 * The {@code yarn} error prefix used when errors are displayed by
+	 * yarn script.
+	 */
+	private static final byte[] YARN_ERROR_PREFIX = "error ".getBytes(US_ASCII);
+
+	/**
+	 * The {@code webpack} prefix to display a warning.
+	 * For example:
+	 * <ul>
+	 *   <li>{@code "WARNING in webpack performance recommendations:"}</li>
+	 *   <li>{@code "WARNING in entrypoint size limit:"}</li>
+	 * </ul>
+	 */
+	private static final byte[] WARNING_PREFIX = "WARNING ".getBytes(US_ASCII);
+
+	/**
+	 * A deprecation warning displayed when npm detects a deprecated dependency.
+	 */
+	private static final byte[] DEPRECATION_WARNING = "DeprecationWarning: ".getBytes(US_ASCII);
+
+	/**
+	 * Detect the level of given line.
+	 *
+	 * @param line The line.
+	 * @return The level.
+	 */
+	public static OutputLevel of(String line) {
+		byte[] bytes = line.getBytes(US_ASCII);
+		return of(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Detect the level of given line, without decoding it.
+	 *
+	 * @param bytes The buffer containing the line.
+	 * @param offset The offset of the line in the buffer.
+	 * @param length The length of the line.
+	 * @return The level.
+	 */
+	static OutputLevel of(byte[] bytes, int offset, int length) {
+		if (startsWith(bytes, offset, length, NPM_WARN_PREFIX) || startsWith(bytes, offset, length, YARN_WARN_PREFIX)) {
+			return WARN;
+		}
+
+		if (startsWith(bytes, offset, length, WARNING_PREFIX)) {
+			return WARN;
+		}
+
+		if (contains(bytes, offset, length, DEPRECATION_WARNING)) {
+			return WARN;
+		}
+
+		if (startsWith(bytes, offset, length, NPM_ERROR_PREFIX) || startsWith(bytes, offset, length, YARN_ERROR_PREFIX)) {
+			return ERROR;
+		}
+
+		return INFO;
+	}
+
+	private static boolean startsWith(byte[] bytes, int offset, int length, byte[] prefix) {
+		return length >= prefix.length && regionMatches(bytes, offset, prefix);
+	}
+
+	private static boolean contains(byte[] bytes, int offset, int length, byte[] marker) {
+		int last = offset + length - marker.length;
+		byte first = marker[0];
+
+		for (int i = offset; i <= last; ++i) {
+			if (bytes[i] == first && regionMatches(bytes, i, marker)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean regionMatches(byte[] bytes, int offset, byte[] marker) {
+		for (int i = 0; i < marker.length; ++i) {
+			if (bytes[offset + i] != marker[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
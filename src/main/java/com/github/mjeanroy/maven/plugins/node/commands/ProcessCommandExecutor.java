@@ -0,0 +1,200 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Execute command line (i.e instance of {@link Command} object), using a {@link ProcessBuilder}.
+ *
+ * <p>
+ *
+ * Unlike {@link DefaultCommandExecutor}, no thread is started to pump the command output:
+ *
+ * <ul>
+ *   <li>If output does not need to be processed line by line (i.e output is not captured, and the output handler provides a {@link OutputHandler#getRedirect() redirect}), output is redirected by the operating system, and never read by the JVM.</li>
+ *   <li>Otherwise, standard error is merged into standard output, and pumped by the calling thread with a single buffer.</li>
+ * </ul>
+ *
+ * A factory should be used to create new executor, using {@link CommandExecutors} static methods.
+ */
+class ProcessCommandExecutor implements CommandExecutor {
+
+	/**
+	 * The size of the buffer used to pump command output.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The command executor instance.
+	 */
+	private static final ProcessCommandExecutor INSTANCE = new ProcessCommandExecutor();
+
+	/**
+	 * Get the command executor.
+	 *
+	 * @return The command executor.
+	 */
+	static ProcessCommandExecutor getInstance() {
+		return INSTANCE;
+	}
+
+	private ProcessCommandExecutor() {
+	}
+
+	@Override
+	public CommandResult execute(File workingDirectory, Command command, OutputHandler outputHandler, Map<String, String> environment) {
+		List<String> commandLine = new ArrayList<>();
+		commandLine.add(command.getExecutable());
+		commandLine.addAll(command.getArguments());
+
+		ProcessBuilder processBuilder = new ProcessBuilder(commandLine)
+				.directory(workingDirectory)
+				.redirectErrorStream(true);
+
+		if (environment != null) {
+			processBuilder.environment().putAll(environment);
+		}
+
+		Redirect redirect = command.getCapture().getMode() == OutputCapture.Mode.NONE ? outputHandler.getRedirect() : null;
+		if (redirect != null) {
+			processBuilder.redirectOutput(redirect);
+
+			Process process = start(processBuilder);
+			ProcessSampler sampler = ProcessSampler.start(process);
+			try {
+				return new CommandResult(waitFor(process), "", null, sampler.stop());
+			}
+			finally {
+				sampler.stop();
+			}
+		}
+
+		CaptureOutputHandler captureOutputHandler = new CaptureOutputHandler(command.getCapture());
+
+		// Output is logged asynchronously, so that the command is not stalled by a slow (or busy) logger.
+		AsyncOutputHandler asyncOutputHandler = new AsyncOutputHandler(
+				outputHandler,
+				AsyncOutputHandler.DEFAULT_CAPACITY,
+				command.getLogBackpressure()
+		);
+
+		ProcessSampler sampler = null;
+
+		try {
+			Process process = start(processBuilder);
+			sampler = ProcessSampler.start(process);
+
+			LogStreamHandler stream = new LogStreamHandler(new CompositeOutputHandler(asList(
+					asyncOutputHandler,
+					captureOutputHandler
+			)));
+
+			pump(process, stream);
+
+			int status = waitFor(process);
+			captureOutputHandler.close();
+			return new CommandResult(status, captureOutputHandler.getOut(), captureOutputHandler.getOutFile(), sampler.stop());
+		}
+		finally {
+			captureOutputHandler.close();
+
+			// Always stop sampling (even on failure): stopping twice returns the same result.
+			if (sampler != null) {
+				sampler.stop();
+			}
+
+			// Wait for the whole output to be logged before returning.
+			asyncOutputHandler.close();
+		}
+	}
+
+	/**
+	 * Start the process: as with {@link DefaultCommandExecutor}, the process standard input is closed.
+	 *
+	 * @param processBuilder The process builder.
+	 * @return The process.
+	 */
+	private static Process start(ProcessBuilder processBuilder) {
+		try {
+			Process process = processBuilder.start();
+			process.getOutputStream().close();
+			return process;
+		}
+		catch (IOException ex) {
+			throw new CommandException(ex);
+		}
+	}
+
+	/**
+	 * Copy the output of given process, until the process closes it.
+	 *
+	 * @param process The process.
+	 * @param stream The stream processing the output.
+	 */
+	private static void pump(Process process, LogStreamHandler stream) {
+		byte[] buffer = new byte[BUFFER_SIZE];
+
+		try (InputStream input = process.getInputStream()) {
+			int n;
+			while ((n = input.read(buffer)) >= 0) {
+				stream.write(buffer, 0, n);
+			}
+		}
+		catch (IOException ex) {
+			process.destroy();
+			throw new CommandException(ex);
+		}
+		finally {
+			stream.flush();
+		}
+	}
+
+	/**
+	 * Wait for given process to exit: if the current thread is interrupted, the process is destroyed.
+	 *
+	 * @param process The process.
+	 * @return The exit status.
+	 */
+	private static int waitFor(Process process) {
+		try {
+			return process.waitFor();
+		}
+		catch (InterruptedException ex) {
+			process.destroy();
+			Thread.currentThread().interrupt();
+			throw new CommandException(new InterruptedIOException("Interrupted while waiting for command to exit"));
+		}
+	}
+}
@@ -0,0 +1,536 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Sample the resources used by a process, and all its descendants, from {@code /proc}, while it is running.
+ *
+ * <p>
+ *
+ * Each sample reads, for each process of the tree:
+ *
+ * <ul>
+ *   <li>{@code /proc/<pid>/stat}: parent process, CPU times and start time (used to detect pid reuse).</li>
+ *   <li>{@code /proc/<pid>/status}: current and peak resident memory.</li>
+ *   <li>{@code /proc/<pid>/io}: bytes read from, and written to, the storage layer (if readable).</li>
+ * </ul>
+ *
+ * The process tree is read from {@code /proc/<pid>/task/<tid>/children} when available, otherwise each
+ * process of {@code /proc} is scanned to find the children of the sampled processes.
+ *
+ * <p>
+ *
+ * If {@code /proc} is not available, or if the process id cannot be read, only the wall time is measured.
+ */
+final class ProcessSampler {
+
+	/**
+	 * The default interval between two samples, in milliseconds.
+	 */
+	static final long DEFAULT_INTERVAL = 100;
+
+	/**
+	 * The {@code /proc} file system.
+	 */
+	private static final File PROC = new File("/proc");
+
+	/**
+	 * The number of clock ticks per second used in {@code /proc/<pid>/stat} (i.e {@code USER_HZ}, which
+	 * is 100 on every architecture supported by Linux).
+	 */
+	private static final long CLOCK_TICKS = 100;
+
+	/**
+	 * Start sampling given process.
+	 *
+	 * @param process The process.
+	 * @return The sampler, that must be stopped once the process exits.
+	 */
+	static ProcessSampler start(Process process) {
+		ProcessSampler sampler = new ProcessSampler(PROC, pid(process));
+		sampler.start(DEFAULT_INTERVAL);
+		return sampler;
+	}
+
+	/**
+	 * Get the id of given process: {@code Process#pid()} is only available with Java 9, so it is called
+	 * with reflection, and the {@code pid} field of the unix implementation is used with Java 8.
+	 *
+	 * @param process The process.
+	 * @return The process id, {@code -1} if it cannot be read.
+	 */
+	static long pid(Process process) {
+		try {
+			return ((Number) Process.class.getMethod("pid").invoke(process)).longValue();
+		}
+		catch (NoSuchMethodException ex) {
+			return pidField(process);
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Read the {@code pid} field of given process.
+	 *
+	 * @param process The process.
+	 * @return The process id, {@code -1} if it cannot be read.
+	 */
+	private static long pidField(Process process) {
+		try {
+			Field field = process.getClass().getDeclaredField("pid");
+			field.setAccessible(true);
+			return ((Number) field.get(process)).longValue();
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * The {@code /proc} directory.
+	 */
+	private final File proc;
+
+	/**
+	 * The id of the sampled process.
+	 */
+	private final long pid;
+
+	/**
+	 * The start date, in nanoseconds.
+	 */
+	private final long startNanos;
+
+	/**
+	 * The last sample of each process seen since the beginning, indexed by pid and start time.
+	 */
+	private final Map<String, Sample> samples;
+
+	/**
+	 * Released to stop the sampling thread.
+	 */
+	private final CountDownLatch stopped;
+
+	/**
+	 * The sampling thread, {@code null} if sampling is not available.
+	 */
+	private Thread thread;
+
+	/**
+	 * The resource usage, computed once the sampler is stopped.
+	 */
+	private ResourceUsage usage;
+
+	/**
+	 * The maximum resident memory seen so far.
+	 */
+	private long peakRss;
+
+	/**
+	 * Whether the processes children are read from {@code task/<tid>/children} files: set to {@code false}
+	 * as soon as these files are not available.
+	 */
+	private boolean childrenFiles;
+
+	/**
+	 * Create the sampler.
+	 *
+	 * @param proc The {@code /proc} directory.
+	 * @param pid The id of the process to sample, {@code -1} if unknown.
+	 */
+	ProcessSampler(File proc, long pid) {
+		this.proc = proc;
+		this.pid = pid;
+		this.startNanos = System.nanoTime();
+		this.samples = new HashMap<>();
+		this.stopped = new CountDownLatch(1);
+		this.peakRss = ResourceUsage.UNKNOWN;
+		this.childrenFiles = true;
+	}
+
+	/**
+	 * Start the sampling thread, if {@code /proc} is available.
+	 *
+	 * @param interval The interval between two samples, in milliseconds.
+	 */
+	void start(long interval) {
+		if (!isAvailable()) {
+			return;
+		}
+
+		thread = new Thread(() -> run(interval), "node-maven-plugin-sampler");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Check if the process can be sampled.
+	 *
+	 * @return {@code true} if the process can be sampled, {@code false} otherwise.
+	 */
+	private boolean isAvailable() {
+		return pid > 0 && proc.isDirectory();
+	}
+
+	/**
+	 * Sample the process tree until the sampler is stopped.
+	 *
+	 * @param interval The interval between two samples, in milliseconds.
+	 */
+	private void run(long interval) {
+		try {
+			do {
+				sample();
+			} while (!stopped.await(interval, TimeUnit.MILLISECONDS));
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stop sampling, and get the resources used by the process tree: once stopped, next calls return
+	 * the same result.
+	 *
+	 * @return The resource usage.
+	 */
+	ResourceUsage stop() {
+		if (usage != null) {
+			return usage;
+		}
+
+		long wallTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+		stopped.countDown();
+
+		if (thread != null) {
+			try {
+				thread.join();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		usage = usage(wallTime);
+		return usage;
+	}
+
+	/**
+	 * Compute the resource usage from the last samples.
+	 *
+	 * @param wallTime The wall time.
+	 * @return The resource usage.
+	 */
+	synchronized ResourceUsage usage(long wallTime) {
+		if (samples.isEmpty()) {
+			return new ResourceUsage(wallTime, ResourceUsage.UNKNOWN, ResourceUsage.UNKNOWN, ResourceUsage.UNKNOWN, ResourceUsage.UNKNOWN, ResourceUsage.UNKNOWN);
+		}
+
+		long userTicks = 0;
+		long systemTicks = 0;
+		long readBytes = ResourceUsage.UNKNOWN;
+		long writtenBytes = ResourceUsage.UNKNOWN;
+
+		for (Sample sample : samples.values()) {
+			userTicks += sample.userTicks;
+			systemTicks += sample.systemTicks;
+
+			if (sample.readBytes >= 0) {
+				readBytes = Math.max(readBytes, 0) + sample.readBytes;
+				writtenBytes = Math.max(writtenBytes, 0) + sample.writtenBytes;
+			}
+		}
+
+		return new ResourceUsage(
+				wallTime,
+				userTicks * 1000 / CLOCK_TICKS,
+				systemTicks * 1000 / CLOCK_TICKS,
+				peakRss,
+				readBytes,
+				writtenBytes
+		);
+	}
+
+	/**
+	 * Read the current state of each process of the tree: processes that exited since the previous sample
+	 * are simply not found.
+	 */
+	synchronized void sample() {
+		long rss = 0;
+		boolean found = false;
+
+		Map<Long, List<Long>> children = childrenFiles ? null : scanChildren();
+		Deque<Long> queue = new ArrayDeque<>();
+		queue.add(pid);
+
+		while (!queue.isEmpty()) {
+			long current = queue.poll();
+			Sample sample = read(current);
+			if (sample == null) {
+				continue;
+			}
+
+			found = true;
+			samples.put(current + ":" + sample.startTime, sample);
+			rss += sample.rss;
+			peakRss = Math.max(peakRss, sample.peakRss);
+
+			if (childrenFiles) {
+				List<Long> pids = readChildren(current);
+				if (pids == null) {
+					childrenFiles = false;
+					children = scanChildren();
+				} else {
+					queue.addAll(pids);
+				}
+			}
+
+			if (children != null && children.containsKey(current)) {
+				queue.addAll(children.get(current));
+			}
+		}
+
+		if (found) {
+			peakRss = Math.max(peakRss, rss);
+		}
+	}
+
+	/**
+	 * Read the children of given process, from {@code /proc/<pid>/task/<tid>/children} files.
+	 *
+	 * @param pid The process id.
+	 * @return The children ids, {@code null} if these files are not available.
+	 */
+	private List<Long> readChildren(long pid) {
+		String[] tasks = new File(new File(proc, Long.toString(pid)), "task").list();
+		if (tasks == null) {
+			// The process exited.
+			return new ArrayList<>();
+		}
+
+		List<Long> children = new ArrayList<>();
+		for (String task : tasks) {
+			File file = new File(new File(new File(new File(proc, Long.toString(pid)), "task"), task), "children");
+			if (!file.exists()) {
+				return null;
+			}
+
+			String content = readFile(file);
+			if (content != null) {
+				for (String child : content.trim().split("\\s+")) {
+					if (!child.isEmpty()) {
+						children.add(Long.parseLong(child));
+					}
+				}
+			}
+		}
+
+		return children;
+	}
+
+	/**
+	 * Scan all processes to build the children of each process.
+	 *
+	 * @return The children ids, indexed by parent id.
+	 */
+	private Map<Long, List<Long>> scanChildren() {
+		Map<Long, List<Long>> children = new HashMap<>();
+		String[] entries = proc.list();
+		if (entries == null) {
+			return children;
+		}
+
+		for (String entry : entries) {
+			if (!isNumber(entry)) {
+				continue;
+			}
+
+			String[] stat = readStat(Long.parseLong(entry));
+			if (stat != null && isNumber(stat[1])) {
+				children.computeIfAbsent(Long.parseLong(stat[1]), k -> new ArrayList<>()).add(Long.parseLong(entry));
+			}
+		}
+
+		return children;
+	}
+
+	/**
+	 * Read the current state of given process.
+	 *
+	 * @param pid The process id.
+	 * @return The state, {@code null} if the process does not exist anymore.
+	 */
+	private Sample read(long pid) {
+		String[] stat = readStat(pid);
+		if (stat == null) {
+			return null;
+		}
+
+		File dir = new File(proc, Long.toString(pid));
+		String status = readFile(new File(dir, "status"));
+		String io = readFile(new File(dir, "io"));
+
+		try {
+			return new Sample(
+					Long.parseLong(stat[19]),
+					Long.parseLong(stat[11]),
+					Long.parseLong(stat[12]),
+					kiloBytes(field(status, "VmRSS:")),
+					kiloBytes(field(status, "VmHWM:")),
+					field(io, "read_bytes:"),
+					field(io, "write_bytes:")
+			);
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Read the fields of {@code /proc/<pid>/stat}, following the command name: the first returned field
+	 * is the process state (i.e the third field of the file).
+	 *
+	 * @param pid The process id.
+	 * @return The fields, {@code null} if the process does not exist anymore.
+	 */
+	private String[] readStat(long pid) {
+		String stat = readFile(new File(new File(proc, Long.toString(pid)), "stat"));
+		if (stat == null) {
+			return null;
+		}
+
+		// The command name may contain spaces, or parenthesis: it ends with the last parenthesis.
+		int end = stat.lastIndexOf(')');
+		String[] fields = stat.substring(end + 2).trim().split(" ");
+		return fields.length > 19 ? fields : null;
+	}
+
+	/**
+	 * Read the value of given field, in a {@code key: value} file, such as {@code /proc/<pid>/status}.
+	 *
+	 * @param content The file content.
+	 * @param name The field name, including the colon.
+	 * @return The value, {@link ResourceUsage#UNKNOWN} if not found.
+	 */
+	private static long field(String content, String name) {
+		if (content == null) {
+			return ResourceUsage.UNKNOWN;
+		}
+
+		int start = content.indexOf(name);
+		if (start < 0) {
+			return ResourceUsage.UNKNOWN;
+		}
+
+		int end = content.indexOf('\n', start);
+		String value = content.substring(start + name.length(), end < 0 ? content.length() : end).trim();
+
+		// Memory values are suffixed with their unit, always kB.
+		int space = value.indexOf(' ');
+		return Long.parseLong(space < 0 ? value : value.substring(0, space));
+	}
+
+	/**
+	 * Convert given number of kilobytes to bytes.
+	 *
+	 * @param value The number of kilobytes.
+	 * @return The number of bytes, {@link ResourceUsage#UNKNOWN} if the value is unknown.
+	 */
+	private static long kiloBytes(long value) {
+		return value < 0 ? ResourceUsage.UNKNOWN : value * 1024;
+	}
+
+	/**
+	 * Read given file.
+	 *
+	 * @param file The file.
+	 * @return The content, {@code null} if the file cannot be read (for example, if the process exited).
+	 */
+	private static String readFile(File file) {
+		try {
+			return new String(Files.readAllBytes(file.toPath()), US_ASCII);
+		}
+		catch (IOException | SecurityException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Check if given directory name is a process id.
+	 *
+	 * @param name The name.
+	 * @return {@code true} if it is a number, {@code false} otherwise.
+	 */
+	private static boolean isNumber(String name) {
+		for (int i = 0; i < name.length(); ++i) {
+			if (!Character.isDigit(name.charAt(i))) {
+				return false;
+			}
+		}
+
+		return !name.isEmpty();
+	}
+
+	/**
+	 * The state of a process.
+	 */
+	private static final class Sample {
+		private final long startTime;
+		private final long userTicks;
+		private final long systemTicks;
+		private final long rss;
+		private final long peakRss;
+		private final long readBytes;
+		private final long writtenBytes;
+
+		private Sample(long startTime, long userTicks, long systemTicks, long rss, long peakRss, long readBytes, long writtenBytes) {
+			this.startTime = startTime;
+			this.userTicks = userTicks;
+			this.systemTicks = systemTicks;
+			this.rss = Math.max(rss, 0);
+			this.peakRss = peakRss;
+			this.readBytes = readBytes;
+			this.writtenBytes = writtenBytes;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import com.github.mjeanroy.maven.plugins.node.commons.lang.ToStringBuilder;
+
+import java.util.Objects;
+
+/**
+ * Resources used by a command, including all the processes it spawned (for example, the node process
+ * started by npm).
+ *
+ * <p>
+ *
+ * Wall time is always available, other values are sampled from {@code /proc} while the command is
+ * running, and are equal to {@link #UNKNOWN} if they cannot be read (for example, on an operating
+ * system without {@code /proc}):
+ *
+ * <ul>
+ *   <li>CPU times are the sum of the CPU times of each process, as seen in the last sample before it exited.</li>
+ *   <li>Peak RSS is the maximum resident memory used by the whole process tree at once.</li>
+ *   <li>Read and written bytes are the bytes fetched from, and sent to, the storage layer.</li>
+ * </ul>
+ *
+ * Since values are sampled, a process living shorter than the sampling interval may not be accounted.
+ *
+ * <p>
+ *
+ * This class is immutable and, consequently, thread safe.
+ */
+public final class ResourceUsage {
+
+	/**
+	 * The value of a metric that cannot be read.
+	 */
+	public static final long UNKNOWN = -1;
+
+	/**
+	 * The elapsed time, in milliseconds.
+	 */
+	private final long wallTime;
+
+	/**
+	 * The CPU time spent in user mode, in milliseconds.
+	 */
+	private final long userTime;
+
+	/**
+	 * The CPU time spent in kernel mode, in milliseconds.
+	 */
+	private final long systemTime;
+
+	/**
+	 * The peak resident memory, in bytes.
+	 */
+	private final long peakRss;
+
+	/**
+	 * The number of bytes read from the storage layer.
+	 */
+	private final long readBytes;
+
+	/**
+	 * The number of bytes written to the storage layer.
+	 */
+	private final long writtenBytes;
+
+	/**
+	 * Create resource usage.
+	 *
+	 * @param wallTime The elapsed time, in milliseconds.
+	 * @param userTime The CPU time spent in user mode, in milliseconds.
+	 * @param systemTime The CPU time spent in kernel mode, in milliseconds.
+	 * @param peakRss The peak resident memory, in bytes.
+	 * @param readBytes The number of bytes read from the storage layer.
+	 * @param writtenBytes The number of bytes written to the storage layer.
+	 */
+	public ResourceUsage(long wallTime, long userTime, long systemTime, long peakRss, long readBytes, long writtenBytes) {
+		this.wallTime = wallTime;
+		this.userTime = userTime;
+		this.systemTime = systemTime;
+		this.peakRss = peakRss;
+		this.readBytes = readBytes;
+		this.writtenBytes = writtenBytes;
+	}
+
+	/**
+	 * Get {@link #wallTime}
+	 *
+	 * @return {@link #wallTime}
+	 */
+	public long getWallTime() {
+		return wallTime;
+	}
+
+	/**
+	 * Get {@link #userTime}
+	 *
+	 * @return {@link #userTime}
+	 */
+	public long getUserTime() {
+		return userTime;
+	}
+
+	/**
+	 * Get {@link #systemTime}
+	 *
+	 * @return {@link #systemTime}
+	 */
+	public long getSystemTime() {
+		return systemTime;
+	}
+
+	/**
+	 * Get {@link #peakRss}
+	 *
+	 * @return {@link #peakRss}
+	 */
+	public long getPeakRss() {
+		return peakRss;
+	}
+
+	/**
+	 * Get {@link #readBytes}
+	 *
+	 * @return {@link #readBytes}
+	 */
+	public long getReadBytes() {
+		return readBytes;
+	}
+
+	/**
+	 * Get {@link #writtenBytes}
+	 *
+	 * @return {@link #writtenBytes}
+	 */
+	public long getWrittenBytes() {
+		return writtenBytes;
+	}
+
+	/**
+	 * Get the resources used by this command, followed by given command: times and bytes are added, and
+	 * the peak memory is the maximum of both peaks.
+	 *
+	 * @param next The resources used by the next command.
+	 * @return The resources used by both commands.
+	 */
+	public ResourceUsage plus(ResourceUsage next) {
+		return new ResourceUsage(
+				sum(wallTime, next.wallTime),
+				sum(userTime, next.userTime),
+				sum(systemTime, next.systemTime),
+				Math.max(peakRss, next.peakRss),
+				sum(readBytes, next.readBytes),
+				sum(writtenBytes, next.writtenBytes)
+		);
+	}
+
+	/**
+	 * Add given values, ignoring unknown values.
+	 *
+	 * @param v1 First value.
+	 * @param v2 Second value.
+	 * @return The sum, {@link #UNKNOWN} if both values are unknown.
+	 */
+	private static long sum(long v1, long v2) {
+		if (v1 == UNKNOWN) {
+			return v2;
+		}
+
+		if (v2 == UNKNOWN) {
+			return v1;
+		}
+
+		return v1 + v2;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof ResourceUsage) {
+			ResourceUsage u = (ResourceUsage) o;
+			return Objects.equals(wallTime, u.wallTime)
+					&& Objects.equals(userTime, u.userTime)
+					&& Objects.equals(systemTime, u.systemTime)
+					&& Objects.equals(peakRss, u.peakRss)
+					&& Objects.equals(readBytes, u.readBytes)
+					&& Objects.equals(writtenBytes, u.writtenBytes);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(wallTime, userTime, systemTime, peakRss, readBytes, writtenBytes);
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.builder(getClass())
+				.append("wallTime", wallTime)
+				.append("userTime", userTime)
+				.append("systemTime", systemTime)
+				.append("peakRss", peakRss)
+				.append("readBytes", readBytes)
+				.append("writtenBytes", writtenBytes)
+				.build();
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+/**
+ * Table-driven implementation of the CRC-32C (Castagnoli) checksum.
+ *
+ * <p>
+ *
+ * This implementation is only used as a fallback when {@code java.util.zip.CRC32C} (hardware-accelerated
+ * on most platforms, available since Java 9) is not available: both implementations compute the same values.
+ *
+ * <p>
+ *
+ * This class is not thread-safe.
+ */
+final class Crc32c implements Checksum {
+
+	/**
+	 * The CRC-32C polynomial, in reversed bit order.
+	 */
+	private static final int POLYNOMIAL = 0x82F63B78;
+
+	/**
+	 * The lookup table.
+	 */
+	private static final int[] TABLE = new int[256];
+
+	static {
+		for (int i = 0; i < TABLE.length; ++i) {
+			int crc = i;
+			for (int j = 0; j < 8; ++j) {
+				crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+			}
+
+			TABLE[i] = crc;
+		}
+	}
+
+	/**
+	 * The current (inverted) value.
+	 */
+	private int crc;
+
+	Crc32c() {
+		reset();
+	}
+
+	@Override
+	public void update(int b) {
+		crc = (crc >>> 8) ^ TABLE[(crc ^ b) & 0xFF];
+	}
+
+	@Override
+	public void update(byte[] b, int off, int len) {
+		int value = crc;
+		for (int i = off, end = off + len; i < end; ++i) {
+			value = (value >>> 8) ^ TABLE[(value ^ b[i]) & 0xFF];
+		}
+
+		crc = value;
+	}
+
+	/**
+	 * Update the current checksum with the remaining bytes of given buffer.
+	 *
+	 * @param buffer The buffer, fully consumed after this call.
+	 */
+	public void update(ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			buffer.position(buffer.limit());
+			return;
+		}
+
+		int value = crc;
+		while (buffer.hasRemaining()) {
+			value = (value >>> 8) ^ TABLE[(value ^ buffer.get()) & 0xFF];
+		}
+
+		crc = value;
+	}
+
+	@Override
+	public long getValue() {
+		return (~crc) & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public void reset() {
+		crc = 0xFFFFFFFF;
+	}
+}
@@ -0,0 +1,578 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watch a directory tree, and keep track of modified paths for each subscriber.
+ *
+ * <p>
+ *
+ * A watcher is created once per directory and kept alive across builds, so that it can be re-used by next builds
+ * executed in a long-lived maven daemon: watchers that have not been used since the previous call to
+ * {@link #releaseUnused()} (i.e, during the last build) are closed by this method. Each subscriber has its own set of modified paths, and is
+ * considered "warm" only if no event may have been lost since it has been marked as clean:
+ *
+ * <ul>
+ *   <li>The watcher overflowed (some events have been lost).</li>
+ *   <li>The subscriber has not been marked as clean since its changes have been polled (for example, because the command failed).</li>
+ *   <li>The subscriber fingerprint changed (for example, because the state has been updated by another process).</li>
+ * </ul>
+ *
+ * Before returning modified paths, a sentinel file is created and the watcher waits for the corresponding event: since
+ * events are delivered in order, all modifications made before polling have been processed at this point.
+ *
+ * <p>
+ *
+ * Watching is not supported on platforms where the watch service polls the file system (such as macOS): events
+ * are only delivered after several seconds, so waiting for them would be slower than scanning the directory.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+public final class DirectoryWatcher {
+
+	/**
+	 * Watchers, indexed by watched directory.
+	 */
+	private static final ConcurrentMap<Path, DirectoryWatcher> WATCHERS = new ConcurrentHashMap<>();
+
+	/**
+	 * The prefix of sentinel files.
+	 */
+	private static final String SENTINEL_PREFIX = "sync-";
+
+	/**
+	 * The implementation of the watch service polling the file system, used when the platform does not provide
+	 * native file system events.
+	 */
+	private static final String POLLING_WATCH_SERVICE = "sun.nio.fs.PollingWatchService";
+
+	/**
+	 * Whether the watch service of the platform polls the file system, detected when the first watcher is started.
+	 */
+	private static volatile boolean polling = false;
+
+	/**
+	 * Get the watcher of given directory, start it if it is not already running.
+	 *
+	 * @param root The directory to watch.
+	 * @param ignored Patterns (relative to the directory) of ignored paths: directories whose content is entirely ignored are not watched.
+	 * @return The watcher.
+	 * @throws FileAccessException If the watcher cannot be started, or if the platform does not provide native file system events.
+	 */
+	public static DirectoryWatcher watch(File root, Collection<String> ignored) {
+		if (polling) {
+			throw pollingNotSupported();
+		}
+
+		Path path = root.toPath().toAbsolutePath().normalize();
+		DirectoryWatcher watcher = WATCHERS.computeIfAbsent(path, p -> start(p, ignored));
+		watcher.used = true;
+		return watcher;
+	}
+
+	/**
+	 * Close watchers that have not been used since the previous call, typically at the end of each build, so that
+	 * a long-lived JVM does not keep watching directories that are not built anymore.
+	 */
+	public static void releaseUnused() {
+		for (Iterator<DirectoryWatcher> it = WATCHERS.values().iterator(); it.hasNext();) {
+			DirectoryWatcher watcher = it.next();
+			if (watcher.used) {
+				watcher.used = false;
+			} else {
+				it.remove();
+				watcher.close();
+			}
+		}
+	}
+
+	/**
+	 * Create the error thrown when the watch service of the platform polls the file system.
+	 *
+	 * @return The error.
+	 */
+	private static FileAccessException pollingNotSupported() {
+		return new FileAccessException("File system events are polled on this platform, watching is disabled");
+	}
+
+	/**
+	 * Start watching given directory.
+	 *
+	 * @param root The directory to watch.
+	 * @param ignored Patterns of ignored paths.
+	 * @return The watcher.
+	 */
+	private static DirectoryWatcher start(Path root, Collection<String> ignored) {
+		DirectoryWatcher watcher;
+		try {
+			watcher = new DirectoryWatcher(root, ignored);
+		}
+		catch (IOException ex) {
+			throw new FileAccessException(ex);
+		}
+
+		if (POLLING_WATCH_SERVICE.equals(watcher.watchService.getClass().getName())) {
+			polling = true;
+			watcher.close();
+			throw pollingNotSupported();
+		}
+
+		try {
+			watcher.start();
+			return watcher;
+		}
+		catch (IOException ex) {
+			watcher.close();
+			throw new FileAccessException(ex);
+		}
+	}
+
+	/**
+	 * The watched directory.
+	 */
+	private final Path root;
+
+	/**
+	 * The patterns of ignored paths.
+	 */
+	private final List<GlobPattern> ignored;
+
+	/**
+	 * The watch service.
+	 */
+	private final WatchService watchService;
+
+	/**
+	 * The directory containing sentinel files.
+	 */
+	private final Path sentinelDirectory;
+
+	/**
+	 * The subscribers, indexed by identifier.
+	 */
+	private final ConcurrentMap<String, Subscriber> subscribers;
+
+	/**
+	 * The number of overflows that occurred since the watcher has been started.
+	 */
+	private final AtomicLong overflows;
+
+	/**
+	 * The last sentinel file that has been created.
+	 */
+	private final AtomicLong sentinels;
+
+	/**
+	 * The last sentinel file whose creation has been observed, guarded by {@code this}.
+	 */
+	private long observedSentinel;
+
+	/**
+	 * Whether the watcher has been used since the previous call to {@link #releaseUnused()}.
+	 */
+	private volatile boolean used;
+
+	/**
+	 * Create watcher.
+	 *
+	 * @param root The directory to watch.
+	 * @param ignored Patterns of ignored paths.
+	 * @throws IOException If the watch service cannot be created.
+	 */
+	private DirectoryWatcher(Path root, Collection<String> ignored) throws IOException {
+		this.root = root;
+		this.ignored = new ArrayList<>(ignored.size());
+		for (String pattern : ignored) {
+			this.ignored.add(GlobPattern.compile(pattern));
+		}
+
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.sentinelDirectory = java.nio.file.Files.createTempDirectory("node-maven-plugin-watch");
+		this.subscribers = new ConcurrentHashMap<>();
+		this.overflows = new AtomicLong(0);
+		this.sentinels = new AtomicLong(0);
+		this.observedSentinel = 0;
+	}
+
+	/**
+	 * Register the whole directory tree and start the background thread processing events.
+	 *
+	 * @throws IOException If a directory cannot be registered.
+	 */
+	private void start() throws IOException {
+		sentinelDirectory.toFile().deleteOnExit();
+		sentinelDirectory.register(watchService, ENTRY_CREATE);
+		register(root, null);
+
+		Thread thread = new Thread(this::run, "node-maven-plugin-watcher-" + root.getFileName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stop watching: the background thread is stopped, and next polls return {@code null}.
+	 */
+	private void close() {
+		try {
+			watchService.close();
+		}
+		catch (IOException ex) {
+			// Nothing more can be done.
+		}
+
+		sentinelDirectory.toFile().delete();
+	}
+
+	/**
+	 * Poll paths that have been modified since the previous poll for given subscriber, and reset them.
+	 * A subscriber is automatically created the first time it polls, and starts recording modified paths.
+	 *
+	 * <p>
+	 *
+	 * Once polled, the subscriber is not warm anymore until it is marked as clean, see {@link #markClean(String, String)}.
+	 *
+	 * @param id The subscriber identifier.
+	 * @param fingerprint The subscriber fingerprint, must be equal to the fingerprint given when subscriber has been marked as clean.
+	 * @param timeoutMillis Maximum time to wait for pending events to be processed, in milliseconds.
+	 * @return Modified paths (relative to the watched directory, using {@code '/'} as separator), or {@code null} if the subscriber is not warm.
+	 */
+	public Set<String> pollChanges(String id, String fingerprint, long timeoutMillis) {
+		Subscriber subscriber = subscribers.computeIfAbsent(id, key -> new Subscriber());
+
+		boolean warm = subscriber.warm && Objects.equals(subscriber.fingerprint, fingerprint);
+		long overflowsBefore = subscriber.overflows;
+
+		subscriber.warm = false;
+		subscriber.overflows = overflows.get();
+
+		// Modified paths are reset even if the subscriber is not warm: the caller is expected to scan the whole
+		// directory in this case, so only modifications made from now on are relevant.
+		boolean synced = warm && sync(timeoutMillis);
+
+		Set<String> changes = new HashSet<>();
+		for (Iterator<String> it = subscriber.dirty.iterator(); it.hasNext();) {
+			changes.add(it.next());
+			it.remove();
+		}
+
+		return synced && overflowsBefore == overflows.get() ? changes : null;
+	}
+
+	/**
+	 * Mark given subscriber as clean: next poll will return paths modified since the previous poll, unless some
+	 * events have been lost in the meantime.
+	 *
+	 * @param id The subscriber identifier.
+	 * @param fingerprint The subscriber fingerprint.
+	 */
+	public void markClean(String id, String fingerprint) {
+		Subscriber subscriber = subscribers.get(id);
+		if (subscriber != null) {
+			subscriber.fingerprint = fingerprint;
+			subscriber.warm = subscriber.overflows == overflows.get();
+		}
+	}
+
+	/**
+	 * Wait for all events that occurred before this call to be processed.
+	 *
+	 * @param timeoutMillis Maximum time to wait, in milliseconds.
+	 * @return {@code true} if all events have been processed, {@code false} otherwise.
+	 */
+	private boolean sync(long timeoutMillis) {
+		long sentinel = sentinels.incrementAndGet();
+		Path sentinelFile = sentinelDirectory.resolve(SENTINEL_PREFIX + sentinel);
+
+		try {
+			java.nio.file.Files.createFile(sentinelFile);
+
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+			synchronized (this) {
+				while (observedSentinel < sentinel) {
+					long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+					if (remaining <= 0) {
+						return false;
+					}
+
+					wait(remaining);
+				}
+			}
+
+			return true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+		finally {
+			sentinelFile.toFile().delete();
+		}
+	}
+
+	/**
+	 * Process events until the watch service is closed.
+	 */
+	private void run() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				long sentinel = process(key);
+
+				// Keys that have been signalled before the sentinel event must be processed before notifying waiting threads.
+				if (sentinel > 0) {
+					WatchKey pendingKey;
+					while ((pendingKey = watchService.poll()) != null) {
+						sentinel = Math.max(sentinel, process(pendingKey));
+					}
+
+					synchronized (this) {
+						observedSentinel = Math.max(observedSentinel, sentinel);
+						notifyAll();
+					}
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ClosedWatchServiceException ex) {
+			// Watcher has been closed, stop now.
+		}
+	}
+
+	/**
+	 * Process events of given key.
+	 *
+	 * @param key The watch key.
+	 * @return The last sentinel that has been observed, zero if key does not contain any sentinel event.
+	 */
+	private long process(WatchKey key) {
+		Path directory = (Path) key.watchable();
+		boolean isSentinel = directory.equals(sentinelDirectory);
+		long sentinel = 0;
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW) {
+				overflows.incrementAndGet();
+				continue;
+			}
+
+			Path path = directory.resolve((Path) event.context());
+
+			if (isSentinel) {
+				String name = path.getFileName().toString();
+				if (name.startsWith(SENTINEL_PREFIX)) {
+					sentinel = Math.max(sentinel, Long.parseLong(name.substring(SENTINEL_PREFIX.length())));
+				}
+
+				continue;
+			}
+
+			String relativePath = relativize(path);
+			if (isIgnored(relativePath)) {
+				continue;
+			}
+
+			if (event.kind() == ENTRY_CREATE && java.nio.file.Files.isDirectory(path)) {
+				// Files may have been created before the directory is registered: they are all considered as modified.
+				try {
+					register(path, this::markDirty);
+				}
+				catch (IOException ex) {
+					overflows.incrementAndGet();
+				}
+			}
+
+			markDirty(relativePath);
+		}
+
+		key.reset();
+		return sentinel;
+	}
+
+	/**
+	 * Register given directory, and all its sub-directories, unless they are ignored.
+	 *
+	 * @param directory The directory.
+	 * @param onFile Callback called with each file found in the directory tree, may be {@code null}.
+	 * @throws IOException If a directory cannot be registered.
+	 */
+	private void register(Path directory, FileCallback onFile) throws IOException {
+		java.nio.file.Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (!dir.equals(root) && isIgnoredTree(relativize(dir))) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+
+				dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (onFile != null) {
+					onFile.accept(relativize(file));
+				}
+
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exc) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Mark given path as modified for all subscribers.
+	 *
+	 * @param relativePath The relative path.
+	 */
+	private void markDirty(String relativePath) {
+		for (Subscriber subscriber : subscribers.values()) {
+			subscriber.dirty.add(relativePath);
+		}
+	}
+
+	/**
+	 * Check if given path is ignored.
+	 *
+	 * @param relativePath The relative path.
+	 * @return {@code true} if the path is ignored, {@code false} otherwise.
+	 */
+	private boolean isIgnored(String relativePath) {
+		for (GlobPattern pattern : ignored) {
+			if (pattern.matches(relativePath) || pattern.matchesWholeTree(relativePath)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if the whole content of given directory is ignored.
+	 *
+	 * @param relativePath The relative directory path.
+	 * @return {@code true} if the directory is ignored, {@code false} otherwise.
+	 */
+	private boolean isIgnoredTree(String relativePath) {
+		for (GlobPattern pattern : ignored) {
+			if (pattern.matchesWholeTree(relativePath)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Get the path of given file, relative to the watched directory, using {@code '/'} as separator.
+	 *
+	 * @param path The file.
+	 * @return The relative path.
+	 */
+	private String relativize(Path path) {
+		return root.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * Callback called with files found when a directory is registered.
+	 */
+	private interface FileCallback {
+
+		/**
+		 * Called with a relative file path.
+		 *
+		 * @param relativePath The relative path.
+		 */
+		void accept(String relativePath);
+	}
+
+	/**
+	 * A subscriber, tracking its own set of modified paths.
+	 */
+	private static final class Subscriber {
+
+		/**
+		 * Paths modified since the last poll.
+		 */
+		private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+		/**
+		 * Whether the subscriber has been marked as clean since the last poll.
+		 */
+		private volatile boolean warm;
+
+		/**
+		 * The fingerprint given when the subscriber has been marked as clean.
+		 */
+		private volatile String fingerprint;
+
+		/**
+		 * The number of watcher overflows when the subscriber has been polled.
+		 */
+		private volatile long overflows;
+	}
+}
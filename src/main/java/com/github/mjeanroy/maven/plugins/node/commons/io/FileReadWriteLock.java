@@ -0,0 +1,385 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+
+/**
+ * A {@link ReadWriteLock} shared by all the processes working on the same lock file.
+ *
+ * <p>
+ *
+ * Each lock first acquires the lock of the current JVM, then a {@link FileChannel#lock(long, long, boolean) file lock}
+ * on the lock file: the read lock acquires a shared file lock, and the write lock an exclusive one.
+ *
+ * <p>
+ *
+ * A file lock is held by the whole JVM, and acquiring it twice fails with an
+ * {@link java.nio.channels.OverlappingFileLockException}: the file lock is therefore reference counted, the first
+ * thread acquiring it locks the file, and the last one releasing it unlocks the file. Since the JVM lock may allow
+ * several writers (for example, with {@link PathLockManager path locks}), the threads of this JVM also acquire an
+ * internal read/write lock of the lock file, so that a shared file lock is never requested while an exclusive one is
+ * held (and vice versa).
+ *
+ * <p>
+ *
+ * Conditions are not supported.
+ */
+public final class FileReadWriteLock implements ReadWriteLock {
+
+	/**
+	 * The state of the lock files, indexed by their absolute path.
+	 */
+	private static final Map<String, LockFile> files = new HashMap<>();
+
+	/**
+	 * Delay between two attempts to lock the file when a timeout is given.
+	 */
+	private static final long POLL_INTERVAL_MS = 10;
+
+	/**
+	 * The read lock.
+	 */
+	private final Lock readLock;
+
+	/**
+	 * The write lock.
+	 */
+	private final Lock writeLock;
+
+	/**
+	 * Create the lock.
+	 *
+	 * @param lock The JVM lock.
+	 * @param file The lock file, created if it does not exist.
+	 */
+	public FileReadWriteLock(ReadWriteLock lock, File file) {
+		notNull(lock, "Lock must not be null");
+		notNull(file, "Lock file must not be null");
+
+		LockFile lockFile = lockFile(file);
+		this.readLock = new FileBackedLock(lock.readLock(), lockFile, true);
+		this.writeLock = new FileBackedLock(lock.writeLock(), lockFile, false);
+	}
+
+	/**
+	 * Create the lock of a sub-scope of a parent lock file: both locks first acquire a shared lock on the parent
+	 * lock file, then a lock on their own lock file, so that they only conflict with the locks of the same lock
+	 * file, and with the write lock of the parent lock file.
+	 *
+	 * @param lock The JVM lock.
+	 * @param file The lock file, created if it does not exist.
+	 * @param parent The parent lock file, created if it does not exist.
+	 */
+	public FileReadWriteLock(ReadWriteLock lock, File file, File parent) {
+		notNull(lock, "Lock must not be null");
+		notNull(file, "Lock file must not be null");
+		notNull(parent, "Parent lock file must not be null");
+
+		LockFile lockFile = lockFile(file);
+		LockFile parentFile = lockFile(parent);
+		this.readLock = new FileBackedLock(new FileBackedLock(lock.readLock(), parentFile, true), lockFile, true);
+		this.writeLock = new FileBackedLock(new FileBackedLock(lock.writeLock(), parentFile, true), lockFile, false);
+	}
+
+	@Override
+	public Lock readLock() {
+		return readLock;
+	}
+
+	@Override
+	public Lock writeLock() {
+		return writeLock;
+	}
+
+	private static LockFile lockFile(File file) {
+		String path = Files.getNormalizeAbsolutePath(file);
+		synchronized (files) {
+			LockFile lockFile = files.get(path);
+			if (lockFile == null) {
+				lockFile = new LockFile(file);
+				files.put(path, lockFile);
+			}
+
+			return lockFile;
+		}
+	}
+
+	/**
+	 * A lock acquiring the JVM lock, then the file lock.
+	 */
+	private static final class FileBackedLock implements Lock {
+		private final Lock lock;
+		private final LockFile file;
+		private final boolean shared;
+
+		private FileBackedLock(Lock lock, LockFile file, boolean shared) {
+			this.lock = lock;
+			this.file = file;
+			this.shared = shared;
+		}
+
+		@Override
+		public void lock() {
+			lock.lock();
+			acquire();
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			lock.lockInterruptibly();
+			acquire();
+		}
+
+		@Override
+		public boolean tryLock() {
+			return lock.tryLock() && tryAcquire();
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+			long deadline = System.nanoTime() + unit.toNanos(time);
+			if (!lock.tryLock(time, unit)) {
+				return false;
+			}
+
+			// The JVM lock is kept while polling the file, so that the other threads of this JVM do not compete for it.
+			boolean acquired = false;
+			try {
+				while (!(acquired = file.tryAcquire(shared))) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						return false;
+					}
+
+					TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MS)));
+				}
+
+				return true;
+			}
+			finally {
+				if (!acquired) {
+					lock.unlock();
+				}
+			}
+		}
+
+		@Override
+		public void unlock() {
+			try {
+				file.release(shared);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Condition newCondition() {
+			throw new UnsupportedOperationException("Conditions are not supported by file locks");
+		}
+
+		private void acquire() {
+			try {
+				file.acquire(shared);
+			}
+			catch (RuntimeException ex) {
+				lock.unlock();
+				throw ex;
+			}
+		}
+
+		private boolean tryAcquire() {
+			boolean acquired = false;
+			try {
+				acquired = file.tryAcquire(shared);
+				return acquired;
+			}
+			finally {
+				if (!acquired) {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The reference counted file lock of a lock file.
+	 */
+	private static final class LockFile {
+		private final File file;
+		private final ReentrantReadWriteLock modes;
+		private int holders;
+		private FileChannel channel;
+		private FileLock fileLock;
+
+		private LockFile(File file) {
+			this.file = file;
+			this.modes = new ReentrantReadWriteLock(true);
+		}
+
+		void acquire(boolean shared) {
+			Lock mode = mode(shared);
+			mode.lock();
+			try {
+				lockFile(shared);
+			}
+			catch (RuntimeException ex) {
+				mode.unlock();
+				throw ex;
+			}
+		}
+
+		boolean tryAcquire(boolean shared) {
+			Lock mode = mode(shared);
+			if (!mode.tryLock()) {
+				return false;
+			}
+
+			boolean acquired = false;
+			try {
+				acquired = tryLockFile(shared);
+				return acquired;
+			}
+			finally {
+				if (!acquired) {
+					mode.unlock();
+				}
+			}
+		}
+
+		void release(boolean shared) {
+			try {
+				unlockFile();
+			}
+			finally {
+				mode(shared).unlock();
+			}
+		}
+
+		private Lock mode(boolean shared) {
+			return shared ? modes.readLock() : modes.writeLock();
+		}
+
+		private synchronized void lockFile(boolean shared) {
+			if (holders == 0) {
+				FileChannel channel = open();
+				try {
+					fileLock = channel.lock(0, Long.MAX_VALUE, shared);
+				}
+				catch (IOException ex) {
+					closeQuietly(channel);
+					throw new FileAccessException(ex);
+				}
+
+				this.channel = channel;
+			}
+
+			holders++;
+		}
+
+		private synchronized boolean tryLockFile(boolean shared) {
+			if (holders == 0) {
+				FileChannel channel = open();
+				try {
+					fileLock = channel.tryLock(0, Long.MAX_VALUE, shared);
+				}
+				catch (IOException ex) {
+					closeQuietly(channel);
+					throw new FileAccessException(ex);
+				}
+
+				if (fileLock == null) {
+					closeQuietly(channel);
+					return false;
+				}
+
+				this.channel = channel;
+			}
+
+			holders++;
+			return true;
+		}
+
+		private synchronized void unlockFile() {
+			if (holders == 0) {
+				throw new IllegalMonitorStateException("Lock file " + file + " is not locked");
+			}
+
+			holders--;
+			if (holders == 0) {
+				try {
+					fileLock.release();
+				}
+				catch (IOException ex) {
+					throw new FileAccessException(ex);
+				}
+				finally {
+					closeQuietly(channel);
+					fileLock = null;
+					channel = null;
+				}
+			}
+		}
+
+		private FileChannel open() {
+			try {
+				File parent = file.getParentFile();
+				if (parent != null) {
+					java.nio.file.Files.createDirectories(parent.toPath());
+				}
+
+				return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			catch (IOException ex) {
+				throw new FileAccessException(ex);
+			}
+		}
+
+		private static void closeQuietly(FileChannel channel) {
+			try {
+				channel.close();
+			}
+			catch (IOException ex) {
+				// Closing the channel releases the lock anyway, nothing more can be done.
+			}
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Scan files of a base directory matching ant-style include patterns, and not matching any exclude patterns.
+ *
+ * <p>
+ *
+ * Patterns are compiled once and the directory tree is walked once: directories whose content is entirely excluded
+ * (such as {@code **}{@code /node_modules/**}) or that cannot contain any included file are never visited, and
+ * file attributes are read during the walk.
+ *
+ * <p>
+ *
+ * This class is immutable and, consequently, thread safe.
+ */
+public final class FileScanner {
+
+	/**
+	 * The base directory.
+	 */
+	private final File baseDir;
+
+	/**
+	 * The include patterns.
+	 */
+	private final List<GlobPattern> includes;
+
+	/**
+	 * The exclude patterns.
+	 */
+	private final List<GlobPattern> excludes;
+
+	/**
+	 * Create scanner.
+	 *
+	 * @param baseDir The base directory.
+	 * @param includes The include patterns, relative to the base directory.
+	 * @param excludes The exclude patterns, relative to the base directory.
+	 */
+	public FileScanner(File baseDir, Collection<String> includes, Collection<String> excludes) {
+		this.baseDir = baseDir;
+		this.includes = compile(includes);
+		this.excludes = compile(excludes);
+	}
+
+	/**
+	 * Scan base directory: symbolic links are followed, and unreadable files or directories are ignored.
+	 *
+	 * @return Attributes of files that have been selected, indexed by path relative to the base directory (using {@code '/'} as separator), in walk order.
+	 */
+	public Map<String, BasicFileAttributes> scan() {
+		return scan(null);
+	}
+
+	/**
+	 * Scan base directory, as {@link #scan()} does, and record the last modification time of each visited directory: since
+	 * creating or removing a file updates its directory, these can be used to check that the result of the scan is still up-to-date.
+	 *
+	 * @param directories The map where last modification time of visited directories is stored, indexed by path relative to the base directory (the base directory being {@code ""}), may be {@code null}.
+	 * @return Attributes of files that have been selected, indexed by path relative to the base directory (using {@code '/'} as separator), in walk order.
+	 */
+	public Map<String, BasicFileAttributes> scan(Map<String, FileTime> directories) {
+		if (includes.isEmpty() || !baseDir.isDirectory()) {
+			return emptyMap();
+		}
+
+		Path root = baseDir.toPath();
+		Map<String, BasicFileAttributes> files = new LinkedHashMap<>();
+
+		try {
+			java.nio.file.Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					String path = relativize(root, dir);
+					if (!dir.equals(root) && (isExcludedTree(path) || !couldHoldIncluded(path))) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					if (directories != null) {
+						directories.put(path, attrs.lastModifiedTime());
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					// Broken symbolic links, directories that cannot be visited and special files (such as named pipes,
+					// sockets or devices, that cannot be hashed) are ignored.
+					if (attrs.isRegularFile()) {
+						String path = relativize(root, file);
+						if (isIncluded(path) && !isExcluded(path)) {
+							files.put(path, attrs);
+						}
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch (IOException ex) {
+			throw new FileAccessException(ex);
+		}
+
+		return files;
+	}
+
+	/**
+	 * Check if given path would be selected by this scanner: the path must be included, and must not be excluded.
+	 *
+	 * @param path The path, relative to the base directory, using {@code '/'} as separator.
+	 * @return {@code true} if path is selected, {@code false} otherwise.
+	 */
+	public boolean isSelected(String path) {
+		return isIncluded(path) && !isExcluded(path);
+	}
+
+	/**
+	 * Check if given path is matched by at least one include pattern.
+	 *
+	 * @param path The relative path.
+	 * @return {@code true} if path is included, {@code false} otherwise.
+	 */
+	private boolean isIncluded(String path) {
+		for (GlobPattern include : includes) {
+			if (include.matches(path)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if given path is matched by at least one exclude pattern.
+	 *
+	 * @param path The relative path.
+	 * @return {@code true} if path is excluded, {@code false} otherwise.
+	 */
+	private boolean isExcluded(String path) {
+		for (GlobPattern exclude : excludes) {
+			if (exclude.matches(path)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if the whole content of given directory is excluded.
+	 *
+	 * @param directory The relative directory path.
+	 * @return {@code true} if the whole directory is excluded, {@code false} otherwise.
+	 */
+	private boolean isExcludedTree(String directory) {
+		for (GlobPattern exclude : excludes) {
+			if (exclude.matchesWholeTree(directory)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if given directory may contain included files.
+	 *
+	 * @param directory The relative directory path.
+	 * @return {@code true} if the directory may contain included files, {@code false} otherwise.
+	 */
+	private boolean couldHoldIncluded(String directory) {
+		for (GlobPattern include : includes) {
+			if (include.couldMatchInside(directory)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Compile given patterns.
+	 *
+	 * @param patterns Patterns.
+	 * @return Compiled patterns.
+	 */
+	private static List<GlobPattern> compile(Collection<String> patterns) {
+		List<GlobPattern> compiled = new ArrayList<>(patterns.size());
+		for (String pattern : patterns) {
+			compiled.add(GlobPattern.compile(pattern));
+		}
+
+		return compiled;
+	}
+
+	/**
+	 * Get the path of given file, relative to the root directory, using {@code '/'} as separator.
+	 *
+	 * @param root The root directory.
+	 * @param file The file.
+	 * @return The relative path.
+	 */
+	private static String relativize(Path root, Path file) {
+		return root.relativize(file).toString().replace(File.separatorChar, '/');
+	}
+}
@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 
 import static java.util.Collections.emptyList;
@@ -125,6 +126,21 @@ public final class Files {
 		}
 	}
 
+	/**
+	 * Read basic attributes (size, last modification time, file key, etc.) of given file.
+	 *
+	 * @param file The file.
+	 * @return File attributes.
+	 * @throws FileAccessException If file attributes cannot be read.
+	 */
+	public static BasicFileAttributes readAttributes(File file) {
+		try {
+			return java.nio.file.Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		} catch (IOException ex) {
+			throw new FileAccessException(ex);
+		}
+	}
+
 	/**
 	 * Delete file, and fails if file cannot be deleted.
 	 *
@@ -0,0 +1,362 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * An ant-style glob pattern, relative to a base directory, compiled once to be matched against
+ * a lot of relative paths (using {@code '/'} as separator):
+ *
+ * <ul>
+ *   <li>{@code ?} matches exactly one character, except the separator.</li>
+ *   <li>{@code *} matches zero or more characters, except the separator.</li>
+ *   <li>{@code **} matches zero or more directories.</li>
+ * </ul>
+ *
+ * A pattern ending with {@code '/'} matches everything inside the directory, as if {@code **} had been appended.
+ *
+ * <p>
+ *
+ * As with plexus {@code DirectoryScanner}, a pattern may also be written as {@code %ant[pattern]} (same as the
+ * pattern itself) or as {@code %regex[expression]}: the regular expression is then matched against the whole
+ * relative path, using the platform separator.
+ *
+ * <p>
+ *
+ * This class is immutable and, consequently, thread safe.
+ */
+final class GlobPattern {
+
+	/**
+	 * The separator.
+	 */
+	private static final char SEPARATOR = '/';
+
+	/**
+	 * The pattern matching any number of directories.
+	 */
+	private static final String ANY_DIRECTORIES = "**";
+
+	/**
+	 * The pattern matching any name.
+	 */
+	private static final String ANY_NAME = "*";
+
+	/**
+	 * The prefix of patterns written as a regular expression.
+	 */
+	private static final String REGEX_PREFIX = "%regex[";
+
+	/**
+	 * The prefix of patterns explicitly written as an ant-style pattern.
+	 */
+	private static final String ANT_PREFIX = "%ant[";
+
+	/**
+	 * The suffix of patterns written with an explicit syntax.
+	 */
+	private static final String SYNTAX_SUFFIX = "]";
+
+	/**
+	 * Compile given glob pattern.
+	 *
+	 * @param glob The glob pattern.
+	 * @return The compiled pattern.
+	 * @throws java.util.regex.PatternSyntaxException If the pattern is an invalid regular expression.
+	 */
+	static GlobPattern compile(String glob) {
+		if (hasSyntax(glob, REGEX_PREFIX)) {
+			return new GlobPattern(Pattern.compile(glob.substring(REGEX_PREFIX.length(), glob.length() - SYNTAX_SUFFIX.length())));
+		}
+
+		String antGlob = hasSyntax(glob, ANT_PREFIX) ? glob.substring(ANT_PREFIX.length(), glob.length() - SYNTAX_SUFFIX.length()) : glob;
+		return new GlobPattern(tokenize(antGlob));
+	}
+
+	/**
+	 * Check if given pattern is written with given syntax (i.e {@code %syntax[pattern]}).
+	 *
+	 * @param glob The pattern.
+	 * @param prefix The syntax prefix.
+	 * @return {@code true} if the pattern is written with given syntax, {@code false} otherwise.
+	 */
+	private static boolean hasSyntax(String glob, String prefix) {
+		return glob.length() > prefix.length() + SYNTAX_SUFFIX.length() && glob.startsWith(prefix) && glob.endsWith(SYNTAX_SUFFIX);
+	}
+
+	/**
+	 * The pattern segments.
+	 */
+	private final String[] segments;
+
+	/**
+	 * The compiled pattern of each segment, {@code null} for {@code **} segments.
+	 */
+	private final Pattern[] segmentPatterns;
+
+	/**
+	 * The compiled pattern, matching full relative paths.
+	 */
+	private final Pattern pattern;
+
+	/**
+	 * The compiled pattern matching directories whose whole content is matched by this pattern, may be {@code null}.
+	 */
+	private final Pattern subtreePattern;
+
+	/**
+	 * Is this pattern a regular expression (i.e {@code %regex[expression]}).
+	 */
+	private final boolean regex;
+
+	/**
+	 * Create pattern from a regular expression: since a regular expression cannot be split by directory, every
+	 * directory may contain matching paths.
+	 *
+	 * @param regex The regular expression.
+	 */
+	private GlobPattern(Pattern regex) {
+		this.segments = new String[0];
+		this.segmentPatterns = new Pattern[0];
+		this.pattern = regex;
+		this.subtreePattern = null;
+		this.regex = true;
+	}
+
+	/**
+	 * Create pattern.
+	 *
+	 * @param segments Pattern segments.
+	 */
+	private GlobPattern(List<String> segments) {
+		this.segments = segments.toArray(new String[0]);
+		this.segmentPatterns = new Pattern[this.segments.length];
+		for (int i = 0; i < this.segments.length; ++i) {
+			String segment = this.segments[i];
+			this.segmentPatterns[i] = ANY_DIRECTORIES.equals(segment) ? null : Pattern.compile(toRegex(segment));
+		}
+
+		this.pattern = Pattern.compile(toRegex(segments));
+		this.subtreePattern = compileSubtreePattern(segments);
+		this.regex = false;
+	}
+
+	/**
+	 * Check if given relative path is matched by this pattern.
+	 *
+	 * @param path The relative path.
+	 * @return {@code true} if path is matched, {@code false} otherwise.
+	 */
+	boolean matches(String path) {
+		String candidate = regex ? path.replace(SEPARATOR, File.separatorChar) : path;
+		return pattern.matcher(candidate).matches();
+	}
+
+	/**
+	 * Check if this pattern matches every path inside given directory, in which case the directory
+	 * does not need to be visited.
+	 *
+	 * @param directory The relative directory path.
+	 * @return {@code true} if every path inside the directory is matched, {@code false} otherwise.
+	 */
+	boolean matchesWholeTree(String directory) {
+		return subtreePattern != null && subtreePattern.matcher(directory).matches();
+	}
+
+	/**
+	 * Check if this pattern may match a path inside given directory, otherwise the directory does not
+	 * need to be visited.
+	 *
+	 * @param directory The relative directory path.
+	 * @return {@code true} if a path inside the directory could be matched, {@code false} otherwise.
+	 */
+	boolean couldMatchInside(String directory) {
+		if (regex) {
+			return true;
+		}
+
+		String[] directorySegments = split(directory);
+		for (int i = 0; i < directorySegments.length; ++i) {
+			if (i >= segments.length) {
+				return false;
+			}
+
+			if (segmentPatterns[i] == null) {
+				return true;
+			}
+
+			// The last segment matches a file name, so nothing inside the directory can be matched.
+			if (i == segments.length - 1 || !segmentPatterns[i].matcher(directorySegments[i]).matches()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		if (regex) {
+			return REGEX_PREFIX + pattern.pattern() + SYNTAX_SUFFIX;
+		}
+
+		return String.join(String.valueOf(SEPARATOR), segments);
+	}
+
+	/**
+	 * Split given glob pattern to segments:
+	 *
+	 * <ul>
+	 *   <li>Windows separators are replaced with {@code '/'}.</li>
+	 *   <li>Leading separator is ignored: patterns are always relative to the base directory.</li>
+	 *   <li>Consecutive {@code **} segments are merged.</li>
+	 *   <li>{@code **} is appended to patterns ending with a separator.</li>
+	 * </ul>
+	 *
+	 * @param glob The glob pattern.
+	 * @return Pattern segments.
+	 */
+	private static List<String> tokenize(String glob) {
+		String normalized = glob.replace('\\', SEPARATOR);
+		if (normalized.endsWith(String.valueOf(SEPARATOR))) {
+			normalized += ANY_DIRECTORIES;
+		}
+
+		List<String> segments = new ArrayList<>();
+		for (String segment : split(normalized)) {
+			if (segment.isEmpty()) {
+				continue;
+			}
+
+			boolean duplicate = ANY_DIRECTORIES.equals(segment) && !segments.isEmpty() && ANY_DIRECTORIES.equals(segments.get(segments.size() - 1));
+			if (!duplicate) {
+				segments.add(segment);
+			}
+		}
+
+		return segments;
+	}
+
+	/**
+	 * Split given relative path to segments.
+	 *
+	 * @param path The relative path.
+	 * @return Path segments.
+	 */
+	private static String[] split(String path) {
+		return path.split(String.valueOf(SEPARATOR), -1);
+	}
+
+	/**
+	 * Compile the pattern matching directories whose whole content is matched, i.e patterns ending
+	 * with {@code /**} or {@code /**}{@code /*}.
+	 *
+	 * @param segments Pattern segments.
+	 * @return The compiled pattern, {@code null} if the pattern does not match whole directories.
+	 */
+	private static Pattern compileSubtreePattern(List<String> segments) {
+		int size = segments.size();
+		if (size >= 1 && ANY_DIRECTORIES.equals(segments.get(size - 1))) {
+			return Pattern.compile(toRegex(segments.subList(0, size - 1)));
+		}
+
+		if (size >= 2 && ANY_NAME.equals(segments.get(size - 1)) && ANY_DIRECTORIES.equals(segments.get(size - 2))) {
+			return Pattern.compile(toRegex(segments.subList(0, size - 2)));
+		}
+
+		return null;
+	}
+
+	/**
+	 * Translate given pattern segments to a regular expression.
+	 *
+	 * @param segments Pattern segments.
+	 * @return The regular expression.
+	 */
+	private static String toRegex(List<String> segments) {
+		if (segments.isEmpty()) {
+			return ".*";
+		}
+
+		StringBuilder regex = new StringBuilder();
+		int last = segments.size() - 1;
+		boolean needSeparator = false;
+
+		for (int i = 0; i <= last; ++i) {
+			String segment = segments.get(i);
+			if (ANY_DIRECTORIES.equals(segment)) {
+				if (i == last) {
+					regex.append(i == 0 ? ".*" : "(?:/.*)?");
+				} else {
+					regex.append(i == 0 ? "(?:.*/)?" : "/(?:.*/)?");
+				}
+
+				needSeparator = false;
+			} else {
+				if (needSeparator) {
+					regex.append(SEPARATOR);
+				}
+
+				regex.append(toRegex(segment));
+				needSeparator = true;
+			}
+		}
+
+		return regex.toString();
+	}
+
+	/**
+	 * Translate a single pattern segment (i.e without any separator) to a regular expression.
+	 *
+	 * @param segment The pattern segment.
+	 * @return The regular expression.
+	 */
+	private static String toRegex(String segment) {
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+
+		for (char c : segment.toCharArray()) {
+			if (c == '*' || c == '?') {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+
+				regex.append(c == '*' ? "[^/]*" : "[^/]");
+			} else {
+				literal.append(c);
+			}
+		}
+
+		if (literal.length() > 0) {
+			regex.append(Pattern.quote(literal.toString()));
+		}
+
+		return regex.toString();
+	}
+}
@@ -24,21 +24,27 @@
 package com.github.mjeanroy.maven.plugins.node.commons.io;
 
 import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+import com.github.mjeanroy.maven.plugins.node.exceptions.HashException;
 import com.github.mjeanroy.maven.plugins.node.exceptions.Md5Exception;
 import com.github.mjeanroy.maven.plugins.node.exceptions.UrlEncodeException;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.zip.Checksum;
 
-import static com.github.mjeanroy.maven.plugins.node.commons.lang.Strings.leftPad;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -46,6 +52,43 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public final class Ios {
 
+	/**
+	 * The size of the buffer used to read file content.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The hexadecimal characters, used to encode signatures.
+	 */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * The MD5 digest instance, one per thread since {@link MessageDigest} is not thread-safe.
+	 */
+	private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(Ios::getMd5Digest);
+
+	/**
+	 * The CRC-32C checksum instance, one per thread since {@link Checksum} is not thread-safe.
+	 */
+	private static final ThreadLocal<Checksum> CRC32C = ThreadLocal.withInitial(Ios::newCrc32c);
+
+	/**
+	 * The xxHash64 instance, one per thread since {@link XxHash64} is not thread-safe.
+	 */
+	private static final ThreadLocal<XxHash64> XXHASH64 = ThreadLocal.withInitial(XxHash64::new);
+
+	/**
+	 * The {@code Checksum#update(ByteBuffer)} method, available since Java 9 (and overridden by
+	 * {@code java.util.zip.CRC32C} to use hardware acceleration), {@code null} with older Java versions.
+	 */
+	private static final MethodHandle CHECKSUM_UPDATE_BUFFER = findChecksumUpdateBuffer();
+
+	/**
+	 * The (direct) buffer used to read file content, one per thread so that it can be re-used
+	 * from one file to another.
+	 */
+	private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
 	// Ensure non instantiation.
 	private Ios() {
 	}
@@ -66,18 +109,92 @@ public final class Ios {
 		}
 	}
 
+	/**
+	 * Encode given bytes to an hexadecimal (lowercase) string.
+	 *
+	 * @param bytes Bytes to encode.
+	 * @return Hexadecimal string.
+	 */
+	public static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; ++i) {
+			int b = bytes[i] & 0xFF;
+			chars[i * 2] = HEX[b >>> 4];
+			chars[i * 2 + 1] = HEX[b & 0x0F];
+		}
+
+		return new String(chars);
+	}
+
+	/**
+	 * Decode given hexadecimal string (lowercase or uppercase) to bytes.
+	 *
+	 * @param value Hexadecimal string.
+	 * @return Decoded bytes.
+	 * @throws IllegalArgumentException If given value is not a valid hexadecimal string.
+	 */
+	public static byte[] fromHex(String value) {
+		int length = value.length();
+		if (length % 2 != 0) {
+			throw new IllegalArgumentException("Hexadecimal string must have an even length: " + value);
+		}
+
+		byte[] bytes = new byte[length / 2];
+		for (int i = 0; i < bytes.length; ++i) {
+			int high = Character.digit(value.charAt(i * 2), 16);
+			int low = Character.digit(value.charAt(i * 2 + 1), 16);
+			if (high < 0 || low < 0) {
+				throw new IllegalArgumentException("Invalid hexadecimal string: " + value);
+			}
+
+			bytes[i] = (byte) ((high << 4) | low);
+		}
+
+		return bytes;
+	}
+
 	/**
 	 * Compute MD5 hash of given file.
 	 *
+	 * <p>
+	 *
+	 * File content is streamed to the digest through a re-used buffer, so hashing requires a constant
+	 * amount of memory, whatever the file size.
+	 *
 	 * @param file The file.
 	 * @return The MD5 hash.
 	 */
 	public static String md5(File file) {
-		MessageDigest md5 = getMd5Digest();
-		byte[] bytes = read(file);
-		byte[] hash = md5.digest(bytes);
-		String hexHash = new BigInteger(1, hash).toString(16);
-		return leftPad(hexHash, 32, '0');
+		MessageDigest md5 = MD5.get();
+		md5.reset();
+		read(file, md5::update);
+		return toHex(md5.digest());
+	}
+
+	/**
+	 * Compute CRC-32C checksum of given file, using {@code java.util.zip.CRC32C} if it is available.
+	 *
+	 * @param file The file.
+	 * @return The CRC-32C checksum, as an hexadecimal string.
+	 */
+	public static String crc32c(File file) {
+		Checksum crc32c = CRC32C.get();
+		crc32c.reset();
+		read(file, buffer -> update(crc32c, buffer));
+		return toHex(crc32c.getValue(), 8);
+	}
+
+	/**
+	 * Compute xxHash64 hash of given file.
+	 *
+	 * @param file The file.
+	 * @return The xxHash64 hash, as an hexadecimal string.
+	 */
+	public static String xxHash64(File file) {
+		XxHash64 xxHash64 = XXHASH64.get();
+		xxHash64.reset();
+		read(file, xxHash64::update);
+		return toHex(xxHash64.getValue(), 16);
 	}
 
 	/**
@@ -111,16 +228,107 @@ public final class Ios {
 	}
 
 	/**
-	 * Read given file as a byte array.
+	 * Create new CRC-32C checksum: use {@code java.util.zip.CRC32C} if it is available (i.e with Java 9 or later),
+	 * otherwise fallback to a pure java implementation.
 	 *
-	 * @param file The file.
-	 * @return The file content.
+	 * @return CRC-32C checksum.
 	 */
-	private static byte[] read(File file) {
+	private static Checksum newCrc32c() {
+		try {
+			return (Checksum) Class.forName("java.util.zip.CRC32C").getConstructor().newInstance();
+		} catch (ReflectiveOperationException ex) {
+			return new Crc32c();
+		}
+	}
+
+	/**
+	 * Find the {@code Checksum#update(ByteBuffer)} method.
+	 *
+	 * @return The method handle, {@code null} if it is not available.
+	 */
+	private static MethodHandle findChecksumUpdateBuffer() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(Checksum.class, "update", MethodType.methodType(void.class, ByteBuffer.class));
+		} catch (NoSuchMethodException | IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Update given checksum with the remaining bytes of given buffer.
+	 *
+	 * @param checksum The checksum.
+	 * @param buffer The buffer.
+	 */
+	private static void update(Checksum checksum, ByteBuffer buffer) {
+		if (checksum instanceof Crc32c) {
+			((Crc32c) checksum).update(buffer);
+			return;
+		}
+
 		try {
-			return java.nio.file.Files.readAllBytes(file.toPath());
+			CHECKSUM_UPDATE_BUFFER.invokeExact(checksum, buffer);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new HashException(ex);
+		}
+	}
+
+	/**
+	 * Read given file through the per-thread buffer, and give its content to given consumer.
+	 *
+	 * <p>
+	 *
+	 * Files are never memory-mapped, whatever their size: a mapped region is only released once garbage
+	 * collected, and would keep the file locked on windows (where the command may need to write it).
+	 *
+	 * @param file The file.
+	 * @param consumer The consumer.
+	 */
+	private static void read(File file, BufferConsumer consumer) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = BUFFER.get();
+			buffer.clear();
+
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				consumer.accept(buffer);
+				buffer.clear();
+			}
 		} catch (IOException ex) {
 			throw new FileAccessException(ex);
 		}
 	}
+
+	/**
+	 * Encode given value to an hexadecimal (lowercase) string, left padded with zeros.
+	 *
+	 * @param value Value to encode.
+	 * @param length Length of the output string.
+	 * @return Hexadecimal string.
+	 */
+	private static String toHex(long value, int length) {
+		char[] chars = new char[length];
+		long v = value;
+		for (int i = length - 1; i >= 0; --i) {
+			chars[i] = HEX[(int) (v & 0x0F)];
+			v >>>= 4;
+		}
+
+		return new String(chars);
+	}
+
+	/**
+	 * Consumer of file content.
+	 */
+	private interface BufferConsumer {
+
+		/**
+		 * Consume remaining bytes of given buffer.
+		 *
+		 * @param buffer The buffer.
+		 */
+		void accept(ByteBuffer buffer);
+	}
 }
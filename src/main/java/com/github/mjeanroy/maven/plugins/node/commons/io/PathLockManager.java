@@ -0,0 +1,416 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+
+/**
+ * Read/write locks scoped by file system path: two locks conflict only if their paths overlap (i.e one is an ancestor
+ * of the other, or both are the same path) and at least one of them is a write lock.
+ *
+ * <p>
+ *
+ * This is implemented with multiple granularity locking: locking a path also acquires an "intention" lock on each of
+ * its ancestors, up to a virtual root (the {@link #getGlobalLock() global lock}, overlapping with all the paths).
+ * All the locks of a request are granted at once, so acquiring a lock never deadlocks, and requests are granted in
+ * order: a request is never granted while an older conflicting request is still waiting.
+ *
+ * <p>
+ *
+ * Locks are not reentrant, and conditions are not supported.
+ */
+public final class PathLockManager {
+
+	/**
+	 * The virtual root, ancestor of all the paths.
+	 */
+	private static final Object ROOT = new Object();
+
+	/**
+	 * The lock modes, held on each node.
+	 */
+	private enum Mode {
+		INTENTION_SHARED,
+		INTENTION_EXCLUSIVE,
+		SHARED,
+		EXCLUSIVE;
+
+		private boolean isCompatibleWith(Mode mode) {
+			switch (this) {
+				case INTENTION_SHARED:
+					return mode != EXCLUSIVE;
+				case INTENTION_EXCLUSIVE:
+					return mode == INTENTION_SHARED || mode == INTENTION_EXCLUSIVE;
+				case SHARED:
+					return mode == INTENTION_SHARED || mode == SHARED;
+				default:
+					return false;
+			}
+		}
+	}
+
+	/**
+	 * The number of locks held, by mode, for each node.
+	 */
+	private final Map<Object, int[]> holders;
+
+	/**
+	 * The requests waiting to be granted, in arrival order.
+	 */
+	private final List<Waiter> waiting;
+
+	/**
+	 * Create the lock manager.
+	 */
+	public PathLockManager() {
+		this.holders = new HashMap<>();
+		this.waiting = new LinkedList<>();
+	}
+
+	/**
+	 * Get the lock of given path.
+	 *
+	 * @param path The path.
+	 * @return The lock.
+	 */
+	public ReadWriteLock getLock(File path) {
+		notNull(path, "Path must not be null");
+
+		List<Object> nodes = new ArrayList<>();
+		for (Path current = path.toPath().toAbsolutePath().normalize(); current != null; current = current.getParent()) {
+			nodes.add(current);
+		}
+
+		nodes.add(ROOT);
+		Collections.reverse(nodes);
+		return new PathLock(nodes);
+	}
+
+	/**
+	 * Get the global lock, overlapping with the lock of any path.
+	 *
+	 * @return The lock.
+	 */
+	public ReadWriteLock getGlobalLock() {
+		return new PathLock(Collections.singletonList(ROOT));
+	}
+
+	/**
+	 * Get the number of requests waiting to acquire a lock.
+	 *
+	 * @return The number of waiting requests.
+	 */
+	public synchronized int getQueueLength() {
+		return waiting.size();
+	}
+
+	/**
+	 * Get the number of requests waiting to acquire a lock conflicting with given lock: other requests do not
+	 * delay given lock.
+	 *
+	 * @param lock The read or the write lock of a path, given by this lock manager.
+	 * @return The number of conflicting waiting requests.
+	 */
+	public synchronized int getQueueLength(Lock lock) {
+		notNull(lock, "Lock must not be null");
+		if (!(lock instanceof NodeLock)) {
+			throw new IllegalArgumentException("Lock must be a path lock");
+		}
+
+		int count = 0;
+		for (Waiter waiter : waiting) {
+			if (conflicts(((NodeLock) lock).request, waiter.request)) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private synchronized boolean acquire(Map<Object, Mode> request, long timeoutNanos, boolean interruptible) throws InterruptedException {
+		if (canGrant(request, null)) {
+			grant(request);
+			return true;
+		}
+
+		if (timeoutNanos == 0) {
+			return false;
+		}
+
+		boolean interrupted = false;
+		long deadline = System.nanoTime() + timeoutNanos;
+		Waiter waiter = new Waiter(request);
+		waiting.add(waiter);
+
+		try {
+			while (!canGrant(request, waiter)) {
+				try {
+					if (timeoutNanos < 0) {
+						wait();
+					}
+					else {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0) {
+							return false;
+						}
+
+						TimeUnit.NANOSECONDS.timedWait(this, remaining);
+					}
+				}
+				catch (InterruptedException ex) {
+					if (interruptible) {
+						throw ex;
+					}
+
+					interrupted = true;
+				}
+			}
+
+			grant(request);
+			return true;
+		}
+		finally {
+			remove(waiter);
+			notifyAll();
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private synchronized void release(Map<Object, Mode> request) {
+		for (Map.Entry<Object, Mode> entry : request.entrySet()) {
+			int[] counts = holders.get(entry.getKey());
+			if (counts == null || counts[entry.getValue().ordinal()] == 0) {
+				throw new IllegalMonitorStateException("Lock is not held");
+			}
+		}
+
+		for (Map.Entry<Object, Mode> entry : request.entrySet()) {
+			int[] counts = holders.get(entry.getKey());
+			counts[entry.getValue().ordinal()]--;
+			if (isEmpty(counts)) {
+				holders.remove(entry.getKey());
+			}
+		}
+
+		notifyAll();
+	}
+
+	/**
+	 * Check if given request can be granted: it must be compatible with the locks being held, and with all the
+	 * requests waiting before it.
+	 *
+	 * @param request The request.
+	 * @param waiter The waiter of the request, if it is waiting, {@code null} otherwise.
+	 * @return {@code true} if the request can be granted, {@code false} otherwise.
+	 */
+	private boolean canGrant(Map<Object, Mode> request, Waiter waiter) {
+		for (Map.Entry<Object, Mode> entry : request.entrySet()) {
+			int[] counts = holders.get(entry.getKey());
+			if (counts != null) {
+				for (Mode mode : Mode.values()) {
+					if (counts[mode.ordinal()] > 0 && !entry.getValue().isCompatibleWith(mode)) {
+						return false;
+					}
+				}
+			}
+		}
+
+		for (Waiter previous : waiting) {
+			if (previous == waiter) {
+				break;
+			}
+
+			if (conflicts(request, previous.request)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void grant(Map<Object, Mode> request) {
+		for (Map.Entry<Object, Mode> entry : request.entrySet()) {
+			int[] counts = holders.get(entry.getKey());
+			if (counts == null) {
+				counts = new int[Mode.values().length];
+				holders.put(entry.getKey(), counts);
+			}
+
+			counts[entry.getValue().ordinal()]++;
+		}
+	}
+
+	private void remove(Waiter waiter) {
+		for (Iterator<Waiter> it = waiting.iterator(); it.hasNext(); ) {
+			if (it.next() == waiter) {
+				it.remove();
+				return;
+			}
+		}
+	}
+
+	private static boolean conflicts(Map<Object, Mode> r1, Map<Object, Mode> r2) {
+		for (Map.Entry<Object, Mode> entry : r1.entrySet()) {
+			Mode mode = r2.get(entry.getKey());
+			if (mode != null && !entry.getValue().isCompatibleWith(mode)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isEmpty(int[] counts) {
+		for (int count : counts) {
+			if (count > 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * A request waiting to be granted: requests are compared by identity, as two threads may wait for the same path.
+	 */
+	private static final class Waiter {
+		private final Map<Object, Mode> request;
+
+		private Waiter(Map<Object, Mode> request) {
+			this.request = request;
+		}
+	}
+
+	/**
+	 * The read/write lock of a path, given by its nodes, from the root to the path itself.
+	 */
+	private final class PathLock implements ReadWriteLock {
+		private final Lock readLock;
+		private final Lock writeLock;
+
+		private PathLock(List<Object> nodes) {
+			this.readLock = new NodeLock(request(nodes, Mode.INTENTION_SHARED, Mode.SHARED));
+			this.writeLock = new NodeLock(request(nodes, Mode.INTENTION_EXCLUSIVE, Mode.EXCLUSIVE));
+		}
+
+		@Override
+		public Lock readLock() {
+			return readLock;
+		}
+
+		@Override
+		public Lock writeLock() {
+			return writeLock;
+		}
+
+		private Map<Object, Mode> request(List<Object> nodes, Mode intention, Mode mode) {
+			Map<Object, Mode> request = new HashMap<>();
+			for (int i = 0; i < nodes.size() - 1; i++) {
+				request.put(nodes.get(i), intention);
+			}
+
+			request.put(nodes.get(nodes.size() - 1), mode);
+			return request;
+		}
+	}
+
+	/**
+	 * A lock acquiring all the locks of a request at once.
+	 */
+	private final class NodeLock implements Lock {
+		private final Map<Object, Mode> request;
+
+		private NodeLock(Map<Object, Mode> request) {
+			this.request = request;
+		}
+
+		@Override
+		public void lock() {
+			try {
+				acquire(request, -1, false);
+			}
+			catch (InterruptedException ex) {
+				// Cannot happen, interruptions are ignored.
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			acquire(request, -1, true);
+		}
+
+		@Override
+		public boolean tryLock() {
+			try {
+				return acquire(request, 0, false);
+			}
+			catch (InterruptedException ex) {
+				// Cannot happen, interruptions are ignored.
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			return acquire(request, Math.max(1, unit.toNanos(time)), true);
+		}
+
+		@Override
+		public void unlock() {
+			release(request);
+		}
+
+		@Override
+		public Condition newCondition() {
+			throw new UnsupportedOperationException("Conditions are not supported by path locks");
+		}
+	}
+}
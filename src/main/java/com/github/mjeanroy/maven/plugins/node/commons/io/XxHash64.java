@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the (non-cryptographic) xxHash64 algorithm, using a seed equal to zero.
+ *
+ * <p>
+ *
+ * This class is not thread-safe.
+ *
+ * @see <a href="https://github.com/Cyan4973/xxHash/blob/dev/doc/xxhash_spec.md">xxHash specification</a>
+ */
+final class XxHash64 {
+
+	private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+	private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long PRIME64_3 = 0x165667B19E3779F9L;
+	private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+	private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+	/**
+	 * The size of a stripe, processed by the four accumulators.
+	 */
+	private static final int STRIPE_SIZE = 32;
+
+	/**
+	 * Bytes that have not been processed yet, since they do not fill a complete stripe.
+	 */
+	private final ByteBuffer pending;
+
+	private long v1;
+	private long v2;
+	private long v3;
+	private long v4;
+
+	/**
+	 * The total number of bytes processed.
+	 */
+	private long totalLength;
+
+	XxHash64() {
+		this.pending = ByteBuffer.allocate(STRIPE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		reset();
+	}
+
+	/**
+	 * Reset the internal state, so that a new value can be computed.
+	 */
+	void reset() {
+		v1 = PRIME64_1 + PRIME64_2;
+		v2 = PRIME64_2;
+		v3 = 0;
+		v4 = -PRIME64_1;
+		totalLength = 0;
+		pending.clear();
+	}
+
+	/**
+	 * Update the current value with the remaining bytes of given buffer.
+	 *
+	 * @param buffer The buffer, fully consumed after this call.
+	 */
+	void update(ByteBuffer buffer) {
+		ByteBuffer input = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		totalLength += input.remaining();
+		buffer.position(buffer.limit());
+
+		if (pending.position() > 0) {
+			while (pending.hasRemaining() && input.hasRemaining()) {
+				pending.put(input.get());
+			}
+
+			if (pending.hasRemaining()) {
+				return;
+			}
+
+			pending.flip();
+			processStripe(pending);
+			pending.clear();
+		}
+
+		while (input.remaining() >= STRIPE_SIZE) {
+			processStripe(input);
+		}
+
+		pending.put(input);
+	}
+
+	/**
+	 * Get the current value.
+	 *
+	 * @return The hash value.
+	 */
+	long getValue() {
+		long h;
+		if (totalLength >= STRIPE_SIZE) {
+			h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+			h = mergeRound(h, v1);
+			h = mergeRound(h, v2);
+			h = mergeRound(h, v3);
+			h = mergeRound(h, v4);
+		} else {
+			h = PRIME64_5;
+		}
+
+		h += totalLength;
+
+		ByteBuffer remaining = pending.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		remaining.flip();
+
+		while (remaining.remaining() >= 8) {
+			h ^= round(0, remaining.getLong());
+			h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+		}
+
+		if (remaining.remaining() >= 4) {
+			h ^= (remaining.getInt() & 0xFFFFFFFFL) * PRIME64_1;
+			h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+		}
+
+		while (remaining.hasRemaining()) {
+			h ^= (remaining.get() & 0xFF) * PRIME64_5;
+			h = Long.rotateLeft(h, 11) * PRIME64_1;
+		}
+
+		h ^= h >>> 33;
+		h *= PRIME64_2;
+		h ^= h >>> 29;
+		h *= PRIME64_3;
+		h ^= h >>> 32;
+		return h;
+	}
+
+	private void processStripe(ByteBuffer stripe) {
+		v1 = round(v1, stripe.getLong());
+		v2 = round(v2, stripe.getLong());
+		v3 = round(v3, stripe.getLong());
+		v4 = round(v4, stripe.getLong());
+	}
+
+	private static long round(long acc, long input) {
+		acc += input * PRIME64_2;
+		acc = Long.rotateLeft(acc, 31);
+		return acc * PRIME64_1;
+	}
+
+	private static long mergeRound(long acc, long value) {
+		acc ^= round(0, value);
+		return acc * PRIME64_1 + PRIME64_4;
+	}
+}
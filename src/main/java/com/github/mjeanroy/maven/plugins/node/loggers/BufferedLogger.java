@@ -0,0 +1,259 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.loggers;
+
+import com.github.mjeanroy.maven.plugins.node.commands.CommandException;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputLevel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An output handler keeping lines in memory, until they are {@link #drain() drained} to the underlying
+ * handler at once, each line being prefixed: this is used to log the output of commands running concurrently
+ * as separate blocks, instead of interleaved lines.
+ *
+ * <p>
+ *
+ * Once the buffered lines exceed the maximum buffer size, they are spilled to a temporary file, deleted once
+ * drained, so that a very verbose command never fills the memory.
+ *
+ * <p>
+ *
+ * Blocks drained by different buffers to the same handler instance are never interleaved: the buffers of
+ * commands running concurrently must therefore share the same underlying handler.
+ */
+public final class BufferedLogger implements OutputHandler {
+
+	/**
+	 * The default maximum number of characters kept in memory, before lines are spilled to a temporary file.
+	 */
+	private static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * The output levels, indexed by ordinal.
+	 */
+	private static final OutputLevel[] LEVELS = OutputLevel.values();
+
+	/**
+	 * Create the logger.
+	 *
+	 * @param delegate The underlying handler.
+	 * @param prefix The prefix of each line, for example the script name.
+	 * @return The logger.
+	 */
+	public static BufferedLogger bufferedLogger(OutputHandler delegate, String prefix) {
+		return bufferedLogger(delegate, prefix, DEFAULT_MAX_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create the logger.
+	 *
+	 * @param delegate The underlying handler.
+	 * @param prefix The prefix of each line, for example the script name.
+	 * @param maxBufferSize The maximum number of characters kept in memory, before lines are spilled to a temporary file.
+	 * @return The logger.
+	 */
+	public static BufferedLogger bufferedLogger(OutputHandler delegate, String prefix, int maxBufferSize) {
+		return new BufferedLogger(delegate, prefix, maxBufferSize);
+	}
+
+	/**
+	 * The underlying handler.
+	 */
+	private final OutputHandler delegate;
+
+	/**
+	 * The prefix of each line.
+	 */
+	private final String prefix;
+
+	/**
+	 * The maximum number of characters kept in memory.
+	 */
+	private final int maxBufferSize;
+
+	/**
+	 * The buffered lines.
+	 */
+	private final List<String> lines;
+
+	/**
+	 * The level of each buffered line.
+	 */
+	private final List<OutputLevel> levels;
+
+	/**
+	 * The number of characters of the buffered lines.
+	 */
+	private int bufferSize;
+
+	/**
+	 * The temporary file where lines are spilled, {@code null} until the buffer is full.
+	 */
+	private File spillFile;
+
+	/**
+	 * The output of {@link #spillFile}, {@code null} until the buffer is full.
+	 */
+	private DataOutputStream spill;
+
+	private BufferedLogger(OutputHandler delegate, String prefix, int maxBufferSize) {
+		this.delegate = notNull(delegate, "Output handler must not be null");
+		this.prefix = "[" + notNull(prefix, "Prefix must not be null") + "] ";
+		this.maxBufferSize = maxBufferSize;
+		this.lines = new ArrayList<>();
+		this.levels = new ArrayList<>();
+	}
+
+	@Override
+	public void process(String line) {
+		process(line, OutputLevel.of(line));
+	}
+
+	@Override
+	public synchronized void process(String line, OutputLevel level) {
+		if (spill == null && bufferSize + line.length() > maxBufferSize) {
+			startSpilling();
+		}
+
+		if (spill != null) {
+			write(line, level);
+			return;
+		}
+
+		lines.add(line);
+		levels.add(level);
+		bufferSize += line.length();
+	}
+
+	@Override
+	public boolean isEnabled(OutputLevel level) {
+		return delegate.isEnabled(level);
+	}
+
+	/**
+	 * Write the buffered lines to the underlying handler, and clear the buffer.
+	 */
+	public synchronized void drain() {
+		try {
+			synchronized (delegate) {
+				if (spill != null) {
+					drainSpill();
+				}
+
+				for (int i = 0; i < lines.size(); i++) {
+					delegate.process(prefix + lines.get(i), levels.get(i));
+				}
+
+				delegate.flush();
+			}
+		}
+		finally {
+			lines.clear();
+			levels.clear();
+			bufferSize = 0;
+		}
+	}
+
+	private void startSpilling() {
+		try {
+			spillFile = Files.createTempFile("node-maven-plugin-", ".log").toFile();
+			spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile.toPath())));
+		}
+		catch (IOException ex) {
+			deleteSpill();
+			throw new CommandException(ex);
+		}
+
+		for (int i = 0; i < lines.size(); i++) {
+			write(lines.get(i), levels.get(i));
+		}
+
+		lines.clear();
+		levels.clear();
+		bufferSize = 0;
+	}
+
+	private void write(String line, OutputLevel level) {
+		byte[] bytes = line.getBytes(UTF_8);
+		try {
+			spill.writeByte(level.ordinal());
+			spill.writeInt(bytes.length);
+			spill.write(bytes);
+		}
+		catch (IOException ex) {
+			throw new CommandException(ex);
+		}
+	}
+
+	private void drainSpill() {
+		try {
+			spill.close();
+
+			try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile.toPath())))) {
+				for (int level = input.read(); level >= 0; level = input.read()) {
+					byte[] bytes = new byte[input.readInt()];
+					input.readFully(bytes);
+					delegate.process(prefix + new String(bytes, UTF_8), LEVELS[level]);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new CommandException(ex);
+		}
+		finally {
+			deleteSpill();
+		}
+	}
+
+	private void deleteSpill() {
+		if (spill != null) {
+			try {
+				spill.close();
+			}
+			catch (IOException ex) {
+				// The file is deleted anyway, nothing more can be done.
+			}
+		}
+
+		if (spillFile != null && !spillFile.delete()) {
+			spillFile.deleteOnExit();
+		}
+
+		spill = null;
+		spillFile = null;
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.loggers;
+
+import com.github.mjeanroy.maven.plugins.node.commands.CommandException;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Create a logger that process {@code npm} command output and append everything to a file.
+ *
+ * <p>
+ *
+ * Lines are buffered, and appended to the file at once when the logger is flushed: when possible,
+ * the command output is directly redirected to the file instead (see {@link #getRedirect()}).
+ */
+public class FileLogger extends AbstractNpmLogger implements OutputHandler {
+
+	/**
+	 * Create new NPM logger appending output to given file.
+	 *
+	 * @param file The log file.
+	 * @return The NPM logger.
+	 */
+	public static FileLogger fileLogger(File file) {
+		return new FileLogger(file);
+	}
+
+	/**
+	 * The log file.
+	 */
+	private final File file;
+
+	/**
+	 * The lines being buffered, until next flush.
+	 */
+	private final StringBuilder buffer;
+
+	/**
+	 * Create the NPM logger.
+	 *
+	 * @param file The log file.
+	 */
+	private FileLogger(File file) {
+		this.file = file;
+		this.buffer = new StringBuilder();
+	}
+
+	@Override
+	public Redirect getRedirect() {
+		createParentDirectory();
+		return Redirect.appendTo(file);
+	}
+
+	@Override
+	public synchronized void flush() {
+		if (buffer.length() == 0) {
+			return;
+		}
+
+		createParentDirectory();
+
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), UTF_8, CREATE, APPEND)) {
+			writer.append(buffer);
+		}
+		catch (IOException ex) {
+			throw new CommandException(ex);
+		}
+		finally {
+			buffer.setLength(0);
+		}
+	}
+
+	@Override
+	void warn(String line) {
+		append(line);
+	}
+
+	@Override
+	void error(String line) {
+		append(line);
+	}
+
+	@Override
+	void info(String line) {
+		append(line);
+	}
+
+	private synchronized void append(String line) {
+		buffer.append(line).append(System.lineSeparator());
+	}
+
+	private void createParentDirectory() {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.isDirectory()) {
+			throw new CommandException(new IOException("Cannot create directory: " + parent));
+		}
+	}
+}
@@ -24,6 +24,7 @@
 package com.github.mjeanroy.maven.plugins.node.loggers;
 
 import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputLevel;
 import org.apache.maven.plugin.logging.Log;
 
 /**
@@ -32,13 +33,7 @@ import org.apache.maven.plugin.logging.Log;
  *
  * <h2>How is the log level detected?</h2>
  *
- * The log level is detected using {@code npm} output:
- *
- * <ul>
- *   <li>If the output starts with {@code "npm ERR! "}, then the level {@code ERROR} will be used.</li>
- *   <li>It the output starts with {@code "npm WARN "}, then the level {@code WARN} will be used.</li>
- *   <li>Otherwise, the level {@code INFO} is used by default.</li>
- * </ul>
+ * The log level is detected using {@code npm} output, see {@link OutputLevel}.
  */
 public class NpmLogger extends AbstractNpmLogger implements OutputHandler {
 
@@ -66,6 +61,20 @@ public class NpmLogger extends AbstractNpmLogger implements OutputHandler {
 		this.log = log;
 	}
 
+	@Override
+	public boolean isEnabled(OutputLevel level) {
+		switch (level) {
+			case WARN:
+				return log.isWarnEnabled();
+
+			case ERROR:
+				return log.isErrorEnabled();
+
+			default:
+				return log.isInfoEnabled();
+		}
+	}
+
 	@Override
 	void warn(String line) {
 		log.warn(line);
@@ -25,9 +25,16 @@ package com.github.mjeanroy.maven.plugins.node.loggers;
 
 import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
 
+import java.lang.ProcessBuilder.Redirect;
+
 /**
  * Create a logger that process {@code npm} command output and redirect
  * everything to the standard output.
+ *
+ * <p>
+ *
+ * Lines are buffered, and written to the standard output at once when the logger is flushed: when possible,
+ * the command output is directly inherited instead (see {@link #getRedirect()}).
  */
 public class SystemOutLogger extends AbstractNpmLogger implements OutputHandler {
 
@@ -40,10 +47,16 @@ public class SystemOutLogger extends AbstractNpmLogger implements OutputHandler
 		return new SystemOutLogger();
 	}
 
+	/**
+	 * The lines being buffered, until next flush.
+	 */
+	private final StringBuilder buffer;
+
 	/**
 	 * Create the NPM logger.
 	 */
 	private SystemOutLogger() {
+		this.buffer = new StringBuilder();
 	}
 
 	@Override
@@ -61,7 +74,23 @@ public class SystemOutLogger extends AbstractNpmLogger implements OutputHandler
 		sysOut(line);
 	}
 
-	private void sysOut(String line) {
-		System.out.println(line == null ? "" : line);
+	@Override
+	public Redirect getRedirect() {
+		return Redirect.INHERIT;
+	}
+
+	@Override
+	public synchronized void flush() {
+		if (buffer.length() == 0) {
+			return;
+		}
+
+		System.out.print(buffer);
+		System.out.flush();
+		buffer.setLength(0);
+	}
+
+	private synchronized void sysOut(String line) {
+		buffer.append(line == null ? "" : line).append(System.lineSeparator());
 	}
 }
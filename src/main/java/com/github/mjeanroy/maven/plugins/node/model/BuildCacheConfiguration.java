@@ -0,0 +1,274 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.model;
+
+import com.github.mjeanroy.maven.plugins.node.commons.lang.ToStringBuilder;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Configuration of the local build cache: outputs of a goal are stored in the cache once the command succeeded, and
+ * restored instead of running the command again when the same inputs are found (for example after a {@code mvn clean},
+ * or after switching branches).
+ *
+ * <p>
+ *
+ * Outputs are declared for each goal, see {@link IncrementalBuildGoalConfiguration#getOutputs()}.
+ */
+public final class BuildCacheConfiguration {
+
+	/**
+	 * The default maximum size of the cache directory: 1 GB.
+	 */
+	private static final long DEFAULT_MAX_SIZE = 1024L * 1024L * 1024L;
+
+	/**
+	 * The default timeout of remote cache requests, in milliseconds.
+	 */
+	private static final int DEFAULT_REMOTE_TIMEOUT = 2000;
+
+	/**
+	 * If build cache is enabled or not, default is {@code false}.
+	 */
+	private boolean enabled;
+
+	/**
+	 * The cache directory, default is {@code ~/.m2/node-maven-plugin/cache}.
+	 */
+	private File directory;
+
+	/**
+	 * The maximum size of the cache directory, in bytes: least recently used entries are evicted once
+	 * this size is exceeded, default is 1 GB.
+	 *
+	 * <p>
+	 *
+	 * A value lower than or equal to zero means that the size of the cache directory is not limited.
+	 */
+	private long maxSize;
+
+	/**
+	 * The URL of the remote build cache, default is {@code null} (no remote cache).
+	 *
+	 * <p>
+	 *
+	 * Entries are read with {@code GET <remoteUrl>/<key>.zip}, and written with {@code PUT <remoteUrl>/<key>.zip}: entries
+	 * downloaded from the remote cache are stored in the local cache directory.
+	 */
+	private String remoteUrl;
+
+	/**
+	 * The connect and read timeout of remote cache requests, in milliseconds: once a request failed, the remote
+	 * cache is not used anymore until the end of the build.
+	 */
+	private int remoteTimeout;
+
+	/**
+	 * Enable/Disable upload of entries to the remote cache, default is {@code true}.
+	 */
+	private boolean remoteUpload;
+
+	/**
+	 * Enable/Disable prefetch of remote entries of all projects of the reactor, default is {@code true}.
+	 */
+	private boolean remotePrefetch;
+
+	/**
+	 * Create configuration with default settings.
+	 */
+	public BuildCacheConfiguration() {
+		this.enabled = false;
+		this.directory = new File(System.getProperty("user.home"), ".m2/node-maven-plugin/cache");
+		this.maxSize = DEFAULT_MAX_SIZE;
+		this.remoteUrl = null;
+		this.remoteTimeout = DEFAULT_REMOTE_TIMEOUT;
+		this.remoteUpload = true;
+		this.remotePrefetch = true;
+	}
+
+	/**
+	 * Get {@link #enabled}
+	 *
+	 * @return {@link #enabled}
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Set {@link #enabled}
+	 *
+	 * @param enabled New {@link #enabled}
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Get {@link #directory}
+	 *
+	 * @return {@link #directory}
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Set {@link #directory}
+	 *
+	 * @param directory New {@link #directory}
+	 */
+	public void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Get {@link #maxSize}
+	 *
+	 * @return {@link #maxSize}
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Set {@link #maxSize}
+	 *
+	 * @param maxSize New {@link #maxSize}
+	 */
+	public void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Get {@link #remoteUrl}
+	 *
+	 * @return {@link #remoteUrl}
+	 */
+	public String getRemoteUrl() {
+		return remoteUrl;
+	}
+
+	/**
+	 * Set {@link #remoteUrl}
+	 *
+	 * @param remoteUrl New {@link #remoteUrl}
+	 */
+	public void setRemoteUrl(String remoteUrl) {
+		this.remoteUrl = remoteUrl;
+	}
+
+	/**
+	 * Get {@link #remoteTimeout}
+	 *
+	 * @return {@link #remoteTimeout}
+	 */
+	public int getRemoteTimeout() {
+		return remoteTimeout;
+	}
+
+	/**
+	 * Set {@link #remoteTimeout}
+	 *
+	 * @param remoteTimeout New {@link #remoteTimeout}
+	 */
+	public void setRemoteTimeout(int remoteTimeout) {
+		this.remoteTimeout = remoteTimeout;
+	}
+
+	/**
+	 * Get {@link #remoteUpload}
+	 *
+	 * @return {@link #remoteUpload}
+	 */
+	public boolean isRemoteUpload() {
+		return remoteUpload;
+	}
+
+	/**
+	 * Set {@link #remoteUpload}
+	 *
+	 * @param remoteUpload New {@link #remoteUpload}
+	 */
+	public void setRemoteUpload(boolean remoteUpload) {
+		this.remoteUpload = remoteUpload;
+	}
+
+	/**
+	 * Get {@link #remotePrefetch}
+	 *
+	 * @return {@link #remotePrefetch}
+	 */
+	public boolean isRemotePrefetch() {
+		return remotePrefetch;
+	}
+
+	/**
+	 * Set {@link #remotePrefetch}
+	 *
+	 * @param remotePrefetch New {@link #remotePrefetch}
+	 */
+	public void setRemotePrefetch(boolean remotePrefetch) {
+		this.remotePrefetch = remotePrefetch;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof BuildCacheConfiguration) {
+			BuildCacheConfiguration c = (BuildCacheConfiguration) o;
+			return Objects.equals(enabled, c.enabled)
+					&& Objects.equals(directory, c.directory)
+					&& Objects.equals(maxSize, c.maxSize)
+					&& Objects.equals(remoteUrl, c.remoteUrl)
+					&& Objects.equals(remoteTimeout, c.remoteTimeout)
+					&& Objects.equals(remoteUpload, c.remoteUpload)
+					&& Objects.equals(remotePrefetch, c.remotePrefetch);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(enabled, directory, maxSize, remoteUrl, remoteTimeout, remoteUpload, remotePrefetch);
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.builder(getClass())
+				.append("enabled", enabled)
+				.append("directory", directory)
+				.append("maxSize", maxSize)
+				.append("remoteUrl", remoteUrl)
+				.append("remoteTimeout", remoteTimeout)
+				.append("remoteUpload", remoteUpload)
+				.append("remotePrefetch", remotePrefetch)
+				.build();
+	}
+}
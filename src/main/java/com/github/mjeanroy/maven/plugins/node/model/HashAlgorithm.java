@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.model;
+
+import com.github.mjeanroy.maven.plugins.node.commons.io.Ios;
+
+import java.io.File;
+
+/**
+ * The hash algorithm used to compute signature of input files during incremental build.
+ */
+public enum HashAlgorithm {
+
+	/**
+	 * MD5 algorithm: this is the default, for compatibility with input state computed with
+	 * previous versions.
+	 */
+	MD5 {
+		@Override
+		public String hash(File file) {
+			return Ios.md5(file);
+		}
+	},
+
+	/**
+	 * CRC-32C checksum, hardware-accelerated with Java 9 or later.
+	 */
+	CRC32C {
+		@Override
+		public String hash(File file) {
+			return Ios.crc32c(file);
+		}
+	},
+
+	/**
+	 * xxHash64, a fast non-cryptographic hash algorithm.
+	 */
+	XXHASH64 {
+		@Override
+		public String hash(File file) {
+			return Ios.xxHash64(file);
+		}
+	};
+
+	/**
+	 * Compute the signature of given file, given "this" algorithm.
+	 *
+	 * @param file The file.
+	 * @return The file signature.
+	 */
+	public abstract String hash(File file);
+
+	/**
+	 * Find the algorithm with given name, in a null-safe way.
+	 *
+	 * @param name Algorithm name.
+	 * @return The algorithm, {@code null} if no algorithm with given name exists.
+	 */
+	public static HashAlgorithm find(String name) {
+		for (HashAlgorithm algorithm : values()) {
+			if (algorithm.name().equals(name)) {
+				return algorithm;
+			}
+		}
+
+		return null;
+	}
+}
@@ -65,6 +65,48 @@ public final class IncrementalBuildConfiguration {
 	 */
 	private boolean excludeBackendSources;
 
+	/**
+	 * The number of threads used to compute signatures of input files, default is {@code 1}, meaning
+	 * that signatures are computed sequentially.
+	 *
+	 * <p>
+	 *
+	 * A value lower than or equal to zero means that the number of available processors will be used.
+	 */
+	private int parallelism;
+
+	/**
+	 * The hash algorithm used to compute signatures of input files, default is {@link HashAlgorithm#MD5}.
+	 *
+	 * <p>
+	 *
+	 * Changing the algorithm invalidates input states computed during previous builds.
+	 */
+	private HashAlgorithm hashAlgorithm;
+
+	/**
+	 * Enable/Disable file system watching, default is {@code false}.
+	 *
+	 * <p>
+	 *
+	 * When enabled, a file system watcher is registered on the working directory the first time a goal is executed,
+	 * and kept alive across builds: this is useful with a long-lived maven daemon (such as mvnd), where next executions
+	 * only check files that have been modified since the previous execution instead of scanning the whole working
+	 * directory. When the plugin is declared as a build extension, watchers that have not been used during a build
+	 * are closed once the build is over.
+	 *
+	 * <p>
+	 *
+	 * Watching is ignored on platforms without native file system events (such as macOS), where the working
+	 * directory is always scanned.
+	 */
+	private boolean watch;
+
+	/**
+	 * The local build cache configuration.
+	 */
+	private BuildCacheConfiguration cache;
+
 	/**
 	 * Set of inclusions for all goals.
 	 */
@@ -100,6 +142,11 @@ public final class IncrementalBuildConfiguration {
 	 */
 	private IncrementalBuildGoalConfiguration preClean;
 
+	/**
+	 * The specific configuration for the PACKAGE goal (named as {@code pkg} since {@code package} is a reserved keyword in java).
+	 */
+	private IncrementalBuildGoalConfiguration pkg;
+
 	/**
 	 * Create configuration with default settings.
 	 */
@@ -108,6 +155,10 @@ public final class IncrementalBuildConfiguration {
 		this.useDefaultIncludes = true;
 		this.useDefaultExcludes = true;
 		this.excludeBackendSources = true;
+		this.parallelism = 1;
+		this.hashAlgorithm = HashAlgorithm.MD5;
+		this.watch = false;
+		this.cache = new BuildCacheConfiguration();
 
 		this.includes = new ArrayList<>();
 		this.excludes = new ArrayList<>();
@@ -117,6 +168,7 @@ public final class IncrementalBuildConfiguration {
 		this.prepare = new IncrementalBuildGoalConfiguration();
 		this.build = new IncrementalBuildGoalConfiguration();
 		this.preClean = new IncrementalBuildGoalConfiguration();
+		this.pkg = new IncrementalBuildGoalConfiguration();
 	}
 
 	/**
@@ -263,6 +315,24 @@ public final class IncrementalBuildConfiguration {
 		this.preClean = preClean;
 	}
 
+	/**
+	 * Get {@link #pkg}
+	 *
+	 * @return {@link #pkg}
+	 */
+	public IncrementalBuildGoalConfiguration getPkg() {
+		return pkg;
+	}
+
+	/**
+	 * Set {@link #pkg}
+	 *
+	 * @param pkg New {@link #pkg}
+	 */
+	public void setPkg(IncrementalBuildGoalConfiguration pkg) {
+		this.pkg = pkg;
+	}
+
 	/**
 	 * Get {@link #useDefaultIncludes}
 	 *
@@ -317,6 +387,78 @@ public final class IncrementalBuildConfiguration {
 		this.excludeBackendSources = excludeBackendSources;
 	}
 
+	/**
+	 * Get {@link #parallelism}
+	 *
+	 * @return {@link #parallelism}
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Set {@link #parallelism}
+	 *
+	 * @param parallelism New {@link #parallelism}
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Get {@link #hashAlgorithm}
+	 *
+	 * @return {@link #hashAlgorithm}
+	 */
+	public HashAlgorithm getHashAlgorithm() {
+		return hashAlgorithm;
+	}
+
+	/**
+	 * Set {@link #hashAlgorithm}
+	 *
+	 * @param hashAlgorithm New {@link #hashAlgorithm}
+	 */
+	public void setHashAlgorithm(HashAlgorithm hashAlgorithm) {
+		this.hashAlgorithm = hashAlgorithm;
+	}
+
+	/**
+	 * Get {@link #watch}
+	 *
+	 * @return {@link #watch}
+	 */
+	public boolean isWatch() {
+		return watch;
+	}
+
+	/**
+	 * Set {@link #watch}
+	 *
+	 * @param watch New {@link #watch}
+	 */
+	public void setWatch(boolean watch) {
+		this.watch = watch;
+	}
+
+	/**
+	 * Get {@link #cache}
+	 *
+	 * @return {@link #cache}
+	 */
+	public BuildCacheConfiguration getCache() {
+		return cache;
+	}
+
+	/**
+	 * Set {@link #cache}
+	 *
+	 * @param cache New {@link #cache}
+	 */
+	public void setCache(BuildCacheConfiguration cache) {
+		this.cache = cache;
+	}
+
 	/**
 	 * Check if incremental build is enabled for the given goal.
 	 *
@@ -354,6 +496,17 @@ public final class IncrementalBuildConfiguration {
 		return Collections.unmodifiableSet(allIncludes);
 	}
 
+	/**
+	 * Get all outputs declared for given goal.
+	 *
+	 * @param goal The goal.
+	 * @return The outputs.
+	 */
+	public Collection<String> getOutputs(String goal) {
+		IncrementalBuildGoalConfiguration configuration = getGoalConfiguration(goal);
+		return configuration == null ? Collections.emptyList() : Collections.unmodifiableList(configuration.getOutputs());
+	}
+
 	private List<String> goalIncludes(String goal) {
 		IncrementalBuildGoalConfiguration configuration = getGoalConfiguration(goal);
 		return configuration == null ? Collections.emptyList() : configuration.getIncludes();
@@ -415,6 +568,10 @@ public final class IncrementalBuildConfiguration {
 			return preClean;
 		}
 
+		if (Objects.equals(goal, "package")) {
+			return pkg;
+		}
+
 		return null;
 	}
 
@@ -430,13 +587,18 @@ public final class IncrementalBuildConfiguration {
 					&& Objects.equals(useDefaultIncludes, c.useDefaultIncludes)
 					&& Objects.equals(useDefaultExcludes, c.useDefaultExcludes)
 					&& Objects.equals(excludeBackendSources, c.excludeBackendSources)
+					&& Objects.equals(parallelism, c.parallelism)
+					&& Objects.equals(hashAlgorithm, c.hashAlgorithm)
+					&& Objects.equals(watch, c.watch)
+					&& Objects.equals(cache, c.cache)
 					&& Objects.equals(includes, c.includes)
 					&& Objects.equals(excludes, c.excludes)
 					&& Objects.equals(install, c.install)
 					&& Objects.equals(lint, c.lint)
 					&& Objects.equals(prepare, c.prepare)
 					&& Objects.equals(build, c.build)
-					&& Objects.equals(preClean, c.preClean);
+					&& Objects.equals(preClean, c.preClean)
+					&& Objects.equals(pkg, c.pkg);
 		}
 
 		return false;
@@ -449,13 +611,18 @@ public final class IncrementalBuildConfiguration {
 				useDefaultExcludes,
 				useDefaultIncludes,
 				excludeBackendSources,
+				parallelism,
+				hashAlgorithm,
+				watch,
+				cache,
 				includes,
 				excludes,
 				install,
 				lint,
 				prepare,
 				build,
-				preClean
+				preClean,
+				pkg
 		);
 	}
 
@@ -466,6 +633,10 @@ public final class IncrementalBuildConfiguration {
 				.append("useDefaultExcludes", useDefaultExcludes)
 				.append("useDefaultIncludes", useDefaultIncludes)
 				.append("excludeBackendSources", excludeBackendSources)
+				.append("parallelism", parallelism)
+				.append("hashAlgorithm", hashAlgorithm)
+				.append("watch", watch)
+				.append("cache", cache)
 				.append("includes", includes)
 				.append("excludes", excludes)
 				.append("install", install)
@@ -473,6 +644,7 @@ public final class IncrementalBuildConfiguration {
 				.append("prepare", prepare)
 				.append("build", build)
 				.append("preClean", preClean)
+				.append("pkg", pkg)
 				.build();
 	}
 }
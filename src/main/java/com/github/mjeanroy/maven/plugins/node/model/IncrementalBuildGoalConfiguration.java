@@ -49,6 +49,14 @@ public final class IncrementalBuildGoalConfiguration {
 	 */
 	private List<String> excludes;
 
+	/**
+	 * The list of output files or directories (relative to the working directory), stored in the
+	 * build cache once the command succeeded.
+	 *
+	 * @see BuildCacheConfiguration
+	 */
+	private List<String> outputs;
+
 	/**
 	 * Enable/Disable default file inclusion, default is {@code true}.
 	 */
@@ -66,6 +74,7 @@ public final class IncrementalBuildGoalConfiguration {
 		this.enabled = true;
 		this.includes = new ArrayList<>();
 		this.excludes = new ArrayList<>();
+		this.outputs = new ArrayList<>();
 		this.useDefaultIncludes = true;
 		this.useDefaultExcludes = true;
 	}
@@ -124,6 +133,24 @@ public final class IncrementalBuildGoalConfiguration {
 		this.excludes = excludes;
 	}
 
+	/**
+	 * Get {@link #outputs}
+	 *
+	 * @return {@link #outputs}
+	 */
+	public List<String> getOutputs() {
+		return outputs;
+	}
+
+	/**
+	 * Set {@link #outputs}
+	 *
+	 * @param outputs New {@link #outputs}
+	 */
+	public void setOutputs(List<String> outputs) {
+		this.outputs = outputs;
+	}
+
 	/**
 	 * Get {@link #useDefaultIncludes}
 	 *
@@ -172,7 +199,8 @@ public final class IncrementalBuildGoalConfiguration {
 					&& Objects.equals(useDefaultIncludes, c.useDefaultIncludes)
 					&& Objects.equals(useDefaultExcludes, c.useDefaultExcludes)
 					&& Objects.equals(includes, c.includes)
-					&& Objects.equals(excludes, c.excludes);
+					&& Objects.equals(excludes, c.excludes)
+					&& Objects.equals(outputs, c.outputs);
 		}
 
 		return false;
@@ -180,7 +208,7 @@ public final class IncrementalBuildGoalConfiguration {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(enabled, useDefaultIncludes, useDefaultExcludes, includes, excludes);
+		return Objects.hash(enabled, useDefaultIncludes, useDefaultExcludes, includes, excludes, outputs);
 	}
 
 	@Override
@@ -191,6 +219,7 @@ public final class IncrementalBuildGoalConfiguration {
 				.append("useDefaultExcludes", useDefaultExcludes)
 				.append("includes", includes)
 				.append("excludes", excludes)
+				.append("outputs", outputs)
 				.build();
 	}
 }
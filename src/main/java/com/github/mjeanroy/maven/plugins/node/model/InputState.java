@@ -0,0 +1,224 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.model;
+
+import com.github.mjeanroy.maven.plugins.node.commons.lang.ToStringBuilder;
+
+import java.util.Objects;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+
+/**
+ * The state of an input file, used during incremental build to detect changes.
+ *
+ * <p>
+ *
+ * An input state contains the signature of the file content, along with
+ * file metadata (size, last modification date and file key, i.e the inode on unix systems)
+ * that can be used to detect that a file did not change without reading its content.
+ *
+ * <p>
+ *
+ * This class is immutable and, consequently, thread safe.
+ */
+public final class InputState {
+
+	/**
+	 * Value used when a file metadata is unknown.
+	 */
+	private static final long UNKNOWN = -1;
+
+	/**
+	 * Create input state.
+	 *
+	 * @param path File path.
+	 * @param hash File signature.
+	 * @param size File size.
+	 * @param lastModified File last modification time, in milliseconds.
+	 * @param fileKey File key (such as the inode on unix systems), may be {@code null}.
+	 * @return The input state.
+	 */
+	public static InputState inputState(String path, String hash, long size, long lastModified, String fileKey) {
+		return new InputState(path, hash, size, lastModified, fileKey);
+	}
+
+	/**
+	 * Create input state without any file metadata: such state can only be compared
+	 * using the file signature.
+	 *
+	 * @param path File path.
+	 * @param hash File signature.
+	 * @return The input state.
+	 */
+	public static InputState inputState(String path, String hash) {
+		return new InputState(path, hash, UNKNOWN, UNKNOWN, null);
+	}
+
+	/**
+	 * The file path.
+	 */
+	private final String path;
+
+	/**
+	 * The file signature.
+	 */
+	private final String hash;
+
+	/**
+	 * The file size, in bytes.
+	 */
+	private final long size;
+
+	/**
+	 * The file last modification time, in milliseconds.
+	 */
+	private final long lastModified;
+
+	/**
+	 * The file key, may be {@code null} if not available on the file system.
+	 */
+	private final String fileKey;
+
+	private InputState(String path, String hash, long size, long lastModified, String fileKey) {
+		this.path = notNull(path, "Input path must not be null");
+		this.hash = notNull(hash, "Input hash must not be null");
+		this.size = size;
+		this.lastModified = lastModified;
+		this.fileKey = fileKey;
+	}
+
+	/**
+	 * Get {@link #path}
+	 *
+	 * @return {@link #path}
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Get {@link #hash}
+	 *
+	 * @return {@link #hash}
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * Get {@link #size}
+	 *
+	 * @return {@link #size}
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Get {@link #lastModified}
+	 *
+	 * @return {@link #lastModified}
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Get {@link #fileKey}
+	 *
+	 * @return {@link #fileKey}
+	 */
+	public String getFileKey() {
+		return fileKey;
+	}
+
+	/**
+	 * Check if file metadata are known.
+	 *
+	 * @return {@code true} if file metadata are known, {@code false} otherwise.
+	 */
+	public boolean hasMetadata() {
+		return size != UNKNOWN && lastModified != UNKNOWN;
+	}
+
+	/**
+	 * Check if given file metadata are the same as this state, in which case the file
+	 * can be assumed to be unchanged and its signature does not need to be computed again.
+	 *
+	 * @param size File size.
+	 * @param lastModified File last modification time.
+	 * @param fileKey File key.
+	 * @return {@code true} if metadata are the same, {@code false} otherwise.
+	 */
+	public boolean hasSameMetadata(long size, long lastModified, String fileKey) {
+		return hasMetadata()
+				&& this.size == size
+				&& this.lastModified == lastModified
+				&& Objects.equals(this.fileKey, fileKey);
+	}
+
+	/**
+	 * Check if given state has the same content signature.
+	 *
+	 * @param state The other state, may be {@code null}.
+	 * @return {@code true} if signatures are equal, {@code false} otherwise.
+	 */
+	public boolean hasSameHash(InputState state) {
+		return state != null && Objects.equals(hash, state.hash);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof InputState) {
+			InputState s = (InputState) o;
+			return Objects.equals(path, s.path)
+					&& Objects.equals(hash, s.hash)
+					&& Objects.equals(size, s.size)
+					&& Objects.equals(lastModified, s.lastModified)
+					&& Objects.equals(fileKey, s.fileKey);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(path, hash, size, lastModified, fileKey);
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.builder(getClass())
+				.append("path", path)
+				.append("hash", hash)
+				.append("size", size)
+				.append("lastModified", lastModified)
+				.append("fileKey", fileKey)
+				.build();
+	}
+}
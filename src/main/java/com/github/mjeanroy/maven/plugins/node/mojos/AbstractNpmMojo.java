@@ -25,6 +25,7 @@ package com.github.mjeanroy.maven.plugins.node.mojos;
 
 import com.github.mjeanroy.maven.plugins.node.commands.*;
 import com.github.mjeanroy.maven.plugins.node.exceptions.PackageJsonNotFoundException;
+import com.github.mjeanroy.maven.plugins.node.loggers.FileLogger;
 import com.github.mjeanroy.maven.plugins.node.loggers.NpmLogger;
 import com.github.mjeanroy.maven.plugins.node.loggers.SystemOutLogger;
 import com.github.mjeanroy.maven.plugins.node.model.PackageJson;
@@ -32,6 +33,7 @@ import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.io.InterruptedIOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -92,6 +94,75 @@ abstract class AbstractNpmMojo extends AbstractMojo {
 	@Parameter(defaultValue = "true", readonly = true)
 	private boolean useMavenLogger;
 
+	/**
+	 * What happens when command output is produced faster than it can be logged:
+	 *
+	 * <ul>
+	 *   <li>{@code BLOCK} (default): the command waits until its output can be logged.</li>
+	 *   <li>{@code DROP}: output that cannot be logged immediately is dropped (and the number of dropped lines is reported).</li>
+	 * </ul>
+	 */
+	@Parameter(property = "npm.logBackpressure", defaultValue = "BLOCK")
+	private LogBackpressure logBackpressure;
+
+	/**
+	 * The implementation used to execute commands:
+	 *
+	 * <ul>
+	 *   <li>{@code COMMONS_EXEC} (default): output is pumped by dedicated threads.</li>
+	 *   <li>{@code PROCESS}: output is pumped by the calling thread, or not read at all when it can be redirected to its destination (see {@link #logFile}).</li>
+	 * </ul>
+	 */
+	@Parameter(property = "npm.executor", defaultValue = "COMMONS_EXEC")
+	private CommandExecutorType executorType;
+
+	/**
+	 * Append command output to this file, instead of the maven logger.
+	 */
+	@Parameter(property = "npm.logFile")
+	private File logFile;
+
+	/**
+	 * The maximum number of processes (such as {@code npm}, {@code yarn} or {@code node}) started by the goals
+	 * and running at the same time, for example with a parallel build (i.e {@code mvn -T}). Zero (the default)
+	 * means no limit.
+	 *
+	 * <p>
+	 *
+	 * Goals waiting for a process slot are started, in order, as soon as a running process ends.
+	 */
+	@Parameter(property = "npm.maxProcesses", defaultValue = "0")
+	private int maxProcesses;
+
+	/**
+	 * The memory, in MB, expected to be used by each process started by the goals: when set, a process is
+	 * started only if this amount of memory is available (read from {@code /proc/meminfo} and from the cgroup v2
+	 * limits of the build, on Linux), taking into account the processes that have just been started. Zero (the
+	 * default) means that available memory is not checked.
+	 *
+	 * <p>
+	 *
+	 * A process is always started if no other process is running.
+	 */
+	@Parameter(property = "npm.processMemory", defaultValue = "0")
+	private long processMemory;
+
+	/**
+	 * Share the CPUs available to the build (capped by the cgroup v2 CPU quota, on Linux) between the processes
+	 * that may run at the same time (i.e the number of threads of the reactor, limited by {@link #maxProcesses}),
+	 * and give this share to the processes with the {@code NODE_MAVEN_PLUGIN_CPUS} environment variable, and
+	 * with the variables read by some well-known tools to limit their number of workers: {@code PARCEL_WORKERS},
+	 * {@code VITEST_MAX_THREADS}, {@code VITEST_MAX_FORKS}, {@code JOBS} (node-gyp), {@code GOMAXPROCS}
+	 * (esbuild) and {@code RAYON_NUM_THREADS} (swc).
+	 *
+	 * <p>
+	 *
+	 * Variables defined in {@link #environmentVariables}, or already set in the environment of the build, are never
+	 * overridden.
+	 */
+	@Parameter(property = "npm.cpuBudget", defaultValue = "false")
+	private boolean cpuBudget;
+
 	/**
 	 * The command executor.
 	 */
@@ -102,6 +173,8 @@ abstract class AbstractNpmMojo extends AbstractMojo {
 	 */
 	AbstractNpmMojo(CommandExecutor executor) {
 		this.useMavenLogger = true;
+		this.logBackpressure = LogBackpressure.BLOCK;
+		this.executorType = CommandExecutorType.COMMONS_EXEC;
 		this.executor = executor;
 		this.environmentVariables = new LinkedHashMap<>();
 	}
@@ -115,6 +188,15 @@ abstract class AbstractNpmMojo extends AbstractMojo {
 		return workingDirectory;
 	}
 
+	/**
+	 * Get {@link #environmentVariables}
+	 *
+	 * @return {@link #environmentVariables}
+	 */
+	final Map<String, String> getEnvironmentVariables() {
+		return environmentVariables;
+	}
+
 	/**
 	 * Create new npm client command instance.
 	 *
@@ -196,7 +278,102 @@ abstract class AbstractNpmMojo extends AbstractMojo {
 	 * @return The execution result.
 	 */
 	final CommandResult execute(Command cmd) {
-		return executor.execute(workingDirectory, cmd, logger(), environmentVariables);
+		return execute(cmd, environmentVariables);
+	}
+
+	/**
+	 * Execute given command, with given environment variables.
+	 *
+	 * @param cmd The command to execute.
+	 * @param environment The environment variables.
+	 * @return The execution result.
+	 */
+	final CommandResult execute(Command cmd, Map<String, String> environment) {
+		return execute(cmd, environment, logger());
+	}
+
+	/**
+	 * Execute given command, with given environment variables, and given output handler.
+	 *
+	 * @param cmd The command to execute.
+	 * @param environment The environment variables.
+	 * @param output The output handler.
+	 * @return The execution result.
+	 */
+	final CommandResult execute(Command cmd, Map<String, String> environment, OutputHandler output) {
+		cmd.setLogBackpressure(firstNonNull(logBackpressure, LogBackpressure.BLOCK));
+
+		Map<String, String> env = environment;
+		if (cpuBudget) {
+			env = CpuBudget.environment(getCpuShare());
+			env.putAll(environment);
+		}
+
+		try (ProcessAdmission.Permit permit = admitProcess()) {
+			return getExecutor().execute(workingDirectory, cmd, output, env);
+		}
+	}
+
+	/**
+	 * Get {@link #cpuBudget}
+	 *
+	 * @return {@link #cpuBudget}
+	 */
+	final boolean isCpuBudget() {
+		return cpuBudget;
+	}
+
+	/**
+	 * Get the number of CPUs each process may use (see {@link #cpuBudget}).
+	 *
+	 * @return The CPU share.
+	 */
+	final int getCpuShare() {
+		int concurrency = getDegreeOfConcurrency();
+		if (maxProcesses > 0) {
+			concurrency = Math.min(concurrency, maxProcesses);
+		}
+
+		int share = CpuBudget.system().share(concurrency);
+		getLog().debug("Using CPU share: " + share + " (concurrency: " + concurrency + ")");
+		return share;
+	}
+
+	/**
+	 * Get the number of goals that may run at the same time, i.e the number of threads of the reactor.
+	 *
+	 * @return The degree of concurrency.
+	 */
+	int getDegreeOfConcurrency() {
+		return 1;
+	}
+
+	/**
+	 * Wait until a new process can be started, according to {@link #maxProcesses} and {@link #processMemory}.
+	 *
+	 * @return The permit, to close once the process is over, {@code null} if admission control is disabled.
+	 */
+	private ProcessAdmission.Permit admitProcess() {
+		if (maxProcesses <= 0 && processMemory <= 0) {
+			return null;
+		}
+
+		try {
+			return ProcessAdmission.getInstance().acquire(maxProcesses, processMemory * 1024 * 1024, getLog());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CommandException(new InterruptedIOException("Interrupted while waiting to start process"));
+		}
+	}
+
+	/**
+	 * Get the executor used to execute commands, given {@link #executorType}.
+	 *
+	 * @return The executor.
+	 */
+	final CommandExecutor getExecutor() {
+		return executorType == CommandExecutorType.PROCESS ? CommandExecutors.newExecutor(CommandExecutorType.PROCESS) : executor;
 	}
 
 	/**
@@ -214,7 +391,11 @@ abstract class AbstractNpmMojo extends AbstractMojo {
 	 *
 	 * @return NPM Logger.
 	 */
-	private OutputHandler logger() {
+	final OutputHandler logger() {
+		if (logFile != null) {
+			return FileLogger.fileLogger(logFile);
+		}
+
 		return useMavenLogger ? NpmLogger.npmLogger(getLog()) : SystemOutLogger.systemOutLogger();
 	}
 }
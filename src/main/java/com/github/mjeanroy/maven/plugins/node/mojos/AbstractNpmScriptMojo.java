@@ -25,37 +25,79 @@ package com.github.mjeanroy.maven.plugins.node.mojos;
 
 import com.github.mjeanroy.maven.plugins.node.commands.Command;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import com.github.mjeanroy.maven.plugins.node.commands.Commands;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputCapture;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
+import com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage;
+import com.github.mjeanroy.maven.plugins.node.commons.io.DirectoryWatcher;
+import com.github.mjeanroy.maven.plugins.node.commons.io.FileReadWriteLock;
+import com.github.mjeanroy.maven.plugins.node.commons.io.FileScanner;
 import com.github.mjeanroy.maven.plugins.node.commons.io.Files;
-import com.github.mjeanroy.maven.plugins.node.commons.io.Ios;
+import com.github.mjeanroy.maven.plugins.node.commons.io.PathLockManager;
 import com.github.mjeanroy.maven.plugins.node.commons.lang.Strings;
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+import com.github.mjeanroy.maven.plugins.node.loggers.BufferedLogger;
 import com.github.mjeanroy.maven.plugins.node.model.*;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
-import org.codehaus.plexus.util.DirectoryScanner;
 
 import java.io.File;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.github.mjeanroy.maven.plugins.node.commands.CommandExecutors.newExecutor;
 import static com.github.mjeanroy.maven.plugins.node.commons.io.Files.getNormalizeAbsolutePath;
 import static com.github.mjeanroy.maven.plugins.node.commons.io.Ios.urlEncode;
 import static com.github.mjeanroy.maven.plugins.node.commons.lang.Objects.firstNonNull;
 import static com.github.mjeanroy.maven.plugins.node.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.maven.plugins.node.commons.lang.Strings.join;
+import static com.github.mjeanroy.maven.plugins.node.loggers.BufferedLogger.bufferedLogger;
 import static com.github.mjeanroy.maven.plugins.node.commons.lang.Strings.trim;
 import static com.github.mjeanroy.maven.plugins.node.commons.mvn.MvnUtils.findHttpActiveProfiles;
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
 import static java.util.Arrays.asList;
 import static java.util.Collections.*;
 
 abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 
-	private static final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+	/**
+	 * The locks acquired by the goals, scoped by directory (see {@link #getPathLock()}).
+	 */
+	private static final PathLockManager locks = new PathLockManager();
+
+	/**
+	 * The files identifying the root of a workspace, i.e the directory where dependencies are installed.
+	 */
+	private static final List<String> WORKSPACE_FILES = unmodifiableList(asList(
+			"package-lock.json",
+			"npm-shrinkwrap.json",
+			"yarn.lock",
+			"pnpm-lock.yaml",
+			"pnpm-workspace.yaml"
+	));
+
+	/**
+	 * The name of the lock files, created in the build directory of the locked directories, used when
+	 * {@link #fileLock} is enabled.
+	 */
+	private static final String LOCK_FILE_NAME = ".node-maven-plugin.lock";
 
 	private static final String NPM_INSTALL = "install";
 	private static final String NPM_TEST = "test";
@@ -64,6 +106,21 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	private static final String NPM_PRUNE = "prune";
 	private static final String NPM_CI = "ci";
 
+	/**
+	 * Files installed by NPM/YARN, never used as incremental build inputs.
+	 */
+	private static final String NODE_MODULES_EXCLUDE = "**/node_modules/**/*";
+
+	/**
+	 * Build output, never used as incremental build inputs.
+	 */
+	private static final String TARGET_EXCLUDE = "**/target/**/*";
+
+	/**
+	 * Maximum time to wait for the file system watcher to process pending events, in milliseconds.
+	 */
+	private static final long WATCH_SYNC_TIMEOUT = 2000;
+
 	/**
 	 * Store standard commands.
 	 * Theses commands do not need to be prefixed by {@code "run"}
@@ -72,14 +129,26 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	private static final Set<String> BASIC_COMMANDS;
 
 	/**
-	 * Specific standard commands for given npm client.
+	 * The npm options, added by this plugin, that are followed by a value.
 	 */
-	private static final Map<String, Set<String>> CLIENT_BASIC_COMMANDS;
+	private static final Set<String> SCRIPT_VALUE_OPTIONS = unmodifiableSet(new HashSet<>(asList(
+			"proxy",
+			"https-proxy"
+	)));
+
+	/**
+	 * Standard commands that only run a {@code package.json} script (with its {@code pre} and {@code post} hooks),
+	 * so that they can be run directly when the script is defined.
+	 */
+	private static final Set<String> SCRIPT_BASIC_COMMANDS = unmodifiableSet(new HashSet<>(asList(
+			NPM_TEST,
+			NPM_START
+	)));
 
 	/**
-	 * The separator used to split file name and hash signature in persisted file.
+	 * Specific standard commands for given npm client.
 	 */
-	private static final String INPUT_STATE_SEPARATOR = "::";
+	private static final Map<String, Set<String>> CLIENT_BASIC_COMMANDS;
 
 	// Initialize commands
 	static {
@@ -153,12 +222,115 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	@Parameter(defaultValue = "true")
 	private boolean ignoreProxies;
 
+	/**
+	 * Run {@code package.json} scripts directly, instead of running them with the npm client (i.e {@code npm run <script>}).
+	 *
+	 * <p>
+	 *
+	 * This saves the npm client startup on each goal: the script (with its {@code pre} and {@code post} hooks)
+	 * is run with the system shell, with {@code node_modules/.bin} added to the {@code PATH}, and with the
+	 * standard {@code npm_*} environment variables. The {@code test} and {@code start} commands are run directly
+	 * when their script is defined in {@code package.json}; other commands (such as {@code install}) are
+	 * still run with the npm client.
+	 */
+	@Parameter(property = "npm.directScripts", defaultValue = "false")
+	private boolean directScripts;
+
+	/**
+	 * Record a timeline of the phases of each goal (file system scan, hashing, waiting for the lock, command
+	 * execution, state persistence...), written in the Chrome trace event format to
+	 * {@code target/node-maven-plugin/trace.json}, in the directory where the build has been started.
+	 *
+	 * <p>
+	 *
+	 * The trace is shared by all the modules of the build: with a parallel build (i.e {@code mvn -T}), each
+	 * thread of the reactor is displayed on its own track when the file is loaded in {@code chrome://tracing}
+	 * or in Perfetto.
+	 */
+	@Parameter(property = "npm.trace", defaultValue = "false")
+	private boolean trace;
+
+	/**
+	 * Log a warning when a goal waits longer than this threshold (in milliseconds) to acquire the lock shared
+	 * by the goals (see {@link LockStrategy}).
+	 *
+	 * <p>
+	 *
+	 * Lock wait and hold times are also logged (in debug) for each goal, and a summary is logged at the end of
+	 * the build when the plugin is declared as a build extension.
+	 */
+	@Parameter(property = "npm.lockWaitWarningThreshold", defaultValue = "10000")
+	private long lockWaitWarningThreshold;
+
+	/**
+	 * Back the lock shared by the goals (see {@link LockStrategy}) with a file lock, so that goals run by
+	 * different processes (for example, two maven builds started on the same workspace) do not run concurrently:
+	 * the {@code READ} strategy acquires a shared lock and the {@code WRITE} strategy an exclusive one.
+	 *
+	 * <p>
+	 *
+	 * The lock file, {@code target/node-maven-plugin/.node-maven-plugin.lock}, is created in the workspace root,
+	 * i.e the nearest directory containing a lock file of the package manager (such as {@code package-lock.json} or
+	 * {@code yarn.lock}): note that if the workspace root is not the directory of a maven module (for example, the
+	 * root of a monorepo), its {@code target} directory is only created for this lock file, and should be ignored
+	 * by the version control system. Goals only locking their working directory use the lock file created in the
+	 * {@code target} directory of the working directory, within a shared lock of the workspace lock file, so that
+	 * goals of unrelated modules still run in parallel.
+	 */
+	@Parameter(property = "npm.fileLock", defaultValue = "false")
+	private boolean fileLock;
+
+	/**
+	 * Use a single lock for all the goals, as in previous versions: by default, the lock of a goal only
+	 * covers its working directory (or the workspace root, for goals installing dependencies), so that goals
+	 * of unrelated modules can run in parallel even with the {@code WRITE} strategy.
+	 */
+	@Parameter(property = "npm.globalLock", defaultValue = "false")
+	private boolean globalLock;
+
+	/**
+	 * Arguments added to the script command when {@code npm.cpuBudget} is enabled, where {@code {cpus}} is
+	 * replaced by the number of CPUs each process may use, for example {@code --maxWorkers={cpus}} to limit the
+	 * number of workers of jest, or {@code --concurrency={cpus}} for eslint.
+	 *
+	 * <p>
+	 *
+	 * These arguments are not part of the build cache key: they must not change the outputs of the command.
+	 */
+	@Parameter
+	private List<String> cpuBudgetArguments;
+
+	/**
+	 * Scripts of the {@code package.json} file run concurrently, as separate processes, instead of the script of
+	 * the goal: for example, {@code lint:js}, {@code lint:css} and {@code lint:types} for the lint goal.
+	 *
+	 * <p>
+	 *
+	 * The output of each script is buffered, and logged as a single block, each line being prefixed by the
+	 * script name, once the script is over. The goal waits for all the scripts, and fails with a report of
+	 * all the failed scripts.
+	 */
+	@Parameter
+	private List<String> parallelScripts;
+
 	/**
 	 * Maven Settings.
 	 */
 	@Parameter(defaultValue = "${settings}", readonly = true)
 	private Settings settings;
 
+	/**
+	 * Maven Session.
+	 */
+	@Parameter(defaultValue = "${session}", readonly = true)
+	private MavenSession session;
+
+	/**
+	 * Maven Project.
+	 */
+	@Parameter(defaultValue = "${project}", readonly = true)
+	private MavenProject project;
+
 	/**
 	 * Set {@code clean} mojo to custom npm script.
 	 *
@@ -174,6 +346,16 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	@Parameter
 	private LockStrategyConfiguration lockStrategies;
 
+	/**
+	 * The trace of the current execution.
+	 */
+	private BuildTrace buildTrace;
+
+	/**
+	 * The result of the command, {@code null} until the command has been executed.
+	 */
+	private CommandResult commandResult;
+
 	/**
 	 * Default Constructor.
 	 */
@@ -186,18 +368,42 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		this.ignoreProxies = true;
 		this.incrementalBuild = new IncrementalBuildConfiguration();
 		this.lockStrategies = new LockStrategyConfiguration();
+		this.buildTrace = BuildTrace.disabled();
+		this.lockWaitWarningThreshold = 10000;
 	}
 
 	@Override
 	public final void execute() throws MojoExecutionException {
+		buildTrace = trace ? BuildTrace.of(sessionKey(session), getTraceFile()) : BuildTrace.disabled();
+
+		try (BuildTrace.Span phase = span(getGoalName())) {
+			executeGoal();
+		}
+		finally {
+			buildTrace.write(getLog());
+		}
+	}
+
+	/**
+	 * Execute the goal: the command is executed unless it should be skipped, or unless it has already been
+	 * executed without any changes since.
+	 *
+	 * @throws MojoExecutionException If something bad happened.
+	 */
+	private void executeGoal() throws MojoExecutionException {
 		Log log = getLog();
+		commandResult = null;
 
 		String scriptToRun = getScriptToRun(false);
 		Command cmd = npmClient();
 
+		// Script output is already logged, and never read afterwards: do not keep it in memory, since
+		// some tools (such as webpack, or test runners) may be very verbose.
+		cmd.setCapture(OutputCapture.none());
+
 		String[] parts = scriptToRun.split(" ");
 		String cmdToRun = parts[0];
-		boolean addRunScript = needRunScript(cmd.getName(), cmdToRun);
+		boolean addRunScript = !getParallelScripts().isEmpty() || needRunScript(cmd.getName(), cmdToRun);
 
 		if (addRunScript) {
 			log.debug("Adding run prefix for custom script command");
@@ -228,22 +434,110 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 			return;
 		}
 
-		// Command already executed by a previous build without any changes?
-		Map<String, String> previousState = readPreviousState();
-		Map<String, String> newState = readCurrentState();
-
-		if (!previousState.isEmpty() && Objects.equals(previousState, newState)) {
-			log.info("Command " + cmd + " already done, no changes detected, skipping.");
+		// Command already done, or being done, by another module sharing the same working directory?
+		String taskKey = getReactorTaskKey(cmd);
+		ReactorTasks tasks = ReactorTasks.of(sessionKey(session));
+		ReactorTasks.Task task = tasks.claim(taskKey, getModuleName());
+		if (task != null) {
+			awaitReactorTask(cmd, task);
 			return;
 		}
-		else if (log.isDebugEnabled()) {
-			printIncrementalBuildDiff(previousState, newState);
+
+		try {
+			executeTask(cmd, addRunScript, cmdToRun);
+			tasks.complete(taskKey, commandResult);
+		}
+		catch (Throwable ex) {
+			// Any error must complete the task, otherwise the modules waiting for it would wait forever.
+			tasks.fail(taskKey, ex);
+			throw ex;
 		}
+	}
+
+	/**
+	 * Execute the command, unless it has already been executed without any changes since.
+	 *
+	 * @param cmd The command.
+	 * @param addRunScript If the command runs a script of the {@code package.json} file.
+	 * @param cmdToRun The script, or built-in command, to run.
+	 * @throws MojoExecutionException If something bad happened.
+	 */
+	private void executeTask(Command cmd, boolean addRunScript, String cmdToRun) throws MojoExecutionException {
+		Log log = getLog();
 
+		// Check script before scanning input files: there is nothing to compare if the script cannot be run.
 		File packageJsonFile = lookupPackageJson();
 		PackageJson packageJson = parsePackageJson(packageJsonFile);
-		if (addRunScript && !packageJson.hasScript(cmdToRun)) {
-			handleMissingNpmScript(cmd, packageJsonFile);
+		if (getParallelScripts().isEmpty()) {
+			if (addRunScript && !packageJson.hasScript(cmdToRun)) {
+				handleMissingNpmScript(cmd, packageJsonFile);
+				return;
+			}
+		} else {
+			for (String script : getParallelScripts()) {
+				if (!packageJson.hasScript(script)) {
+					handleMissingNpmScript(cmd.replaceArgument(cmdToRun, script), packageJsonFile);
+					return;
+				}
+			}
+		}
+
+		// Command already executed by a previous build without any changes?
+		// Change detection stops at the first difference: the full state is only computed once the command succeeded.
+		// Directory scans and computed signatures are shared with the other goals executed in the same working directory.
+		// In watch mode, the working directory is not scanned again if a file system watcher, started by a previous
+		// build in the same JVM, reported all the changes since the previous state has been stored.
+		IncrementalBuildCache cache = getIncrementalBuildCache();
+		Map<String, InputState> previousState;
+		try (BuildTrace.Span phase = span("read state")) {
+			previousState = readPreviousState();
+		}
+
+		DirectoryWatcher watcher = getDirectoryWatcher();
+		Set<String> changes;
+		try (BuildTrace.Span phase = span("poll changes")) {
+			changes = pollChanges(watcher);
+		}
+
+		Collection<String> inputs;
+		List<InputState> unchangedState = null;
+
+		if (changes != null && !previousState.isEmpty()) {
+			Set<String> watchedInputs = new LinkedHashSet<>(previousState.keySet());
+			try (BuildTrace.Span phase = span("hash")) {
+				unchangedState = detectUnchangedState(changes, watchedInputs, previousState, cache);
+			}
+
+			inputs = watchedInputs;
+		} else {
+			Map<String, BasicFileAttributes> scannedInputs;
+			try (BuildTrace.Span phase = span("scan")) {
+				scannedInputs = scanInputFiles(cache);
+			}
+
+			if (!previousState.isEmpty()) {
+				try (BuildTrace.Span phase = span("hash")) {
+					unchangedState = detectUnchangedState(scannedInputs, previousState, cache);
+				}
+			}
+
+			inputs = scannedInputs.keySet();
+		}
+
+		if (unchangedState != null) {
+			log.info("Command " + cmd + " already done, no changes detected, skipping.");
+			cache.putStates(incrementalBuild.getHashAlgorithm(), unchangedState);
+
+			// File content did not change, but some file metadata did (for example, a file has been touched): store
+			// them so that these files do not need to be hashed again during the next build.
+			if (hasMetadataChanges(previousState, unchangedState)) {
+				log.debug("File metadata changed since previous build, updating input state.");
+				try (BuildTrace.Span phase = span("store state")) {
+					storeInputState(unchangedState);
+				}
+			}
+
+			markClean(watcher);
 			return;
 		}
 
@@ -284,16 +578,141 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 
 		getLog().debug("Acquiring lock with strategy: " + lockStrategy);
 
-		Lock acquiredLock = lockStrategy.getLock(lock);
+		ReadWriteLock pathLock = getPathLock();
+		Lock acquiredLock = lockStrategy.getLock(fileLock ? getFileLock(pathLock) : pathLock);
+
+		int queueLength = locks.getQueueLength(lockStrategy.getLock(pathLock));
+		long waitStart = System.nanoTime();
 
-		acquiredLock.lock();
+		try (BuildTrace.Span phase = span("lock wait")) {
+			acquiredLock.lock();
+		}
+
+		long acquired = System.nanoTime();
 
 		try {
-			doExecute(cmd, newState);
+			BuildCache buildCache = getBuildCache(cmd, inputs);
+			if (buildCache == null) {
+				doExecute(cmd, inputs, previousState, cache);
+			} else {
+				doExecute(cmd, inputs, previousState, cache, buildCache);
+			}
+
+			markClean(watcher);
 		}
 		finally {
 			acquiredLock.unlock();
+			onLockReleased(lockStrategy, queueLength, acquired - waitStart, System.nanoTime() - acquired);
+		}
+	}
+
+	/**
+	 * Get the lock of this goal, scoped by directory: goals changing the installed dependencies (see
+	 * {@link #lockWorkspace()}) lock the whole workspace, other goals lock the working directory only, so that
+	 * goals of unrelated modules never wait for each other. If {@link #globalLock} is enabled, the lock
+	 * overlaps with all the other goals instead.
+	 *
+	 * @return The lock.
+	 */
+	private ReadWriteLock getPathLock() {
+		File scope = getLockScope();
+		getLog().debug("Using lock scope: " + (globalLock ? "global" : scope));
+		return globalLock ? locks.getGlobalLock() : locks.getLock(scope);
+	}
+
+	/**
+	 * Back the lock of this goal with the lock file of its scope (see {@link #fileLock}): the lock file of the
+	 * working directory is only used with the shared lock of the workspace lock file, so that goals of unrelated
+	 * modules run by different processes do not wait for each other, but still wait for the goals changing the
+	 * installed dependencies.
+	 *
+	 * @param lock The lock of this goal.
+	 * @return The lock, backed by the lock file.
+	 */
+	private ReadWriteLock getFileLock(ReadWriteLock lock) {
+		File workspaceRoot = getWorkspaceRoot();
+		File workspaceLockFile = getLockFile(workspaceRoot);
+		File scope = getLockScope();
+
+		if (globalLock || scope.equals(workspaceRoot)) {
+			getLog().debug("Using lock file: " + workspaceLockFile);
+			return new FileReadWriteLock(lock, workspaceLockFile);
+		}
+
+		File lockFile = getLockFile(scope);
+		getLog().debug("Using lock file: " + lockFile + " (within " + workspaceLockFile + ")");
+		return new FileReadWriteLock(lock, lockFile, workspaceLockFile);
+	}
+
+	/**
+	 * Get the lock file of given directory (see {@link #fileLock}), created in its build directory so that it is
+	 * never seen by the version control system.
+	 *
+	 * @param directory The locked directory.
+	 * @return The lock file.
+	 */
+	private static File getLockFile(File directory) {
+		return Files.join(directory, "target", "node-maven-plugin", LOCK_FILE_NAME);
+	}
+
+	/**
+	 * Get the directory locked by this goal: the workspace root if {@link #lockWorkspace()}, the working
+	 * directory otherwise.
+	 *
+	 * @return The directory.
+	 */
+	private File getLockScope() {
+		return lockWorkspace() ? getWorkspaceRoot() : getWorkingDirectory().getAbsoluteFile();
+	}
+
+	/**
+	 * Get the workspace root, i.e the directory where the dependencies of the working directory are installed:
+	 * the nearest directory containing a lock file (such as {@code package-lock.json} or {@code yarn.lock}) or a
+	 * {@code pnpm-workspace.yaml} file. If there is none (for example, before the first install), it is the top-most
+	 * directory containing a {@code package.json} file, starting from the working directory.
+	 *
+	 * @return The workspace root.
+	 */
+	private File getWorkspaceRoot() {
+		File root = getWorkingDirectory().getAbsoluteFile();
+		for (File dir = root; dir != null; dir = dir.getParentFile()) {
+			for (String name : WORKSPACE_FILES) {
+				if (new File(dir, name).isFile()) {
+					return dir;
+				}
+			}
+		}
+
+		File parent = root.getParentFile();
+		while (parent != null && new File(parent, "package.json").isFile()) {
+			root = parent;
+			parent = parent.getParentFile();
+		}
+
+		return root;
+	}
+
+	/**
+	 * Log, and record, the lock contention metrics of this goal.
+	 *
+	 * @param lockStrategy The lock strategy.
+	 * @param queueLength The number of goals waiting for the lock when it has been requested.
+	 * @param waitNanos The time spent waiting for the lock, in nanoseconds.
+	 * @param holdNanos The time the lock has been held, in nanoseconds.
+	 */
+	private void onLockReleased(LockStrategy lockStrategy, int queueLength, long waitNanos, long holdNanos) {
+		Log log = getLog();
+		long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+
+		if (waitMillis > lockWaitWarningThreshold) {
+			log.warn("Goal '" + getGoalName() + "' waited " + waitMillis + " ms to acquire the " + lockStrategy + " lock (" + queueLength + " goal(s) were already waiting), please check the lock strategies of other goals.");
 		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Lock " + lockStrategy + " acquired after " + waitMillis + " ms (" + queueLength + " goal(s) waiting), held for " + TimeUnit.NANOSECONDS.toMillis(holdNanos) + " ms");
+		}
+
+		LockMetrics.of(sessionKey(session), log).add(getGoalName(), lockStrategy, queueLength, waitNanos, holdNanos);
 	}
 
 	/**
@@ -303,6 +722,16 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	 */
 	abstract LockStrategy lockStrategy();
 
+	/**
+	 * Check if the lock of this goal must cover the whole workspace (see {@link #getWorkspaceRoot()}), instead
+	 * of the working directory only: this is the case of goals changing the installed dependencies.
+	 *
+	 * @return {@code true} if the workspace must be locked, {@code false} otherwise.
+	 */
+	boolean lockWorkspace() {
+		return false;
+	}
+
 	/**
 	 * Get the goal name.
 	 *
@@ -356,15 +785,35 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	 * Execute command.
 	 *
 	 * @param cmd The command to execute.
+	 * @param inputs Input files, used to compute the state stored once the command succeeded.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
 	 * @throws MojoExecutionException If something bad happened.
 	 */
-	private void doExecute(Command cmd, Map<String, String> state) throws MojoExecutionException {
-		getLog().info("Running: " + cmd.toString());
+	private void doExecute(Command cmd, Collection<String> inputs, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
+		if (getParallelScripts().isEmpty()) {
+			getLog().info("Running: " + cmd.toString());
+		}
 
 		try {
-			executeCommand(cmd);
+			try (BuildTrace.Span phase = span("execute")) {
+				executeCommand(cmd);
+			}
+			finally {
+				// The command may have created new files: next goals must scan the working directory again.
+				cache.invalidateScans();
+			}
+
 			onRun(true);
-			storeInputState(state);
+
+			List<InputState> currentState;
+			try (BuildTrace.Span phase = span("hash")) {
+				currentState = readCurrentState(inputs, previousState, cache);
+			}
+
+			try (BuildTrace.Span phase = span("store state")) {
+				storeInputState(currentState);
+			}
 		}
 		catch (RuntimeException | MojoExecutionException ex) {
 			onRun(false);
@@ -372,6 +821,100 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		}
 	}
 
+	/**
+	 * Restore outputs of the command from the build cache if they have already been computed with the same
+	 * inputs, or execute the command and store its outputs in the build cache.
+	 *
+	 * @param cmd The command to execute.
+	 * @param inputs Input files.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @param buildCache The build cache.
+	 * @throws MojoExecutionException If something bad happened.
+	 */
+	private void doExecute(Command cmd, Collection<String> inputs, Map<String, InputState> previousState, IncrementalBuildCache cache, BuildCache buildCache) throws MojoExecutionException {
+		// The key is computed before running the command, in case the command updates some input files.
+		List<InputState> currentState;
+		try (BuildTrace.Span phase = span("hash")) {
+			currentState = readCurrentState(inputs, previousState, cache);
+		}
+
+		Collection<String> outputs = incrementalBuild.getOutputs(getGoalName());
+		String key = BuildCache.key(buildCacheKey(cmd, currentState, outputs));
+
+		boolean restored;
+		try (BuildTrace.Span phase = span("restore outputs")) {
+			restored = buildCache.restore(key, getWorkingDirectory(), outputs);
+		}
+
+		if (restored) {
+			getLog().info("Command " + cmd + " outputs restored from build cache, skipping.");
+
+			// Restored outputs may be used as inputs by next goals.
+			cache.invalidateScans();
+			onRun(true);
+			try (BuildTrace.Span phase = span("store state")) {
+				storeInputState(currentState);
+			}
+
+			return;
+		}
+
+		doExecute(cmd, inputs, previousState, cache);
+
+		// With failOnError disabled, a failed command does not stop the build: its outputs must never be restored
+		// as if it had succeeded.
+		if (commandResult == null || commandResult.isFailure()) {
+			getLog().debug("Command " + cmd + " failed, outputs are not stored in build cache.");
+			return;
+		}
+
+		try (BuildTrace.Span phase = span("store outputs")) {
+			buildCache.store(key, getWorkingDirectory(), outputs);
+		}
+	}
+
+	/**
+	 * Get all entries used to compute the build cache key: any change in one of these entries may produce
+	 * different outputs.
+	 *
+	 * <p>
+	 *
+	 * The executable path is not part of the key, only the npm client name, so that the same key is computed
+	 * on different machines.
+	 *
+	 * @param cmd The command.
+	 * @param state The input state.
+	 * @param outputs The outputs.
+	 * @return Key entries.
+	 */
+	private List<String> buildCacheKey(Command cmd, List<InputState> state, Collection<String> outputs) {
+		List<String> entries = new ArrayList<>();
+		entries.add("client:" + cmd.getName());
+
+		for (String argument : cmd.getArguments()) {
+			entries.add("argument:" + argument);
+		}
+
+		for (Map.Entry<String, String> variable : new TreeMap<>(getEnvironmentVariables()).entrySet()) {
+			entries.add("env:" + variable.getKey() + "=" + variable.getValue());
+		}
+
+		for (String output : outputs) {
+			entries.add("output:" + output);
+		}
+
+		entries.add("hash:" + incrementalBuild.getHashAlgorithm());
+
+		List<InputState> sortedState = new ArrayList<>(state);
+		sortedState.sort(Comparator.comparing(InputState::getPath));
+		for (InputState input : sortedState) {
+			entries.add("input:" + input.getPath() + ":" + input.getHash());
+		}
+
+		return entries;
+	}
+
 	/**
 	 * Return the script parameter to be able to display a useful log.
 	 *
@@ -431,37 +974,95 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	}
 
 	/**
-	 * Check if given script command has already been run.
+	 * Get the key of the command in the tasks executed by the reactor (see {@link ReactorTasks}): the working
+	 * directory, the script, and a fingerprint of the settings changing how the command is executed.
 	 *
-	 * @return {@code true} if script command has been run, {@code false} otherwise.
+	 * @param cmd The command.
+	 * @return The task key.
 	 */
-	@SuppressWarnings("rawtypes")
-	private boolean hasBeenRunPreviously() {
-		Map pluginContext = getPluginContext();
-		if (pluginContext == null) {
-			return false;
+	private String getReactorTaskKey(Command cmd) {
+		List<String> fingerprint = new ArrayList<>();
+		fingerprint.add(cmd.getName());
+		fingerprint.addAll(cmd.getArguments());
+		fingerprint.add("color=" + color);
+		fingerprint.add("maven=" + addMavenArgument);
+		fingerprint.add("ignoreProxies=" + ignoreProxies);
+		fingerprint.add("directScripts=" + directScripts);
+		fingerprint.add("parallelScripts=" + getParallelScripts());
+		fingerprint.add("failOnError=" + failOnError);
+		fingerprint.add("incrementalBuild=" + incrementalBuild);
+
+		for (Map.Entry<String, String> entry : new TreeMap<>(getEnvironmentVariables()).entrySet()) {
+			fingerprint.add("env:" + entry.getKey() + "=" + entry.getValue());
 		}
 
-		String taskId = currentTaskId();
-
-		getLog().debug("Checking if task '" + taskId + "' has been already executed");
-
-		return pluginContext.containsKey(taskId) && ((Boolean) pluginContext.get(taskId));
+		return currentTaskId() + "::" + join(fingerprint, " ");
 	}
 
 	/**
-	 * Executed after command execution.
+	 * Wait for the command to be executed by another module of the reactor, and reuse its result.
 	 *
-	 * @param status If command execution has been executed.
+	 * @param cmd The command.
+	 * @param task The task of the other module.
+	 * @throws MojoExecutionException If the command failed.
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void onRun(boolean status) {
-		Map pluginContext = getPluginContext();
-		if (pluginContext == null) {
-			pluginContext = new HashMap();
+	private void awaitReactorTask(Command cmd, ReactorTasks.Task task) throws MojoExecutionException {
+		if (!task.isDone()) {
+			getLog().info("Command " + cmd + " is being executed by module " + task.getModule() + ", waiting for its result.");
 		}
 
-		String taskId = currentTaskId();
+		CommandResult result;
+		try (BuildTrace.Span phase = span("wait reactor task")) {
+			result = task.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while waiting for command " + cmd + " executed by module " + task.getModule(), ex);
+		}
+		catch (ExecutionException ex) {
+			throw new MojoExecutionException("Command " + cmd + " failed in module " + task.getModule(), ex.getCause());
+		}
+
+		if (result == null || !result.isFailure()) {
+			getLog().info("Command " + cmd + " already done by module " + task.getModule() + ", skipping.");
+			onRun(true);
+		} else {
+			handleFailure(cmd, result);
+		}
+	}
+
+	/**
+	 * Check if given script command has already been run.
+	 *
+	 * @return {@code true} if script command has been run, {@code false} otherwise.
+	 */
+	@SuppressWarnings("rawtypes")
+	private boolean hasBeenRunPreviously() {
+		Map pluginContext = getPluginContext();
+		if (pluginContext == null) {
+			return false;
+		}
+
+		String taskId = currentTaskId();
+
+		getLog().debug("Checking if task '" + taskId + "' has been already executed");
+
+		return pluginContext.containsKey(taskId) && ((Boolean) pluginContext.get(taskId));
+	}
+
+	/**
+	 * Executed after command execution.
+	 *
+	 * @param status If command execution has been executed.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void onRun(boolean status) {
+		Map pluginContext = getPluginContext();
+		if (pluginContext == null) {
+			pluginContext = new HashMap();
+		}
+
+		String taskId = currentTaskId();
 
 		getLog().debug("Storing execution of: '" + taskId + "'");
 
@@ -477,7 +1078,35 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	private String currentTaskId() {
 		String script = getScriptToRun(true);
 		String project = getNormalizeAbsolutePath(getWorkingDirectory());
-		return project + "::" + script;
+		List<String> scripts = getParallelScripts();
+		return scripts.isEmpty() ? project + "::" + script : project + "::" + script + "::" + join(scripts, ",");
+	}
+
+	/**
+	 * Get the incremental build cache of the working directory, shared by all goals executed
+	 * during the same session: the cache is created and stored in the plugin context if it does not exist yet.
+	 *
+	 * @return The incremental build cache.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private IncrementalBuildCache getIncrementalBuildCache() {
+		Map pluginContext = getPluginContext();
+		if (pluginContext == null) {
+			pluginContext = new HashMap();
+			setPluginContext(pluginContext);
+		}
+
+		String key = IncrementalBuildCache.class.getName() + "::" + getNormalizeAbsolutePath(getWorkingDirectory());
+
+		synchronized (pluginContext) {
+			IncrementalBuildCache cache = (IncrementalBuildCache) pluginContext.get(key);
+			if (cache == null) {
+				cache = new IncrementalBuildCache();
+				pluginContext.put(key, cache);
+			}
+
+			return cache;
+		}
 	}
 
 	/**
@@ -494,7 +1123,7 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	 *
 	 * @return The previous build state.
 	 */
-	private Map<String, String> readPreviousState() {
+	private Map<String, InputState> readPreviousState() {
 		Log log = getLog();
 		log.debug("Reading previous input state");
 
@@ -503,71 +1132,447 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 			return emptyMap();
 		}
 
-		File stateFile = getInputStateFile();
-		if (!stateFile.exists()) {
-			log.debug("Input state file does not exist, skipping.");
-			return emptyMap();
+		return newInputStateStore().read(
+				incrementalBuild.getHashAlgorithm()
+		);
+	}
+
+	/**
+	 * Check if input files changed since previous build, stopping as soon as a change is detected:
+	 *
+	 * <ol>
+	 *   <li>Compare the number of input files.</li>
+	 *   <li>Compare file metadata (size, last modification date and file key) of each input file, without reading any file content.</li>
+	 *   <li>Compute signature of input files whose metadata changed, until a different signature is found.</li>
+	 * </ol>
+	 *
+	 * Signatures computed during this check are added to the incremental build cache, so that they can be
+	 * re-used to compute the full state later.
+	 *
+	 * @param inputs Attributes of input files, read during the scan, indexed by path relative to the working directory.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return The current state if nothing changed, {@code null} otherwise.
+	 * @throws MojoExecutionException If the computation has been interrupted.
+	 */
+	private List<InputState> detectUnchangedState(Map<String, BasicFileAttributes> inputs, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
+		Log log = getLog();
+		log.debug("Checking what has changed since previous build...");
+
+		if (inputs.size() != previousState.size()) {
+			log.debug("  - Number of input files changed from " + previousState.size() + " to " + inputs.size());
+			if (log.isDebugEnabled()) {
+				printAddedAndRemovedFiles(inputs.keySet(), previousState);
+			}
+
+			return null;
 		}
 
-		Charset charset = getCharset();
-		List<String> lines = Files.readLines(stateFile, charset);
-		if (lines.isEmpty()) {
-			log.debug("Input state file is empty, skipping.");
-			return emptyMap();
+		File baseDir = getWorkingDirectory();
+		List<String> paths = new ArrayList<>(inputs.size());
+		List<InputState> states = new ArrayList<>(inputs.size());
+		List<Integer> candidates = new ArrayList<>();
+
+		for (Map.Entry<String, BasicFileAttributes> input : inputs.entrySet()) {
+			String path = input.getKey();
+			InputState previous = previousState.get(path);
+			if (previous == null) {
+				log.debug("  - File '" + path + "' has been added");
+				return null;
+			}
+
+			paths.add(path);
+
+			if (hasSameMetadata(input.getValue(), previous)) {
+				states.add(previous);
+			} else {
+				candidates.add(states.size());
+				states.add(null);
+			}
+		}
+
+		if (candidates.isEmpty()) {
+			return states;
+		}
+
+		log.debug("Metadata of " + candidates.size() + " input files changed, checking signatures");
+
+		HashAlgorithm algorithm = incrementalBuild.getHashAlgorithm();
+		return hasSameHashes(baseDir, inputs, paths, candidates, previousState, cache) ? fill(states, paths, candidates, algorithm, cache) : null;
+	}
+
+	/**
+	 * Check if input files changed since previous build, using paths reported by the file system watcher instead
+	 * of scanning the working directory:
+	 *
+	 * <ol>
+	 *   <li>Update input files with added and removed files.</li>
+	 *   <li>Compare file metadata (size, last modification date and file key) of each modified input file.</li>
+	 *   <li>Compute signature of input files whose metadata changed, until a different signature is found.</li>
+	 * </ol>
+	 *
+	 * @param changes Paths modified since previous build, relative to the working directory.
+	 * @param inputs Input files of previous build, updated with added and removed files.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return The current state if nothing changed, {@code null} otherwise.
+	 * @throws MojoExecutionException If the computation has been interrupted.
+	 */
+	private List<InputState> detectUnchangedState(Set<String> changes, Set<String> inputs, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
+		Log log = getLog();
+		log.debug("Checking what has changed since previous build, using " + changes.size() + " paths reported by file system watcher...");
+
+		File baseDir = getWorkingDirectory();
+		FileScanner scanner = new FileScanner(baseDir, includes(), excludes());
+		Map<String, BasicFileAttributes> modified = new HashMap<>();
+		boolean changed = false;
+
+		// All changes are applied, even once a change is detected, since input files are needed to compute the new state.
+		for (String path : changes) {
+			File file = new File(baseDir, path);
+			if (!file.exists()) {
+				String directory = path + "/";
+				if (inputs.remove(path) | inputs.removeIf(input -> input.startsWith(directory))) {
+					log.debug("  - File '" + path + "' has been removed");
+					changed = true;
+				}
+			} else if (!inputs.contains(path)) {
+				if (file.isFile() && scanner.isSelected(path)) {
+					log.debug("  - File '" + path + "' has been added");
+					inputs.add(path);
+					changed = true;
+				}
+			} else {
+				BasicFileAttributes attributes = Files.readAttributes(file);
+				if (!hasSameMetadata(attributes, previousState.get(path))) {
+					modified.put(path, attributes);
+				}
+			}
+		}
+
+		if (changed) {
+			return null;
+		}
+
+		List<String> paths = new ArrayList<>(inputs);
+		List<InputState> states = new ArrayList<>(inputs.size());
+		List<Integer> candidates = new ArrayList<>(modified.size());
+		for (String path : paths) {
+			if (modified.containsKey(path)) {
+				candidates.add(states.size());
+				states.add(null);
+			} else {
+				states.add(previousState.get(path));
+			}
+		}
+
+		if (candidates.isEmpty()) {
+			return states;
+		}
+
+		log.debug("Metadata of " + candidates.size() + " input files changed, checking signatures");
+
+		HashAlgorithm algorithm = incrementalBuild.getHashAlgorithm();
+		return hasSameHashes(baseDir, modified, paths, candidates, previousState, cache) ? fill(states, paths, candidates, algorithm, cache) : null;
+	}
+
+	/**
+	 * Compute signature of given candidate input files, sequentially or using a bounded fork-join pool, depending
+	 * on the configured parallelism, and stop as soon as a signature is different from the previous one.
+	 *
+	 * @param baseDir The working directory.
+	 * @param inputs Attributes of input files, read during the scan, indexed by path relative to the working directory.
+	 * @param paths Input files, relative to the working directory.
+	 * @param candidates Index of input files whose metadata changed.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return {@code true} if all candidates have the same signature as the previous state, {@code false} otherwise.
+	 * @throws MojoExecutionException If the computation has been interrupted.
+	 */
+	private boolean hasSameHashes(File baseDir, Map<String, BasicFileAttributes> inputs, List<String> paths, List<Integer> candidates, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
+		HashAlgorithm algorithm = incrementalBuild.getHashAlgorithm();
+		int parallelism = getIncrementalBuildParallelism();
+		if (parallelism <= 1 || candidates.size() <= 1) {
+			for (int candidate : candidates) {
+				String path = paths.get(candidate);
+				if (!hasSameHash(computeState(baseDir, path, inputs.get(path), cache.getState(algorithm, path)), previousState, cache)) {
+					return false;
+				}
+			}
+
+			return true;
 		}
 
-		Map<String, String> state = new LinkedHashMap<>();
-		for (String line : lines) {
-			String[] parts = line.split(INPUT_STATE_SEPARATOR, 2);
-			String path = parts[0];
-			String hash = parts[1];
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
 
-			log.debug("Found previous input '" + path + "' with signature: " + hash);
+		try {
+			CompletionService<InputState> completionService = new ExecutorCompletionService<>(pool);
+			for (int candidate : candidates) {
+				String path = paths.get(candidate);
+				BasicFileAttributes attributes = inputs.get(path);
+				InputState known = cache.getState(algorithm, path);
+				completionService.submit(() -> computeState(baseDir, path, attributes, known));
+			}
+
+			// Results are consumed as soon as they are available: remaining tasks are cancelled on the first change.
+			for (int i = 0; i < candidates.size(); ++i) {
+				if (!hasSameHash(completionService.take().get(), previousState, cache)) {
+					return false;
+				}
+			}
 
-			state.put(path, hash);
+			return true;
 		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while computing input state", ex);
+		}
+		catch (ExecutionException ex) {
+			throw unwrap(ex);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
 
-		return unmodifiableMap(state);
+	/**
+	 * Check that given input state has the same signature as the previous one, and store it
+	 * in the incremental build cache so that it can be re-used later.
+	 *
+	 * @param state The input state.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return {@code true} if the signature did not change, {@code false} otherwise.
+	 */
+	private boolean hasSameHash(InputState state, Map<String, InputState> previousState, IncrementalBuildCache cache) {
+		String path = state.getPath();
+		cache.putState(incrementalBuild.getHashAlgorithm(), state);
+
+		if (!state.hasSameHash(previousState.get(path))) {
+			getLog().debug("  - File '" + path + "' has changed");
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Replace missing input states (i.e input files whose metadata changed) with the states that have been computed.
+	 *
+	 * @param states Input states, with {@code null} for each candidate.
+	 * @param paths Input files, relative to the working directory.
+	 * @param candidates Index of input files whose metadata changed.
+	 * @param algorithm The hash algorithm.
+	 * @param cache The incremental build cache, containing the input states that have been computed.
+	 * @return Input states.
+	 */
+	private static List<InputState> fill(List<InputState> states, List<String> paths, List<Integer> candidates, HashAlgorithm algorithm, IncrementalBuildCache cache) {
+		for (int candidate : candidates) {
+			states.set(candidate, cache.getState(algorithm, paths.get(candidate)));
+		}
+
+		return states;
 	}
 
 	/**
 	 * Read current mojo state, i.e:
 	 *
 	 * <ol>
-	 *   <li>Scan input files.</li>
-	 *   <li>Compute a signature for each file that have been detected.</li>
+	 *   <li>Read file metadata (size, last modification date and file key) of each input file.</li>
+	 *   <li>Compute a signature for each input file, unless file metadata are the same as a previously known state.</li>
+	 *   <li>Store computed states in the incremental build cache, to be re-used by next goals.</li>
 	 * </ol>
 	 *
+	 * <p>
+	 *
+	 * Input states are returned as a list, in the same order as input files.
+	 *
+	 * @param inputs Input files, relative to the working directory.
+	 * @param previousState The previous state, used to skip computation of file signature of unchanged files.
+	 * @param cache The incremental build cache, used to skip computation of file signature of unchanged files.
 	 * @return Input states.
+	 * @throws MojoExecutionException If the computation has been interrupted.
 	 */
-	private Map<String, String> readCurrentState() {
+	private List<InputState> readCurrentState(Collection<String> inputs, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
 		Log log = getLog();
 		log.debug("Reading current input state");
 
-		if (isIncrementalBuildDisabled()) {
-			log.debug("Incremental build is disabled, skipping.");
-			return emptyMap();
+		File baseDir = getWorkingDirectory();
+		List<String> existingInputs = new ArrayList<>(inputs.size());
+		for (String input : inputs) {
+			if (new File(baseDir, input).exists()) {
+				existingInputs.add(input);
+			}
 		}
 
-		Set<File> inputs = scanInputFiles();
-		if (inputs.isEmpty()) {
-			log.debug("No input files detected, skipping.");
-			return emptyMap();
+		// Input states are returned in the same order as input files, whatever the parallelism.
+		List<InputState> states = computeStates(baseDir, existingInputs, previousState, cache);
+		cache.putStates(incrementalBuild.getHashAlgorithm(), states);
+		return unmodifiableList(states);
+	}
+
+	/**
+	 * Compute the state of given input files, sequentially or using a bounded fork-join pool, depending
+	 * on the configured parallelism.
+	 *
+	 * @param baseDir The working directory.
+	 * @param files The input files, relative to the working directory.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return Input states, in the same order as given input files.
+	 * @throws MojoExecutionException If the computation has been interrupted.
+	 */
+	private List<InputState> computeStates(File baseDir, List<String> files, Map<String, InputState> previousState, IncrementalBuildCache cache) throws MojoExecutionException {
+		int parallelism = getIncrementalBuildParallelism();
+		if (parallelism <= 1 || files.size() <= 1) {
+			List<InputState> states = new ArrayList<>(files.size());
+			for (String file : files) {
+				states.add(computeState(baseDir, file, findKnownState(file, previousState, cache)));
+			}
+
+			return states;
 		}
 
-		Map<String, String> state = new LinkedHashMap<>();
-		for (File file : inputs) {
-			if (file.exists()) {
-				String path = Files.getNormalizeAbsolutePath(file);
-				String hash = Ios.md5(file);
+		getLog().debug("Computing input state of " + files.size() + " files using " + parallelism + " threads");
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
 
-				log.debug("Storing input state of '" + path + "' with signature: " + hash);
+		try {
+			List<Future<InputState>> futures = new ArrayList<>(files.size());
+			for (String file : files) {
+				InputState known = findKnownState(file, previousState, cache);
+				futures.add(pool.submit(() -> computeState(baseDir, file, known)));
+			}
 
-				state.put(path, hash);
+			List<InputState> states = new ArrayList<>(files.size());
+			for (Future<InputState> future : futures) {
+				states.add(future.get());
 			}
+
+			return states;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while computing input state", ex);
+		}
+		catch (ExecutionException ex) {
+			throw unwrap(ex);
 		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
 
-		return unmodifiableMap(state);
+	/**
+	 * Unwrap the failure of an input state computation.
+	 *
+	 * @param ex The execution exception.
+	 * @return The exception to throw.
+	 */
+	private static MojoExecutionException unwrap(ExecutionException ex) {
+		Throwable cause = ex.getCause();
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+
+		return new MojoExecutionException(cause.getMessage(), cause);
+	}
+
+	/**
+	 * Find the most recent known state of given input file: the state computed during this session
+	 * if any, the previous state otherwise.
+	 *
+	 * @param path The input file.
+	 * @param previousState The previous state.
+	 * @param cache The incremental build cache.
+	 * @return The known state, {@code null} if the input file is unknown.
+	 */
+	private InputState findKnownState(String path, Map<String, InputState> previousState, IncrementalBuildCache cache) {
+		InputState cached = cache.getState(incrementalBuild.getHashAlgorithm(), path);
+		return cached == null ? previousState.get(path) : cached;
+	}
+
+	/**
+	 * Get the number of threads to use to compute input states.
+	 *
+	 * @return Number of threads.
+	 */
+	private int getIncrementalBuildParallelism() {
+		int parallelism = incrementalBuild.getParallelism();
+		return parallelism <= 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+	}
+
+	/**
+	 * Check if given input file metadata are the same as the known state.
+	 *
+	 * @param attributes The input file attributes.
+	 * @param known The known state.
+	 * @return {@code true} if metadata are the same, {@code false} otherwise.
+	 */
+	private static boolean hasSameMetadata(BasicFileAttributes attributes, InputState known) {
+		return known.hasSameMetadata(attributes.size(), attributes.lastModifiedTime().toMillis(), fileKey(attributes));
+	}
+
+	/**
+	 * Compute the state of given input file: if file metadata are the same as the known
+	 * state, the file is assumed to be unchanged and the known signature is re-used, otherwise
+	 * file content is read to compute a new signature (the metadata of a file modified just before
+	 * being hashed are not kept, see {@link IncrementalBuildCache#RACY_DELAY}).
+	 *
+	 * @param baseDir The working directory.
+	 * @param path The input file, relative to the working directory.
+	 * @param known The known state, may be {@code null}.
+	 * @return The input state.
+	 */
+	private InputState computeState(File baseDir, String path, InputState known) {
+		File file = new File(baseDir, path);
+		return computeState(baseDir, path, Files.readAttributes(file), known);
+	}
+
+	/**
+	 * Compute the state of given input file, using given file attributes.
+	 *
+	 * @param baseDir The working directory.
+	 * @param path The input file, relative to the working directory.
+	 * @param attributes The input file attributes.
+	 * @param known The known state, may be {@code null}.
+	 * @return The input state.
+	 * @see #computeState(File, String, InputState)
+	 */
+	private InputState computeState(File baseDir, String path, BasicFileAttributes attributes, InputState known) {
+		File file = new File(baseDir, path);
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		String fileKey = fileKey(attributes);
+
+		if (known != null && known.hasSameMetadata(size, lastModified, fileKey)) {
+			getLog().debug("File '" + path + "' metadata did not change, re-using previous signature");
+			return known;
+		}
+
+		long hashTime = System.currentTimeMillis();
+		String hash = incrementalBuild.getHashAlgorithm().hash(file);
+
+		// A file modified just before being hashed may be modified again, in the same timestamp tick (on file systems
+		// with a coarse timestamp resolution), without any change of its metadata: these metadata are never stored, so
+		// that the file is hashed again next time.
+		if (lastModified >= hashTime - IncrementalBuildCache.RACY_DELAY) {
+			getLog().debug("File '" + path + "' has been modified while being hashed, its metadata will not be re-used");
+			return inputState(path, hash);
+		}
+
+		return inputState(path, hash, size, lastModified, fileKey);
+	}
+
+	/**
+	 * Get the file key (such as the inode on unix systems) from given file attributes.
+	 *
+	 * @param attributes File attributes.
+	 * @return The file key, may be {@code null}.
+	 */
+	private static String fileKey(BasicFileAttributes attributes) {
+		Object fileKey = attributes.fileKey();
+		return fileKey == null ? null : fileKey.toString();
 	}
 
 	/**
@@ -575,91 +1580,329 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	 *
 	 * @param state Current mojo state.
 	 */
-	private void storeInputState(Map<String, String> state) {
+	private void storeInputState(List<InputState> state) {
 		if (isIncrementalBuildDisabled()) {
 			return;
 		}
 
-		writeState(
-				serializeState(state)
+		newInputStateStore().write(
+				state,
+				incrementalBuild.getHashAlgorithm()
 		);
 	}
 
 	/**
-	 * Serialize input states (i.e md5 signature of all input files) to a line that will be written
-	 * on disk and re-used in a next build.
+	 * Create the store of mojo input states.
 	 *
-	 * @param state Inputs state.
-	 * @return Serialized state.
+	 * @return The input state store.
 	 */
-	private List<String> serializeState(Map<String, String> state) {
-		Log log = getLog();
-		List<String> lines = new ArrayList<>(state.size());
+	private InputStateStore newInputStateStore() {
+		return new InputStateStore(getInputStateFile(), getLog());
+	}
 
-		for (Map.Entry<String, String> entry : state.entrySet()) {
-			String path = entry.getKey();
-			String hash = entry.getValue();
+	/**
+	 * Get the file storing the mojo input states.
+	 *
+	 * @return The input state file.
+	 */
+	private File getInputStateFile() {
+		return getInputStateFile(getWorkingDirectory());
+	}
 
-			log.debug("Serializing state: '" + path + "' with hash: " + hash);
+	/**
+	 * Get the file storing the mojo input states in given working directory.
+	 *
+	 * @param workingDirectory The working directory.
+	 * @return The input state file.
+	 */
+	private File getInputStateFile(File workingDirectory) {
+		String fName = getScriptToRun(true);
+		String encodedName = urlEncode(fName);
+		return Files.join(workingDirectory, "target", "node-maven-plugin", encodedName);
+	}
 
-			lines.add(path + INPUT_STATE_SEPARATOR + hash);
+	/**
+	 * Get the key identifying given session: with a parallel build, each module is built with a copy of the
+	 * session, so the execution request (shared by all copies) is used instead.
+	 *
+	 * @param session The maven session, may be {@code null}.
+	 * @return The key, {@code null} if the session is {@code null}.
+	 */
+	static Object sessionKey(MavenSession session) {
+		if (session == null) {
+			return null;
 		}
 
-		return lines;
+		return session.getRequest() == null ? session : session.getRequest();
 	}
 
 	/**
-	 * Write mojo input state to given file that will be read in a next build to implement
-	 * incremental build.
+	 * Get the file where the build trace is written: the trace is shared by all the modules, so it is written
+	 * in the directory where the build has been started.
 	 *
-	 * @param lines Lines to write.
+	 * @return The trace file.
 	 */
-	private void writeState(List<String> lines) {
+	private File getTraceFile() {
+		String root = session == null ? null : session.getExecutionRootDirectory();
+		File rootDirectory = root == null ? getWorkingDirectory() : new File(root);
+		return Files.join(rootDirectory, "target", "node-maven-plugin", "trace.json");
+	}
+
+	/**
+	 * Start tracing given phase of the goal.
+	 *
+	 * @param phase The phase name.
+	 * @return The span, recorded once closed.
+	 */
+	private BuildTrace.Span span(String phase) {
+		return buildTrace.span(phase, getModuleName(), getGoalName());
+	}
+
+	@Override
+	int getDegreeOfConcurrency() {
+		MavenExecutionRequest request = session == null ? null : session.getRequest();
+		int threads = request == null ? 1 : Math.max(1, request.getDegreeOfConcurrency());
+		return threads * Math.max(1, getParallelScripts().size());
+	}
+
+	/**
+	 * Get {@link #parallelScripts}
+	 *
+	 * @return {@link #parallelScripts}, never {@code null}.
+	 */
+	private List<String> getParallelScripts() {
+		return parallelScripts == null ? Collections.<String>emptyList() : parallelScripts;
+	}
+
+	/**
+	 * Get the name of the current module: the project artifact id, or the name of the working directory.
+	 *
+	 * @return The module name.
+	 */
+	private String getModuleName() {
+		return project == null ? getWorkingDirectory().getName() : project.getArtifactId();
+	}
+
+	/**
+	 * Get the file storing the resources used by the goals executed in the working directory.
+	 *
+	 * @return The metrics file.
+	 */
+	private File getMetricsFile() {
+		return Files.join(getWorkingDirectory(), "target", "node-maven-plugin", "metrics.json");
+	}
+
+	/**
+	 * Get the build cache to use for this goal: the first time a remote build cache is used during the session,
+	 * remote entries of all projects of the reactor are prefetched.
+	 *
+	 * @param cmd The command.
+	 * @param inputs Input files.
+	 * @return The build cache, {@code null} if the build cache is disabled, or if no outputs or no inputs are defined for this goal.
+	 */
+	private BuildCache getBuildCache(Command cmd, Collection<String> inputs) {
+		BuildCacheConfiguration configuration = incrementalBuild.getCache();
+		if (isIncrementalBuildDisabled() || configuration == null || !configuration.isEnabled()) {
+			return null;
+		}
+
+		if (incrementalBuild.getOutputs(getGoalName()).isEmpty()) {
+			getLog().debug("No outputs defined for goal '" + getGoalName() + "', build cache is disabled.");
+			return null;
+		}
+
+		// Without any inputs, outputs cannot be identified.
+		if (inputs.isEmpty()) {
+			getLog().debug("No input files detected, build cache is disabled.");
+			return null;
+		}
+
+		String remoteUrl = trim(configuration.getRemoteUrl());
+		if (remoteUrl == null || remoteUrl.isEmpty()) {
+			return new BuildCache(configuration.getDirectory(), configuration.getMaxSize(), getLog());
+		}
+
+		RemoteBuildCache remote = RemoteBuildCache.of(sessionKey(session), remoteUrl, configuration.getDirectory(), configuration.getRemoteTimeout(), getLog());
+		BuildCache buildCache = new BuildCache(configuration.getDirectory(), configuration.getMaxSize(), remote, configuration.isRemoteUpload(), getLog());
+
+		if (configuration.isRemotePrefetch() && remote.markPrefetched()) {
+			prefetchReactor(cmd, buildCache, remote);
+		}
+
+		return buildCache;
+	}
+
+	/**
+	 * Prefetch, in the background, remote build cache entries of all other projects of the reactor.
+	 *
+	 * <p>
+	 *
+	 * Other projects are assumed to run this goal with the same configuration (for example, when the plugin is configured
+	 * in a parent pom): a project with a different configuration computes a different key, and the prefetched entry is
+	 * just not used.
+	 *
+	 * @param cmd The command.
+	 * @param buildCache The build cache.
+	 * @param remote The remote build cache, running prefetch tasks.
+	 */
+	private void prefetchReactor(Command cmd, BuildCache buildCache, RemoteBuildCache remote) {
+		if (session == null || project == null || project.getBasedir() == null) {
+			return;
+		}
+
 		Log log = getLog();
-		File stateFile = getInputStateFile();
-		Charset charset = getCharset();
+		Path relativeWorkingDirectory = project.getBasedir().toPath().toAbsolutePath().relativize(getWorkingDirectory().toPath().toAbsolutePath());
+		Collection<String> outputs = incrementalBuild.getOutputs(getGoalName());
 
-		log.debug("Delete mojo state file: '" + stateFile + "'");
-		Files.deleteFile(stateFile);
+		for (MavenProject reactorProject : session.getProjects()) {
+			if (reactorProject.equals(project) || reactorProject.getBasedir() == null) {
+				continue;
+			}
+
+			File workingDirectory = reactorProject.getBasedir().toPath().resolve(relativeWorkingDirectory).toFile();
+			if (!new File(workingDirectory, "package.json").isFile()) {
+				continue;
+			}
 
-		log.debug("Storing mojo state to '" + stateFile + "' using charset: " + charset);
-		if (!lines.isEmpty()) {
-			log.debug("Writing state: " + lines);
-			Files.writeLines(lines, stateFile, charset);
+			log.debug("Prefetching build cache entry of " + workingDirectory);
+
+			remote.submit(() -> {
+				try {
+					List<InputState> state = readCurrentState(workingDirectory);
+					if (!state.isEmpty()) {
+						buildCache.prefetch(BuildCache.key(buildCacheKey(cmd, state, outputs)));
+					}
+				}
+				catch (RuntimeException ex) {
+					log.debug("Unable to prefetch build cache entry of " + workingDirectory + ": " + ex.getMessage());
+				}
+			});
 		}
 	}
 
 	/**
-	 * Get charset to use to read and write file on disk.
+	 * Read the current state of given working directory, re-using signatures of the state stored in this directory
+	 * when file metadata did not change.
 	 *
-	 * @return Charset to use.
+	 * @param workingDirectory The working directory.
+	 * @return Input states.
 	 */
-	private Charset getCharset() {
-		return StandardCharsets.UTF_8;
+	private List<InputState> readCurrentState(File workingDirectory) {
+		HashAlgorithm algorithm = incrementalBuild.getHashAlgorithm();
+		Map<String, BasicFileAttributes> files = new FileScanner(workingDirectory, includes(), excludes()).scan();
+		Map<String, InputState> known = new InputStateStore(getInputStateFile(workingDirectory), getLog()).read(algorithm);
+
+		List<InputState> states = new ArrayList<>(files.size());
+		for (Map.Entry<String, BasicFileAttributes> file : files.entrySet()) {
+			String path = file.getKey();
+			states.add(computeState(workingDirectory, path, file.getValue(), known.get(path)));
+		}
+
+		return states;
 	}
 
 	/**
-	 * Get the file storing the mojo input states.
+	 * Get the file system watcher of the working directory, and start it if it is not already running.
 	 *
-	 * @return The input state file.
+	 * @return The watcher, {@code null} if watch mode is disabled or if the watcher cannot be started.
 	 */
-	private File getInputStateFile() {
-		String fName = getScriptToRun(true);
-		String encodedName = urlEncode(fName);
-		return Files.join(getWorkingDirectory(), "target", "node-maven-plugin", encodedName);
+	private DirectoryWatcher getDirectoryWatcher() {
+		if (isIncrementalBuildDisabled() || !incrementalBuild.isWatch()) {
+			return null;
+		}
+
+		try {
+			return DirectoryWatcher.watch(getWorkingDirectory(), asList(NODE_MODULES_EXCLUDE, TARGET_EXCLUDE));
+		}
+		catch (FileAccessException ex) {
+			getLog().debug("Unable to watch working directory, falling back to directory scan: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Get paths modified since the previous state has been stored.
+	 *
+	 * @param watcher The file system watcher, may be {@code null}.
+	 * @return Modified paths, {@code null} if they are not known and the working directory must be scanned.
+	 */
+	private Set<String> pollChanges(DirectoryWatcher watcher) {
+		if (watcher == null) {
+			return null;
+		}
+
+		Set<String> changes = watcher.pollChanges(getWatchId(), getInputStateFingerprint(), WATCH_SYNC_TIMEOUT);
+		if (changes == null) {
+			getLog().debug("File system watcher is not warm yet, or may have missed some events, scanning working directory");
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Notify the file system watcher that the input state is now up-to-date.
+	 *
+	 * @param watcher The file system watcher, may be {@code null}.
+	 */
+	private void markClean(DirectoryWatcher watcher) {
+		if (watcher != null) {
+			watcher.markClean(getWatchId(), getInputStateFingerprint());
+		}
+	}
+
+	/**
+	 * Get the identifier of this goal in the file system watcher: goals with the same identifier
+	 * share the same input state.
+	 *
+	 * @return The identifier.
+	 */
+	private String getWatchId() {
+		return getInputStateFile().getAbsolutePath() + "::" + includes() + "::" + excludes() + "::" + incrementalBuild.getHashAlgorithm();
+	}
+
+	/**
+	 * Get the fingerprint of the input state file, used to detect input state updated outside of the file system watcher.
+	 *
+	 * @return The fingerprint, {@code null} if the input state file does not exist.
+	 */
+	private String getInputStateFingerprint() {
+		File file = getInputStateFile();
+		if (!file.exists()) {
+			return null;
+		}
+
+		BasicFileAttributes attributes = Files.readAttributes(file);
+		return attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + fileKey(attributes);
 	}
 
 	/**
 	 * Scan all input files that will be used for computing state during incremental build.
 	 *
-	 * @return Input files to compute.
+	 * @param cache The incremental build cache, storing results of previous scans.
+	 * @return Attributes of input files, read during the scan, indexed by path relative to the working directory.
 	 */
-	private Set<File> scanInputFiles() {
+	private Map<String, BasicFileAttributes> scanInputFiles(IncrementalBuildCache cache) {
 		if (isIncrementalBuildDisabled()) {
-			return emptySet();
+			return emptyMap();
+		}
+
+		Set<String> includes = includes();
+		Set<String> excludes = excludes();
+		Map<String, BasicFileAttributes> inputs = cache.getScan(getWorkingDirectory(), includes, excludes);
+		if (inputs != null) {
+			getLog().debug("Re-using input files detected by a previous scan");
+			return inputs;
+		}
+
+		long scanTime = System.currentTimeMillis();
+		Map<String, FileTime> directories = new HashMap<>();
+		inputs = unmodifiableMap(scanFiles(includes, excludes, directories));
+		if (inputs.isEmpty()) {
+			getLog().debug("No input files detected.");
 		}
 
-		return scanFiles();
+		cache.putScan(includes, excludes, inputs, directories, scanTime);
+		return inputs;
 	}
 
 	/**
@@ -674,22 +1917,23 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	 *   <li>A pattern (relative to the working directory), for example: *.json</li>
 	 * </ul>
 	 *
-	 * @return The set of files.
+	 * Excluded directories, such as {@code node_modules} or {@code target}, are never visited.
+	 *
+	 * @param includes Includes patterns.
+	 * @param excludes Excludes patterns.
+	 * @param directories The map where last modification time of visited directories is stored.
+	 * @return Attributes of selected files, indexed by path relative to the working directory and using {@code '/'} as separator.
 	 */
-	private Set<File> scanFiles() {
+	private Map<String, BasicFileAttributes> scanFiles(Set<String> includes, Set<String> excludes, Map<String, FileTime> directories) {
 		Log log = getLog();
 
-		File baseDir = getWorkingDirectory();
-		DirectoryScanner directoryScanner = new DirectoryScanner();
-		directoryScanner.setBasedir(baseDir);
-		directoryScanner.setIncludes(includes().toArray(new String[0]));
-		directoryScanner.setExcludes(excludes().toArray(new String[0]));
-		directoryScanner.scan();
+		FileScanner scanner = new FileScanner(getWorkingDirectory(), includes, excludes);
+		Map<String, BasicFileAttributes> inputFiles = scanner.scan(directories);
 
-		Set<File> inputFiles = new LinkedHashSet<>();
-		for (String selectedFile : directoryScanner.getIncludedFiles()) {
-			log.debug("Selecting input file: " + selectedFile);
-			inputFiles.add(new File(baseDir, selectedFile));
+		if (log.isDebugEnabled()) {
+			for (String selectedFile : inputFiles.keySet()) {
+				log.debug("Selecting input file: " + selectedFile);
+			}
 		}
 
 		return inputFiles;
@@ -704,7 +1948,7 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		Set<String> excludes = new LinkedHashSet<>();
 
 		// NPM/YARN dependencies
-		excludes.add("**/node_modules/**/*");
+		excludes.add(NODE_MODULES_EXCLUDE);
 
 		// Backend Source Files (main or test)
 		if (incrementalBuild.isExcludeBackendSources()) {
@@ -715,7 +1959,7 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		}
 
 		// Build output
-		excludes.add("**/target/**/*");
+		excludes.add(TARGET_EXCLUDE);
 
 		String goal = getGoalName();
 		if (incrementalBuild.useDefaultExcludes(goal)) {
@@ -746,11 +1990,20 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	/**
 	 * Execute given command.
 	 *
-	 * @param cmd Command Line.
+	 * @param goalCmd Command Line, without the CPU budget arguments (see {@link #addCpuBudgetArguments(Command)}).
 	 * @throws MojoExecutionException In case of errors.
 	 */
-	private void executeCommand(Command cmd) throws MojoExecutionException {
-		CommandResult result = execute(cmd);
+	private void executeCommand(Command goalCmd) throws MojoExecutionException {
+		Command cmd = addCpuBudgetArguments(goalCmd);
+		if (!getParallelScripts().isEmpty()) {
+			executeParallelScripts(cmd);
+			return;
+		}
+
+		CommandResult result = directScripts ? executeScript(cmd, getScriptToRun(true).split(" ")[0], logger()) : execute(cmd);
+		commandResult = result;
+		new MetricsStore(getMetricsFile(), getLog()).save(getGoalName(), getScriptToRun(true), cmd, result);
+
 		if (result.isFailure()) {
 			handleFailure(cmd, result);
 		} else {
@@ -758,6 +2011,122 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		}
 	}
 
+	/**
+	 * Add the {@link #cpuBudgetArguments} to given command, if the CPU budget is enabled: these arguments are
+	 * added right before the command is executed, so that they are never part of the build cache key, nor of the
+	 * reactor task key, as the CPU share depends on the machine and on the reactor, not on the project.
+	 *
+	 * @param cmd The command.
+	 * @return The command with the CPU budget arguments, given command if there is none.
+	 */
+	private Command addCpuBudgetArguments(Command cmd) {
+		if (!isCpuBudget() || cpuBudgetArguments == null || cpuBudgetArguments.isEmpty()) {
+			return cmd;
+		}
+
+		Command copy = cmd.copy();
+		String cpus = String.valueOf(getCpuShare());
+		for (String argument : cpuBudgetArguments) {
+			String arg = argument.replace("{cpus}", cpus);
+			copy.addArgument(arg);
+			getLog().debug("Adding CPU budget argument: " + arg);
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Run the {@link #parallelScripts} concurrently, each as a separate process, then report the result of each
+	 * script: the output of each script is logged as a single block once the script is over.
+	 *
+	 * @param cmd The command of the goal script, used as a template of the command of each script.
+	 * @throws MojoExecutionException If one of the scripts failed.
+	 */
+	private void executeParallelScripts(Command cmd) throws MojoExecutionException {
+		Log log = getLog();
+		String goalScript = getScriptToRun(true).split(" ")[0];
+		List<String> scripts = getParallelScripts();
+
+		ExecutorService executor = Executors.newFixedThreadPool(scripts.size(), r -> {
+			Thread thread = new Thread(r, "node-maven-plugin-script");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		// All the scripts share the same logger: blocks are drained under its lock, so they are never interleaved.
+		OutputHandler logger = logger();
+
+		List<Command> commands = new ArrayList<>(scripts.size());
+		List<Future<CommandResult>> futures = new ArrayList<>(scripts.size());
+
+		try {
+			for (String script : scripts) {
+				Command scriptCmd = cmd.replaceArgument(goalScript, script);
+				commands.add(scriptCmd);
+				log.info("Running: " + scriptCmd);
+
+				futures.add(executor.submit(() -> {
+					BufferedLogger output = bufferedLogger(logger, script);
+					try {
+						return directScripts ? executeScript(scriptCmd, script, output) : execute(scriptCmd, getEnvironmentVariables(), output);
+					}
+					finally {
+						output.drain();
+					}
+				}));
+			}
+
+			List<String> failures = new ArrayList<>();
+			CommandResult failure = null;
+			ResourceUsage usage = null;
+
+			for (int i = 0; i < scripts.size(); i++) {
+				String script = scripts.get(i);
+				Command scriptCmd = commands.get(i);
+
+				CommandResult result;
+				try {
+					result = futures.get(i).get();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new MojoExecutionException("Interrupted while waiting for script " + script, ex);
+				}
+				catch (ExecutionException ex) {
+					log.error("Script '" + script + "' failed: " + ex.getCause());
+					failures.add(script + " (" + ex.getCause() + ")");
+					continue;
+				}
+
+				new MetricsStore(getMetricsFile(), log).save(getGoalName(), script, scriptCmd, result);
+				usage = plus(usage, result.getResourceUsage());
+
+				if (result.isFailure()) {
+					log.error("Script '" + script + "' failed, exit status: " + result.getStatus());
+					failures.add(script + " (exit status " + result.getStatus() + ")");
+					failure = failure == null ? result : failure;
+				} else {
+					log.info("Script '" + script + "' succeeded.");
+					handleSuccess(scriptCmd);
+				}
+			}
+
+			int status = failure != null ? failure.getStatus() : (failures.isEmpty() ? 0 : 1);
+			commandResult = new CommandResult(status, "", null, usage);
+
+			if (!failures.isEmpty()) {
+				String message = "Error during execution of scripts: " + join(failures, ", ");
+				log.error(message);
+				if (failOnError) {
+					throw new MojoExecutionException(message);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Display a success log if execution succeed.
 	 *
@@ -770,6 +2139,182 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 		}
 	}
 
+	/**
+	 * Run the {@code package.json} script of given command directly, without the npm client: the script
+	 * is run with its {@code pre} and {@code post} hooks, until one of them fails.
+	 *
+	 * @param cmd The npm client command.
+	 * @param script The script name.
+	 * @param output The output handler.
+	 * @return The result of the last script being run, with the resources used by all the scripts.
+	 */
+	private CommandResult executeScript(Command cmd, String script, OutputHandler output) {
+		boolean basicCommand = !needRunScript(cmd.getName(), script);
+		if (basicCommand && !SCRIPT_BASIC_COMMANDS.contains(script)) {
+			getLog().debug("Command '" + script + "' is not a script, running it with the npm client");
+			return execute(cmd, getEnvironmentVariables(), output);
+		}
+
+		File packageJsonFile = lookupPackageJson();
+		PackageJson packageJson = parsePackageJson(packageJsonFile);
+		Map<String, String> scripts = packageJson.getScripts();
+
+		// Without the script, the npm client has its own behavior (i.e `npm start` runs `node server.js`).
+		if (basicCommand && !scripts.containsKey(script)) {
+			getLog().debug("Script '" + script + "' is not defined in package.json, running it with the npm client");
+			return execute(cmd, getEnvironmentVariables(), output);
+		}
+
+		List<String> arguments = new ArrayList<>();
+		Map<String, String> config = new LinkedHashMap<>();
+		parseScriptArguments(cmd, script, arguments, config);
+
+		CommandResult result = null;
+		ResourceUsage usage = null;
+
+		for (String event : asList("pre" + script, script, "post" + script)) {
+			String body = scripts.get(event);
+			if (body == null) {
+				continue;
+			}
+
+			// As with npm, arguments are only given to the script itself, not to its hooks.
+			String scriptCommand = event.equals(script) && !arguments.isEmpty() ? body + " " + join(arguments, " ") : body;
+
+			getLog().info("Running script '" + event + "': " + scriptCommand);
+
+			Command shell = Commands.shell(scriptCommand);
+			shell.setCapture(cmd.getCapture());
+
+			result = execute(shell, getScriptEnvironment(packageJsonFile, packageJson, event, body, config), output);
+			usage = plus(usage, result.getResourceUsage());
+			if (result.isFailure()) {
+				break;
+			}
+		}
+
+		return result == null ? null : new CommandResult(result.getStatus(), result.getOut(), result.getOutFile(), usage);
+	}
+
+	/**
+	 * Add the resources used by two commands run sequentially.
+	 *
+	 * @param usage The resources used by the first command, may be {@code null}.
+	 * @param next The resources used by the next command, may be {@code null}.
+	 * @return The resources used by both commands, {@code null} if none has been measured.
+	 */
+	private static ResourceUsage plus(ResourceUsage usage, ResourceUsage next) {
+		if (usage == null) {
+			return next;
+		}
+
+		return next == null ? usage : usage.plus(next);
+	}
+
+	/**
+	 * Parse the arguments given to the npm client after the script name: options (such as {@code --no-color})
+	 * are npm options, given to the script as {@code npm_config_*} environment variables, other arguments are
+	 * given to the script.
+	 *
+	 * @param cmd The npm client command.
+	 * @param script The script name.
+	 * @param arguments The script arguments.
+	 * @param config The npm options.
+	 */
+	private static void parseScriptArguments(Command cmd, String script, List<String> arguments, Map<String, String> config) {
+		List<String> args = new ArrayList<>(cmd.getArguments());
+		int index = args.indexOf(script);
+
+		for (int i = index + 1; i < args.size(); ++i) {
+			String arg = args.get(i);
+			if (!arg.startsWith("--")) {
+				arguments.add(arg);
+				continue;
+			}
+
+			String option = arg.substring(2);
+			int separator = option.indexOf('=');
+
+			if (separator > 0) {
+				config.put(option.substring(0, separator), option.substring(separator + 1));
+			} else if (option.startsWith("no-")) {
+				config.put(option.substring(3), "false");
+			} else if (SCRIPT_VALUE_OPTIONS.contains(option) && i + 1 < args.size()) {
+				config.put(option, args.get(++i));
+			} else {
+				config.put(option, "true");
+			}
+		}
+	}
+
+	/**
+	 * Get the environment used to run a script directly, as the npm client would do.
+	 *
+	 * @param packageJsonFile The {@code package.json} file.
+	 * @param packageJson The {@code package.json} content.
+	 * @param event The script name.
+	 * @param body The script command.
+	 * @param config The npm options.
+	 * @return The environment variables.
+	 */
+	private Map<String, String> getScriptEnvironment(File packageJsonFile, PackageJson packageJson, String event, String body, Map<String, String> config) {
+		Map<String, String> environment = new LinkedHashMap<>();
+
+		// Add node_modules/.bin of the working directory, and of its parents (for workspaces), to the PATH.
+		StringBuilder path = new StringBuilder();
+		for (File dir = getWorkingDirectory().getAbsoluteFile(); dir != null; dir = dir.getParentFile()) {
+			path.append(new File(new File(dir, "node_modules"), ".bin").getPath()).append(File.pathSeparator);
+		}
+
+		String pathVariable = getPathVariable();
+		Map<String, String> customEnvironment = getEnvironmentVariables();
+		String currentPath = customEnvironment != null && customEnvironment.containsKey(pathVariable) ? customEnvironment.get(pathVariable) : System.getenv(pathVariable);
+		environment.put(pathVariable, currentPath == null ? path.substring(0, path.length() - 1) : path + currentPath);
+
+		environment.put("npm_lifecycle_event", event);
+		environment.put("npm_lifecycle_script", body);
+		environment.put("npm_package_json", packageJsonFile.getAbsolutePath());
+		environment.put("INIT_CWD", getWorkingDirectory().getAbsolutePath());
+
+		if (packageJson.getName() != null) {
+			environment.put("npm_package_name", packageJson.getName());
+		}
+
+		if (packageJson.getVersion() != null) {
+			environment.put("npm_package_version", packageJson.getVersion());
+		}
+
+		for (Map.Entry<String, String> entry : config.entrySet()) {
+			environment.put("npm_config_" + entry.getKey().replace('-', '_'), entry.getValue());
+		}
+
+		if (customEnvironment != null) {
+			for (Map.Entry<String, String> entry : customEnvironment.entrySet()) {
+				if (!entry.getKey().equals(pathVariable)) {
+					environment.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		return environment;
+	}
+
+	/**
+	 * Get the name of the {@code PATH} environment variable (environment variable names are case-insensitive
+	 * on windows, where it is usually named {@code Path}).
+	 *
+	 * @return The variable name.
+	 */
+	private static String getPathVariable() {
+		for (String name : System.getenv().keySet()) {
+			if (name.equalsIgnoreCase("PATH")) {
+				return name;
+			}
+		}
+
+		return "PATH";
+	}
+
 	/**
 	 * Handle command execution failure:
 	 *
@@ -796,34 +2341,46 @@ abstract class AbstractNpmScriptMojo extends AbstractNpmMojo {
 	}
 
 	/**
-	 * Print each changes that triggered this task.
+	 * Print input files that have been added or removed since previous build.
 	 * This is useful for incremental build to understand why some changes have been detected for
 	 * given task.
 	 *
+	 * @param inputs Input files.
 	 * @param previousState The previous state.
-	 * @param newState The new state.
 	 */
-	private void printIncrementalBuildDiff(Map<String, String> previousState, Map<String, String> newState) {
+	private void printAddedAndRemovedFiles(Set<String> inputs, Map<String, InputState> previousState) {
 		Log log = getLog();
 
-		// Print a diff of what has changed for easier debugging
-		log.debug("Checking what has changed since previous build...");
+		Set<String> newPaths = new HashSet<>(inputs);
+		for (String path : inputs) {
+			if (!previousState.containsKey(path)) {
+				log.debug("  - File '" + path + "' has been added");
+			}
+		}
 
-		for (Map.Entry<String, String> previousEntry : previousState.entrySet()) {
-			String path = previousEntry.getKey();
-			if (!newState.containsKey(path)) {
+		for (String path : previousState.keySet()) {
+			if (!newPaths.contains(path)) {
 				log.debug("  - File '" + path + "' has been removed");
-			} else if (!Objects.equals(previousEntry.getValue(), newState.get(path))) {
-				log.debug("  - File '" + path + "' has changed");
 			}
 		}
+	}
 
-		for (Map.Entry<String, String> newEntry : newState.entrySet()) {
-			String path = newEntry.getKey();
-			if (!previousState.containsKey(path)) {
-				log.debug("  - File '" + path + "' has been added");
+	/**
+	 * Check if some input file metadata changed between both states (both states are assumed to contain
+	 * the same input files).
+	 *
+	 * @param previousState The previous state.
+	 * @param newState The new state.
+	 * @return {@code true} if some file metadata changed, {@code false} otherwise.
+	 */
+	private static boolean hasMetadataChanges(Map<String, InputState> previousState, List<InputState> newState) {
+		for (InputState state : newState) {
+			if (!state.equals(previousState.get(state.getPath()))) {
+				return true;
 			}
 		}
+
+		return false;
 	}
 
 	/**
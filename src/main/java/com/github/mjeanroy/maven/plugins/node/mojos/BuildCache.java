@@ -0,0 +1,489 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.HashException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.io.Ios.toHex;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Local, content-addressed, build cache: outputs of a command are stored as a zip archive named after a key computed
+ * from everything that may change these outputs (input files, command, environment), and restored instead of running
+ * the command again when the same key is computed.
+ *
+ * <p>
+ *
+ * The cache is shared by all builds (and all projects) using the same cache directory: archives are written to
+ * a temporary file and atomically moved, so that a partial archive is never read. Once the maximum size is exceeded,
+ * least recently used archives are evicted (an archive is "used" each time it is written or restored).
+ *
+ * <p>
+ *
+ * If a remote cache is defined, archives that are not found locally are downloaded from the remote cache, and new
+ * archives are uploaded to the remote cache.
+ *
+ * <p>
+ *
+ * The cache is a best effort: a failure while reading or writing an archive is logged, and never fails the build.
+ */
+final class BuildCache {
+
+	/**
+	 * The extension of archive files.
+	 */
+	private static final String EXTENSION = ".zip";
+
+	/**
+	 * The separator used in archive entry names.
+	 */
+	private static final char SEPARATOR = '/';
+
+	/**
+	 * The cache directory.
+	 */
+	private final File directory;
+
+	/**
+	 * The maximum size of the cache directory, in bytes.
+	 */
+	private final long maxSize;
+
+	/**
+	 * The remote cache, may be {@code null}.
+	 */
+	private final RemoteBuildCache remote;
+
+	/**
+	 * Whether new archives are uploaded to the remote cache.
+	 */
+	private final boolean upload;
+
+	/**
+	 * The logger.
+	 */
+	private final Log log;
+
+	/**
+	 * Create a local cache.
+	 *
+	 * @param directory The cache directory.
+	 * @param maxSize The maximum size of the cache directory, in bytes (not limited if lower than or equal to zero).
+	 * @param log The logger.
+	 */
+	BuildCache(File directory, long maxSize, Log log) {
+		this(directory, maxSize, null, false, log);
+	}
+
+	/**
+	 * Create the cache.
+	 *
+	 * @param directory The cache directory.
+	 * @param maxSize The maximum size of the cache directory, in bytes (not limited if lower than or equal to zero).
+	 * @param remote The remote cache, may be {@code null}.
+	 * @param upload Whether new archives are uploaded to the remote cache.
+	 * @param log The logger.
+	 */
+	BuildCache(File directory, long maxSize, RemoteBuildCache remote, boolean upload, Log log) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.remote = remote;
+		this.upload = upload;
+		this.log = log;
+	}
+
+	/**
+	 * Compute a cache key from given entries: the key is the SHA-256 digest of all entries, so two keys are equal
+	 * if and only if entries are equal, in the same order.
+	 *
+	 * @param entries Entries.
+	 * @return The key, as an hexadecimal string.
+	 */
+	static String key(Collection<String> entries) {
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new HashException(ex);
+		}
+
+		// Each entry is prefixed with its length, so that entries cannot be ambiguous once concatenated.
+		for (String entry : entries) {
+			byte[] bytes = entry.getBytes(UTF_8);
+			digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+			digest.update(bytes);
+		}
+
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Restore outputs stored with given key: existing outputs are deleted before the archive is extracted.
+	 *
+	 * @param key The cache key.
+	 * @param workingDirectory The working directory, outputs being relative to this directory.
+	 * @param outputs The outputs.
+	 * @return {@code true} if outputs have been restored, {@code false} if the cache does not contain any entry with given key.
+	 */
+	boolean restore(String key, File workingDirectory, Collection<String> outputs) {
+		File archive = archive(key);
+		if (!archive.isFile() && remote != null) {
+			remote.fetch(archiveName(key));
+		}
+
+		if (!archive.isFile()) {
+			log.debug("Build cache entry '" + key + "' does not exist");
+			return false;
+		}
+
+		Path root = normalize(workingDirectory);
+
+		// The archive is opened before outputs are deleted: a corrupted archive is detected before anything is modified.
+		try (ZipFile zip = new ZipFile(archive)) {
+			for (String output : outputs) {
+				delete(resolve(root, output));
+			}
+
+			extract(zip, root);
+		}
+		catch (IOException ex) {
+			// Outputs may have been partially restored: the command is run again, and the broken entry is replaced.
+			log.warn("Unable to restore build cache entry '" + key + "', ignoring it: " + ex.getMessage());
+			deleteQuietly(archive.toPath());
+			return false;
+		}
+
+		touch(archive);
+		return true;
+	}
+
+	/**
+	 * Store given outputs with given key, and evict least recently used entries if the cache directory is too large.
+	 *
+	 * <p>
+	 *
+	 * The archive is also uploaded to the remote cache, if any, so that it is shared with all other builds: this
+	 * method must only be called with the outputs of a command that succeeded.
+	 *
+	 * @param key The cache key.
+	 * @param workingDirectory The working directory, outputs being relative to this directory.
+	 * @param outputs The outputs.
+	 */
+	void store(String key, File workingDirectory, Collection<String> outputs) {
+		Path root = normalize(workingDirectory);
+		Path archive = archive(key).toPath();
+		Path tmp = null;
+
+		try {
+			Files.createDirectories(directory.toPath());
+			tmp = Files.createTempFile(directory.toPath(), key, ".tmp");
+
+			try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				for (String output : outputs) {
+					archive(zip, root, resolve(root, output));
+				}
+			}
+
+			move(tmp, archive);
+			log.debug("Build cache entry '" + key + "' has been stored");
+
+			if (remote != null && upload) {
+				remote.upload(archiveName(key), archive.toFile());
+			}
+		}
+		catch (IOException ex) {
+			log.warn("Unable to store build cache entry '" + key + "': " + ex.getMessage());
+			if (tmp != null) {
+				deleteQuietly(tmp);
+			}
+
+			return;
+		}
+
+		evict();
+	}
+
+	/**
+	 * Delete least recently used entries, until the size of the cache directory is lower than the maximum size.
+	 */
+	private void evict() {
+		if (maxSize <= 0) {
+			return;
+		}
+
+		File[] archives = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		if (archives == null) {
+			return;
+		}
+
+		// The last modification date is updated each time an entry is used.
+		List<File> entries = new ArrayList<>(archives.length);
+		long size = 0;
+		for (File archive : archives) {
+			entries.add(archive);
+			size += archive.length();
+		}
+
+		entries.sort(Comparator.comparingLong(File::lastModified));
+
+		for (Iterator<File> it = entries.iterator(); it.hasNext() && size > maxSize;) {
+			File archive = it.next();
+			long length = archive.length();
+			if (archive.delete()) {
+				log.debug("Build cache entry '" + archive.getName() + "' has been evicted");
+				size -= length;
+			}
+		}
+	}
+
+	/**
+	 * Add given output to the archive: a directory is added with its whole content.
+	 *
+	 * @param zip The archive.
+	 * @param root The working directory.
+	 * @param output The output.
+	 * @throws IOException If an error occurred.
+	 */
+	private static void archive(ZipOutputStream zip, Path root, Path output) throws IOException {
+		if (!Files.exists(output)) {
+			return;
+		}
+
+		Files.walkFileTree(output, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				ZipEntry entry = new ZipEntry(entryName(root, dir) + SEPARATOR);
+				entry.setLastModifiedTime(attrs.lastModifiedTime());
+				zip.putNextEntry(entry);
+				zip.closeEntry();
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				ZipEntry entry = new ZipEntry(entryName(root, file));
+				entry.setLastModifiedTime(attrs.lastModifiedTime());
+				zip.putNextEntry(entry);
+				Files.copy(file, zip);
+				zip.closeEntry();
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Extract given archive in given directory.
+	 *
+	 * @param zip The archive.
+	 * @param root The working directory.
+	 * @throws IOException If an error occurred.
+	 */
+	private static void extract(ZipFile zip, Path root) throws IOException {
+		Enumeration<? extends ZipEntry> entries = zip.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			Path target = resolve(root, entry.getName());
+
+			if (entry.isDirectory()) {
+				Files.createDirectories(target);
+			} else {
+				Files.createDirectories(target.getParent());
+				try (InputStream input = zip.getInputStream(entry)) {
+					Files.copy(input, target);
+				}
+
+				if (entry.getLastModifiedTime() != null) {
+					Files.setLastModifiedTime(target, entry.getLastModifiedTime());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delete given file, or given directory with its whole content.
+	 *
+	 * @param path The file or directory.
+	 * @throws IOException If an error occurred.
+	 */
+	private static void delete(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				if (exc != null) {
+					throw exc;
+				}
+
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Delete given file, ignoring errors.
+	 *
+	 * @param path The file.
+	 */
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex) {
+			// Will be evicted later.
+		}
+	}
+
+	/**
+	 * Move given file to its final location, atomically if the file system supports it.
+	 *
+	 * @param source The file to move.
+	 * @param target The target.
+	 * @throws IOException If an error occurred.
+	 */
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Mark given archive as recently used.
+	 *
+	 * @param archive The archive.
+	 */
+	private static void touch(File archive) {
+		try {
+			Files.setLastModifiedTime(archive.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException ex) {
+			// The entry may be evicted sooner, this is not an error.
+		}
+	}
+
+	/**
+	 * Prefetch the archive of given key from the remote cache, in the background.
+	 *
+	 * @param key The key.
+	 */
+	void prefetch(String key) {
+		if (remote != null && !archive(key).isFile()) {
+			remote.prefetch(archiveName(key));
+		}
+	}
+
+	/**
+	 * Get the archive file of given key.
+	 *
+	 * @param key The key.
+	 * @return The archive file.
+	 */
+	private File archive(String key) {
+		return new File(directory, archiveName(key));
+	}
+
+	/**
+	 * Get the name of the archive of given key.
+	 *
+	 * @param key The key.
+	 * @return The archive name.
+	 */
+	private static String archiveName(String key) {
+		return key + EXTENSION;
+	}
+
+	/**
+	 * Get the name of the archive entry of given file.
+	 *
+	 * @param root The working directory.
+	 * @param path The file.
+	 * @return The entry name, relative to the working directory, using {@code '/'} as separator.
+	 */
+	private static String entryName(Path root, Path path) {
+		return root.relativize(path).toString().replace(File.separatorChar, SEPARATOR);
+	}
+
+	/**
+	 * Resolve given path, and ensure that it is inside the working directory.
+	 *
+	 * @param root The working directory.
+	 * @param path The relative path.
+	 * @return The resolved path.
+	 * @throws IOException If the path is outside of the working directory.
+	 */
+	private static Path resolve(Path root, String path) throws IOException {
+		Path resolved = root.resolve(path).normalize();
+		if (resolved.equals(root) || !resolved.startsWith(root)) {
+			throw new IOException("Path '" + path + "' is not inside the working directory");
+		}
+
+		return resolved;
+	}
+
+	/**
+	 * Get the normalized absolute path of given directory.
+	 *
+	 * @param directory The directory.
+	 * @return The normalized path.
+	 */
+	private static Path normalize(File directory) {
+		return directory.toPath().toAbsolutePath().normalize();
+	}
+}
@@ -0,0 +1,329 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Timeline of the phases executed by the goals of a build, written in the Chrome trace event format (that
+ * can be loaded in {@code chrome://tracing} or in Perfetto).
+ *
+ * <p>
+ *
+ * Each phase (file system scan, hashing, waiting for the lock, command execution, state persistence...) is
+ * written as a complete event ({@code "ph": "X"}) on the track of the thread executing it, with the module
+ * and the goal as arguments: with a parallel build, each reactor thread has its own track.
+ *
+ * <p>
+ *
+ * The trace is shared by all the goals of a session, and the whole file is written again each time a
+ * goal ends, so that it is complete whatever the last goal of the build.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+final class BuildTrace {
+
+	/**
+	 * The trace that does not record anything.
+	 */
+	private static final BuildTrace DISABLED = new BuildTrace(null);
+
+	/**
+	 * The span that does not record anything.
+	 */
+	private static final Span NOOP = () -> { };
+
+	/**
+	 * Traces, indexed by session and file: the session is weakly referenced, so that a trace can be garbage
+	 * collected once the session is over (for example in a long-lived maven daemon).
+	 */
+	private static final Map<Object, Map<String, BuildTrace>> SESSIONS = new WeakHashMap<>();
+
+	/**
+	 * Get the trace that does not record anything.
+	 *
+	 * @return The trace.
+	 */
+	static BuildTrace disabled() {
+		return DISABLED;
+	}
+
+	/**
+	 * Get the trace of given session, written to given file, or create it if it does not exist yet.
+	 *
+	 * @param session The maven session key (see {@link AbstractNpmScriptMojo#sessionKey}), may be {@code null} (in which case the trace is not shared).
+	 * @param file The trace file.
+	 * @return The trace.
+	 */
+	static BuildTrace of(Object session, File file) {
+		if (session == null) {
+			return new BuildTrace(file);
+		}
+
+		synchronized (SESSIONS) {
+			return SESSIONS.computeIfAbsent(session, s -> new LinkedHashMap<>()).computeIfAbsent(
+					file.getAbsolutePath(),
+					key -> new BuildTrace(file)
+			);
+		}
+	}
+
+	/**
+	 * The trace file, {@code null} if the trace is disabled.
+	 */
+	private final File file;
+
+	/**
+	 * The start date of the trace, in nanoseconds: event timestamps are relative to this date.
+	 */
+	private final long startNanos;
+
+	/**
+	 * Events recorded so far.
+	 */
+	private final List<JsonObject> events;
+
+	/**
+	 * Name of the threads that recorded an event, indexed by thread id.
+	 */
+	private final Map<Long, String> threads;
+
+	/**
+	 * Lock serializing writes of the trace file, since goals may end concurrently.
+	 */
+	private final Object writeLock;
+
+	/**
+	 * Create the trace.
+	 *
+	 * @param file The trace file, {@code null} if the trace is disabled.
+	 */
+	private BuildTrace(File file) {
+		this.file = file;
+		this.startNanos = System.nanoTime();
+		this.events = new ArrayList<>();
+		this.threads = new LinkedHashMap<>();
+		this.writeLock = new Object();
+	}
+
+	/**
+	 * Check if this trace records events.
+	 *
+	 * @return {@code true} if events are recorded, {@code false} otherwise.
+	 */
+	boolean isEnabled() {
+		return file != null;
+	}
+
+	/**
+	 * Start a new span on the current thread: the span is recorded once closed.
+	 *
+	 * @param name The phase name.
+	 * @param module The module name.
+	 * @param goal The goal name.
+	 * @return The span.
+	 */
+	Span span(String name, String module, String goal) {
+		if (!isEnabled()) {
+			return NOOP;
+		}
+
+		Thread thread = Thread.currentThread();
+		long threadId = thread.getId();
+		String threadName = thread.getName();
+		long start = System.nanoTime();
+
+		return () -> add(name, module, goal, threadId, threadName, start, System.nanoTime());
+	}
+
+	/**
+	 * Add a complete event.
+	 *
+	 * @param name The phase name.
+	 * @param module The module name.
+	 * @param goal The goal name.
+	 * @param threadId The id of the thread that executed the phase.
+	 * @param threadName The name of the thread that executed the phase.
+	 * @param start The start date, in nanoseconds.
+	 * @param end The end date, in nanoseconds.
+	 */
+	private synchronized void add(String name, String module, String goal, long threadId, String threadName, long start, long end) {
+		JsonObject args = new JsonObject();
+		args.addProperty("module", module);
+		args.addProperty("goal", goal);
+
+		JsonObject event = new JsonObject();
+		event.addProperty("name", name);
+		event.addProperty("cat", goal);
+		event.addProperty("ph", "X");
+		event.addProperty("ts", micros(start - startNanos));
+		event.addProperty("dur", micros(end - start));
+		event.addProperty("pid", 1);
+		event.addProperty("tid", threadId);
+		event.add("args", args);
+
+		events.add(event);
+		threads.putIfAbsent(threadId, threadName);
+	}
+
+	/**
+	 * Write the trace file: failing to write the trace does not fail the build, a warning is logged instead.
+	 *
+	 * @param log The logger.
+	 */
+	void write(Log log) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		// The snapshot is taken with the write lock, so that an older snapshot never overwrites a newer one.
+		synchronized (writeLock) {
+			try {
+				write(snapshot());
+				log.debug("Build trace written to: " + file);
+			}
+			catch (IOException ex) {
+				log.warn("Cannot write build trace '" + file + "': " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Serialize the events recorded so far.
+	 *
+	 * @return The trace content.
+	 */
+	private synchronized String snapshot() {
+		JsonArray traceEvents = new JsonArray();
+		traceEvents.add(metadata("process_name", null, "maven"));
+		for (Map.Entry<Long, String> thread : threads.entrySet()) {
+			traceEvents.add(metadata("thread_name", thread.getKey(), thread.getValue()));
+		}
+
+		for (JsonObject event : events) {
+			traceEvents.add(event);
+		}
+
+		JsonObject trace = new JsonObject();
+		trace.add("traceEvents", traceEvents);
+		trace.addProperty("displayTimeUnit", "ms");
+		return new Gson().toJson(trace);
+	}
+
+	/**
+	 * Write given content to the trace file, using a temporary file so that the file is never partially written.
+	 *
+	 * @param json The trace content.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(String json) throws IOException {
+		Path target = file.toPath();
+		Path parent = target.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+
+		Path tmp = Files.createTempFile(parent, file.getName(), ".tmp");
+
+		try {
+			try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+				writer.write(json);
+			}
+
+			try {
+				Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tmp, target, REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Create a metadata event, naming the process or a thread track.
+	 *
+	 * @param type The metadata type.
+	 * @param threadId The thread id, {@code null} for the process name.
+	 * @param name The name.
+	 * @return The event.
+	 */
+	private static JsonObject metadata(String type, Long threadId, String name) {
+		JsonObject args = new JsonObject();
+		args.addProperty("name", name);
+
+		JsonObject event = new JsonObject();
+		event.addProperty("name", type);
+		event.addProperty("ph", "M");
+		event.addProperty("pid", 1);
+		if (threadId != null) {
+			event.addProperty("tid", threadId);
+		}
+
+		event.add("args", args);
+		return event;
+	}
+
+	/**
+	 * Convert given duration to microseconds, the time unit of the trace event format.
+	 *
+	 * @param nanos The duration, in nanoseconds.
+	 * @return The duration, in microseconds.
+	 */
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * A phase being traced, recorded once closed.
+	 */
+	interface Span extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+}
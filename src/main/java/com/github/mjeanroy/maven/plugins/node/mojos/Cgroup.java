@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.emptyList;
+
+/**
+ * Read the control files of the cgroup v2 of the current process, and of its ancestors (for example, the limits
+ * of a container), and the files of {@code /proc}.
+ */
+final class Cgroup {
+
+	/**
+	 * The {@code /proc} directory.
+	 */
+	private final File proc;
+
+	/**
+	 * The cgroup v2 mount point.
+	 */
+	private final File root;
+
+	/**
+	 * Create the reader.
+	 *
+	 * @param proc The {@code /proc} directory.
+	 * @param root The cgroup v2 mount point.
+	 */
+	Cgroup(File proc, File root) {
+		this.proc = proc;
+		this.root = root;
+	}
+
+	/**
+	 * Get the reader of the current system.
+	 *
+	 * @return The reader.
+	 */
+	static Cgroup system() {
+		return new Cgroup(new File("/proc"), new File("/sys/fs/cgroup"));
+	}
+
+	/**
+	 * Read given file of {@code /proc}.
+	 *
+	 * @param path The file path, relative to {@code /proc}.
+	 * @return The lines of the file, {@code null} if it cannot be read.
+	 */
+	List<String> readProc(String path) {
+		return readLines(new File(proc, path));
+	}
+
+	/**
+	 * Get the directories of the cgroup of the current process, and of its ancestors, from the cgroup itself
+	 * to the root cgroup.
+	 *
+	 * @return The directories, empty if the cgroup v2 of the current process cannot be read.
+	 */
+	List<File> getHierarchy() {
+		List<String> lines = readProc("self/cgroup");
+		if (lines == null) {
+			return emptyList();
+		}
+
+		for (String line : lines) {
+			// The cgroup v2 entry is the (only) one with the hierarchy id 0, for example: "0::/user.slice/session-1.scope"
+			if (line.startsWith("0::")) {
+				File rootDir = root.getAbsoluteFile();
+				List<File> hierarchy = new ArrayList<>();
+				for (File dir = new File(rootDir, line.substring(3).trim()); dir != null && dir.getPath().startsWith(rootDir.getPath()); dir = dir.getParentFile()) {
+					hierarchy.add(dir);
+				}
+
+				return hierarchy;
+			}
+		}
+
+		return emptyList();
+	}
+
+	/**
+	 * Read the first line of given control file.
+	 *
+	 * @param dir The cgroup directory.
+	 * @param name The file name.
+	 * @return The first line, {@code null} if it cannot be read.
+	 */
+	static String readFirstLine(File dir, String name) {
+		List<String> lines = readLines(new File(dir, name));
+		return lines == null || lines.isEmpty() ? null : lines.get(0).trim();
+	}
+
+	private static List<String> readLines(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+
+		try {
+			return Files.readAllLines(file.toPath(), US_ASCII);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+}
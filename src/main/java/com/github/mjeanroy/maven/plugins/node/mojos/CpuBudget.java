@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The CPU budget of the processes started by the goals: the CPUs available to the build (the number of processors
+ * of the JVM, capped by the cgroup v2 CPU quota) are shared between the processes that may run at the same time
+ * (i.e the number of threads of the reactor), so that the tools started by these processes, each spawning by
+ * default one worker per CPU, do not oversubscribe the machine.
+ *
+ * <p>
+ *
+ * The share is given to the processes with the {@link #CPUS_VARIABLE} environment variable, and with the variables
+ * read by some well-known tools (see {@link #TOOL_VARIABLES}).
+ */
+final class CpuBudget {
+
+	/**
+	 * The environment variable giving the number of CPUs a process may use.
+	 */
+	static final String CPUS_VARIABLE = "NODE_MAVEN_PLUGIN_CPUS";
+
+	/**
+	 * Environment variables, read by well-known tools, limiting their number of workers or threads:
+	 *
+	 * <ul>
+	 *   <li>{@code PARCEL_WORKERS}: Parcel workers.</li>
+	 *   <li>{@code VITEST_MAX_THREADS} and {@code VITEST_MAX_FORKS}: Vitest workers.</li>
+	 *   <li>{@code JOBS}: parallel compilation of native addons by node-gyp.</li>
+	 *   <li>{@code GOMAXPROCS}: threads of tools written in Go, such as esbuild.</li>
+	 *   <li>{@code RAYON_NUM_THREADS}: threads of tools written in Rust, such as swc.</li>
+	 * </ul>
+	 */
+	static final List<String> TOOL_VARIABLES = unmodifiableList(asList(
+			"PARCEL_WORKERS",
+			"VITEST_MAX_THREADS",
+			"VITEST_MAX_FORKS",
+			"JOBS",
+			"GOMAXPROCS",
+			"RAYON_NUM_THREADS"
+	));
+
+	/**
+	 * Get the budget of the current system.
+	 *
+	 * @return The budget.
+	 */
+	static CpuBudget system() {
+		return new CpuBudget(Cgroup.system(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * The cgroup reader.
+	 */
+	private final Cgroup cgroup;
+
+	/**
+	 * The number of processors available to the JVM.
+	 */
+	private final int availableProcessors;
+
+	/**
+	 * Create the budget.
+	 *
+	 * @param cgroup The cgroup reader.
+	 * @param availableProcessors The number of processors available to the JVM.
+	 */
+	CpuBudget(Cgroup cgroup, int availableProcessors) {
+		this.cgroup = cgroup;
+		this.availableProcessors = availableProcessors;
+	}
+
+	/**
+	 * Get the number of CPUs available to the build: the number of processors, capped by the CPU quota of the
+	 * cgroup of the build (and of its ancestors), rounded up.
+	 *
+	 * @return The number of CPUs.
+	 */
+	int cpus() {
+		int cpus = Math.max(1, availableProcessors);
+		for (File dir : cgroup.getHierarchy()) {
+			// The quota and the period, in microseconds, for example: "200000 100000", or "max 100000" without quota.
+			String cpuMax = Cgroup.readFirstLine(dir, "cpu.max");
+			if (cpuMax == null) {
+				continue;
+			}
+
+			String[] parts = cpuMax.split("\\s+");
+			if (parts.length == 2 && !parts[0].equals("max")) {
+				try {
+					long quota = Long.parseLong(parts[0]);
+					long period = Long.parseLong(parts[1]);
+					if (quota > 0 && period > 0) {
+						cpus = (int) Math.min(cpus, Math.max(1, (quota + period - 1) / period));
+					}
+				}
+				catch (NumberFormatException ex) {
+					// Ignore malformed quota.
+				}
+			}
+		}
+
+		return cpus;
+	}
+
+	/**
+	 * Get the number of CPUs each process may use.
+	 *
+	 * @param concurrency The number of processes that may run at the same time.
+	 * @return The CPU share, at least one.
+	 */
+	int share(int concurrency) {
+		return Math.max(1, cpus() / Math.max(1, concurrency));
+	}
+
+	/**
+	 * Get the environment variables giving given CPU share to a process: the variables of the tools already set in
+	 * the environment of the build are left unchanged.
+	 *
+	 * @param share The CPU share.
+	 * @return The environment variables.
+	 */
+	static Map<String, String> environment(int share) {
+		return environment(share, System.getenv());
+	}
+
+	/**
+	 * Get the environment variables giving given CPU share to a process.
+	 *
+	 * @param share The CPU share.
+	 * @param inherited The environment inherited by the process: the variables of the tools set by the user win.
+	 * @return The environment variables.
+	 */
+	static Map<String, String> environment(int share, Map<String, String> inherited) {
+		String value = String.valueOf(share);
+		Map<String, String> environment = new LinkedHashMap<>();
+		environment.put(CPUS_VARIABLE, value);
+		for (String variable : TOOL_VARIABLES) {
+			if (!inherited.containsKey(variable)) {
+				environment.put(variable, value);
+			}
+		}
+
+		return environment;
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Cache of incremental build computations for a given working directory, shared by all goals
+ * executed during the same maven session (the cache is stored in the plugin context):
+ *
+ * <ul>
+ *   <li>Input files (and their attributes) detected by a directory scan, indexed by the set of includes/excludes patterns.</li>
+ *   <li>Input states computed by a goal, re-used by next goals as long as file metadata did not change.</li>
+ * </ul>
+ *
+ * Since a command may create or update input files, scan results are invalidated each time a command is executed in
+ * the working directory. Files may also be created or updated between two goals by other plugins (or by the user): a scan
+ * result is only re-used if none of the visited directories has been modified since the scan (i.e no file has been created
+ * or removed), and attributes of input files are read again. Input states do not need to be invalidated as they are always
+ * checked against current file metadata.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+final class IncrementalBuildCache {
+
+	/**
+	 * A file, or a directory, modified less than this delay (in milliseconds) before being read may be modified
+	 * again without any visible change of its last modification time (on file systems with a coarse timestamp
+	 * resolution): the scan result, or the file signature, is never re-used in this case.
+	 */
+	static final long RACY_DELAY = 2000;
+
+	/**
+	 * Directory scans, indexed by includes/excludes patterns.
+	 */
+	private final ConcurrentMap<List<Set<String>>, Scan> scans;
+
+	/**
+	 * Input states computed by a goal, indexed by hash algorithm and path relative to the working directory.
+	 */
+	private final ConcurrentMap<HashAlgorithm, Map<String, InputState>> states;
+
+	/**
+	 * Create empty cache.
+	 */
+	IncrementalBuildCache() {
+		this.scans = new ConcurrentHashMap<>();
+		this.states = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get input files detected by a previous directory scan with given patterns, with their current attributes.
+	 *
+	 * @param baseDir The working directory.
+	 * @param includes Includes patterns.
+	 * @param excludes Excludes patterns.
+	 * @return Attributes of input files, {@code null} if no scan has been done with given patterns, or if the scan is not up-to-date anymore.
+	 */
+	Map<String, BasicFileAttributes> getScan(File baseDir, Set<String> includes, Set<String> excludes) {
+		List<Set<String>> key = asList(includes, excludes);
+		Scan scan = scans.get(key);
+		if (scan == null) {
+			return null;
+		}
+
+		Map<String, BasicFileAttributes> inputs = scan.refresh(baseDir);
+		if (inputs == null) {
+			scans.remove(key, scan);
+		}
+
+		return inputs;
+	}
+
+	/**
+	 * Store input files detected by a directory scan with given patterns.
+	 *
+	 * @param includes Includes patterns.
+	 * @param excludes Excludes patterns.
+	 * @param inputs Attributes of input files.
+	 * @param directories Last modification time of directories visited by the scan, indexed by path relative to the working directory.
+	 * @param scanTime The time when the scan started, in milliseconds.
+	 */
+	void putScan(Set<String> includes, Set<String> excludes, Map<String, BasicFileAttributes> inputs, Map<String, FileTime> directories, long scanTime) {
+		scans.put(asList(includes, excludes), new Scan(inputs, directories, scanTime));
+	}
+
+	/**
+	 * Remove all scan results: must be called each time a command that may create files has been executed.
+	 */
+	void invalidateScans() {
+		scans.clear();
+	}
+
+	/**
+	 * Get the last input state computed for given file.
+	 *
+	 * @param algorithm The hash algorithm.
+	 * @param path The input file.
+	 * @return The input state, {@code null} if it has never been computed.
+	 */
+	InputState getState(HashAlgorithm algorithm, String path) {
+		Map<String, InputState> algorithmStates = states.get(algorithm);
+		return algorithmStates == null ? null : algorithmStates.get(path);
+	}
+
+	/**
+	 * Store given input state.
+	 *
+	 * @param algorithm The hash algorithm used to compute input state.
+	 * @param inputState Input state.
+	 */
+	void putState(HashAlgorithm algorithm, InputState inputState) {
+		states.computeIfAbsent(algorithm, key -> new ConcurrentHashMap<>()).put(inputState.getPath(), inputState);
+	}
+
+	/**
+	 * Store given input states.
+	 *
+	 * @param algorithm The hash algorithm used to compute input states.
+	 * @param inputStates Input states.
+	 */
+	void putStates(HashAlgorithm algorithm, Collection<InputState> inputStates) {
+		Map<String, InputState> algorithmStates = states.computeIfAbsent(algorithm, key -> new ConcurrentHashMap<>());
+		for (InputState inputState : inputStates) {
+			algorithmStates.put(inputState.getPath(), inputState);
+		}
+	}
+
+	/**
+	 * The result of a directory scan.
+	 */
+	private static final class Scan {
+
+		/**
+		 * Input files, indexed by path relative to the working directory.
+		 */
+		private final Collection<String> files;
+
+		/**
+		 * Last modification time of visited directories, indexed by path relative to the working directory.
+		 */
+		private final Map<String, FileTime> directories;
+
+		/**
+		 * The time when the scan started, in milliseconds.
+		 */
+		private final long scanTime;
+
+		private Scan(Map<String, BasicFileAttributes> inputs, Map<String, FileTime> directories, long scanTime) {
+			this.files = inputs.keySet();
+			this.directories = directories;
+			this.scanTime = scanTime;
+		}
+
+		/**
+		 * Read the current attributes of input files, unless a visited directory has been modified since the scan.
+		 *
+		 * @param baseDir The working directory.
+		 * @return Attributes of input files, {@code null} if the scan is not up-to-date anymore.
+		 */
+		private Map<String, BasicFileAttributes> refresh(File baseDir) {
+			for (Map.Entry<String, FileTime> directory : directories.entrySet()) {
+				FileTime lastModified = directory.getValue();
+				if (lastModified.toMillis() >= scanTime - RACY_DELAY) {
+					return null;
+				}
+
+				BasicFileAttributes attributes = readAttributes(new File(baseDir, directory.getKey()));
+				if (attributes == null || !attributes.isDirectory() || !lastModified.equals(attributes.lastModifiedTime())) {
+					return null;
+				}
+			}
+
+			Map<String, BasicFileAttributes> inputs = new LinkedHashMap<>();
+			for (String path : files) {
+				BasicFileAttributes attributes = readAttributes(new File(baseDir, path));
+				if (attributes == null || !attributes.isRegularFile()) {
+					return null;
+				}
+
+				inputs.put(path, attributes);
+			}
+
+			return unmodifiableMap(inputs);
+		}
+
+		/**
+		 * Read attributes of given file.
+		 *
+		 * @param file The file.
+		 * @return The attributes, {@code null} if the file does not exist anymore, or cannot be read.
+		 */
+		private static BasicFileAttributes readAttributes(File file) {
+			try {
+				return java.nio.file.Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+			}
+			catch (IOException ex) {
+				return null;
+			}
+		}
+	}
+}
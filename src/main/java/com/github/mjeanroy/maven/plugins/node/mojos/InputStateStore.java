@@ -0,0 +1,300 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.github.mjeanroy.maven.plugins.node.commons.io.Ios.fromHex;
+import static com.github.mjeanroy.maven.plugins.node.commons.io.Ios.toHex;
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Store of input states computed during a build, read in a next build to implement incremental build.
+ *
+ * <p>
+ *
+ * Input states are stored in a compact binary format (big endian):
+ *
+ * <ul>
+ *   <li>A header: magic number, format version, hash algorithm name and hash width (in bytes).</li>
+ *   <li>The table of directories, relative to the working directory: each directory is written once, whatever the number of files it contains.</li>
+ *   <li>For each input: directory index, file name, size, last modification date, file key, and the hash written as a fixed-width raw value.</li>
+ * </ul>
+ *
+ * A file written with another format version, or with another hash algorithm, is ignored.
+ */
+final class InputStateStore {
+
+	/**
+	 * Magic number written at the beginning of the file: {@code "NMPS"}.
+	 */
+	private static final int MAGIC = 0x4E4D5053;
+
+	/**
+	 * Current format version: must be incremented each time the format change.
+	 */
+	private static final short VERSION = 1;
+
+	/**
+	 * The path separator used in relative paths.
+	 */
+	private static final char SEPARATOR = '/';
+
+	/**
+	 * The store file.
+	 */
+	private final File file;
+
+	/**
+	 * The logger.
+	 */
+	private final Log log;
+
+	/**
+	 * Create store.
+	 *
+	 * @param file The store file.
+	 * @param log The logger.
+	 */
+	InputStateStore(File file, Log log) {
+		this.file = file;
+		this.log = log;
+	}
+
+	/**
+	 * Read input states, indexed by path, in the same order they have been written.
+	 * An empty map is returned if the store does not exist, has been written with another format version
+	 * or with another hash algorithm.
+	 *
+	 * @param algorithm The expected hash algorithm.
+	 * @return Input states.
+	 */
+	Map<String, InputState> read(HashAlgorithm algorithm) {
+		if (!file.exists()) {
+			log.debug("Input state file does not exist, skipping.");
+			return emptyMap();
+		}
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (input.readInt() != MAGIC) {
+				log.debug("Input state file has not been written in the expected format, skipping.");
+				return emptyMap();
+			}
+
+			short version = input.readShort();
+			if (version != VERSION) {
+				log.debug("Input state file has been written with format version " + version + " instead of " + VERSION + ", skipping.");
+				return emptyMap();
+			}
+
+			String previousAlgorithm = input.readUTF();
+			if (HashAlgorithm.find(previousAlgorithm) != algorithm) {
+				log.debug("Input state has been computed with hash algorithm '" + previousAlgorithm + "' instead of '" + algorithm + "', skipping.");
+				return emptyMap();
+			}
+
+			int hashWidth = input.readUnsignedByte();
+
+			String[] directories = new String[input.readInt()];
+			for (int i = 0; i < directories.length; ++i) {
+				directories[i] = input.readUTF();
+			}
+
+			int size = input.readInt();
+			Map<String, InputState> states = new LinkedHashMap<>(capacity(size));
+			byte[] hash = new byte[hashWidth];
+
+			for (int i = 0; i < size; ++i) {
+				String directory = directories[input.readInt()];
+				String name = input.readUTF();
+				long fileSize = input.readLong();
+				long lastModified = input.readLong();
+				String fileKey = input.readUTF();
+				input.readFully(hash);
+
+				String path = directory.isEmpty() ? name : directory + SEPARATOR + name;
+				states.put(path, inputState(path, toHex(hash), fileSize, lastModified, fileKey.isEmpty() ? null : fileKey));
+			}
+
+			return unmodifiableMap(states);
+		}
+		catch (EOFException | UTFDataFormatException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException ex) {
+			log.debug("Input state file is corrupted, skipping.");
+			return emptyMap();
+		}
+		catch (IOException ex) {
+			throw new FileAccessException(ex);
+		}
+	}
+
+	/**
+	 * Write given input states, computed with given hash algorithm: input paths must be relative
+	 * to the working directory, using {@code '/'} as separator.
+	 * The store is deleted if there is no input state to write.
+	 *
+	 * <p>
+	 *
+	 * The store is written to a temporary file first, and then moved to its final location, so that a
+	 * concurrent reader never sees a partially written store.
+	 *
+	 * @param states Input states.
+	 * @param algorithm The hash algorithm.
+	 */
+	void write(Collection<InputState> states, HashAlgorithm algorithm) {
+		Path target = file.toPath();
+
+		try {
+			if (states.isEmpty()) {
+				log.debug("No input state to store, deleting: '" + file + "'");
+				Files.deleteIfExists(target);
+				return;
+			}
+
+			Map<String, Integer> directories = new LinkedHashMap<>();
+			for (InputState state : states) {
+				directories.putIfAbsent(directoryOf(state.getPath()), directories.size());
+			}
+
+			Path parent = target.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+
+			Path tmp = Files.createTempFile(parent, file.getName(), ".tmp");
+
+			try {
+				try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+					writeStates(output, states, algorithm, directories);
+				}
+
+				move(tmp, target);
+			}
+			finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+		catch (IOException ex) {
+			throw new FileAccessException(ex);
+		}
+	}
+
+	/**
+	 * Write given input states to the output stream.
+	 *
+	 * @param output The output stream.
+	 * @param states Input states.
+	 * @param algorithm The hash algorithm.
+	 * @param directories Directory table, each directory being associated to its index.
+	 * @throws IOException If an error occurred while writing.
+	 */
+	private void writeStates(DataOutputStream output, Collection<InputState> states, HashAlgorithm algorithm, Map<String, Integer> directories) throws IOException {
+		int hashWidth = states.iterator().next().getHash().length() / 2;
+
+		output.writeInt(MAGIC);
+		output.writeShort(VERSION);
+		output.writeUTF(algorithm.name());
+		output.writeByte(hashWidth);
+
+		output.writeInt(directories.size());
+		for (String directory : directories.keySet()) {
+			output.writeUTF(directory);
+		}
+
+		output.writeInt(states.size());
+		for (InputState state : states) {
+			String path = state.getPath();
+			String directory = directoryOf(path);
+			byte[] hash = fromHex(state.getHash());
+			if (hash.length != hashWidth) {
+				throw new IllegalArgumentException("Hash of '" + path + "' does not have the expected width: " + state.getHash());
+			}
+
+			String fileKey = state.getFileKey();
+
+			log.debug("Serializing state: '" + path + "' with hash: " + state.getHash());
+
+			output.writeInt(directories.get(directory));
+			output.writeUTF(directory.isEmpty() ? path : path.substring(directory.length() + 1));
+			output.writeLong(state.getSize());
+			output.writeLong(state.getLastModified());
+			output.writeUTF(fileKey == null ? "" : fileKey);
+			output.write(hash);
+		}
+	}
+
+	/**
+	 * Move given file to its target location, atomically if possible.
+	 *
+	 * @param source The source file.
+	 * @param target The target file.
+	 * @throws IOException If the move failed.
+	 */
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Get the directory part of given relative path, or an empty string if the path does not contain any directory.
+	 *
+	 * @param path The relative path.
+	 * @return The directory.
+	 */
+	private static String directoryOf(String path) {
+		int index = path.lastIndexOf(SEPARATOR);
+		return index < 0 ? "" : path.substring(0, index);
+	}
+
+	/**
+	 * Compute initial map capacity needed to store given number of entries without re-hashing.
+	 *
+	 * @param size Number of entries.
+	 * @return Initial capacity.
+	 */
+	private static int capacity(int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+}
@@ -118,4 +118,9 @@ public class InstallMojo extends AbstractNpmScriptMojo {
 	LockStrategy lockStrategy() {
 		return LockStrategy.WRITE;
 	}
+
+	@Override
+	boolean lockWorkspace() {
+		return true;
+	}
 }
@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.model.LockStrategy;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Contention metrics of the lock shared by the goals (see {@link LockStrategy}): for each goal and lock
+ * strategy, the number of acquisitions, the time spent waiting for the lock, the time the lock has been
+ * held, and the maximum number of goals already waiting when the lock has been requested.
+ *
+ * <p>
+ *
+ * Metrics are aggregated for the whole session, and logged at the end of the session by {@link LockMetricsReporter}.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+final class LockMetrics {
+
+	/**
+	 * Metrics, indexed by session: the session is weakly referenced, so that metrics can be garbage collected
+	 * once the session is over (for example in a long-lived maven daemon).
+	 */
+	private static final Map<Object, LockMetrics> SESSIONS = new WeakHashMap<>();
+
+	/**
+	 * Get the metrics of given session, or create them if they do not exist yet.
+	 *
+	 * @param session The maven session key (see {@link AbstractNpmScriptMojo#sessionKey}), may be {@code null} (in which case the metrics are not shared).
+	 * @param log The logger, used to log the summary.
+	 * @return The metrics.
+	 */
+	static LockMetrics of(Object session, Log log) {
+		if (session == null) {
+			return new LockMetrics(log);
+		}
+
+		synchronized (SESSIONS) {
+			return SESSIONS.computeIfAbsent(session, s -> new LockMetrics(log));
+		}
+	}
+
+	/**
+	 * Remove the metrics of given session.
+	 *
+	 * @param session The maven session key (see {@link AbstractNpmScriptMojo#sessionKey}).
+	 * @return The metrics, {@code null} if no lock has been acquired during the session.
+	 */
+	static LockMetrics remove(Object session) {
+		synchronized (SESSIONS) {
+			return SESSIONS.remove(session);
+		}
+	}
+
+	/**
+	 * The logger.
+	 */
+	private final Log log;
+
+	/**
+	 * The statistics, indexed by goal and lock strategy.
+	 */
+	private final Map<String, Stats> stats;
+
+	/**
+	 * Create metrics.
+	 *
+	 * @param log The logger.
+	 */
+	private LockMetrics(Log log) {
+		this.log = log;
+		this.stats = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Record a lock acquisition.
+	 *
+	 * @param goal The goal name.
+	 * @param strategy The lock strategy.
+	 * @param queueLength The number of goals waiting for the lock when it has been requested.
+	 * @param waitNanos The time spent waiting for the lock, in nanoseconds.
+	 * @param holdNanos The time the lock has been held, in nanoseconds.
+	 */
+	synchronized void add(String goal, LockStrategy strategy, int queueLength, long waitNanos, long holdNanos) {
+		Stats s = stats.computeIfAbsent(goal + " (" + strategy + ")", key -> new Stats());
+		s.count++;
+		s.totalWait += waitNanos;
+		s.maxWait = Math.max(s.maxWait, waitNanos);
+		s.totalHold += holdNanos;
+		s.maxHold = Math.max(s.maxHold, holdNanos);
+		s.maxQueueLength = Math.max(s.maxQueueLength, queueLength);
+	}
+
+	/**
+	 * Log the summary of the lock acquisitions, for each goal.
+	 */
+	synchronized void report() {
+		if (stats.isEmpty()) {
+			return;
+		}
+
+		log.info("Lock contention summary:");
+		for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+			Stats s = entry.getValue();
+			log.info("  " + entry.getKey() + ": " + s.count + " acquisition(s), " +
+					"waited " + millis(s.totalWait) + " ms (max " + millis(s.maxWait) + " ms), " +
+					"held " + millis(s.totalHold) + " ms (max " + millis(s.maxHold) + " ms), " +
+					"max queue length " + s.maxQueueLength);
+		}
+	}
+
+	/**
+	 * Convert given duration to milliseconds.
+	 *
+	 * @param nanos The duration, in nanoseconds.
+	 * @return The duration, in milliseconds.
+	 */
+	private static long millis(long nanos) {
+		return NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * The statistics of a goal.
+	 */
+	private static final class Stats {
+		private int count;
+		private long totalWait;
+		private long maxWait;
+		private long totalHold;
+		private long maxHold;
+		private int maxQueueLength;
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Read the memory available to start new processes:
+ *
+ * <ul>
+ *   <li>{@code /proc/meminfo}: the memory available on the host ({@code MemAvailable}).</li>
+ *   <li>The cgroup v2 of the current process (see {@link Cgroup}): the headroom, i.e
+ *   {@code memory.max - memory.current}, of the cgroup and of each of its ancestors (for example, the
+ *   memory limit of a container).</li>
+ * </ul>
+ *
+ * The smallest value is returned: if none of these files can be read (for example, on macOS or Windows),
+ * the available memory is {@link #UNKNOWN unknown}.
+ */
+final class MemoryProbe {
+
+	/**
+	 * Value returned when the available memory cannot be read.
+	 */
+	static final long UNKNOWN = -1;
+
+	/**
+	 * Get the probe of the current system.
+	 *
+	 * @return The probe.
+	 */
+	static MemoryProbe system() {
+		return new MemoryProbe(Cgroup.system());
+	}
+
+	/**
+	 * The cgroup reader.
+	 */
+	private final Cgroup cgroup;
+
+	/**
+	 * Create the probe.
+	 *
+	 * @param cgroup The cgroup reader.
+	 */
+	MemoryProbe(Cgroup cgroup) {
+		this.cgroup = cgroup;
+	}
+
+	/**
+	 * Get the memory available to start new processes.
+	 *
+	 * @return The available memory, in bytes, or {@link #UNKNOWN}.
+	 */
+	long available() {
+		return min(readMemAvailable(), readCgroupHeadroom());
+	}
+
+	private long readMemAvailable() {
+		List<String> lines = cgroup.readProc("meminfo");
+		if (lines == null) {
+			return UNKNOWN;
+		}
+
+		for (String line : lines) {
+			if (line.startsWith("MemAvailable:")) {
+				// Values are given in kB, for example: "MemAvailable:    8142336 kB"
+				String[] parts = line.substring("MemAvailable:".length()).trim().split("\\s+");
+				long value = parseLong(parts[0]);
+				return value < 0 ? UNKNOWN : value * 1024;
+			}
+		}
+
+		return UNKNOWN;
+	}
+
+	private long readCgroupHeadroom() {
+		long headroom = UNKNOWN;
+		for (File dir : cgroup.getHierarchy()) {
+			long max = parseLong(Cgroup.readFirstLine(dir, "memory.max"));
+			long current = parseLong(Cgroup.readFirstLine(dir, "memory.current"));
+			if (max >= 0 && current >= 0) {
+				headroom = min(headroom, Math.max(0, max - current));
+			}
+		}
+
+		return headroom;
+	}
+
+	private static long min(long v1, long v2) {
+		if (v1 < 0) {
+			return v2;
+		}
+
+		if (v2 < 0) {
+			return v1;
+		}
+
+		return Math.min(v1, v2);
+	}
+
+	private static long parseLong(String value) {
+		if (value == null) {
+			return UNKNOWN;
+		}
+
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			// For example, "max" in memory.max.
+			return UNKNOWN;
+		}
+	}
+}
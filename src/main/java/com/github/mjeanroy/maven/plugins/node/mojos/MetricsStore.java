@@ -0,0 +1,232 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.commands.Command;
+import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Store of the resources used by the commands executed by each goal, written as a json file:
+ *
+ * <pre><code>
+ * {
+ *   "goals": [
+ *     {
+ *       "goal": "build",
+ *       "script": "build",
+ *       "command": "npm run build --maven",
+ *       "status": 0,
+ *       "wallTimeMs": 12034,
+ *       "userTimeMs": 18350,
+ *       "systemTimeMs": 1210,
+ *       "peakRssBytes": 612368384,
+ *       "readBytes": 4096,
+ *       "writtenBytes": 10485760
+ *     }
+ *   ]
+ * }
+ * </code></pre>
+ *
+ * Each goal (and script) has one entry, replaced each time the goal is executed: entries of other goals are
+ * kept, so that the file contains a summary of the whole build. Metrics that cannot be measured are not written.
+ */
+final class MetricsStore {
+
+	/**
+	 * Lock used to serialize updates of the metrics files, since goals may be executed concurrently.
+	 */
+	private static final Object LOCK = new Object();
+
+	/**
+	 * The store file.
+	 */
+	private final File file;
+
+	/**
+	 * The logger.
+	 */
+	private final Log log;
+
+	/**
+	 * Create store.
+	 *
+	 * @param file The store file.
+	 * @param log The logger.
+	 */
+	MetricsStore(File file, Log log) {
+		this.file = file;
+		this.log = log;
+	}
+
+	/**
+	 * Record the resources used by given command: nothing is written if resources have not been measured.
+	 * Failing to write the file does not fail the build, a warning is logged instead.
+	 *
+	 * @param goal The goal name.
+	 * @param script The script.
+	 * @param cmd The executed command.
+	 * @param result The command result.
+	 */
+	void save(String goal, String script, Command cmd, CommandResult result) {
+		ResourceUsage usage = result.getResourceUsage();
+		if (usage == null) {
+			return;
+		}
+
+		JsonObject entry = new JsonObject();
+		entry.addProperty("goal", goal);
+		entry.addProperty("script", script);
+		entry.addProperty("command", cmd.toString());
+		entry.addProperty("status", result.getStatus());
+		addMetric(entry, "wallTimeMs", usage.getWallTime());
+		addMetric(entry, "userTimeMs", usage.getUserTime());
+		addMetric(entry, "systemTimeMs", usage.getSystemTime());
+		addMetric(entry, "peakRssBytes", usage.getPeakRss());
+		addMetric(entry, "readBytes", usage.getReadBytes());
+		addMetric(entry, "writtenBytes", usage.getWrittenBytes());
+
+		log.debug("Recording metrics of goal '" + goal + "': " + entry);
+
+		synchronized (LOCK) {
+			try {
+				JsonObject metrics = read();
+				JsonArray goals = metrics.getAsJsonArray("goals");
+				for (int i = goals.size() - 1; i >= 0; --i) {
+					JsonElement previous = goals.get(i);
+					if (previous.isJsonObject() && goal.equals(string(previous.getAsJsonObject(), "goal")) && script.equals(string(previous.getAsJsonObject(), "script"))) {
+						goals.remove(i);
+					}
+				}
+
+				goals.add(entry);
+				write(metrics);
+			}
+			catch (IOException ex) {
+				log.warn("Cannot write metrics file '" + file + "': " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Read the metrics file: an empty document is returned if the file does not exist, or cannot be parsed.
+	 *
+	 * @return The metrics.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private JsonObject read() throws IOException {
+		if (file.exists()) {
+			try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+				JsonElement metrics = JsonParser.parseReader(reader);
+				if (metrics.isJsonObject() && metrics.getAsJsonObject().has("goals") && metrics.getAsJsonObject().get("goals").isJsonArray()) {
+					return metrics.getAsJsonObject();
+				}
+			}
+			catch (JsonParseException | IllegalStateException ex) {
+				log.debug("Metrics file cannot be parsed, overwriting it: " + ex.getMessage());
+			}
+		}
+
+		JsonObject metrics = new JsonObject();
+		metrics.add("goals", new JsonArray());
+		return metrics;
+	}
+
+	/**
+	 * Write the metrics file, using a temporary file so that the file is never partially written.
+	 *
+	 * @param metrics The metrics.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(JsonObject metrics) throws IOException {
+		Path target = file.toPath();
+		Path parent = target.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+
+		Path tmp = Files.createTempFile(parent, file.getName(), ".tmp");
+
+		try {
+			Gson gson = new GsonBuilder().setPrettyPrinting().create();
+			try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+				gson.toJson(metrics, writer);
+			}
+
+			try {
+				Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tmp, target, REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Add given metric to the entry, if it has been measured.
+	 *
+	 * @param entry The entry.
+	 * @param name The metric name.
+	 * @param value The metric value.
+	 */
+	private static void addMetric(JsonObject entry, String name, long value) {
+		if (value != ResourceUsage.UNKNOWN) {
+			entry.addProperty(name, value);
+		}
+	}
+
+	/**
+	 * Get the string value of given property.
+	 *
+	 * @param object The json object.
+	 * @param name The property name.
+	 * @return The value, {@code null} if the property does not exist, or is not a string.
+	 */
+	private static String string(JsonObject object, String name) {
+		JsonElement value = object.get(name);
+		return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+	}
+}
@@ -114,4 +114,9 @@ public class PreCleanMojo extends AbstractNpmScriptMojo {
 	LockStrategy lockStrategy() {
 		return LockStrategy.WRITE;
 	}
+
+	@Override
+	boolean lockWorkspace() {
+		return true;
+	}
 }
@@ -0,0 +1,212 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Admission control of the processes started by the goals: a new process is started only if the number of running
+ * processes is below the configured maximum, and if enough memory is available (see {@link MemoryProbe}).
+ *
+ * <p>
+ *
+ * A process does not allocate its memory as soon as it is started: each process started during the last
+ * {@link #RAMP_UP_NANOS ramp up} period is assumed to still need its expected memory, so that several goals
+ * waiting for memory are not all started at once as soon as memory is released. Since memory availability is not
+ * notified, waiting goals also check it periodically.
+ *
+ * <p>
+ *
+ * Processes are admitted in request order, and a process is always admitted when no other process is running, so
+ * that a goal never waits forever. Admission is shared by the whole JVM (and so, by all the builds of a maven
+ * daemon), since memory is a resource of the host.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+final class ProcessAdmission {
+
+	/**
+	 * The admission control of the current JVM.
+	 */
+	private static final ProcessAdmission INSTANCE = new ProcessAdmission(MemoryProbe.system());
+
+	/**
+	 * Period during which a process is assumed to not have allocated its memory yet.
+	 */
+	private static final long RAMP_UP_NANOS = SECONDS.toNanos(10);
+
+	/**
+	 * Delay between two checks of the available memory, while waiting.
+	 */
+	private static final long POLL_INTERVAL_MS = 500;
+
+	/**
+	 * Get the admission control of the current JVM.
+	 *
+	 * @return The admission control.
+	 */
+	static ProcessAdmission getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * The memory probe.
+	 */
+	private final MemoryProbe memory;
+
+	/**
+	 * The permits of the running processes, in admission order.
+	 */
+	private final Deque<Permit> running;
+
+	/**
+	 * The requests waiting to be admitted, in request order.
+	 */
+	private final List<Object> waiting;
+
+	/**
+	 * Create the admission control.
+	 *
+	 * @param memory The memory probe.
+	 */
+	ProcessAdmission(MemoryProbe memory) {
+		this.memory = memory;
+		this.running = new ArrayDeque<>();
+		this.waiting = new LinkedList<>();
+	}
+
+	/**
+	 * Wait until a new process can be started.
+	 *
+	 * @param maxProcesses The maximum number of running processes, zero (or a negative value) means no limit.
+	 * @param processMemory The memory expected to be used by the process, in bytes, zero (or a negative value) to ignore the available memory.
+	 * @param log The logger.
+	 * @return The permit, to close once the process is over.
+	 * @throws InterruptedException If the current thread has been interrupted while waiting.
+	 */
+	synchronized Permit acquire(int maxProcesses, long processMemory, Log log) throws InterruptedException {
+		Object request = new Object();
+		waiting.add(request);
+
+		try {
+			boolean logged = false;
+			long start = System.nanoTime();
+			while (waiting.get(0) != request || !canAdmit(maxProcesses, processMemory)) {
+				if (!logged) {
+					log.info("Waiting to start process: " + running.size() + " process(es) running" + describeMemory() + ".");
+					logged = true;
+				}
+
+				wait(POLL_INTERVAL_MS);
+			}
+
+			if (logged) {
+				log.info("Process admitted after " + NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+			}
+
+			Permit permit = new Permit(System.nanoTime());
+			running.add(permit);
+			return permit;
+		}
+		finally {
+			waiting.remove(request);
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Get the number of running processes.
+	 *
+	 * @return The number of running processes.
+	 */
+	synchronized int getRunning() {
+		return running.size();
+	}
+
+	private boolean canAdmit(int maxProcesses, long processMemory) {
+		if (running.isEmpty()) {
+			return true;
+		}
+
+		if (maxProcesses > 0 && running.size() >= maxProcesses) {
+			return false;
+		}
+
+		if (processMemory <= 0) {
+			return true;
+		}
+
+		long available = memory.available();
+		return available == MemoryProbe.UNKNOWN || available - processMemory * countRampingUp() >= processMemory;
+	}
+
+	private int countRampingUp() {
+		long now = System.nanoTime();
+		int count = 0;
+		for (Permit permit : running) {
+			if (now - permit.startTime < RAMP_UP_NANOS) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private String describeMemory() {
+		long available = memory.available();
+		return available == MemoryProbe.UNKNOWN ? "" : ", " + (available / 1024 / 1024) + " MB of memory available";
+	}
+
+	private synchronized void release(Permit permit) {
+		running.remove(permit);
+		notifyAll();
+	}
+
+	/**
+	 * The permit of a running process.
+	 */
+	final class Permit implements AutoCloseable {
+		private final long startTime;
+
+		private Permit(long startTime) {
+			this.startTime = startTime;
+		}
+
+		@Override
+		public void close() {
+			release(this);
+		}
+	}
+}
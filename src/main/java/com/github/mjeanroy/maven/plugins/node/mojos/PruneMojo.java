@@ -92,4 +92,9 @@ public class PruneMojo extends AbstractNpmScriptMojo {
 	LockStrategy lockStrategy() {
 		return LockStrategy.WRITE;
 	}
+
+	@Override
+	boolean lockWorkspace() {
+		return true;
+	}
 }
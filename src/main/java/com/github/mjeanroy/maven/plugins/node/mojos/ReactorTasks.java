@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The commands executed during a session, indexed by task key (working directory, script and fingerprint of the
+ * command, see {@link AbstractNpmScriptMojo}): when several modules of the reactor share the same working directory
+ * (for example, a workspace root), only the first module executes the command, the other ones reuse its result.
+ *
+ * <p>
+ *
+ * This class is thread safe.
+ */
+final class ReactorTasks {
+
+	/**
+	 * Tasks, indexed by session: the session is weakly referenced, so that tasks can be garbage collected
+	 * once the session is over (for example in a long-lived maven daemon).
+	 */
+	private static final Map<Object, ReactorTasks> SESSIONS = new WeakHashMap<>();
+
+	/**
+	 * Get the tasks of given session, or create them if they do not exist yet.
+	 *
+	 * @param session The maven session key (see {@link AbstractNpmScriptMojo#sessionKey}), may be {@code null} (in which case the tasks are not shared).
+	 * @return The tasks.
+	 */
+	static ReactorTasks of(Object session) {
+		if (session == null) {
+			return new ReactorTasks();
+		}
+
+		synchronized (SESSIONS) {
+			return SESSIONS.computeIfAbsent(session, s -> new ReactorTasks());
+		}
+	}
+
+	/**
+	 * The tasks, indexed by key.
+	 */
+	private final Map<String, Task> tasks;
+
+	private ReactorTasks() {
+		this.tasks = new HashMap<>();
+	}
+
+	/**
+	 * Claim given task: the first caller owns the task, and must then {@link #complete complete} or
+	 * {@link #fail fail} it, the next callers get the task of the owner.
+	 *
+	 * @param key The task key.
+	 * @param module The module claiming the task.
+	 * @return The task of the owner, {@code null} if the caller is the owner.
+	 */
+	synchronized Task claim(String key, String module) {
+		Task task = tasks.get(key);
+		if (task != null) {
+			return task;
+		}
+
+		tasks.put(key, new Task(module));
+		return null;
+	}
+
+	/**
+	 * Complete given task.
+	 *
+	 * @param key The task key.
+	 * @param result The command result, {@code null} if the command has not been executed (for example, if nothing
+	 *               changed since the previous build).
+	 */
+	synchronized void complete(String key, CommandResult result) {
+		tasks.get(key).result.complete(result);
+	}
+
+	/**
+	 * Complete given task with an error: the command could not be executed.
+	 *
+	 * @param key The task key.
+	 * @param error The error.
+	 */
+	synchronized void fail(String key, Throwable error) {
+		tasks.get(key).result.completeExceptionally(error);
+	}
+
+	/**
+	 * A task, owned by the first module that claimed it.
+	 */
+	static final class Task {
+		private final String module;
+		private final CompletableFuture<CommandResult> result;
+
+		private Task(String module) {
+			this.module = module;
+			this.result = new CompletableFuture<>();
+		}
+
+		/**
+		 * Get {@link #module}
+		 *
+		 * @return {@link #module}
+		 */
+		String getModule() {
+			return module;
+		}
+
+		/**
+		 * Check if the task has been completed by its owner.
+		 *
+		 * @return {@code true} if the task has been completed, {@code false} otherwise.
+		 */
+		boolean isDone() {
+			return result.isDone();
+		}
+
+		/**
+		 * Wait for the task to be completed by its owner.
+		 *
+		 * @return The command result, {@code null} if the command has not been executed.
+		 * @throws InterruptedException If the current thread has been interrupted while waiting.
+		 * @throws ExecutionException If the owner failed to execute the command.
+		 */
+		CommandResult await() throws InterruptedException, ExecutionException {
+			return result.get();
+		}
+	}
+}
@@ -0,0 +1,418 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Remote build cache, accessed over plain HTTP: an entry is downloaded with {@code GET <url>/<name>} into the local
+ * cache directory, and uploaded with {@code PUT <url>/<name>}.
+ *
+ * <p>
+ *
+ * A remote cache is shared by all goals of a maven session: downloads are executed by a bounded pool of background
+ * threads, so that entries of all projects can be prefetched in parallel, and an entry is never downloaded twice. Keys
+ * of the entries to prefetch are computed by a separate pool, so that they never delay the download needed by a goal.
+ *
+ * <p>
+ *
+ * The remote cache must never slow down the build: requests use short connect and read timeouts, and once
+ * a request failed (timeout, unreachable server, server error), the remote cache is disabled until the end of the session.
+ */
+final class RemoteBuildCache {
+
+	/**
+	 * Remote caches, indexed by session and URL: the session is weakly referenced, so that a remote cache
+	 * can be garbage collected once the session is over (for example in a long-lived maven daemon).
+	 */
+	private static final Map<Object, ConcurrentMap<String, RemoteBuildCache>> SESSIONS = new WeakHashMap<>();
+
+	/**
+	 * The maximum number of concurrent downloads (and of concurrent prefetch tasks).
+	 */
+	private static final int THREADS = 4;
+
+	/**
+	 * Get the remote cache of given session, or create it if it does not exist yet.
+	 *
+	 * @param session The maven session key (see {@link AbstractNpmScriptMojo#sessionKey}), may be {@code null} (in which case the remote cache is not shared).
+	 * @param url The remote cache URL.
+	 * @param directory The local cache directory.
+	 * @param timeout The connect and read timeout of requests, in milliseconds.
+	 * @param log The logger.
+	 * @return The remote cache.
+	 */
+	static RemoteBuildCache of(Object session, String url, File directory, int timeout, Log log) {
+		if (session == null) {
+			return new RemoteBuildCache(url, directory, timeout, log);
+		}
+
+		synchronized (SESSIONS) {
+			return SESSIONS.computeIfAbsent(session, s -> new ConcurrentHashMap<>()).computeIfAbsent(
+					url + "::" + directory.getAbsolutePath(),
+					key -> new RemoteBuildCache(url, directory, timeout, log)
+			);
+		}
+	}
+
+	/**
+	 * The remote cache URL, without trailing slash.
+	 */
+	private final String url;
+
+	/**
+	 * The local cache directory, where entries are downloaded.
+	 */
+	private final File directory;
+
+	/**
+	 * The connect and read timeout of requests, in milliseconds.
+	 */
+	private final int timeout;
+
+	/**
+	 * The logger.
+	 */
+	private final Log log;
+
+	/**
+	 * The pool executing downloads.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * The pool executing prefetch tasks (which compute the key of the entries to download), separated from downloads
+	 * so that a download never waits for prefetch tasks.
+	 */
+	private final ThreadPoolExecutor prefetchExecutor;
+
+	/**
+	 * Downloads, indexed by entry name: each download returns {@code true} if the entry is available in the
+	 * local cache directory.
+	 */
+	private final ConcurrentMap<String, Future<Boolean>> downloads;
+
+	/**
+	 * Whether the remote cache can be used: set to {@code false} on the first failure.
+	 */
+	private volatile boolean available;
+
+	/**
+	 * Whether entries of the reactor have been prefetched.
+	 */
+	private final AtomicBoolean prefetched;
+
+	/**
+	 * Create the remote cache.
+	 *
+	 * @param url The remote cache URL.
+	 * @param directory The local cache directory.
+	 * @param timeout The connect and read timeout of requests, in milliseconds.
+	 * @param log The logger.
+	 */
+	private RemoteBuildCache(String url, File directory, int timeout, Log log) {
+		this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+		this.directory = directory;
+		this.timeout = timeout;
+		this.log = log;
+		this.downloads = new ConcurrentHashMap<>();
+		this.available = true;
+		this.prefetched = new AtomicBoolean(false);
+
+		this.executor = newExecutor("node-maven-plugin-remote-cache");
+		this.prefetchExecutor = newExecutor("node-maven-plugin-remote-cache-prefetch");
+	}
+
+	/**
+	 * Create a bounded pool of background threads: idle threads are released, so that nothing is left running
+	 * once the build is over.
+	 *
+	 * @param name The name of the threads.
+	 * @return The pool.
+	 */
+	private static ThreadPoolExecutor newExecutor(String name) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Mark the reactor as prefetched.
+	 *
+	 * @return {@code true} the first time this method is called, {@code false} otherwise.
+	 */
+	boolean markPrefetched() {
+		return prefetched.compareAndSet(false, true);
+	}
+
+	/**
+	 * Execute given prefetch task in the background.
+	 *
+	 * @param task The task.
+	 */
+	void submit(Runnable task) {
+		prefetchExecutor.execute(task);
+	}
+
+	/**
+	 * Start the download of given entry in the background, unless it is already downloaded, or being downloaded.
+	 *
+	 * @param name The entry name.
+	 * @return The download, returning {@code true} if the entry is available in the local cache directory.
+	 */
+	Future<Boolean> prefetch(String name) {
+		if (!available) {
+			return CompletableFuture.completedFuture(false);
+		}
+
+		return downloads.computeIfAbsent(name, key -> {
+			FutureTask<Boolean> download = new FutureTask<>(() -> download(key));
+			executor.execute(download);
+			return download;
+		});
+	}
+
+	/**
+	 * Download given entry into the local cache directory, or wait for the download started by a prefetch.
+	 *
+	 * <p>
+	 *
+	 * A download still waiting in the queue of the pool is run by the caller, and the download started by another
+	 * thread is awaited at most for the request timeout: the entry is then considered missing, so that a slow
+	 * remote cache never blocks the build.
+	 *
+	 * @param name The entry name.
+	 * @return {@code true} if the entry is available in the local cache directory, {@code false} otherwise.
+	 */
+	boolean fetch(String name) {
+		Future<Boolean> download = prefetch(name);
+
+		// Does nothing if the download has already been started (or is done).
+		if (download instanceof FutureTask) {
+			((FutureTask<Boolean>) download).run();
+		}
+
+		try {
+			return download.get(timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch (ExecutionException ex) {
+			disable(ex.getCause());
+			return false;
+		}
+		catch (TimeoutException ex) {
+			log.debug("Build cache entry '" + name + "' is still being downloaded after " + timeout + " ms, ignoring it");
+			return false;
+		}
+	}
+
+	/**
+	 * Upload given entry to the remote cache.
+	 *
+	 * @param name The entry name.
+	 * @param file The entry file.
+	 */
+	void upload(String name, File file) {
+		if (!available || !file.isFile()) {
+			return;
+		}
+
+		try {
+			HttpURLConnection connection = open(name, "PUT");
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(file.length());
+			connection.setRequestProperty("Content-Type", "application/octet-stream");
+
+			try (OutputStream output = connection.getOutputStream()) {
+				Files.copy(file.toPath(), output);
+			}
+
+			int status = connection.getResponseCode();
+			release(connection);
+
+			if (status < 200 || status >= 300) {
+				throw new IOException("Unexpected status " + status + " while uploading '" + name + "'");
+			}
+
+			log.debug("Build cache entry '" + name + "' has been uploaded to remote cache");
+		}
+		catch (IOException ex) {
+			disable(ex);
+		}
+	}
+
+	/**
+	 * Download given entry into the local cache directory.
+	 *
+	 * @param name The entry name.
+	 * @return {@code true} if the entry is available in the local cache directory, {@code false} otherwise.
+	 */
+	private boolean download(String name) {
+		Path target = new File(directory, name).toPath();
+		if (Files.exists(target)) {
+			return true;
+		}
+
+		if (!available) {
+			return false;
+		}
+
+		Path tmp = null;
+
+		try {
+			HttpURLConnection connection = open(name, "GET");
+			int status = connection.getResponseCode();
+
+			if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+				release(connection);
+				log.debug("Build cache entry '" + name + "' does not exist in remote cache");
+				return false;
+			}
+
+			if (status != HttpURLConnection.HTTP_OK) {
+				release(connection);
+				throw new IOException("Unexpected status " + status + " while downloading '" + name + "'");
+			}
+
+			Files.createDirectories(directory.toPath());
+			tmp = Files.createTempFile(directory.toPath(), name, ".tmp");
+
+			try (InputStream input = connection.getInputStream()) {
+				Files.copy(input, tmp, REPLACE_EXISTING);
+			}
+
+			try {
+				Files.move(tmp, target, ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tmp, target, REPLACE_EXISTING);
+			}
+
+			log.debug("Build cache entry '" + name + "' has been downloaded from remote cache");
+			return true;
+		}
+		catch (IOException ex) {
+			disable(ex);
+			return false;
+		}
+		finally {
+			if (tmp != null) {
+				try {
+					Files.deleteIfExists(tmp);
+				}
+				catch (IOException ex) {
+					// Will be evicted later.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Open a connection to given entry.
+	 *
+	 * @param name The entry name.
+	 * @param method The HTTP method.
+	 * @return The connection.
+	 * @throws IOException If the connection cannot be opened.
+	 */
+	private HttpURLConnection open(String name, String method) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url + "/" + name).openConnection();
+		connection.setRequestMethod(method);
+		connection.setConnectTimeout(timeout);
+		connection.setReadTimeout(timeout);
+		connection.setUseCaches(false);
+		return connection;
+	}
+
+	/**
+	 * Release given connection, once its response code has been read.
+	 *
+	 * <p>
+	 *
+	 * The response body is consumed and closed, so that the underlying socket can be reused by the next
+	 * request (note that a streamed upload cannot be retried if it is sent over a stale socket).
+	 *
+	 * @param connection The connection.
+	 * @throws IOException If the response body cannot be read.
+	 */
+	private static void release(HttpURLConnection connection) throws IOException {
+		InputStream body = connection.getResponseCode() >= 400 ? connection.getErrorStream() : connection.getInputStream();
+		if (body == null) {
+			return;
+		}
+
+		try (InputStream input = body) {
+			byte[] buffer = new byte[8192];
+			while (input.read(buffer) >= 0) {
+				// Drain the response body.
+			}
+		}
+	}
+
+	/**
+	 * Disable the remote cache until the end of the session.
+	 *
+	 * @param cause The failure.
+	 */
+	private void disable(Throwable cause) {
+		if (available) {
+			available = false;
+			log.warn("Remote build cache " + url + " is not available, falling back to local build: " + cause);
+		}
+	}
+}
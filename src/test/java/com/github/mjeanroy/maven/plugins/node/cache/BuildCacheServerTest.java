@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildCacheServerTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+	private BuildCacheServer server;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = temporaryFolder.newFolder("cache");
+		server = BuildCacheServer.start(0, directory);
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void it_should_store_and_read_entry() throws Exception {
+		assertThat(put("1234.zip", "content")).isEqualTo(201);
+		assertThat(new File(directory, "1234.zip")).hasContent("content");
+
+		HttpURLConnection connection = open("1234.zip", "GET");
+		assertThat(connection.getResponseCode()).isEqualTo(200);
+		assertThat(read(connection)).isEqualTo("content");
+	}
+
+	@Test
+	public void it_should_replace_entry() throws Exception {
+		assertThat(put("1234.zip", "content")).isEqualTo(201);
+		assertThat(put("1234.zip", "new content")).isEqualTo(201);
+		assertThat(new File(directory, "1234.zip")).hasContent("new content");
+		assertThat(directory.list()).containsExactly("1234.zip");
+	}
+
+	@Test
+	public void it_should_return_404_for_missing_entry() throws Exception {
+		assertThat(open("1234.zip", "GET").getResponseCode()).isEqualTo(404);
+		assertThat(open("1234.zip", "HEAD").getResponseCode()).isEqualTo(404);
+	}
+
+	@Test
+	public void it_should_reject_invalid_names() throws Exception {
+		Files.write(new File(temporaryFolder.getRoot(), "secret").toPath(), "secret".getBytes(UTF_8));
+
+		assertThat(open("..%2Fsecret", "GET").getResponseCode()).isEqualTo(400);
+		assertThat(open("../secret", "GET").getResponseCode()).isIn(400, 404);
+		assertThat(open(".hidden", "GET").getResponseCode()).isEqualTo(400);
+	}
+
+	@Test
+	public void it_should_reject_unsupported_methods() throws Exception {
+		assertThat(open("1234.zip", "DELETE").getResponseCode()).isEqualTo(405);
+	}
+
+	private int put(String name, String content) throws Exception {
+		HttpURLConnection connection = open(name, "PUT");
+		connection.setDoOutput(true);
+		try (OutputStream output = connection.getOutputStream()) {
+			output.write(content.getBytes(UTF_8));
+		}
+
+		return connection.getResponseCode();
+	}
+
+	private HttpURLConnection open(String name, String method) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL(server.getUrl() + "/" + name).openConnection();
+		connection.setRequestMethod(method);
+		return connection;
+	}
+
+	private static String read(HttpURLConnection connection) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (InputStream input = connection.getInputStream()) {
+			byte[] buffer = new byte[1024];
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+		}
+
+		return new String(output.toByteArray(), UTF_8);
+	}
+}
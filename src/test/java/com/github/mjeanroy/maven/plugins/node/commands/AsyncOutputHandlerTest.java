@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncOutputHandlerTest {
+
+	@Test
+	public void it_should_process_all_lines_before_close() {
+		RecordingOutputHandler delegate = new RecordingOutputHandler();
+		AsyncOutputHandler handler = new AsyncOutputHandler(delegate, 2, LogBackpressure.BLOCK);
+
+		for (int i = 0; i < 100; ++i) {
+			handler.process("line " + i);
+		}
+
+		handler.close();
+
+		assertThat(delegate.lines).hasSize(100).startsWith("line 0", "line 1").endsWith("line 99");
+		assertThat(delegate.flushes).isPositive();
+		assertThat(handler.getDropped()).isZero();
+	}
+
+	@Test
+	public void it_should_drop_lines_when_queue_is_full() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		RecordingOutputHandler delegate = new RecordingOutputHandler(latch);
+		AsyncOutputHandler handler = new AsyncOutputHandler(delegate, 1, LogBackpressure.DROP);
+
+		// The first line blocks the writer thread, the second one fills the queue.
+		handler.process("one");
+		delegate.waitForFirstLine();
+		handler.process("two");
+		handler.process("three");
+		handler.process("four");
+
+		latch.countDown();
+		handler.close();
+
+		assertThat(handler.getDropped()).isEqualTo(2);
+		assertThat(delegate.lines).isEqualTo(asList(
+				"one",
+				"two",
+				"2 line(s) of output have been dropped, since they were produced faster than they could be logged"
+		));
+	}
+
+	@Test
+	public void it_should_ignore_failures_of_output_handler() {
+		RecordingOutputHandler delegate = new RecordingOutputHandler() {
+			@Override
+			public void process(String line) {
+				if (line.equals("two")) {
+					throw new IllegalStateException("fail");
+				}
+
+				super.process(line);
+			}
+		};
+
+		AsyncOutputHandler handler = new AsyncOutputHandler(delegate, 10, LogBackpressure.BLOCK);
+		handler.process("one");
+		handler.process("two");
+		handler.process("three");
+		handler.close();
+
+		assertThat(delegate.lines).containsExactly("one", "three");
+	}
+
+	private static class RecordingOutputHandler implements OutputHandler {
+		private final List<String> lines = new CopyOnWriteArrayList<>();
+		private final CountDownLatch latch;
+		private final CountDownLatch firstLine = new CountDownLatch(1);
+		private volatile int flushes;
+
+		private RecordingOutputHandler() {
+			this(new CountDownLatch(0));
+		}
+
+		private RecordingOutputHandler(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void process(String line) {
+			lines.add(line);
+			firstLine.countDown();
+
+			try {
+				latch.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void flush() {
+			flushes++;
+		}
+
+		private void waitForFirstLine() throws InterruptedException {
+			firstLine.await();
+		}
+	}
+}
@@ -23,12 +23,20 @@
 
 package com.github.mjeanroy.maven.plugins.node.commands;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CaptureOutputHandlerTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void it_should_capture_output() {
 		CaptureOutputHandler handler = new CaptureOutputHandler();
@@ -40,4 +48,56 @@ public class CaptureOutputHandlerTest {
 				"one" + System.lineSeparator() + "two" + System.lineSeparator() + "three"
 		);
 	}
+
+	@Test
+	public void it_should_not_capture_output() {
+		CaptureOutputHandler handler = new CaptureOutputHandler(OutputCapture.none());
+		handler.process("one");
+		handler.process("two");
+		handler.close();
+
+		assertThat(handler.getOut()).isEmpty();
+		assertThat(handler.getOutFile()).isNull();
+	}
+
+	@Test
+	public void it_should_capture_last_lines() {
+		CaptureOutputHandler handler = new CaptureOutputHandler(OutputCapture.tail(2));
+		handler.process("one");
+		handler.process("two");
+		handler.process("three");
+		handler.close();
+
+		assertThat(handler.getOut()).isEqualTo(
+				"two" + System.lineSeparator() + "three"
+		);
+	}
+
+	@Test
+	public void it_should_capture_output_in_memory_below_threshold() {
+		File directory = temporaryFolder.getRoot();
+		CaptureOutputHandler handler = new CaptureOutputHandler(OutputCapture.spill(10, directory));
+		handler.process("one");
+		handler.process("two");
+		handler.close();
+
+		assertThat(handler.getOut()).isEqualTo("one" + System.lineSeparator() + "two");
+		assertThat(handler.getOutFile()).isNull();
+		assertThat(directory.list()).isEmpty();
+	}
+
+	@Test
+	public void it_should_spill_output_to_disk_above_threshold() {
+		File directory = new File(temporaryFolder.getRoot(), "output");
+		CaptureOutputHandler handler = new CaptureOutputHandler(OutputCapture.spill(5, directory));
+		handler.process("one");
+		handler.process("two");
+		handler.process("three");
+		handler.close();
+
+		assertThat(handler.getOut()).isEmpty();
+		assertThat(handler.getOutFile()).isNotNull().hasParent(directory).usingCharset(UTF_8).hasContent(
+				"one" + System.lineSeparator() + "two" + System.lineSeparator() + "three" + System.lineSeparator()
+		);
+	}
 }
@@ -35,4 +35,10 @@ public class CommandExecutorsTest {
 		CommandExecutor executor = newExecutor();
 		assertThat(executor).isNotNull();
 	}
+
+	@Test
+	public void it_should_create_new_executor_of_given_type() {
+		assertThat(newExecutor(CommandExecutorType.COMMONS_EXEC)).isSameAs(newExecutor());
+		assertThat(newExecutor(CommandExecutorType.PROCESS)).isInstanceOf(ProcessCommandExecutor.class);
+	}
 }
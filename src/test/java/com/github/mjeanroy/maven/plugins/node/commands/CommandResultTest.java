@@ -26,6 +26,8 @@ package com.github.mjeanroy.maven.plugins.node.commands;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Test;
 
+import java.io.File;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CommandResultTest {
@@ -35,6 +37,24 @@ public class CommandResultTest {
 		CommandResult result = new CommandResult(0, "OUT");
 		assertThat(result.getStatus()).isZero();
 		assertThat(result.getOut()).isEqualTo("OUT");
+		assertThat(result.getOutFile()).isNull();
+	}
+
+	@Test
+	public void it_should_create_result_with_output_file() {
+		File outFile = new File("output.log");
+		CommandResult result = new CommandResult(0, "", outFile);
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut()).isEmpty();
+		assertThat(result.getOutFile()).isEqualTo(outFile);
+	}
+
+	@Test
+	public void it_should_create_result_with_resource_usage() {
+		ResourceUsage usage = new ResourceUsage(1000, 800, 100, 1024, 0, 512);
+		CommandResult result = new CommandResult(0, "", null, usage);
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getResourceUsage()).isEqualTo(usage);
 	}
 
 	@Test
@@ -67,7 +87,9 @@ public class CommandResultTest {
 		assertThat(result).hasToString(
 				"CommandResult{" +
 						"status=1, " +
-						"out=\"OUTPUT\"" +
+						"out=\"OUTPUT\", " +
+						"outFile=null, " +
+						"resourceUsage=null" +
 				"}"
 		);
 		// @formatter:on
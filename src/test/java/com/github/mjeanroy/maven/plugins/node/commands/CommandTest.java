@@ -34,6 +34,22 @@ public class CommandTest {
 		Command command = new Command("foo");
 		assertThat(command.getExecutable()).isEqualTo("foo");
 		assertThat(command.getArguments()).isNotNull().isEmpty();
+		assertThat(command.getCapture()).isEqualTo(OutputCapture.full());
+		assertThat(command.getLogBackpressure()).isEqualTo(LogBackpressure.BLOCK);
+	}
+
+	@Test
+	public void it_should_set_log_backpressure() {
+		Command command = new Command("foo");
+		command.setLogBackpressure(LogBackpressure.DROP);
+		assertThat(command.getLogBackpressure()).isEqualTo(LogBackpressure.DROP);
+	}
+
+	@Test
+	public void it_should_set_output_capture_policy() {
+		Command command = new Command("foo");
+		command.setCapture(OutputCapture.tail(10));
+		assertThat(command.getCapture()).isEqualTo(OutputCapture.tail(10));
 	}
 
 	@Test
@@ -72,4 +88,34 @@ public class CommandTest {
 			.isNotEmpty()
 			.isEqualTo("npm --no-color clean");
 	}
+
+	@Test
+	public void it_should_copy_command() {
+		Command command = new Command("npm");
+		command.setCapture(OutputCapture.none());
+		command.addArgument("run");
+		command.addArgument("test");
+
+		Command copy = command.copy();
+		copy.addArgument("--maxWorkers=2");
+
+		assertThat(copy.toString()).isEqualTo("npm run test --maxWorkers=2");
+		assertThat(copy.getCapture()).isEqualTo(OutputCapture.none());
+		assertThat(command.toString()).isEqualTo("npm run test");
+	}
+
+	@Test
+	public void it_should_copy_command_and_replace_argument() {
+		Command command = new Command("npm");
+		command.setCapture(OutputCapture.none());
+		command.addArgument("run");
+		command.addArgument("lint");
+		command.addArgument("--maven");
+
+		Command copy = command.replaceArgument("lint", "lint:js");
+
+		assertThat(copy.toString()).isEqualTo("npm run lint:js --maven");
+		assertThat(copy.getCapture()).isEqualTo(OutputCapture.none());
+		assertThat(command.toString()).isEqualTo("npm run lint --maven");
+	}
 }
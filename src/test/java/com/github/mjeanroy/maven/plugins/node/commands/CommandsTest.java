@@ -68,6 +68,36 @@ public class CommandsTest {
 		verify_node_command_on_unix();
 	}
 
+	@Test
+	public void it_should_create_shell_command_on_linux() {
+		useLinux();
+
+		Command shell = shell("gulp build --production");
+
+		assertThat(shell.getExecutable()).isEqualTo("sh");
+		assertThat(shell.getArguments()).containsExactly("-c", "gulp build --production");
+		assertThat(shell.isQuoteArguments()).isFalse();
+	}
+
+	@Test
+	public void it_should_quote_arguments_of_npm_command_on_linux() {
+		useLinux();
+
+		Command npm = npmClient("npm");
+
+		assertThat(npm.isQuoteArguments()).isTrue();
+	}
+
+	@Test
+	public void it_should_create_shell_command_on_windows() {
+		useWindows();
+
+		Command shell = shell("gulp build --production");
+
+		assertThat(shell.getExecutable()).isEqualTo("cmd");
+		assertThat(shell.getArguments()).containsExactly("/d", "/s", "/c", "gulp build --production");
+	}
+
 	@Test
 	public void it_should_create_node_command_with_custom_path_on_linux() {
 		useLinux();
@@ -87,6 +117,43 @@ public class CommandsTest {
 		assertThat(npm.getArguments()).containsExactly("/C", "npm", arg);
 	}
 
+	@Test
+	public void it_should_copy_npm_command_on_windows() {
+		useWindows();
+
+		Command npm = npm();
+		npm.setCapture(OutputCapture.none());
+		npm.addArgument("run");
+		npm.addArgument("test");
+
+		Command copy = npm.copy();
+		copy.addArgument("--maxWorkers=2");
+
+		assertThat(copy.getExecutable()).isEqualTo("cmd");
+		assertThat(copy.getArguments()).containsExactly("/C", "npm", "run", "test", "--maxWorkers=2");
+		assertThat(copy.getCapture()).isEqualTo(OutputCapture.none());
+		assertThat(npm.getArguments()).containsExactly("/C", "npm", "run", "test");
+	}
+
+	@Test
+	public void it_should_copy_npm_command_and_replace_argument_on_windows() {
+		useWindows();
+
+		Command npm = npm();
+		npm.setCapture(OutputCapture.none());
+		npm.addArgument("run");
+		npm.addArgument("lint");
+		npm.addArgument("--maven");
+
+		Command copy = npm.replaceArgument("lint", "lint:js");
+
+		assertThat(copy.getExecutable()).isEqualTo("cmd");
+		assertThat(copy.getArguments()).containsExactly("/C", "npm", "run", "lint:js", "--maven");
+		assertThat(copy.toString()).isEqualTo("npm run lint:js --maven");
+		assertThat(copy.getCapture()).isEqualTo(OutputCapture.none());
+		assertThat(npm.getArguments()).containsExactly("/C", "npm", "run", "lint", "--maven");
+	}
+
 	@Test
 	public void it_should_create_npm_client_command_on_windows() {
 		useWindows();
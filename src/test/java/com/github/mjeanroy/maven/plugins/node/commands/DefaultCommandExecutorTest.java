@@ -59,6 +59,8 @@ public class DefaultCommandExecutorTest {
 
 		assertThat(result.getStatus()).isZero();
 		assertThat(result.getOut()).isEmpty();
+		assertThat(result.getResourceUsage()).isNotNull();
+		assertThat(result.getResourceUsage().getWallTime()).isNotNegative();
 	}
 
 	@Test
@@ -88,6 +90,19 @@ public class DefaultCommandExecutorTest {
 			);
 	}
 
+	@Test
+	public void it_should_give_shell_script_as_is_on_unix() {
+		assumeFalse(isWindows());
+
+		Command command = Commands.shell("echo \"hello world\"");
+		OutputHandler out = mock(OutputHandler.class);
+
+		CommandResult result = commandExecutor.execute(new File("."), command, out, emptyMap());
+
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut().trim()).isEqualTo("hello world");
+	}
+
 	@Test
 	public void it_should_execute_error_command_on_unix() {
 		assumeFalse(isWindows());
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogStreamHandlerTest {
+
+	@Test
+	public void it_should_split_lines() {
+		RecordingOutputHandler handler = new RecordingOutputHandler(true);
+		LogStreamHandler stream = new LogStreamHandler(handler, UTF_8);
+
+		write(stream, "one\ntwo\r\nthree\rfour\n\nfive");
+		stream.flush();
+
+		assertThat(handler.lines).containsExactly("one", "two", "three", "four", "", "five");
+	}
+
+	@Test
+	public void it_should_split_lines_spanning_several_chunks() {
+		RecordingOutputHandler handler = new RecordingOutputHandler(true);
+		LogStreamHandler stream = new LogStreamHandler(handler, UTF_8);
+
+		write(stream, "npm W");
+		write(stream, "ARN deprecated\r");
+		write(stream, "\nHéllo ");
+		write(stream, "World");
+		stream.write('\n');
+
+		assertThat(handler.lines).containsExactly("npm WARN deprecated", "Héllo World");
+		assertThat(handler.levels).containsExactly(OutputLevel.WARN, OutputLevel.INFO);
+	}
+
+	@Test
+	public void it_should_skip_lines_with_disabled_level() {
+		RecordingOutputHandler handler = new RecordingOutputHandler(false);
+		LogStreamHandler stream = new LogStreamHandler(handler, UTF_8);
+
+		write(stream, "Hello\nnpm ERR! failure\n");
+
+		assertThat(handler.lines).containsExactly("npm ERR! failure");
+		assertThat(handler.levels).containsExactly(OutputLevel.ERROR);
+	}
+
+	private static void write(LogStreamHandler stream, String value) {
+		byte[] bytes = value.getBytes(UTF_8);
+		stream.write(bytes, 0, bytes.length);
+	}
+
+	private static class RecordingOutputHandler implements OutputHandler {
+		private final boolean infoEnabled;
+		private final List<String> lines = new ArrayList<>();
+		private final List<OutputLevel> levels = new ArrayList<>();
+
+		private RecordingOutputHandler(boolean infoEnabled) {
+			this.infoEnabled = infoEnabled;
+		}
+
+		@Override
+		public void process(String line) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void process(String line, OutputLevel level) {
+			lines.add(line);
+			levels.add(level);
+		}
+
+		@Override
+		public boolean isEnabled(OutputLevel level) {
+			return infoEnabled || level != OutputLevel.INFO;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OutputCaptureTest {
+
+	@Test
+	public void it_should_create_policies() {
+		File directory = new File("target");
+
+		assertThat(OutputCapture.none().getMode()).isEqualTo(OutputCapture.Mode.NONE);
+		assertThat(OutputCapture.full().getMode()).isEqualTo(OutputCapture.Mode.FULL);
+
+		OutputCapture tail = OutputCapture.tail(10);
+		assertThat(tail.getMode()).isEqualTo(OutputCapture.Mode.TAIL);
+		assertThat(tail.getLines()).isEqualTo(10);
+
+		OutputCapture spill = OutputCapture.spill(1024, directory);
+		assertThat(spill.getMode()).isEqualTo(OutputCapture.Mode.SPILL);
+		assertThat(spill.getThreshold()).isEqualTo(1024);
+		assertThat(spill.getDirectory()).isEqualTo(directory);
+	}
+
+	@Test
+	public void it_should_reject_invalid_policies() {
+		assertThatThrownBy(() -> OutputCapture.tail(0))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Number of lines to capture must be strictly positive");
+
+		assertThatThrownBy(() -> OutputCapture.spill(-1, new File("target")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Spill threshold must be positive");
+	}
+
+	@Test
+	public void it_should_display_string_representation() {
+		// @formatter:off
+		assertThat(OutputCapture.tail(10)).hasToString(
+				"OutputCapture{" +
+						"mode=TAIL, " +
+						"lines=10, " +
+						"threshold=0, " +
+						"directory=null" +
+				"}"
+		);
+		// @formatter:on
+	}
+
+	@Test
+	public void it_should_implement_equals() {
+		EqualsVerifier.forClass(OutputCapture.class).verify();
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutputLevelTest {
+
+	@Test
+	public void it_should_detect_error_level() {
+		assertThat(OutputLevel.of("npm ERR! There is likely additional logging output above.")).isEqualTo(OutputLevel.ERROR);
+		assertThat(OutputLevel.of("error Command \"start\" not found.")).isEqualTo(OutputLevel.ERROR);
+	}
+
+	@Test
+	public void it_should_detect_warn_level() {
+		assertThat(OutputLevel.of("npm WARN Local package.json exists")).isEqualTo(OutputLevel.WARN);
+		assertThat(OutputLevel.of("warning package.json: No license field")).isEqualTo(OutputLevel.WARN);
+		assertThat(OutputLevel.of("WARNING in webpack performance recommendations:")).isEqualTo(OutputLevel.WARN);
+		assertThat(OutputLevel.of("(node:29567) DeprecationWarning: Tapable.plugin is deprecated.")).isEqualTo(OutputLevel.WARN);
+	}
+
+	@Test
+	public void it_should_detect_info_level() {
+		assertThat(OutputLevel.of("")).isEqualTo(OutputLevel.INFO);
+		assertThat(OutputLevel.of("npm")).isEqualTo(OutputLevel.INFO);
+		assertThat(OutputLevel.of("Hello World")).isEqualTo(OutputLevel.INFO);
+		assertThat(OutputLevel.of("DeprecationWarning")).isEqualTo(OutputLevel.INFO);
+	}
+
+	@Test
+	public void it_should_detect_level_of_line_in_buffer() {
+		byte[] bytes = "Hello\nnpm WARN deprecated\nnpm ERR!".getBytes(UTF_8);
+
+		assertThat(OutputLevel.of(bytes, 0, 5)).isEqualTo(OutputLevel.INFO);
+		assertThat(OutputLevel.of(bytes, 6, 19)).isEqualTo(OutputLevel.WARN);
+		assertThat(OutputLevel.of(bytes, 26, 8)).isEqualTo(OutputLevel.INFO);
+	}
+}
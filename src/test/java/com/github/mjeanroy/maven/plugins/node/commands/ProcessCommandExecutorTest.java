@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeFalse;
+
+public class ProcessCommandExecutorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ProcessCommandExecutor commandExecutor;
+
+	@Before
+	public void setUp() {
+		commandExecutor = ProcessCommandExecutor.getInstance();
+	}
+
+	@Test
+	public void it_should_execute_success_command_on_unix() {
+		assumeFalse(isWindows());
+
+		String script = "success.sh";
+		Command command = createUnixCommand(script);
+		File workingDirectory = workingDirectory(script);
+		RecordingOutputHandler out = new RecordingOutputHandler(null);
+		Map<String, String> environment = emptyMap();
+
+		CommandResult result = commandExecutor.execute(workingDirectory, command, out, environment);
+
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut()).isEmpty();
+		assertThat(result.getResourceUsage()).isNotNull();
+		assertThat(result.getResourceUsage().getWallTime()).isNotNegative();
+	}
+
+	@Test
+	public void it_should_execute_command_on_unix_with_environment_variable() {
+		assumeFalse(isWindows());
+
+		String script = "env.sh";
+		String value = "node-maven-plugin";
+
+		Command command = createUnixCommand(script);
+		File workingDirectory = workingDirectory(script);
+		RecordingOutputHandler out = new RecordingOutputHandler(null);
+		Map<String, String> environment = singletonMap(
+				"TEST_ENV_VAR", value
+		);
+
+		CommandResult result = commandExecutor.execute(workingDirectory, command, out, environment);
+
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut().split(System.lineSeparator())).containsExactly(
+				System.getenv("PATH"),
+				value
+		);
+
+		assertThat(out.lines).containsExactly(
+				System.getenv("PATH"),
+				value
+		);
+	}
+
+	@Test
+	public void it_should_execute_error_command_on_unix() {
+		assumeFalse(isWindows());
+
+		String script = "error.sh";
+		Command command = createUnixCommand(script);
+		File workingDirectory = workingDirectory(script);
+		RecordingOutputHandler out = new RecordingOutputHandler(null);
+		Map<String, String> environment = emptyMap();
+
+		CommandResult result = commandExecutor.execute(workingDirectory, command, out, environment);
+
+		assertThat(result.getStatus()).isNotZero().isEqualTo(1);
+		assertThat(result.getOut()).isEmpty();
+	}
+
+	@Test
+	public void it_should_redirect_output_if_output_is_not_captured() throws Exception {
+		assumeFalse(isWindows());
+
+		String script = "env.sh";
+		File output = temporaryFolder.newFile("output.log");
+		Command command = createUnixCommand(script);
+		command.setCapture(OutputCapture.none());
+
+		File workingDirectory = workingDirectory(script);
+		RecordingOutputHandler out = new RecordingOutputHandler(Redirect.appendTo(output));
+		Map<String, String> environment = singletonMap("TEST_ENV_VAR", "node-maven-plugin");
+
+		CommandResult result = commandExecutor.execute(workingDirectory, command, out, environment);
+
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut()).isEmpty();
+		assertThat(out.lines).isEmpty();
+		assertThat(output).usingCharset(UTF_8).hasContent(
+				System.getenv("PATH") + "\n" + "node-maven-plugin" + "\n"
+		);
+		assertThat(result.getResourceUsage()).isNotNull();
+	}
+
+	@Test
+	public void it_should_process_output_if_output_is_captured() throws Exception {
+		assumeFalse(isWindows());
+
+		String script = "env.sh";
+		File output = temporaryFolder.newFile("output.log");
+		Command command = createUnixCommand(script);
+		File workingDirectory = workingDirectory(script);
+		RecordingOutputHandler out = new RecordingOutputHandler(Redirect.appendTo(output));
+		Map<String, String> environment = emptyMap();
+
+		CommandResult result = commandExecutor.execute(workingDirectory, command, out, environment);
+
+		assertThat(result.getStatus()).isZero();
+		assertThat(result.getOut()).isEqualTo(System.getenv("PATH"));
+		assertThat(out.lines).containsExactly(System.getenv("PATH"));
+		assertThat(output).isEmpty();
+	}
+
+	@Test
+	public void it_should_fail_if_executable_does_not_exist() {
+		Command command = new Command("node-maven-plugin-missing-executable");
+		File workingDirectory = temporaryFolder.getRoot();
+		RecordingOutputHandler out = new RecordingOutputHandler(null);
+
+		assertThatThrownBy(() -> commandExecutor.execute(workingDirectory, command, out, emptyMap()))
+				.isInstanceOf(CommandException.class);
+	}
+
+	private static Command createUnixCommand(String script) {
+		Command command = new Command("/bin/bash");
+		command.addArgument(script);
+		return command;
+	}
+
+	private static File workingDirectory(String script) {
+		String path = ProcessCommandExecutorTest.class.getResource("/" + script).getPath();
+		File file = new File(path);
+		return file.getParentFile();
+	}
+
+	private static boolean isWindows() {
+		return System.getProperty("os.name").toLowerCase().contains("windows");
+	}
+
+	private static class RecordingOutputHandler implements OutputHandler {
+		private final Redirect redirect;
+		private final List<String> lines = new ArrayList<>();
+
+		private RecordingOutputHandler(Redirect redirect) {
+			this.redirect = redirect;
+		}
+
+		@Override
+		public synchronized void process(String line) {
+			lines.add(line);
+		}
+
+		@Override
+		public Redirect getRedirect() {
+			return redirect;
+		}
+	}
+}
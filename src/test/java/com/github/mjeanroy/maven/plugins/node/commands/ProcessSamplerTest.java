@@ -0,0 +1,178 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage.UNKNOWN;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class ProcessSamplerTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void it_should_sample_process_tree() throws Exception {
+		File proc = temporaryFolder.newFolder("proc");
+		writeProcess(proc, 100, 1, "npm", 150, 30, 1000, 2000, 4096L, 512L, "101");
+		writeProcess(proc, 101, 100, "node (worker)", 300, 20, 3000, 3500, 8192L, 1024L, "");
+		writeProcess(proc, 200, 1, "other", 999, 999, 9999, 9999, 0L, 0L, "");
+
+		ProcessSampler sampler = new ProcessSampler(proc, 100);
+		sampler.sample();
+
+		ResourceUsage usage = sampler.usage(1000);
+		assertThat(usage.getWallTime()).isEqualTo(1000);
+		assertThat(usage.getUserTime()).isEqualTo(4500);
+		assertThat(usage.getSystemTime()).isEqualTo(500);
+		assertThat(usage.getPeakRss()).isEqualTo(4000 * 1024);
+		assertThat(usage.getReadBytes()).isEqualTo(12288);
+		assertThat(usage.getWrittenBytes()).isEqualTo(1536);
+	}
+
+	@Test
+	public void it_should_keep_last_sample_of_exited_processes() throws Exception {
+		File proc = temporaryFolder.newFolder("proc");
+		writeProcess(proc, 100, 1, "npm", 150, 30, 1000, 1000, null, null, "101");
+		writeProcess(proc, 101, 100, "node", 300, 20, 3000, 3000, null, null, "");
+
+		ProcessSampler sampler = new ProcessSampler(proc, 100);
+		sampler.sample();
+
+		// The child exited, and the parent used more CPU.
+		deleteProcess(proc, 101);
+		writeProcess(proc, 100, 1, "npm", 200, 40, 500, 1000, null, null, "");
+		sampler.sample();
+
+		ResourceUsage usage = sampler.usage(1000);
+		assertThat(usage.getUserTime()).isEqualTo(5000);
+		assertThat(usage.getSystemTime()).isEqualTo(600);
+		assertThat(usage.getPeakRss()).isEqualTo(4000 * 1024);
+		assertThat(usage.getReadBytes()).isEqualTo(UNKNOWN);
+		assertThat(usage.getWrittenBytes()).isEqualTo(UNKNOWN);
+	}
+
+	@Test
+	public void it_should_scan_processes_if_children_files_are_not_available() throws Exception {
+		File proc = temporaryFolder.newFolder("proc");
+		writeProcess(proc, 100, 1, "npm", 150, 30, 1000, 1000, null, null, null);
+		writeProcess(proc, 101, 100, "node", 300, 20, 3000, 3000, null, null, null);
+		writeProcess(proc, 102, 101, "esbuild", 50, 0, 500, 500, null, null, null);
+		writeProcess(proc, 200, 1, "other", 999, 999, 9999, 9999, null, null, null);
+
+		ProcessSampler sampler = new ProcessSampler(proc, 100);
+		sampler.sample();
+
+		ResourceUsage usage = sampler.usage(1000);
+		assertThat(usage.getUserTime()).isEqualTo(5000);
+		assertThat(usage.getSystemTime()).isEqualTo(500);
+		assertThat(usage.getPeakRss()).isEqualTo(4500 * 1024);
+	}
+
+	@Test
+	public void it_should_only_measure_wall_time_if_proc_is_not_available() {
+		ProcessSampler sampler = new ProcessSampler(new File(temporaryFolder.getRoot(), "missing"), 100);
+		sampler.start(ProcessSampler.DEFAULT_INTERVAL);
+
+		ResourceUsage usage = sampler.stop();
+		assertThat(usage.getWallTime()).isNotNegative();
+		assertThat(usage.getUserTime()).isEqualTo(UNKNOWN);
+		assertThat(usage.getSystemTime()).isEqualTo(UNKNOWN);
+		assertThat(usage.getPeakRss()).isEqualTo(UNKNOWN);
+		assertThat(usage.getReadBytes()).isEqualTo(UNKNOWN);
+		assertThat(usage.getWrittenBytes()).isEqualTo(UNKNOWN);
+		assertThat(sampler.stop()).isSameAs(usage);
+	}
+
+	@Test
+	public void it_should_sample_running_process() throws Exception {
+		assumeTrue(new File("/proc/self/stat").isFile());
+
+		Process process = new ProcessBuilder("sh", "-c", "sleep 0.5").start();
+		ProcessSampler sampler = ProcessSampler.start(process);
+		process.waitFor();
+
+		ResourceUsage usage = sampler.stop();
+		assertThat(usage.getWallTime()).isGreaterThanOrEqualTo(400);
+		assertThat(usage.getUserTime()).isNotNegative();
+		assertThat(usage.getSystemTime()).isNotNegative();
+		assertThat(usage.getPeakRss()).isPositive();
+	}
+
+	@Test
+	public void it_should_get_process_id() throws Exception {
+		assumeTrue(new File("/proc/self/stat").isFile());
+
+		Process process = new ProcessBuilder("sh", "-c", "exit 0").start();
+		try {
+			assertThat(ProcessSampler.pid(process)).isPositive();
+		}
+		finally {
+			process.waitFor();
+		}
+	}
+
+	private static void writeProcess(File proc, long pid, long ppid, String name, long utime, long stime, long rss, long hwm, Long read, Long write, String children) throws IOException {
+		File dir = new File(proc, Long.toString(pid));
+		File task = new File(new File(dir, "task"), Long.toString(pid));
+		Files.createDirectories(task.toPath());
+
+		// Fields: pid, comm, state, ppid, pgrp, session, tty_nr, tpgid, flags, minflt, cminflt, majflt, cmajflt,
+		// utime, stime, cutime, cstime, priority, nice, num_threads, itrealvalue, starttime, vsize, rss.
+		String stat = pid + " (" + name + ") S " + ppid + " 0 0 0 -1 0 0 0 0 0 " + utime + " " + stime + " 0 0 20 0 1 0 " + (pid * 10) + " 0 0";
+		write(new File(dir, "stat"), stat);
+		write(new File(dir, "status"), "Name:\t" + name + "\nVmHWM:\t    " + hwm + " kB\nVmRSS:\t    " + rss + " kB\nThreads:\t1\n");
+
+		if (read != null) {
+			write(new File(dir, "io"), "rchar: 0\nwchar: 0\nread_bytes: " + read + "\nwrite_bytes: " + write + "\n");
+		}
+
+		if (children != null) {
+			write(new File(task, "children"), children.isEmpty() ? "" : children + " ");
+		}
+	}
+
+	private static void deleteProcess(File proc, long pid) throws IOException {
+		File dir = new File(proc, Long.toString(pid));
+		Files.walk(dir.toPath())
+				.sorted((p1, p2) -> p2.compareTo(p1))
+				.map(java.nio.file.Path::toFile)
+				.forEach(File::delete);
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), singletonList(content), US_ASCII);
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commands;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Test;
+
+import static com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage.UNKNOWN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceUsageTest {
+
+	@Test
+	public void it_should_create_resource_usage() {
+		ResourceUsage usage = new ResourceUsage(1000, 800, 100, 1024, 2048, 512);
+		assertThat(usage.getWallTime()).isEqualTo(1000);
+		assertThat(usage.getUserTime()).isEqualTo(800);
+		assertThat(usage.getSystemTime()).isEqualTo(100);
+		assertThat(usage.getPeakRss()).isEqualTo(1024);
+		assertThat(usage.getReadBytes()).isEqualTo(2048);
+		assertThat(usage.getWrittenBytes()).isEqualTo(512);
+	}
+
+	@Test
+	public void it_should_add_resource_usages() {
+		ResourceUsage u1 = new ResourceUsage(1000, 800, 100, 1024, 2048, 512);
+		ResourceUsage u2 = new ResourceUsage(500, 200, 50, 4096, 10, 20);
+
+		assertThat(u1.plus(u2)).isEqualTo(new ResourceUsage(1500, 1000, 150, 4096, 2058, 532));
+	}
+
+	@Test
+	public void it_should_ignore_unknown_values_when_adding_resource_usages() {
+		ResourceUsage u1 = new ResourceUsage(1000, 800, 100, 1024, UNKNOWN, UNKNOWN);
+		ResourceUsage u2 = new ResourceUsage(500, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN);
+
+		assertThat(u1.plus(u2)).isEqualTo(new ResourceUsage(1500, 800, 100, 1024, UNKNOWN, UNKNOWN));
+	}
+
+	@Test
+	public void it_should_display_string_representation() {
+		ResourceUsage usage = new ResourceUsage(1000, 800, 100, 1024, 2048, 512);
+
+		// @formatter:off
+		assertThat(usage).hasToString(
+				"ResourceUsage{" +
+						"wallTime=1000, " +
+						"userTime=800, " +
+						"systemTime=100, " +
+						"peakRss=1024, " +
+						"readBytes=2048, " +
+						"writtenBytes=512" +
+				"}"
+		);
+		// @formatter:on
+	}
+
+	@Test
+	public void it_should_implement_equals() {
+		EqualsVerifier.forClass(ResourceUsage.class).verify();
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Crc32cTest {
+
+	@Test
+	public void it_should_compute_checksum() {
+		byte[] bytes = "123456789".getBytes(UTF_8);
+		Crc32c crc32c = new Crc32c();
+		crc32c.update(bytes, 0, bytes.length);
+		assertThat(crc32c.getValue()).isEqualTo(0xE3069283L);
+	}
+
+	@Test
+	public void it_should_compute_checksum_of_direct_buffer() {
+		byte[] bytes = "123456789".getBytes(UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		buffer.flip();
+
+		Crc32c crc32c = new Crc32c();
+		crc32c.update(buffer);
+
+		assertThat(crc32c.getValue()).isEqualTo(0xE3069283L);
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test
+	public void it_should_reset_checksum() {
+		Crc32c crc32c = new Crc32c();
+		crc32c.update(42);
+		crc32c.reset();
+		assertThat(crc32c.getValue()).isZero();
+	}
+}
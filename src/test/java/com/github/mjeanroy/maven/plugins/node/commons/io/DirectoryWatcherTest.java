@@ -0,0 +1,175 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectoryWatcherTest {
+
+	private static final long TIMEOUT = 5000;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File baseDir;
+
+	@Before
+	public void setUp() throws Exception {
+		baseDir = temporaryFolder.getRoot();
+		givenFile("package.json", "{}");
+		givenFile("src/index.js", "foo");
+		givenFile("node_modules/foo/index.js", "foo");
+	}
+
+	@Test
+	public void it_should_return_the_same_watcher_for_the_same_directory() {
+		DirectoryWatcher w1 = watch();
+		DirectoryWatcher w2 = watch();
+		assertThat(w1).isSameAs(w2);
+	}
+
+	@Test
+	public void it_should_not_return_changes_until_subscriber_has_been_marked_as_clean() throws Exception {
+		DirectoryWatcher watcher = watch();
+
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).isNull();
+
+		givenFile("src/index.js", "foobar");
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).isNull();
+	}
+
+	@Test
+	public void it_should_return_modified_files() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		givenFile("src/index.js", "foobar");
+
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).containsExactly("src/index.js");
+	}
+
+	@Test
+	public void it_should_return_nothing_if_nothing_changed() {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).isEmpty();
+	}
+
+	@Test
+	public void it_should_return_files_created_in_new_directory() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		givenFile("src/app/app.js", "foo");
+		Set<String> changes = watcher.pollChanges("test", "v1", TIMEOUT);
+		assertThat(changes).contains("src/app", "src/app/app.js");
+
+		watcher.markClean("test", "v1");
+
+		givenFile("src/app/app.js", "foobar");
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).containsExactly("src/app/app.js");
+	}
+
+	@Test
+	public void it_should_return_deleted_files() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		assertThat(new File(baseDir, "src/index.js").delete()).isTrue();
+
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).containsExactly("src/index.js");
+	}
+
+	@Test
+	public void it_should_ignore_changes_in_ignored_directories() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		givenFile("node_modules/foo/index.js", "foobar");
+		givenFile("node_modules/bar/index.js", "foobar");
+
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).isEmpty();
+	}
+
+	@Test
+	public void it_should_not_return_changes_if_fingerprint_changed() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		givenFile("src/index.js", "foobar");
+
+		assertThat(watcher.pollChanges("test", "v2", TIMEOUT)).isNull();
+	}
+
+	@Test
+	public void it_should_track_changes_for_each_subscriber() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test1", "v1");
+		watcher.pollChanges("test2", "v1", TIMEOUT);
+		watcher.markClean("test2", "v1");
+
+		givenFile("src/index.js", "foobar");
+
+		assertThat(watcher.pollChanges("test1", "v1", TIMEOUT)).containsExactly("src/index.js");
+		watcher.markClean("test1", "v1");
+
+		givenFile("package.json", "{ }");
+
+		assertThat(watcher.pollChanges("test1", "v1", TIMEOUT)).containsExactly("package.json");
+		assertThat(watcher.pollChanges("test2", "v1", TIMEOUT)).containsExactlyInAnyOrder("src/index.js", "package.json");
+	}
+
+	@Test
+	public void it_should_release_watchers_unused_since_previous_release() throws Exception {
+		DirectoryWatcher watcher = watchAndMarkClean("test", "v1");
+
+		DirectoryWatcher.releaseUnused();
+		assertThat(watch()).isSameAs(watcher);
+
+		DirectoryWatcher.releaseUnused();
+		DirectoryWatcher.releaseUnused();
+
+		assertThat(watcher.pollChanges("test", "v1", TIMEOUT)).isNull();
+		assertThat(watch()).isNotSameAs(watcher);
+	}
+
+	private DirectoryWatcher watch() {
+		return DirectoryWatcher.watch(baseDir, asList("**/node_modules/**/*", "**/target/**/*"));
+	}
+
+	private DirectoryWatcher watchAndMarkClean(String id, String fingerprint) {
+		DirectoryWatcher watcher = watch();
+		watcher.pollChanges(id, fingerprint, TIMEOUT);
+		watcher.markClean(id, fingerprint);
+		return watcher;
+	}
+
+	private void givenFile(String path, String content) throws Exception {
+		File file = new File(baseDir, path);
+		java.nio.file.Files.createDirectories(file.getParentFile().toPath());
+		java.nio.file.Files.write(file.toPath(), content.getBytes());
+	}
+}
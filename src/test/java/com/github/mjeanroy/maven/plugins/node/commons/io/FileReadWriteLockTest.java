@@ -0,0 +1,254 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileReadWriteLockTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File file;
+	private ReadWriteLock lock;
+
+	@Before
+	public void setUp() {
+		file = new File(temporaryFolder.getRoot(), ".lock");
+		lock = new FileReadWriteLock(new ReentrantReadWriteLock(true), file);
+	}
+
+	@Test
+	public void it_should_create_lock_file() {
+		lock.readLock().lock();
+		try {
+			assertThat(file).exists();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Test
+	public void it_should_acquire_a_shared_file_lock_with_the_read_lock() throws Exception {
+		lock.readLock().lock();
+		try {
+			assertThat(probe(true)).isTrue();
+			assertThat(probe(false)).isFalse();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		assertThat(probe(false)).isTrue();
+	}
+
+	@Test
+	public void it_should_acquire_an_exclusive_file_lock_with_the_write_lock() throws Exception {
+		lock.writeLock().lock();
+		try {
+			assertThat(probe(true)).isFalse();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+
+		assertThat(probe(false)).isTrue();
+	}
+
+	@Test
+	public void it_should_share_the_read_lock_between_threads() throws Exception {
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			lock.readLock().lock();
+			try {
+				locked.countDown();
+				done.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				lock.readLock().unlock();
+			}
+		});
+
+		thread.start();
+		assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(lock.readLock().tryLock()).isTrue();
+		lock.readLock().unlock();
+
+		// The other thread still holds the shared file lock.
+		assertThat(probe(false)).isFalse();
+
+		done.countDown();
+		thread.join();
+
+		assertThat(probe(false)).isTrue();
+	}
+
+	@Test
+	public void it_should_not_acquire_the_lock_while_another_process_holds_it() throws Exception {
+		Process process = startProbe("hold");
+		try {
+			assertThat(readLine(process)).isEqualTo("locked");
+			assertThat(lock.readLock().tryLock(100, TimeUnit.MILLISECONDS)).isFalse();
+			assertThat(lock.writeLock().tryLock()).isFalse();
+		}
+		finally {
+			process.destroy();
+			process.waitFor();
+		}
+
+		assertThat(lock.writeLock().tryLock(5, TimeUnit.SECONDS)).isTrue();
+		lock.writeLock().unlock();
+	}
+
+	@Test
+	public void it_should_acquire_a_shared_parent_file_lock_with_a_scoped_lock() throws Exception {
+		File moduleFile = new File(temporaryFolder.newFolder("module"), ".lock");
+		ReadWriteLock scoped = new FileReadWriteLock(new ReentrantReadWriteLock(true), moduleFile, file);
+
+		scoped.writeLock().lock();
+		try {
+			assertThat(probe(moduleFile, true)).isFalse();
+			assertThat(probe(true)).isTrue();
+			assertThat(probe(false)).isFalse();
+		}
+		finally {
+			scoped.writeLock().unlock();
+		}
+
+		assertThat(probe(moduleFile, false)).isTrue();
+		assertThat(probe(false)).isTrue();
+	}
+
+	@Test
+	public void it_should_not_acquire_a_scoped_lock_while_another_process_holds_the_parent_lock() throws Exception {
+		ReadWriteLock scoped = new FileReadWriteLock(new ReentrantReadWriteLock(true), new File(temporaryFolder.newFolder("module"), ".lock"), file);
+
+		Process process = startProbe("hold");
+		try {
+			assertThat(readLine(process)).isEqualTo("locked");
+			assertThat(scoped.readLock().tryLock(100, TimeUnit.MILLISECONDS)).isFalse();
+		}
+		finally {
+			process.destroy();
+			process.waitFor();
+		}
+
+		assertThat(scoped.writeLock().tryLock(5, TimeUnit.SECONDS)).isTrue();
+		scoped.writeLock().unlock();
+	}
+
+	@Test
+	public void it_should_fail_to_release_a_lock_that_is_not_held() {
+		assertThatThrownBy(() -> lock.readLock().unlock()).isInstanceOf(IllegalMonitorStateException.class);
+	}
+
+	@Test
+	public void it_should_not_support_conditions() {
+		Lock writeLock = lock.writeLock();
+		assertThatThrownBy(writeLock::newCondition).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	/**
+	 * Try to lock the file from another process.
+	 *
+	 * @param shared If the lock should be shared.
+	 * @return {@code true} if the file has been locked, {@code false} otherwise.
+	 */
+	private boolean probe(boolean shared) throws Exception {
+		return probe(file, shared);
+	}
+
+	private boolean probe(File file, boolean shared) throws Exception {
+		Process process = startProbe(file, shared ? "shared" : "exclusive");
+		try {
+			return "locked".equals(readLine(process));
+		}
+		finally {
+			process.waitFor();
+		}
+	}
+
+	private Process startProbe(String mode) throws Exception {
+		return startProbe(file, mode);
+	}
+
+	private Process startProbe(File file, String mode) throws Exception {
+		String java = new File(System.getProperty("java.home"), "bin/java").getAbsolutePath();
+		String classpath = new File(Probe.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+		return new ProcessBuilder(java, "-cp", classpath, Probe.class.getName(), file.getAbsolutePath(), mode)
+				.redirectErrorStream(true)
+				.start();
+	}
+
+	private static String readLine(Process process) throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
+		return reader.readLine();
+	}
+
+	/**
+	 * Try to lock a file, and print the result: run in a child process, as a file lock is held by the whole JVM.
+	 */
+	public static final class Probe {
+		public static void main(String[] args) throws Exception {
+			File file = new File(args[0]);
+			String mode = args[1];
+			boolean shared = mode.equals("shared");
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				FileLock fileLock = channel.tryLock(0, Long.MAX_VALUE, shared);
+				System.out.println(fileLock == null ? "unlocked" : "locked");
+				System.out.flush();
+
+				if (fileLock != null && mode.equals("hold")) {
+					Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static com.github.mjeanroy.maven.plugins.node.commons.io.Environments.isWindows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class FileScannerTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void it_should_scan_included_files() throws Exception {
+		File baseDir = temporaryFolder.getRoot();
+		givenFile("package.json", "{}");
+		givenFile("index.js", "foo");
+		givenFile("src/app/app.js", "foobar");
+		givenFile("src/app/app.css", "");
+		givenFile("node_modules/foo/index.js", "");
+		givenFile("packages/a/node_modules/foo/index.js", "");
+		givenFile("packages/a/index.js", "");
+		givenFile("target/index.js", "");
+
+		FileScanner scanner = new FileScanner(
+				baseDir,
+				asList("**/*.js", "**/package.json"),
+				asList("**/node_modules/**/*", "**/target/**/*")
+		);
+
+		Map<String, BasicFileAttributes> files = scanner.scan();
+
+		assertThat(files.keySet()).containsExactlyInAnyOrder(
+				"package.json",
+				"index.js",
+				"src/app/app.js",
+				"packages/a/index.js"
+		);
+
+		assertThat(files.get("src/app/app.js").size()).isEqualTo(6);
+		assertThat(files.get("src/app/app.js").isRegularFile()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_scan_anything_without_includes() throws Exception {
+		givenFile("index.js", "foo");
+
+		FileScanner scanner = new FileScanner(temporaryFolder.getRoot(), emptyList(), emptyList());
+
+		assertThat(scanner.scan()).isEmpty();
+	}
+
+	@Test
+	public void it_should_exclude_files() throws Exception {
+		givenFile("src/index.js", "foo");
+		givenFile("src/index.spec.js", "foo");
+
+		FileScanner scanner = new FileScanner(temporaryFolder.getRoot(), singletonList("src/*.js"), singletonList("**/*.spec.js"));
+
+		assertThat(scanner.scan().keySet()).containsExactly("src/index.js");
+	}
+
+	@Test
+	public void it_should_return_empty_result_if_base_directory_does_not_exist() {
+		File baseDir = new File(temporaryFolder.getRoot(), "missing");
+
+		FileScanner scanner = new FileScanner(baseDir, singletonList("**/*"), emptyList());
+
+		assertThat(scanner.scan()).isEmpty();
+	}
+
+	@Test
+	public void it_should_check_if_path_is_selected() {
+		FileScanner scanner = new FileScanner(
+				temporaryFolder.getRoot(),
+				singletonList("**/*.js"),
+				asList("**/node_modules/**/*", "**/*.spec.js")
+		);
+
+		assertThat(scanner.isSelected("src/index.js")).isTrue();
+		assertThat(scanner.isSelected("src/index.spec.js")).isFalse();
+		assertThat(scanner.isSelected("node_modules/foo/index.js")).isFalse();
+		assertThat(scanner.isSelected("src/index.css")).isFalse();
+	}
+
+	@Test
+	public void it_should_ignore_special_files() throws Exception {
+		givenFile("index.js", "foo");
+
+		File fifo = new File(temporaryFolder.getRoot(), "pipe.js");
+		boolean created = !isWindows() && new ProcessBuilder("mkfifo", fifo.getAbsolutePath()).start().waitFor() == 0;
+		assumeTrue("Named pipes are not supported", created);
+
+		FileScanner scanner = new FileScanner(temporaryFolder.getRoot(), singletonList("**/*.js"), emptyList());
+		Map<String, BasicFileAttributes> files = scanner.scan();
+
+		assertThat(files.keySet()).containsExactly("index.js");
+	}
+
+	@Test
+	public void it_should_record_last_modification_time_of_visited_directories() throws Exception {
+		givenFile("index.js", "foo");
+		givenFile("src/app.js", "foo");
+		givenFile("node_modules/foo/index.js", "");
+
+		FileScanner scanner = new FileScanner(temporaryFolder.getRoot(), singletonList("**/*.js"), singletonList("**/node_modules/**/*"));
+		Map<String, FileTime> directories = new HashMap<>();
+		scanner.scan(directories);
+
+		assertThat(directories).containsOnlyKeys("", "src");
+		assertThat(directories.get("src")).isEqualTo(java.nio.file.Files.getLastModifiedTime(new File(temporaryFolder.getRoot(), "src").toPath()));
+	}
+
+	private void givenFile(String path, String content) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		java.nio.file.Files.createDirectories(file.getParentFile().toPath());
+		java.nio.file.Files.write(file.toPath(), content.getBytes());
+	}
+}
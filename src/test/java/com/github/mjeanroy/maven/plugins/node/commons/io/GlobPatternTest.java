@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Test;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GlobPatternTest {
+
+	@Test
+	public void it_should_match_exact_path() {
+		GlobPattern pattern = GlobPattern.compile("package.json");
+
+		assertThat(pattern.matches("package.json")).isTrue();
+		assertThat(pattern.matches("src/package.json")).isFalse();
+		assertThat(pattern.matches("package.jsonx")).isFalse();
+	}
+
+	@Test
+	public void it_should_ignore_leading_separator() {
+		GlobPattern pattern = GlobPattern.compile("/package.json");
+
+		assertThat(pattern.matches("package.json")).isTrue();
+	}
+
+	@Test
+	public void it_should_match_wildcards_in_a_single_segment() {
+		GlobPattern pattern = GlobPattern.compile("src/*.j?");
+
+		assertThat(pattern.matches("src/index.js")).isTrue();
+		assertThat(pattern.matches("src/.js")).isTrue();
+		assertThat(pattern.matches("src/index.jsx")).isFalse();
+		assertThat(pattern.matches("src/app/index.js")).isFalse();
+	}
+
+	@Test
+	public void it_should_match_zero_or_more_directories() {
+		GlobPattern pattern = GlobPattern.compile("**/package.json");
+
+		assertThat(pattern.matches("package.json")).isTrue();
+		assertThat(pattern.matches("packages/a/package.json")).isTrue();
+		assertThat(pattern.matches("packages/a/package.json5")).isFalse();
+	}
+
+	@Test
+	public void it_should_match_directories_in_the_middle_of_the_pattern() {
+		GlobPattern pattern = GlobPattern.compile("**/node_modules/**/*");
+
+		assertThat(pattern.matches("node_modules/index.js")).isTrue();
+		assertThat(pattern.matches("node_modules/a/b/index.js")).isTrue();
+		assertThat(pattern.matches("packages/a/node_modules/index.js")).isTrue();
+		assertThat(pattern.matches("node_modules")).isFalse();
+		assertThat(pattern.matches("src/node_modules.js")).isFalse();
+	}
+
+	@Test
+	public void it_should_quote_regex_characters() {
+		GlobPattern pattern = GlobPattern.compile("src/(a)+[b].js");
+
+		assertThat(pattern.matches("src/(a)+[b].js")).isTrue();
+		assertThat(pattern.matches("src/aa[b].js")).isFalse();
+	}
+
+	@Test
+	public void it_should_append_any_directories_to_pattern_ending_with_separator() {
+		GlobPattern pattern = GlobPattern.compile("src\\");
+
+		assertThat(pattern.toString()).isEqualTo("src/**");
+		assertThat(pattern.matches("src/index.js")).isTrue();
+		assertThat(pattern.matches("src/app/index.js")).isTrue();
+		assertThat(pattern.matches("lib/index.js")).isFalse();
+	}
+
+	@Test
+	public void it_should_merge_consecutive_any_directories() {
+		GlobPattern pattern = GlobPattern.compile("src/**/**/*.js");
+
+		assertThat(pattern.toString()).isEqualTo("src/**/*.js");
+		assertThat(pattern.matches("src/index.js")).isTrue();
+		assertThat(pattern.matches("src/a/b/index.js")).isTrue();
+	}
+
+	@Test
+	public void it_should_check_if_whole_directory_is_matched() {
+		assertThat(GlobPattern.compile("**/node_modules/**/*").matchesWholeTree("node_modules")).isTrue();
+		assertThat(GlobPattern.compile("**/node_modules/**/*").matchesWholeTree("packages/a/node_modules")).isTrue();
+		assertThat(GlobPattern.compile("**/node_modules/**/*").matchesWholeTree("src")).isFalse();
+		assertThat(GlobPattern.compile("src/main/java/**").matchesWholeTree("src/main/java")).isTrue();
+		assertThat(GlobPattern.compile("src/main/java/**").matchesWholeTree("src/main")).isFalse();
+		assertThat(GlobPattern.compile("**").matchesWholeTree("src")).isTrue();
+		assertThat(GlobPattern.compile("**/*.js").matchesWholeTree("src")).isFalse();
+	}
+
+	@Test
+	public void it_should_check_if_directory_could_contain_matching_paths() {
+		assertThat(GlobPattern.compile("**/*.js").couldMatchInside("src/app")).isTrue();
+		assertThat(GlobPattern.compile("src/**/*.js").couldMatchInside("src")).isTrue();
+		assertThat(GlobPattern.compile("src/**/*.js").couldMatchInside("src/app")).isTrue();
+		assertThat(GlobPattern.compile("src/**/*.js").couldMatchInside("lib")).isFalse();
+		assertThat(GlobPattern.compile("src/*/index.js").couldMatchInside("src/app")).isTrue();
+		assertThat(GlobPattern.compile("src/*/index.js").couldMatchInside("src/app/components")).isFalse();
+		assertThat(GlobPattern.compile("package.json").couldMatchInside("src")).isFalse();
+	}
+
+	@Test
+	public void it_should_match_ant_pattern_written_with_explicit_syntax() {
+		GlobPattern pattern = GlobPattern.compile("%ant[**/*.js]");
+
+		assertThat(pattern.matches("src/index.js")).isTrue();
+		assertThat(pattern.matches("src/index.ts")).isFalse();
+		assertThat(pattern.matchesWholeTree("src")).isFalse();
+	}
+
+	@Test
+	public void it_should_match_regular_expression() {
+		GlobPattern pattern = GlobPattern.compile("%regex[.*\\.(js|ts)]");
+
+		assertThat(pattern.matches("index.js")).isTrue();
+		assertThat(pattern.matches("src/app/index.ts")).isTrue();
+		assertThat(pattern.matches("src/app/index.css")).isFalse();
+		assertThat(pattern.matchesWholeTree("src")).isFalse();
+		assertThat(pattern.couldMatchInside("src/app")).isTrue();
+		assertThat(pattern).hasToString("%regex[.*\\.(js|ts)]");
+	}
+
+	@Test
+	public void it_should_fail_with_invalid_regular_expression() {
+		assertThatThrownBy(() -> GlobPattern.compile("%regex[(.*]"))
+				.isInstanceOf(PatternSyntaxException.class);
+	}
+}
@@ -23,19 +23,28 @@
 
 package com.github.mjeanroy.maven.plugins.node.commons.io;
 
+import org.apache.commons.codec.digest.PureJavaCrc32C;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.util.Map;
+import java.util.Random;
 
 import static com.github.mjeanroy.maven.plugins.node.tests.DigestTestUtils.computeMd5;
 import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.getFileFromClasspath;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 public class IosTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void it_should_compute_md5_hash_of_given_file() {
 		File file = getFileFromClasspath("/test.json");
@@ -58,4 +67,94 @@ public class IosTest {
 					entry(file3.getAbsolutePath(), computeMd5(file3))
 			);
 	}
+
+	@Test
+	public void it_should_encode_bytes_to_hex() {
+		assertThat(Ios.toHex(new byte[] { 0x00, 0x0f, (byte) 0xa5, (byte) 0xff })).isEqualTo("000fa5ff");
+		assertThat(Ios.toHex(new byte[0])).isEmpty();
+	}
+
+	@Test
+	public void it_should_decode_hex_to_bytes() {
+		assertThat(Ios.fromHex("000fa5ff")).containsExactly(0x00, 0x0f, 0xa5, 0xff);
+		assertThat(Ios.fromHex("000FA5FF")).containsExactly(0x00, 0x0f, 0xa5, 0xff);
+		assertThat(Ios.fromHex("")).isEmpty();
+	}
+
+	@Test
+	public void it_should_fail_to_decode_invalid_hex() {
+		assertThatThrownBy(() -> Ios.fromHex("abc"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Hexadecimal string must have an even length: abc");
+
+		assertThatThrownBy(() -> Ios.fromHex("zz"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid hexadecimal string: zz");
+	}
+
+	@Test
+	public void it_should_compute_crc32c_checksum_of_given_file() throws Exception {
+		File file = givenFile("crc32c.txt", "123456789".getBytes(UTF_8));
+		String crc32c = Ios.crc32c(file);
+		assertThat(crc32c).isEqualTo("e3069283");
+	}
+
+	@Test
+	public void it_should_compute_crc32c_checksum_of_large_file() throws Exception {
+		File file = givenFile("large.bin", 9 * 1024 * 1024 + 17);
+		PureJavaCrc32C expected = new PureJavaCrc32C();
+		byte[] bytes = java.nio.file.Files.readAllBytes(file.toPath());
+		expected.update(bytes, 0, bytes.length);
+
+		String crc32c = Ios.crc32c(file);
+
+		assertThat(crc32c).isEqualTo(String.format("%08x", expected.getValue()));
+	}
+
+	@Test
+	public void it_should_compute_xxhash64_of_given_file() throws Exception {
+		File file = givenFile("xxhash64.txt", "The quick brown fox jumps over the lazy dog".getBytes(UTF_8));
+		String xxHash64 = Ios.xxHash64(file);
+		assertThat(xxHash64).isEqualTo("0b242d361fda71bc");
+	}
+
+	@Test
+	public void it_should_compute_xxhash64_of_empty_file() throws Exception {
+		File file = temporaryFolder.newFile("empty.txt");
+		String xxHash64 = Ios.xxHash64(file);
+		assertThat(xxHash64).isEqualTo("ef46db3751d8e999");
+	}
+
+	@Test
+	public void it_should_compute_md5_hash_of_empty_file() throws Exception {
+		File file = temporaryFolder.newFile("empty.txt");
+		String md5 = Ios.md5(file);
+		assertThat(md5).isEqualTo("d41d8cd98f00b204e9800998ecf8427e");
+	}
+
+	@Test
+	public void it_should_compute_md5_hash_of_file_larger_than_read_buffer() throws Exception {
+		File file = givenFile("medium.bin", 200 * 1024 + 17);
+		String md5 = Ios.md5(file);
+		assertThat(md5).isEqualTo(computeMd5(file));
+	}
+
+	@Test
+	public void it_should_compute_md5_hash_of_large_file() throws Exception {
+		File file = givenFile("large.bin", 9 * 1024 * 1024 + 17);
+		String md5 = Ios.md5(file);
+		assertThat(md5).isEqualTo(computeMd5(file));
+	}
+
+	private File givenFile(String name, int size) throws Exception {
+		byte[] bytes = new byte[size];
+		new Random(42).nextBytes(bytes);
+		return givenFile(name, bytes);
+	}
+
+	private File givenFile(String name, byte[] bytes) throws Exception {
+		File file = temporaryFolder.newFile(name);
+		java.nio.file.Files.write(file.toPath(), bytes);
+		return file;
+	}
 }
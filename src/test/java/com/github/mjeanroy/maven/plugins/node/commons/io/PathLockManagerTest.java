@@ -0,0 +1,238 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PathLockManagerTest {
+
+	private static final File WORKSPACE = new File("/workspace");
+	private static final File MODULE_A = new File(WORKSPACE, "a");
+	private static final File MODULE_B = new File(WORKSPACE, "b");
+
+	private final PathLockManager locks = new PathLockManager();
+
+	@Test
+	public void it_should_not_exclude_write_locks_of_unrelated_paths() {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(MODULE_B).writeLock())).isTrue();
+			assertThat(tryLock(locks.getLock(MODULE_B).readLock())).isTrue();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	public void it_should_exclude_write_lock_of_the_same_path() {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(MODULE_A).writeLock())).isFalse();
+			assertThat(tryLock(locks.getLock(new File(WORKSPACE, "b/../a")).readLock())).isFalse();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		assertThat(tryLock(locks.getLock(MODULE_A).writeLock())).isTrue();
+	}
+
+	@Test
+	public void it_should_share_read_locks() {
+		Lock lock = locks.getLock(WORKSPACE).readLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(WORKSPACE).readLock())).isTrue();
+			assertThat(tryLock(locks.getLock(MODULE_A).readLock())).isTrue();
+			assertThat(tryLock(locks.getLock(MODULE_A).writeLock())).isFalse();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	public void it_should_exclude_descendants_of_a_write_lock() {
+		Lock lock = locks.getLock(WORKSPACE).writeLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(MODULE_A).readLock())).isFalse();
+			assertThat(tryLock(locks.getLock(MODULE_B).writeLock())).isFalse();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	public void it_should_exclude_ancestors_of_a_write_lock() {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(WORKSPACE).writeLock())).isFalse();
+			assertThat(tryLock(locks.getLock(WORKSPACE).readLock())).isFalse();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Test
+	public void it_should_exclude_all_paths_with_the_global_lock() {
+		Lock lock = locks.getGlobalLock().writeLock();
+		lock.lock();
+		try {
+			assertThat(tryLock(locks.getLock(MODULE_A).readLock())).isFalse();
+			assertThat(tryLock(locks.getGlobalLock().readLock())).isFalse();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		assertThat(tryLock(locks.getGlobalLock().readLock())).isTrue();
+	}
+
+	@Test
+	public void it_should_not_grant_a_request_while_an_older_conflicting_request_is_waiting() throws Exception {
+		Lock read = locks.getLock(MODULE_A).readLock();
+		read.lock();
+
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicBoolean acquired = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			Lock write = locks.getLock(WORKSPACE).writeLock();
+			started.countDown();
+			write.lock();
+			acquired.set(true);
+			write.unlock();
+		});
+
+		writer.start();
+		started.await();
+		waitForQueue(1);
+
+		// The writer is waiting: a new reader of the workspace must wait for it.
+		assertThat(tryLock(locks.getLock(MODULE_B).readLock())).isFalse();
+		assertThat(acquired.get()).isFalse();
+
+		read.unlock();
+		writer.join();
+
+		assertThat(acquired.get()).isTrue();
+		assertThat(locks.getQueueLength()).isZero();
+	}
+
+	@Test
+	public void it_should_count_waiting_requests_conflicting_with_a_lock() throws Exception {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		lock.lock();
+
+		Thread waiter = new Thread(() -> {
+			Lock other = locks.getLock(MODULE_A).writeLock();
+			other.lock();
+			other.unlock();
+		});
+
+		try {
+			waiter.start();
+			waitForQueue(1);
+
+			assertThat(locks.getQueueLength(locks.getLock(MODULE_A).readLock())).isEqualTo(1);
+			assertThat(locks.getQueueLength(locks.getLock(WORKSPACE).writeLock())).isEqualTo(1);
+			assertThat(locks.getQueueLength(locks.getLock(MODULE_B).writeLock())).isZero();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		waiter.join();
+	}
+
+	@Test
+	public void it_should_fail_to_count_waiting_requests_of_another_lock() {
+		Lock lock = new ReentrantLock();
+		assertThatThrownBy(() -> locks.getQueueLength(lock)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void it_should_try_to_acquire_lock_with_timeout() throws Exception {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		lock.lock();
+		try {
+			assertThat(locks.getLock(MODULE_A).readLock().tryLock(10, TimeUnit.MILLISECONDS)).isFalse();
+			assertThat(locks.getQueueLength()).isZero();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		Lock other = locks.getLock(MODULE_A).readLock();
+		assertThat(other.tryLock(10, TimeUnit.MILLISECONDS)).isTrue();
+		other.unlock();
+	}
+
+	@Test
+	public void it_should_fail_to_release_a_lock_that_is_not_held() {
+		Lock lock = locks.getLock(MODULE_A).readLock();
+		assertThatThrownBy(lock::unlock).isInstanceOf(IllegalMonitorStateException.class);
+	}
+
+	@Test
+	public void it_should_not_support_conditions() {
+		Lock lock = locks.getLock(MODULE_A).writeLock();
+		assertThatThrownBy(lock::newCondition).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	private static boolean tryLock(Lock lock) {
+		boolean acquired = lock.tryLock();
+		if (acquired) {
+			lock.unlock();
+		}
+
+		return acquired;
+	}
+
+	private void waitForQueue(int length) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (locks.getQueueLength() < length && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(locks.getQueueLength()).isEqualTo(length);
+	}
+}
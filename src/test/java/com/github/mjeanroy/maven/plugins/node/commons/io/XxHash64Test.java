@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.commons.io;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class XxHash64Test {
+
+	@Test
+	public void it_should_compute_hash_of_empty_input() {
+		XxHash64 xxHash64 = new XxHash64();
+		assertThat(xxHash64.getValue()).isEqualTo(0xEF46DB3751D8E999L);
+	}
+
+	@Test
+	public void it_should_compute_hash_of_short_input() {
+		XxHash64 xxHash64 = new XxHash64();
+		xxHash64.update(ByteBuffer.wrap("abc".getBytes(UTF_8)));
+		assertThat(xxHash64.getValue()).isEqualTo(0x44BC2CF5AD770999L);
+	}
+
+	@Test
+	public void it_should_compute_hash_of_input_updated_with_chunks_of_any_size() {
+		byte[] bytes = new byte[200 * 1024 + 17];
+		for (int i = 0; i < bytes.length; ++i) {
+			bytes[i] = (byte) (i % 251);
+		}
+
+		XxHash64 xxHash64 = new XxHash64();
+		int[] chunkSizes = new int[] { 1, 7, 31, 32, 33, 4096 };
+		int position = 0;
+		int i = 0;
+		while (position < bytes.length) {
+			int size = Math.min(chunkSizes[i++ % chunkSizes.length], bytes.length - position);
+			xxHash64.update(ByteBuffer.wrap(bytes, position, size));
+			position += size;
+		}
+
+		assertThat(xxHash64.getValue()).isEqualTo(0x7196CF2FF1E31C6AL);
+	}
+
+	@Test
+	public void it_should_reset_hash() {
+		XxHash64 xxHash64 = new XxHash64();
+		xxHash64.update(ByteBuffer.wrap("foobar".getBytes(UTF_8)));
+		xxHash64.reset();
+		xxHash64.update(ByteBuffer.wrap("abc".getBytes(UTF_8)));
+		assertThat(xxHash64.getValue()).isEqualTo(0x44BC2CF5AD770999L);
+	}
+}
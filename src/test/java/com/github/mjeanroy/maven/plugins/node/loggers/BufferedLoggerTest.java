@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.loggers;
+
+import com.github.mjeanroy.maven.plugins.node.commands.OutputLevel;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.io.File;
+
+import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.readPrivate;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class BufferedLoggerTest {
+
+	private Log log;
+	private BufferedLogger logger;
+
+	@Before
+	public void setUp() {
+		log = mock(Log.class);
+		logger = BufferedLogger.bufferedLogger(NpmLogger.npmLogger(log), "lint:js");
+	}
+
+	@Test
+	public void it_should_buffer_lines_until_drained() {
+		logger.process("Linting 12 files");
+		logger.process("npm ERR! Lifecycle script failed");
+		logger.process("deprecated rule", OutputLevel.WARN);
+		verifyNoInteractions(log);
+
+		logger.drain();
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("[lint:js] Linting 12 files");
+		inOrder.verify(log).error("[lint:js] npm ERR! Lifecycle script failed");
+		inOrder.verify(log).warn("[lint:js] deprecated rule");
+	}
+
+	@Test
+	public void it_should_clear_buffer_once_drained() {
+		logger.process("Linting 12 files");
+		logger.drain();
+		logger.drain();
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("[lint:js] Linting 12 files");
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	@Test
+	public void it_should_spill_lines_to_a_temporary_file_once_the_buffer_is_full() {
+		BufferedLogger logger = BufferedLogger.bufferedLogger(NpmLogger.npmLogger(log), "test", 20);
+		logger.process("PASS src/app.spec.js");
+		logger.process("FAIL src/user.spec.js", OutputLevel.ERROR);
+		logger.process("Tests: 1 failed, 1 passed");
+
+		File spillFile = readPrivate(logger, "spillFile");
+		assertThat(spillFile).exists();
+		verifyNoInteractions(log);
+
+		logger.drain();
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("[test] PASS src/app.spec.js");
+		inOrder.verify(log).error("[test] FAIL src/user.spec.js");
+		inOrder.verify(log).info("[test] Tests: 1 failed, 1 passed");
+		inOrder.verifyNoMoreInteractions();
+
+		assertThat(spillFile).doesNotExist();
+		assertThat((File) readPrivate(logger, "spillFile")).isNull();
+	}
+
+	@Test
+	public void it_should_buffer_lines_in_memory_once_spilled_lines_are_drained() {
+		BufferedLogger logger = BufferedLogger.bufferedLogger(NpmLogger.npmLogger(log), "test", 20);
+		logger.process("Running 120 tests in 4 workers");
+		logger.drain();
+
+		logger.process("PASS");
+		assertThat((File) readPrivate(logger, "spillFile")).isNull();
+
+		logger.drain();
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("[test] Running 120 tests in 4 workers");
+		inOrder.verify(log).info("[test] PASS");
+	}
+
+	@Test
+	public void it_should_check_if_level_is_enabled() {
+		when(log.isInfoEnabled()).thenReturn(false);
+		when(log.isErrorEnabled()).thenReturn(true);
+
+		assertThat(logger.isEnabled(OutputLevel.INFO)).isFalse();
+		assertThat(logger.isEnabled(OutputLevel.ERROR)).isTrue();
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.loggers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.ProcessBuilder.Redirect;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileLoggerTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void it_should_append_lines_on_flush() {
+		File file = new File(temporaryFolder.getRoot(), "logs/npm.log");
+		FileLogger logger = FileLogger.fileLogger(file);
+
+		logger.process("npm WARN deprecated");
+		logger.process("Hello World");
+		assertThat(file).doesNotExist();
+
+		logger.flush();
+		logger.process("npm ERR! failure");
+		logger.flush();
+
+		assertThat(file).usingCharset(UTF_8).hasContent(
+				"npm WARN deprecated" + System.lineSeparator() +
+				"Hello World" + System.lineSeparator() +
+				"npm ERR! failure" + System.lineSeparator()
+		);
+	}
+
+	@Test
+	public void it_should_redirect_output_to_file() {
+		File file = new File(temporaryFolder.getRoot(), "logs/npm.log");
+		FileLogger logger = FileLogger.fileLogger(file);
+
+		Redirect redirect = logger.getRedirect();
+
+		assertThat(redirect.type()).isEqualTo(Redirect.Type.APPEND);
+		assertThat(redirect.file()).isEqualTo(file);
+		assertThat(file.getParentFile()).isDirectory();
+	}
+}
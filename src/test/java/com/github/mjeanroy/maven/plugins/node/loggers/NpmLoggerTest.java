@@ -23,14 +23,17 @@
 
 package com.github.mjeanroy.maven.plugins.node.loggers;
 
+import com.github.mjeanroy.maven.plugins.node.commands.OutputLevel;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class NpmLoggerTest {
 
@@ -43,6 +46,28 @@ public class NpmLoggerTest {
 		npmLogger = NpmLogger.npmLogger(log);
 	}
 
+	@Test
+	public void it_should_check_if_level_is_enabled() {
+		when(log.isInfoEnabled()).thenReturn(false);
+		when(log.isWarnEnabled()).thenReturn(true);
+		when(log.isErrorEnabled()).thenReturn(true);
+
+		assertThat(npmLogger.isEnabled(OutputLevel.INFO)).isFalse();
+		assertThat(npmLogger.isEnabled(OutputLevel.WARN)).isTrue();
+		assertThat(npmLogger.isEnabled(OutputLevel.ERROR)).isTrue();
+	}
+
+	@Test
+	public void it_should_use_given_level() {
+		String line = "Hello World";
+
+		npmLogger.process(line, OutputLevel.ERROR);
+
+		verify(log).error(line);
+		verify(log, never()).warn(anyString());
+		verify(log, never()).info(anyString());
+	}
+
 	@Test
 	public void it_should_use_error_level() {
 		String line = "npm ERR! There is likely additional logging output above.";
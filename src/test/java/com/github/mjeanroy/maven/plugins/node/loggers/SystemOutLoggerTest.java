@@ -0,0 +1,77 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.loggers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.ProcessBuilder.Redirect;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SystemOutLoggerTest {
+
+	private PrintStream stdout;
+	private ByteArrayOutputStream out;
+
+	@Before
+	public void setUp() throws Exception {
+		stdout = System.out;
+		out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true, UTF_8.name()));
+	}
+
+	@After
+	public void tearDown() {
+		System.setOut(stdout);
+	}
+
+	@Test
+	public void it_should_write_lines_on_flush() throws Exception {
+		SystemOutLogger logger = SystemOutLogger.systemOutLogger();
+		logger.process("npm WARN deprecated");
+		logger.process("npm ERR! failure");
+		logger.process("Hello World");
+
+		assertThat(out.toByteArray()).isEmpty();
+
+		logger.flush();
+
+		assertThat(out.toString(UTF_8.name())).isEqualTo(
+				"npm WARN deprecated" + System.lineSeparator() +
+				"npm ERR! failure" + System.lineSeparator() +
+				"Hello World" + System.lineSeparator()
+		);
+	}
+
+	@Test
+	public void it_should_inherit_output() {
+		assertThat(SystemOutLogger.systemOutLogger().getRedirect()).isEqualTo(Redirect.INHERIT);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.models;
+
+import com.github.mjeanroy.maven.plugins.node.model.BuildCacheConfiguration;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildCacheConfigurationTest {
+
+	@Test
+	public void it_should_create_default_configuration() {
+		BuildCacheConfiguration c = new BuildCacheConfiguration();
+		assertThat(c.isEnabled()).isFalse();
+		assertThat(c.getDirectory()).isEqualTo(new File(System.getProperty("user.home"), ".m2/node-maven-plugin/cache"));
+		assertThat(c.getMaxSize()).isEqualTo(1024L * 1024L * 1024L);
+		assertThat(c.getRemoteUrl()).isNull();
+		assertThat(c.getRemoteTimeout()).isEqualTo(2000);
+		assertThat(c.isRemoteUpload()).isTrue();
+		assertThat(c.isRemotePrefetch()).isTrue();
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() {
+		EqualsVerifier.forClass(BuildCacheConfiguration.class)
+				.suppress(Warning.NONFINAL_FIELDS)
+				.verify();
+	}
+
+	@Test
+	public void it_should_implement_to_string() {
+		BuildCacheConfiguration c = new BuildCacheConfiguration();
+		c.setEnabled(true);
+		c.setDirectory(new File("/tmp/cache"));
+		c.setMaxSize(1024);
+		c.setRemoteUrl("http://localhost:5071");
+
+		assertThat(c).hasToString(
+				"BuildCacheConfiguration{" +
+						"enabled=true, " +
+						"directory=/tmp/cache, " +
+						"maxSize=1024, " +
+						"remoteUrl=\"http://localhost:5071\", " +
+						"remoteTimeout=2000, " +
+						"remoteUpload=true, " +
+						"remotePrefetch=true" +
+				"}"
+		);
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.models;
+
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.github.mjeanroy.maven.plugins.node.tests.DigestTestUtils.computeMd5;
+import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.getFileFromClasspath;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashAlgorithmTest {
+
+	@Test
+	public void it_should_compute_md5_hash() {
+		File file = getFileFromClasspath("/test.json");
+		assertThat(HashAlgorithm.MD5.hash(file)).isEqualTo(computeMd5(file));
+	}
+
+	@Test
+	public void it_should_compute_crc32c_checksum() {
+		File file = getFileFromClasspath("/test.json");
+		assertThat(HashAlgorithm.CRC32C.hash(file)).hasSize(8);
+	}
+
+	@Test
+	public void it_should_compute_xxhash64() {
+		File file = getFileFromClasspath("/test.json");
+		assertThat(HashAlgorithm.XXHASH64.hash(file)).isEqualTo("2b32fcfe140f0107");
+	}
+
+	@Test
+	public void it_should_find_algorithm_by_name() {
+		assertThat(HashAlgorithm.find("MD5")).isEqualTo(HashAlgorithm.MD5);
+		assertThat(HashAlgorithm.find("CRC32C")).isEqualTo(HashAlgorithm.CRC32C);
+		assertThat(HashAlgorithm.find("XXHASH64")).isEqualTo(HashAlgorithm.XXHASH64);
+		assertThat(HashAlgorithm.find("SHA1")).isNull();
+		assertThat(HashAlgorithm.find(null)).isNull();
+	}
+}
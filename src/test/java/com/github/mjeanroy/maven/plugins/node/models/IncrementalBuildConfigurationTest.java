@@ -29,6 +29,7 @@ import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 
@@ -50,6 +51,7 @@ public class IncrementalBuildConfigurationTest {
 		IncrementalBuildConfiguration c = new IncrementalBuildConfiguration();
 		c.setInstall(givenConfiguration(singletonList("**/*.json"), Collections.emptyList()));
 		c.setBuild(givenConfiguration(singletonList("**/*.js"), asList("**/*.css", "**/*.scss")));
+		c.getCache().setDirectory(new File("/tmp/cache"));
 
 		// @formatter:off
 		assertThat(c).hasToString(
@@ -58,6 +60,18 @@ public class IncrementalBuildConfigurationTest {
 					"useDefaultExcludes=true, " +
 					"useDefaultIncludes=true, " +
 					"excludeBackendSources=true, " +
+					"parallelism=1, " +
+					"hashAlgorithm=MD5, " +
+					"watch=false, " +
+					"cache=BuildCacheConfiguration{" +
+						"enabled=false, " +
+						"directory=/tmp/cache, " +
+						"maxSize=1073741824, " +
+						"remoteUrl=null, " +
+						"remoteTimeout=2000, " +
+						"remoteUpload=true, " +
+						"remotePrefetch=true" +
+					"}, " +
 					"includes=[], " +
 					"excludes=[], " +
 					"install=IncrementalBuildGoalConfiguration{" +
@@ -65,41 +79,66 @@ public class IncrementalBuildConfigurationTest {
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[**/*.json], " +
-						"excludes=[]" +
+						"excludes=[], " +
+						"outputs=[]" +
 					"}, " +
 					"lint=IncrementalBuildGoalConfiguration{" +
 						"enabled=true, " +
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[], " +
-						"excludes=[]" +
+						"excludes=[], " +
+						"outputs=[]" +
 					"}, " +
 					"prepare=IncrementalBuildGoalConfiguration{" +
 						"enabled=true, " +
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[], " +
-						"excludes=[]" +
+						"excludes=[], " +
+						"outputs=[]" +
 					"}, " +
 					"build=IncrementalBuildGoalConfiguration{" +
 						"enabled=true, " +
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[**/*.js], " +
-						"excludes=[**/*.css, **/*.scss]" +
+						"excludes=[**/*.css, **/*.scss], " +
+						"outputs=[]" +
 					"}, " +
 					"preClean=IncrementalBuildGoalConfiguration{" +
 						"enabled=true, " +
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[], " +
-						"excludes=[]" +
+						"excludes=[], " +
+						"outputs=[]" +
+					"}, " +
+					"pkg=IncrementalBuildGoalConfiguration{" +
+						"enabled=true, " +
+						"useDefaultIncludes=true, " +
+						"useDefaultExcludes=true, " +
+						"includes=[], " +
+						"excludes=[], " +
+						"outputs=[]" +
 					"}" +
 				"}"
 		);
 		// @formatter:on
 	}
 
+	@Test
+	public void it_should_get_outputs_of_given_goal() {
+		IncrementalBuildConfiguration c = new IncrementalBuildConfiguration();
+		c.getBuild().setOutputs(singletonList("dist"));
+		c.getPkg().setOutputs(asList("dist", "bundle.zip"));
+
+		assertThat(c.getOutputs("build")).containsExactly("dist");
+		assertThat(c.getOutputs("package")).containsExactly("dist", "bundle.zip");
+		assertThat(c.getOutputs("prepare")).isEmpty();
+		assertThat(c.getOutputs("test")).isEmpty();
+	}
+
 	private static IncrementalBuildGoalConfiguration givenConfiguration(List<String> includes, List<String> excludes) {
 		IncrementalBuildGoalConfiguration config = new IncrementalBuildGoalConfiguration();
 		config.setIncludes(includes);
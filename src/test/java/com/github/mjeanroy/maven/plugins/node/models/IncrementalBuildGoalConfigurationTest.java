@@ -46,6 +46,7 @@ public class IncrementalBuildGoalConfigurationTest {
 		IncrementalBuildGoalConfiguration c = new IncrementalBuildGoalConfiguration();
 		c.setIncludes(asList("**/*.json", "**/*.lock"));
 		c.setExcludes(singletonList("**/.gitignore"));
+		c.setOutputs(singletonList("dist"));
 
 		assertThat(c).hasToString(
 				"IncrementalBuildGoalConfiguration{" +
@@ -53,7 +54,8 @@ public class IncrementalBuildGoalConfigurationTest {
 						"useDefaultIncludes=true, " +
 						"useDefaultExcludes=true, " +
 						"includes=[**/*.json, **/*.lock], " +
-						"excludes=[**/.gitignore]" +
+						"excludes=[**/.gitignore], " +
+						"outputs=[dist]" +
 				"}"
 		);
 	}
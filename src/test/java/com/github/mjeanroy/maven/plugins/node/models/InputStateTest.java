@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.models;
+
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.Test;
+
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InputStateTest {
+
+	@Test
+	public void it_should_create_input_state() {
+		InputState state = inputState("/tmp/index.js", "abc", 10, 1000, "(dev=803,ino=42)");
+
+		assertThat(state.getPath()).isEqualTo("/tmp/index.js");
+		assertThat(state.getHash()).isEqualTo("abc");
+		assertThat(state.getSize()).isEqualTo(10);
+		assertThat(state.getLastModified()).isEqualTo(1000);
+		assertThat(state.getFileKey()).isEqualTo("(dev=803,ino=42)");
+		assertThat(state.hasMetadata()).isTrue();
+	}
+
+	@Test
+	public void it_should_create_input_state_without_metadata() {
+		InputState state = inputState("/tmp/index.js", "abc");
+
+		assertThat(state.getPath()).isEqualTo("/tmp/index.js");
+		assertThat(state.getHash()).isEqualTo("abc");
+		assertThat(state.hasMetadata()).isFalse();
+		assertThat(state.hasSameMetadata(-1, -1, null)).isFalse();
+	}
+
+	@Test
+	public void it_should_compare_metadata() {
+		InputState state = inputState("/tmp/index.js", "abc", 10, 1000, "(dev=803,ino=42)");
+
+		assertThat(state.hasSameMetadata(10, 1000, "(dev=803,ino=42)")).isTrue();
+		assertThat(state.hasSameMetadata(11, 1000, "(dev=803,ino=42)")).isFalse();
+		assertThat(state.hasSameMetadata(10, 1001, "(dev=803,ino=42)")).isFalse();
+		assertThat(state.hasSameMetadata(10, 1000, "(dev=803,ino=43)")).isFalse();
+		assertThat(state.hasSameMetadata(10, 1000, null)).isFalse();
+	}
+
+	@Test
+	public void it_should_compare_hash() {
+		InputState state = inputState("/tmp/index.js", "abc", 10, 1000, null);
+
+		assertThat(state.hasSameHash(inputState("/tmp/index.js", "abc"))).isTrue();
+		assertThat(state.hasSameHash(inputState("/tmp/index.js", "def", 10, 1000, null))).isFalse();
+		assertThat(state.hasSameHash(null)).isFalse();
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() {
+		EqualsVerifier.forClass(InputState.class).verify();
+	}
+
+	@Test
+	public void it_should_implement_to_string() {
+		InputState state = inputState("/tmp/index.js", "abc", 10, 1000, null);
+		assertThat(state).hasToString(
+				"InputState{path=\"/tmp/index.js\", hash=\"abc\", size=10, lastModified=1000, fileKey=null}"
+		);
+	}
+}
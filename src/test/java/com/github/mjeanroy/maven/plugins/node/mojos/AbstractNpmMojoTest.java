@@ -25,6 +25,10 @@ package com.github.mjeanroy.maven.plugins.node.mojos;
 
 import com.github.mjeanroy.maven.plugins.node.commands.Command;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutor;
+import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutorType;
+import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutors;
+import com.github.mjeanroy.maven.plugins.node.commands.LogBackpressure;
+import com.github.mjeanroy.maven.plugins.node.loggers.FileLogger;
 import com.github.mjeanroy.maven.plugins.node.loggers.NpmLogger;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -34,11 +38,14 @@ import java.io.File;
 
 import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.absolutePath;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.readPrivate;
+import static com.github.mjeanroy.maven.plugins.node.tests.builders.CommandResultTestBuilder.successResult;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public abstract class AbstractNpmMojoTest<T extends AbstractNpmMojo> extends AbstractMojoTest<T> {
 
@@ -63,6 +70,44 @@ public abstract class AbstractNpmMojoTest<T extends AbstractNpmMojo> extends Abs
 		verify_command_executable(mojo, absolutePath("/usr/bin/yarn"), "yarn");
 	}
 
+	@Test
+	public void it_should_run_npm_client_with_log_backpressure() throws Exception {
+		T mojo = lookupMojo("mojo", singletonMap("logBackpressure", LogBackpressure.DROP));
+		mojo.execute();
+
+		ArgumentCaptor<Command> cmdCaptor = ArgumentCaptor.forClass(Command.class);
+		verify(readPrivate(mojo, "executor", CommandExecutor.class), atLeastOnce()).execute(
+				any(File.class),
+				cmdCaptor.capture(),
+				any(NpmLogger.class),
+				ArgumentMatchers.anyMap()
+		);
+
+		assertThat(cmdCaptor.getValue().getLogBackpressure()).isEqualTo(LogBackpressure.DROP);
+	}
+
+	@Test
+	public void it_should_use_process_executor() {
+		T mojo = lookupMojo("mojo", singletonMap("executorType", CommandExecutorType.PROCESS));
+		assertThat(mojo.getExecutor()).isSameAs(CommandExecutors.newExecutor(CommandExecutorType.PROCESS));
+	}
+
+	@Test
+	public void it_should_log_output_to_file() throws Exception {
+		T mojo = lookupMojo("mojo", singletonMap("logFile", new File("target/npm.log")));
+		CommandExecutor executor = readPrivate(mojo, "executor", CommandExecutor.class);
+		when(executor.execute(any(File.class), any(Command.class), any(FileLogger.class), ArgumentMatchers.anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		verify(executor, atLeastOnce()).execute(
+				any(File.class),
+				any(Command.class),
+				any(FileLogger.class),
+				ArgumentMatchers.anyMap()
+		);
+	}
+
 	private void verify_command_executable(T mojo, String executable) {
 		verify_command_executable(mojo, executable, executable);
 	}
@@ -23,13 +23,13 @@
 
 package com.github.mjeanroy.maven.plugins.node.mojos;
 
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+
 import java.io.File;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Map;
 
 import static com.github.mjeanroy.maven.plugins.node.tests.DigestTestUtils.computeMd5;
 import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.join;
@@ -50,21 +50,49 @@ public abstract class AbstractNpmScriptIncrementalMojoTest<T extends AbstractNpm
 		File stateFile = stateFile(mojo);
 		assertThat(stateFile).exists();
 
-		List<String> lines = Files.readAllLines(stateFile.toPath(), Charset.defaultCharset());
-		assertThat(lines).hasSameSizeAs(entries);
-
-		Collections.sort(lines);
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		Map<String, InputState> states = readStateFile(mojo, HashAlgorithm.MD5);
+		assertThat(states).hasSameSizeAs(entries);
 
-		int i = 0;
 		for (File entry : entries) {
-			assertThat(lines.get(i)).isEqualTo(
-					entry.getAbsolutePath() + "::" + computeMd5(entry)
-			);
+			String path = workingDirectory.toPath().relativize(entry.toPath()).toString().replace(File.separatorChar, '/');
+			assertThat(states).containsKey(path);
+
+			InputState state = states.get(path);
+			assertThat(state.getHash()).isEqualTo(computeMd5(entry));
 
-			i++;
+			// Metadata of files modified just before being hashed are never stored.
+			if (state.hasMetadata()) {
+				assertThat(state.getSize()).isEqualTo(entry.length());
+				assertThat(state.getLastModified()).isEqualTo(entry.lastModified());
+			} else {
+				assertThat(entry.lastModified()).isGreaterThan(System.currentTimeMillis() - 60000);
+			}
 		}
 	}
 
+	/**
+	 * Read the state file generated by this mojo execution.
+	 *
+	 * @param mojo The mojo.
+	 * @param algorithm The expected hash algorithm.
+	 * @return Input states, indexed by path relative to the working directory.
+	 */
+	Map<String, InputState> readStateFile(T mojo, HashAlgorithm algorithm) {
+		return new InputStateStore(stateFile(mojo), readPrivate(mojo, "log")).read(algorithm);
+	}
+
+	/**
+	 * Write the state file, as it would be written by this mojo execution.
+	 *
+	 * @param mojo The mojo.
+	 * @param states Input states to write.
+	 * @param algorithm The hash algorithm.
+	 */
+	void writeStateFile(T mojo, Collection<InputState> states, HashAlgorithm algorithm) {
+		new InputStateStore(stateFile(mojo), readPrivate(mojo, "log")).write(states, algorithm);
+	}
+
 	/**
 	 * Get the state file.
 	 *
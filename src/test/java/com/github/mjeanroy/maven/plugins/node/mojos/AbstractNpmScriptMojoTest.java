@@ -25,7 +25,9 @@ package com.github.mjeanroy.maven.plugins.node.mojos;
 
 import com.github.mjeanroy.maven.plugins.node.commands.Command;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutor;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputCapture;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
 import com.github.mjeanroy.maven.plugins.node.exceptions.PackageJsonNotFoundException;
 import com.github.mjeanroy.maven.plugins.node.loggers.NpmLogger;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -43,6 +45,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.mjeanroy.maven.plugins.node.tests.CollectionTestUtils.newMap;
 import static com.github.mjeanroy.maven.plugins.node.tests.CollectionTestUtils.newMapEntry;
@@ -56,9 +60,11 @@ import static com.github.mjeanroy.maven.plugins.node.tests.builders.ProxyTestBui
 import static com.github.mjeanroy.maven.plugins.node.tests.builders.SettingsTestBuilder.newSettings;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
+import static java.util.Collections.synchronizedList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -349,6 +355,85 @@ public abstract class AbstractNpmScriptMojoTest<T extends AbstractNpmScriptMojo>
 		verify_mojo_execution(mojo, NPM, join(defaultArguments(false)));
 	}
 
+	@Test
+	public void it_should_run_parallel_scripts() throws Exception {
+		T mojo = lookupMojo("mojo", singletonMap("parallelScripts", asList("lint", "verify")));
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		ArgumentCaptor<Command> cmdCaptor = ArgumentCaptor.forClass(Command.class);
+		verify(executor, times(2)).execute(any(File.class), cmdCaptor.capture(), any(OutputHandler.class), anyMap());
+
+		List<String> commands = new ArrayList<>();
+		for (Command cmd : cmdCaptor.getAllValues()) {
+			commands.add(cmd.toString());
+		}
+
+		assertThat(commands).containsExactlyInAnyOrder("npm run lint --maven", "npm run verify --maven");
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Running: npm run lint --maven");
+		verify(log).info("Running: npm run verify --maven");
+		verify(log).info("Script 'lint' succeeded.");
+		verify(log).info("Script 'verify' succeeded.");
+	}
+
+	@Test
+	public void it_should_log_output_of_parallel_scripts_as_separate_blocks() throws Exception {
+		T mojo = lookupMojo("mojo", singletonMap("parallelScripts", asList("lint", "verify")));
+
+		List<String> lines = synchronizedList(new ArrayList<>());
+		Log log = readPrivate(mojo, "log");
+		doAnswer(invocation -> lines.add(invocation.getArgument(0))).when(log).info(anyString());
+
+		// Both scripts end at the same time, so that their outputs are drained concurrently.
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			OutputHandler output = invocation.getArgument(2);
+			for (int i = 0; i < 1000; i++) {
+				output.process("line " + i);
+			}
+
+			barrier.await(5, TimeUnit.SECONDS);
+			return successResult();
+		});
+
+		mojo.execute();
+
+		List<String> prefixes = new ArrayList<>();
+		for (String line : lines) {
+			String prefix = line.startsWith("[lint] ") ? "lint" : line.startsWith("[verify] ") ? "verify" : null;
+			if (prefix != null && (prefixes.isEmpty() || !prefixes.get(prefixes.size() - 1).equals(prefix))) {
+				prefixes.add(prefix);
+			}
+		}
+
+		assertThat(prefixes).containsExactlyInAnyOrder("lint", "verify");
+	}
+
+	@Test
+	public void it_should_fail_with_report_of_failed_parallel_scripts() throws Exception {
+		T mojo = lookupMojo("mojo", singletonMap("parallelScripts", asList("lint", "verify")));
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			Command cmd = invocation.getArgument(1);
+			return cmd.getArguments().contains("lint") ? failureResult() : successResult();
+		});
+
+		assertThatThrownBy(mojo::execute)
+				.isInstanceOf(MojoExecutionException.class)
+				.hasMessage("Error during execution of scripts: lint (exit status 1)");
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Script 'verify' succeeded.");
+		verify(log).error("Script 'lint' failed, exit status: 1");
+	}
+
 	@Override
 	T lookupMojo(String projectName) {
 		return configureMojo(
@@ -543,6 +628,7 @@ public abstract class AbstractNpmScriptMojoTest<T extends AbstractNpmScriptMojo>
 		assertThat((Log) readPrivate(npmLogger, "log")).isEqualTo(readPrivate(mojo, "log"));
 		assertThat(cmd).isNotNull();
 		assertThat(cmd.toString()).isEqualTo(pkg + " " + expectedArgs);
+		assertThat(cmd.getCapture()).isEqualTo(OutputCapture.none());
 	}
 
 	private void verify_command_execution_ignoring_proxies(T mojo) {
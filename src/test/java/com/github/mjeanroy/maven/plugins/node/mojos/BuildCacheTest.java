@@ -0,0 +1,160 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class BuildCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File cacheDirectory;
+	private File workingDirectory;
+	private Collection<String> outputs;
+
+	@Before
+	public void setUp() throws Exception {
+		cacheDirectory = temporaryFolder.newFolder("cache");
+		workingDirectory = temporaryFolder.newFolder("project");
+		outputs = asList("dist", "bundle.txt");
+	}
+
+	@Test
+	public void it_should_compute_key() {
+		String k1 = BuildCache.key(asList("input:index.js:1234", "argument:build"));
+		String k2 = BuildCache.key(asList("input:index.js:1234", "argument:build"));
+		String k3 = BuildCache.key(asList("input:index.js:1234", "argument:test"));
+		String k4 = BuildCache.key(asList("input:index.js:1234argument:build"));
+
+		assertThat(k1).hasSize(64).isEqualTo(k2);
+		assertThat(k1).isNotEqualTo(k3).isNotEqualTo(k4);
+	}
+
+	@Test
+	public void it_should_store_and_restore_outputs() throws Exception {
+		givenFile("dist/main.js", "console.log('main');");
+		givenFile("dist/assets/style.css", "body {}");
+		givenFile("bundle.txt", "bundle");
+		givenFile("src/index.js", "source");
+
+		BuildCache cache = new BuildCache(cacheDirectory, 0, mock(Log.class));
+		cache.store("1234", workingDirectory, outputs);
+
+		assertThat(new File(cacheDirectory, "1234.zip")).isFile();
+
+		givenFile("dist/stale.js", "stale");
+		assertThat(new File(workingDirectory, "bundle.txt").delete()).isTrue();
+
+		assertThat(cache.restore("1234", workingDirectory, outputs)).isTrue();
+		assertThat(readFile("dist/main.js")).isEqualTo("console.log('main');");
+		assertThat(readFile("dist/assets/style.css")).isEqualTo("body {}");
+		assertThat(readFile("bundle.txt")).isEqualTo("bundle");
+		assertThat(readFile("src/index.js")).isEqualTo("source");
+		assertThat(new File(workingDirectory, "dist/stale.js")).doesNotExist();
+	}
+
+	@Test
+	public void it_should_not_restore_missing_entry() throws Exception {
+		givenFile("dist/main.js", "console.log('main');");
+
+		BuildCache cache = new BuildCache(cacheDirectory, 0, mock(Log.class));
+
+		assertThat(cache.restore("1234", workingDirectory, outputs)).isFalse();
+		assertThat(readFile("dist/main.js")).isEqualTo("console.log('main');");
+	}
+
+	@Test
+	public void it_should_ignore_and_delete_corrupted_entry() throws Exception {
+		givenFile("dist/main.js", "console.log('main');");
+
+		File archive = new File(cacheDirectory, "1234.zip");
+		Files.write(archive.toPath(), singletonList("not a zip archive"), UTF_8);
+
+		BuildCache cache = new BuildCache(cacheDirectory, 0, mock(Log.class));
+
+		assertThat(cache.restore("1234", workingDirectory, outputs)).isFalse();
+		assertThat(archive).doesNotExist();
+		assertThat(readFile("dist/main.js")).isEqualTo("console.log('main');");
+	}
+
+	@Test
+	public void it_should_evict_least_recently_used_entries() throws Exception {
+		givenFile("dist/main.js", "console.log('main');");
+
+		BuildCache unlimited = new BuildCache(cacheDirectory, 0, mock(Log.class));
+		unlimited.store("1", workingDirectory, outputs);
+		long entrySize = new File(cacheDirectory, "1.zip").length();
+
+		unlimited.store("2", workingDirectory, outputs);
+		unlimited.store("3", workingDirectory, outputs);
+		assertThat(new File(cacheDirectory, "1.zip").setLastModified(1000000L)).isTrue();
+		assertThat(new File(cacheDirectory, "2.zip").setLastModified(3000000L)).isTrue();
+		assertThat(new File(cacheDirectory, "3.zip").setLastModified(2000000L)).isTrue();
+
+		// Entry 1 is restored, so it becomes the most recently used.
+		assertThat(unlimited.restore("1", workingDirectory, outputs)).isTrue();
+
+		BuildCache cache = new BuildCache(cacheDirectory, entrySize * 2, mock(Log.class));
+		cache.store("4", workingDirectory, outputs);
+
+		assertThat(new File(cacheDirectory, "1.zip")).exists();
+		assertThat(new File(cacheDirectory, "2.zip")).doesNotExist();
+		assertThat(new File(cacheDirectory, "3.zip")).doesNotExist();
+		assertThat(new File(cacheDirectory, "4.zip")).exists();
+	}
+
+	@Test
+	public void it_should_not_store_outputs_outside_working_directory() throws Exception {
+		BuildCache cache = new BuildCache(cacheDirectory, 0, mock(Log.class));
+		cache.store("1234", workingDirectory, singletonList("../cache"));
+
+		assertThat(new File(cacheDirectory, "1234.zip")).doesNotExist();
+		assertThat(cacheDirectory.list()).isEmpty();
+	}
+
+	private void givenFile(String path, String content) throws Exception {
+		File file = new File(workingDirectory, path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(UTF_8));
+	}
+
+	private String readFile(String path) throws Exception {
+		return new String(Files.readAllBytes(new File(workingDirectory, path).toPath()), UTF_8);
+	}
+}
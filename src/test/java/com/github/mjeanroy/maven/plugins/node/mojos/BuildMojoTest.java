@@ -23,21 +23,66 @@
 
 package com.github.mjeanroy.maven.plugins.node.mojos;
 
+import com.github.mjeanroy.maven.plugins.node.cache.BuildCacheServer;
+import com.github.mjeanroy.maven.plugins.node.commands.Command;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutor;
+import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
+import com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage;
+import com.github.mjeanroy.maven.plugins.node.commons.io.Ios;
+import com.github.mjeanroy.maven.plugins.node.commons.io.PathLockManager;
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.IncrementalBuildConfiguration;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+import com.github.mjeanroy.maven.plugins.node.tests.builders.IncrementalBuildConigurationTestBuilder;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
 import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.join;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.readPrivate;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.writePrivate;
+import static com.github.mjeanroy.maven.plugins.node.tests.builders.CommandResultTestBuilder.failureResult;
+import static com.github.mjeanroy.maven.plugins.node.tests.builders.CommandResultTestBuilder.successResult;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 public class BuildMojoTest extends AbstractNpmScriptIncrementalMojoTest<BuildMojo> {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Override
 	String mojoName() {
 		return "build";
@@ -92,4 +137,745 @@ public class BuildMojoTest extends AbstractNpmScriptIncrementalMojoTest<BuildMoj
 		verify(readPrivate(mojo, "log", Log.class)).info("Command npm run build already done, no changes detected, skipping.");
 		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
 	}
+
+	@Test
+	public void it_should_not_compute_signature_of_files_with_unchanged_metadata() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+
+		mojo.execute();
+
+		// Alter signatures, but keep metadata: since file metadata did not change, signatures should not be computed again.
+		Map<String, InputState> states = readStateFile(mojo, HashAlgorithm.MD5);
+		List<InputState> alteredStates = new ArrayList<>(states.size());
+		for (InputState state : states.values()) {
+			alteredStates.add(inputState(state.getPath(), "00000000000000000000000000000000", state.getSize(), state.getLastModified(), state.getFileKey()));
+		}
+
+		writeStateFile(mojo, alteredStates, HashAlgorithm.MD5);
+
+		resetMojo(mojo);
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Command npm run build already done, no changes detected, skipping.");
+		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+	}
+
+	@Test
+	public void it_should_ignore_state_written_with_text_format() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		File index = join(workingDirectory, "index.ts");
+
+		mojo.execute();
+
+		// Replace state with the text format written by previous versions: it cannot be read anymore.
+		File stateFile = stateFile(mojo);
+		Files.write(stateFile.toPath(), singletonList(index.getAbsolutePath() + "::" + Ios.md5(index)), UTF_8);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+		verifyStateFile(mojo, asList(
+				join(workingDirectory, "index.ts"),
+				join(workingDirectory, "package.json"),
+				join(workingDirectory, "src", "hello-world.ts")
+		));
+	}
+
+	@Test
+	public void it_should_run_mojo_if_file_content_changed() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+
+		File input = join(workingDirectory, "index.ts");
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8, StandardOpenOption.APPEND);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+	}
+
+	@Test
+	public void it_should_compute_signature_of_files_modified_while_being_hashed() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		// File system with a coarse timestamp resolution: the file is modified in the same tick as the first build.
+		File input = join(workingDirectory, "src", "hello-world.ts");
+		FileTime lastModified = FileTime.fromMillis((System.currentTimeMillis() / 1000 + 1) * 1000);
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8);
+		Files.setLastModifiedTime(input.toPath(), lastModified);
+
+		mojo.execute();
+
+		// Same size, same last modification time.
+		Files.write(input.toPath(), singletonList("export const foo = 'baz';"), UTF_8);
+		Files.setLastModifiedTime(input.toPath(), lastModified);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).debug("  - File 'src/hello-world.ts' has changed");
+		verify(log).info("Running: npm run build --maven");
+	}
+
+	@Test
+	public void it_should_store_full_input_state_after_detecting_a_change() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+
+		File input = join(workingDirectory, "src", "hello-world.ts");
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8, StandardOpenOption.APPEND);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).debug("Metadata of 1 input files changed, checking signatures");
+		verify(log).debug("  - File 'src/hello-world.ts' has changed");
+		verify(log).info("Running: npm run build --maven");
+		verifyStateFile(mojo, asList(
+				join(workingDirectory, "index.ts"),
+				join(workingDirectory, "package.json"),
+				join(workingDirectory, "src", "hello-world.ts")
+		));
+	}
+
+	@Test
+	public void it_should_detect_added_file_without_computing_signatures() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+
+		File input = join(workingDirectory, "src", "foo.ts");
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).debug("  - Number of input files changed from 3 to 4");
+		verify(log, never()).debug("Metadata of 1 input files changed, checking signatures");
+		verify(log).info("Running: npm run build --maven");
+		verifyStateFile(mojo, asList(
+				join(workingDirectory, "index.ts"),
+				join(workingDirectory, "package.json"),
+				join(workingDirectory, "src", "foo.ts"),
+				join(workingDirectory, "src", "hello-world.ts")
+		));
+	}
+
+	@Test
+	public void it_should_reuse_directory_scan_during_the_same_session() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+
+		mojo.execute();
+		resetMojo(mojo);
+		givenOldDirectories(readPrivate(mojo, "workingDirectory"));
+
+		mojo.execute();
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log, times(2)).info("Command npm run build already done, no changes detected, skipping.");
+		verify(log, times(1)).debug("Re-using input files detected by a previous scan");
+		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+	}
+
+	@Test
+	public void it_should_detect_file_created_between_goals_of_the_same_session() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+		resetMojo(mojo);
+		givenOldDirectories(workingDirectory);
+		mojo.execute();
+
+		// For example, a file generated by another plugin.
+		Files.write(join(workingDirectory, "src", "foo.ts").toPath(), singletonList("export const foo = 'bar';"), UTF_8);
+
+		reset(readPrivate(mojo, "log", Log.class));
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log, never()).debug("Re-using input files detected by a previous scan");
+		verify(log).debug("  - Number of input files changed from 3 to 4");
+		verify(log).info("Running: npm run build --maven");
+	}
+
+	@Test
+	public void it_should_scan_directory_again_once_command_has_been_executed() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Running: npm run build --maven");
+		verify(log, never()).debug("Re-using input files detected by a previous scan");
+
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		String key = IncrementalBuildCache.class.getName() + "::" + workingDirectory.getAbsolutePath();
+		IncrementalBuildCache cache = (IncrementalBuildCache) mojo.getPluginContext().get(key);
+
+		assertThat(cache).isNotNull();
+		assertThat(cache.getState(HashAlgorithm.MD5, "index.ts")).isNotNull();
+	}
+
+	@Test
+	public void it_should_compute_input_state_in_parallel() throws Exception {
+		IncrementalBuildConfiguration sequential = new IncrementalBuildConigurationTestBuilder().withParallelism(1).build();
+		BuildMojo sequentialMojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", sequential));
+		sequentialMojo.execute();
+
+		byte[] expectedState = Files.readAllBytes(stateFile(sequentialMojo).toPath());
+		assertThat(readStateFile(sequentialMojo, HashAlgorithm.MD5)).hasSize(3);
+		Files.delete(stateFile(sequentialMojo).toPath());
+
+		IncrementalBuildConfiguration parallel = new IncrementalBuildConigurationTestBuilder().withParallelism(4).build();
+		BuildMojo parallelMojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", parallel));
+		parallelMojo.execute();
+
+		byte[] state = Files.readAllBytes(stateFile(parallelMojo).toPath());
+		assertThat(state).isEqualTo(expectedState);
+	}
+
+	@Test
+	public void it_should_use_file_system_watcher_in_watch_mode() throws Exception {
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder().withWatch(true).build();
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", incrementalBuild));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+		verify(readPrivate(mojo, "log", Log.class)).debug("File system watcher is not warm yet, or may have missed some events, scanning working directory");
+
+		resetMojo(mojo);
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Command npm run build already done, no changes detected, skipping.");
+		verify(log).debug("Checking what has changed since previous build, using 0 paths reported by file system watcher...");
+		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+
+		File input = join(workingDirectory, "index.ts");
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8, StandardOpenOption.APPEND);
+
+		resetMojo(mojo);
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		log = readPrivate(mojo, "log");
+		verify(log).debug("Checking what has changed since previous build, using 1 paths reported by file system watcher...");
+		verify(log).debug("  - File 'index.ts' has changed");
+		verify(log).info("Running: npm run build --maven");
+		verifyStateFile(mojo, asList(
+				input,
+				join(workingDirectory, "package.json"),
+				join(workingDirectory, "src", "hello-world.ts")
+		));
+	}
+
+	@Test
+	public void it_should_restore_outputs_from_build_cache() throws Exception {
+		File cacheDirectory = temporaryFolder.newFolder("cache");
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+				.withBuildCache(cacheDirectory)
+				.withBuildOutputs("dist")
+				.build();
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", incrementalBuild));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		File output = join(workingDirectory, "dist", "main.js");
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			Files.createDirectories(output.getParentFile().toPath());
+			Files.write(output.toPath(), singletonList("console.log('Hello World');"), UTF_8);
+			return successResult();
+		});
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+		assertThat(cacheDirectory.list()).hasSize(1);
+
+		// Simulate a "mvn clean".
+		Files.delete(output.toPath());
+		Files.delete(stateFile(mojo).toPath());
+
+		resetMojo(mojo);
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Command npm run build --maven outputs restored from build cache, skipping.");
+		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+		assertThat(Files.readAllLines(output.toPath(), UTF_8)).containsExactly("console.log('Hello World');");
+		verifyStateFile(mojo, asList(
+				join(workingDirectory, "index.ts"),
+				join(workingDirectory, "package.json"),
+				join(workingDirectory, "src", "hello-world.ts")
+		));
+	}
+
+	@Test
+	public void it_should_not_store_outputs_of_failed_command_in_build_cache() throws Exception {
+		File cacheDirectory = temporaryFolder.newFolder("cache");
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+				.withBuildCache(cacheDirectory)
+				.withBuildOutputs("dist")
+				.build();
+
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("incrementalBuild", incrementalBuild);
+		parameters.put("failOnError", false);
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", parameters);
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(failureResult());
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).error("Error during execution of: npm run build --maven");
+		assertThat(cacheDirectory.list()).isEmpty();
+	}
+
+	@Test
+	public void it_should_restore_outputs_from_remote_build_cache() throws Exception {
+		try (BuildCacheServer server = BuildCacheServer.start(0, temporaryFolder.newFolder("server"))) {
+			IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+					.withBuildCache(temporaryFolder.newFolder("agent1"))
+					.withRemoteBuildCache(server.getUrl())
+					.withBuildOutputs("dist")
+					.build();
+
+			BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", incrementalBuild));
+			File workingDirectory = readPrivate(mojo, "workingDirectory");
+			File output = join(workingDirectory, "dist", "main.js");
+
+			CommandExecutor executor = readPrivate(mojo, "executor");
+			when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+				Files.createDirectories(output.getParentFile().toPath());
+				Files.write(output.toPath(), singletonList("console.log('Hello World');"), UTF_8);
+				return successResult();
+			});
+
+			mojo.execute();
+			verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+
+			// Simulate a fresh checkout on another agent, with an empty local cache.
+			Files.delete(output.toPath());
+			Files.delete(stateFile(mojo).toPath());
+			File localCache = temporaryFolder.newFolder("agent2");
+			incrementalBuild.getCache().setDirectory(localCache);
+
+			resetMojo(mojo);
+			mojo.execute();
+
+			verify(readPrivate(mojo, "log", Log.class)).info("Command npm run build --maven outputs restored from build cache, skipping.");
+			verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+			assertThat(Files.readAllLines(output.toPath(), UTF_8)).containsExactly("console.log('Hello World');");
+			assertThat(localCache.list()).hasSize(1);
+		}
+	}
+
+	@Test
+	public void it_should_not_upload_outputs_of_failed_command_to_remote_build_cache() throws Exception {
+		File serverDirectory = temporaryFolder.newFolder("server");
+		try (BuildCacheServer server = BuildCacheServer.start(0, serverDirectory)) {
+			IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+					.withBuildCache(temporaryFolder.newFolder("agent"))
+					.withRemoteBuildCache(server.getUrl())
+					.withBuildOutputs("dist")
+					.build();
+
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("incrementalBuild", incrementalBuild);
+			parameters.put("failOnError", false);
+
+			BuildMojo mojo = lookupMojo("mojo-with-tslint", parameters);
+			CommandExecutor executor = readPrivate(mojo, "executor");
+			when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(failureResult());
+
+			mojo.execute();
+
+			verify(readPrivate(mojo, "log", Log.class)).error("Error during execution of: npm run build --maven");
+			assertThat(serverDirectory.list()).isEmpty();
+		}
+	}
+
+	@Test
+	public void it_should_run_command_if_remote_build_cache_is_not_available() throws Exception {
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+				.withBuildCache(temporaryFolder.newFolder("cache"))
+				.withRemoteBuildCache("http://localhost:1")
+				.withBuildOutputs("dist")
+				.build();
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", incrementalBuild));
+		mojo.execute();
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Running: npm run build --maven");
+		verify(log).warn(startsWith("Remote build cache http://localhost:1 is not available, falling back to local build"));
+	}
+
+	@Test
+	public void it_should_not_restore_outputs_from_build_cache_if_inputs_changed() throws Exception {
+		File cacheDirectory = temporaryFolder.newFolder("cache");
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+				.withBuildCache(cacheDirectory)
+				.withBuildOutputs("dist")
+				.build();
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("incrementalBuild", incrementalBuild));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		mojo.execute();
+
+		File input = join(workingDirectory, "index.ts");
+		Files.write(input.toPath(), singletonList("export const foo = 'bar';"), UTF_8, StandardOpenOption.APPEND);
+
+		resetMojo(mojo);
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+		assertThat(cacheDirectory.list()).hasSize(2);
+	}
+
+	@Test
+	public void it_should_run_mojo_if_hash_algorithm_changed() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+
+		IncrementalBuildConfiguration incrementalBuild = readPrivate(mojo, "incrementalBuild");
+		incrementalBuild.setHashAlgorithm(HashAlgorithm.XXHASH64);
+
+		resetMojo(mojo);
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult());
+
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Running: npm run build --maven");
+
+		File index = join(workingDirectory, "index.ts");
+		assertThat(readStateFile(mojo, HashAlgorithm.MD5)).isEmpty();
+
+		Map<String, InputState> states = readStateFile(mojo, HashAlgorithm.XXHASH64);
+		assertThat(states).hasSize(3);
+		assertThat(states.get("index.ts").getHash()).isEqualTo(Ios.xxHash64(index));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void it_should_run_script_and_hooks_directly() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-script-hooks", singletonMap("directScripts", true));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		List<Command> commands = new ArrayList<>();
+		List<Map<String, String>> environments = new ArrayList<>();
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			commands.add(invocation.getArgument(1));
+			environments.add(invocation.getArgument(3));
+			return successResult();
+		});
+
+		mojo.execute();
+
+		assertThat(commands).hasSize(3);
+		assertThat(commands.get(0).getArguments()).containsExactly("-c", "gulp clean");
+		assertThat(commands.get(1).getArguments()).containsExactly("-c", "gulp build");
+		assertThat(commands.get(2).getArguments()).containsExactly("-c", "gulp package");
+
+		Map<String, String> environment = environments.get(1);
+		assertThat(environment.get("PATH")).startsWith(join(workingDirectory.getAbsoluteFile(), "node_modules", ".bin").getPath());
+		assertThat(environment)
+				.containsEntry("npm_lifecycle_event", "build")
+				.containsEntry("npm_lifecycle_script", "gulp build")
+				.containsEntry("npm_package_name", "test-project")
+				.containsEntry("npm_package_version", "1.0")
+				.containsEntry("npm_config_maven", "true");
+
+		assertThat(environments.get(0)).containsEntry("npm_lifecycle_event", "prebuild");
+		assertThat(environments.get(2)).containsEntry("npm_lifecycle_event", "postbuild");
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Running: npm run build --maven");
+		verify(log).info("Running script 'prebuild': gulp clean");
+		verify(log).info("Running script 'build': gulp build");
+		verify(log).info("Running script 'postbuild': gulp package");
+	}
+
+	@Test
+	public void it_should_stop_running_scripts_directly_on_failure() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-script-hooks", singletonMap("directScripts", true));
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(successResult(), failureResult());
+
+		assertThatThrownBy(mojo::execute).isInstanceOf(MojoExecutionException.class);
+		verify(executor, times(2)).execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap());
+	}
+
+	@Test
+	public void it_should_write_goal_metrics() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		ResourceUsage usage = new ResourceUsage(1000, 800, 100, 1024, 2048, 512);
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenReturn(
+				new CommandResult(0, "", null, usage)
+		);
+
+		mojo.execute();
+
+		File metrics = join(workingDirectory, "target", "node-maven-plugin", "metrics.json");
+		assertThat(metrics).exists();
+		assertThat(new String(Files.readAllBytes(metrics.toPath()), UTF_8))
+				.contains("\"goal\": \"build\"")
+				.contains("\"command\": \"npm run build --maven\"")
+				.contains("\"userTimeMs\": 800");
+	}
+
+	@Test
+	public void it_should_write_build_trace() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("trace", true));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+
+		mojo.execute();
+
+		File trace = join(workingDirectory, "target", "node-maven-plugin", "trace.json");
+		assertThat(trace).exists();
+		assertThat(new String(Files.readAllBytes(trace.toPath()), UTF_8))
+				.contains("\"name\":\"thread_name\"")
+				.contains("\"name\":\"scan\"")
+				.contains("\"name\":\"lock wait\"")
+				.contains("\"name\":\"execute\"")
+				.contains("\"name\":\"store state\"")
+				.contains("\"name\":\"build\"");
+	}
+
+	@Test
+	public void it_should_warn_if_lock_wait_exceeds_threshold() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo", singletonMap("lockWaitWarningThreshold", 50L));
+		Log log = readPrivate(mojo, "log");
+		when(log.isDebugEnabled()).thenReturn(true);
+
+		// Another goal (for example, an install in another module) holds the write lock.
+		PathLockManager locks = readPrivate(mojo, "locks");
+		Lock lock = locks.getGlobalLock().writeLock();
+		lock.lock();
+
+		Thread thread = new Thread(() -> {
+			try {
+				mojo.execute();
+			}
+			catch (MojoExecutionException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+
+		try {
+			thread.start();
+			Thread.sleep(200);
+		}
+		finally {
+			lock.unlock();
+		}
+
+		thread.join();
+
+		verify(log).warn(startsWith("Goal 'build' waited "));
+		verify(log).debug(startsWith("Lock READ acquired after "));
+	}
+
+	@Test
+	public void it_should_lock_workspace_lock_file() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("fileLock", true));
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		File lockFile = join(workingDirectory, "target", "node-maven-plugin", ".node-maven-plugin.lock");
+
+		try {
+			mojo.execute();
+			assertThat(lockFile).exists();
+			assertThat(new File(workingDirectory, ".node-maven-plugin.lock")).doesNotExist();
+		}
+		finally {
+			Files.deleteIfExists(lockFile.toPath());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void it_should_not_wait_for_goals_of_unrelated_modules() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint");
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		CommandExecutor executor = readPrivate(mojo, "executor");
+
+		// A lint goal, in a sibling module, holds the write lock of its own directory.
+		PathLockManager locks = readPrivate(mojo, "locks");
+		Lock lock = locks.getLock(new File(workingDirectory.getParentFile(), "mojo-with-eslint")).writeLock();
+		lock.lock();
+
+		try {
+			mojo.execute();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		verify(executor).execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void it_should_give_cpu_share_to_processes() throws Exception {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("cpuBudget", true);
+		parameters.put("environmentVariables", singletonMap("JOBS", "1"));
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", parameters);
+		mojo.execute();
+
+		ArgumentCaptor<Map<String, String>> envCaptor = ArgumentCaptor.forClass(Map.class);
+		verify(readPrivate(mojo, "executor", CommandExecutor.class)).execute(any(File.class), any(Command.class), any(OutputHandler.class), envCaptor.capture());
+
+		String cpus = String.valueOf(CpuBudget.system().cpus());
+		assertThat(envCaptor.getValue())
+				.containsEntry("NODE_MAVEN_PLUGIN_CPUS", cpus)
+				.containsEntry("GOMAXPROCS", cpus)
+				.containsEntry("JOBS", "1");
+	}
+
+	@Test
+	public void it_should_add_cpu_budget_arguments() throws Exception {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("cpuBudget", true);
+		parameters.put("cpuBudgetArguments", singletonList("--maxWorkers={cpus}"));
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", parameters);
+		mojo.execute();
+
+		ArgumentCaptor<Command> cmdCaptor = ArgumentCaptor.forClass(Command.class);
+		verify(readPrivate(mojo, "executor", CommandExecutor.class)).execute(any(File.class), cmdCaptor.capture(), any(OutputHandler.class), anyMap());
+		assertThat(cmdCaptor.getValue().getArguments()).contains("--maxWorkers=" + CpuBudget.system().cpus());
+	}
+
+	@Test
+	public void it_should_not_add_cpu_budget_arguments_without_cpu_budget() throws Exception {
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", singletonMap("cpuBudgetArguments", singletonList("--maxWorkers={cpus}")));
+		mojo.execute();
+
+		ArgumentCaptor<Command> cmdCaptor = ArgumentCaptor.forClass(Command.class);
+		verify(readPrivate(mojo, "executor", CommandExecutor.class)).execute(any(File.class), cmdCaptor.capture(), any(OutputHandler.class), anyMap());
+		assertThat(cmdCaptor.getValue().getArguments()).containsExactly("run", "build", "--maven");
+	}
+
+	@Test
+	public void it_should_not_use_cpu_budget_arguments_in_build_cache_key() throws Exception {
+		File cacheDirectory = temporaryFolder.newFolder("cache");
+		IncrementalBuildConfiguration incrementalBuild = new IncrementalBuildConigurationTestBuilder()
+				.withBuildCache(cacheDirectory)
+				.withBuildOutputs("dist")
+				.build();
+
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("incrementalBuild", incrementalBuild);
+		parameters.put("cpuBudget", true);
+		parameters.put("cpuBudgetArguments", singletonList("--maxWorkers={cpus}"));
+
+		BuildMojo mojo = lookupMojo("mojo-with-tslint", parameters);
+		File workingDirectory = readPrivate(mojo, "workingDirectory");
+		File output = join(workingDirectory, "dist", "main.js");
+
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			Files.createDirectories(output.getParentFile().toPath());
+			Files.write(output.toPath(), singletonList("console.log('Hello World');"), UTF_8);
+			return successResult();
+		});
+
+		mojo.execute();
+
+		// Simulate a "mvn clean", on a machine with another CPU share.
+		Files.delete(output.toPath());
+		Files.delete(stateFile(mojo).toPath());
+		writePrivate(mojo, "cpuBudgetArguments", singletonList("--maxWorkers=1000"));
+
+		resetMojo(mojo);
+		mojo.execute();
+
+		verify(readPrivate(mojo, "log", Log.class)).info("Command npm run build --maven outputs restored from build cache, skipping.");
+		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
+	}
+
+	@Test
+	public void it_should_not_use_cpu_budget_arguments_in_reactor_task_key() throws Exception {
+		MavenSession session = mock(MavenSession.class);
+
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("session", session);
+		parameters.put("incrementalBuild", IncrementalBuildConigurationTestBuilder.of(false));
+		parameters.put("cpuBudget", true);
+		parameters.put("cpuBudgetArguments", singletonList("--maxWorkers={cpus}"));
+
+		BuildMojo mojo1 = lookupMojo("mojo-with-tslint", parameters);
+		parameters.put("cpuBudgetArguments", singletonList("--maxWorkers=1000"));
+		BuildMojo mojo2 = lookupMojo("mojo-with-tslint", parameters);
+
+		mojo1.execute();
+		mojo2.execute();
+
+		verify(readPrivate(mojo2, "log", Log.class)).info(startsWith("Command npm run build already done by module "));
+		verifyNoInteractions(readPrivate(mojo2, "executor", CommandExecutor.class));
+	}
+
+	private static void givenOldDirectories(File workingDirectory) throws Exception {
+		// Directories modified just before a scan are never trusted, see IncrementalBuildCache.
+		FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 60000);
+		try (Stream<Path> paths = Files.walk(workingDirectory.toPath())) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				if (Files.isDirectory(path)) {
+					Files.setLastModifiedTime(path, lastModified);
+				}
+			}
+		}
+	}
 }
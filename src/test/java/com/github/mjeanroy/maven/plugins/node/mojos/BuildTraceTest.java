@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class BuildTraceTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Log log;
+	private File file;
+
+	@Before
+	public void setUp() {
+		log = mock(Log.class);
+		file = new File(temporaryFolder.getRoot(), "target/node-maven-plugin/trace.json");
+	}
+
+	@Test
+	public void it_should_write_spans_of_each_thread() throws Exception {
+		BuildTrace trace = BuildTrace.of(null, file);
+
+		try (BuildTrace.Span span = trace.span("build", "module-a", "build")) {
+			try (BuildTrace.Span nested = trace.span("scan", "module-a", "build")) {
+				Thread.sleep(5);
+			}
+		}
+
+		Thread thread = new Thread(() -> trace.span("lint", "module-b", "lint").close(), "reactor-thread");
+		thread.start();
+		thread.join();
+
+		trace.write(log);
+
+		JsonArray events = readEvents();
+		List<String> names = new ArrayList<>();
+		for (JsonElement event : events) {
+			names.add(event.getAsJsonObject().get("name").getAsString());
+		}
+
+		assertThat(names).containsExactly("process_name", "thread_name", "thread_name", "scan", "build", "lint");
+
+		JsonObject threadName = events.get(2).getAsJsonObject();
+		assertThat(threadName.get("ph").getAsString()).isEqualTo("M");
+		assertThat(threadName.get("tid").getAsLong()).isEqualTo(thread.getId());
+		assertThat(threadName.getAsJsonObject("args").get("name").getAsString()).isEqualTo("reactor-thread");
+
+		JsonObject scan = events.get(3).getAsJsonObject();
+		JsonObject build = events.get(4).getAsJsonObject();
+		assertThat(scan.get("ph").getAsString()).isEqualTo("X");
+		assertThat(scan.get("tid").getAsLong()).isEqualTo(Thread.currentThread().getId());
+		assertThat(scan.get("dur").getAsLong()).isGreaterThanOrEqualTo(5000);
+		assertThat(scan.get("ts").getAsLong()).isGreaterThanOrEqualTo(build.get("ts").getAsLong());
+		assertThat(build.get("dur").getAsLong()).isGreaterThanOrEqualTo(scan.get("dur").getAsLong());
+		assertThat(scan.getAsJsonObject("args").get("module").getAsString()).isEqualTo("module-a");
+		assertThat(scan.getAsJsonObject("args").get("goal").getAsString()).isEqualTo("build");
+	}
+
+	@Test
+	public void it_should_share_trace_of_a_session() {
+		Object session = new Object();
+
+		assertThat(BuildTrace.of(session, file)).isSameAs(BuildTrace.of(session, file));
+		assertThat(BuildTrace.of(session, file)).isNotSameAs(BuildTrace.of(new Object(), file));
+		assertThat(BuildTrace.of(null, file)).isNotSameAs(BuildTrace.of(null, file));
+	}
+
+	@Test
+	public void it_should_not_write_disabled_trace() {
+		BuildTrace trace = BuildTrace.disabled();
+		trace.span("build", "module", "build").close();
+		trace.write(log);
+
+		assertThat(trace.isEnabled()).isFalse();
+		assertThat(file).doesNotExist();
+	}
+
+	private JsonArray readEvents() throws Exception {
+		String json = new String(Files.readAllBytes(file.toPath()), UTF_8);
+		return JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("traceEvents");
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class CpuBudgetTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Cgroup cgroup;
+
+	@Before
+	public void setUp() throws Exception {
+		cgroup = new Cgroup(temporaryFolder.newFolder("proc"), temporaryFolder.newFolder("cgroup"));
+	}
+
+	@Test
+	public void it_should_use_available_processors_without_cgroup() {
+		assertThat(new CpuBudget(cgroup, 16).cpus()).isEqualTo(16);
+	}
+
+	@Test
+	public void it_should_cap_cpus_with_cgroup_quota() throws Exception {
+		givenFile("proc/self/cgroup", "0::/docker/build\n");
+		givenFile("cgroup/docker/cpu.max", "max 100000\n");
+		givenFile("cgroup/docker/build/cpu.max", "250000 100000\n");
+
+		assertThat(new CpuBudget(cgroup, 16).cpus()).isEqualTo(3);
+		assertThat(new CpuBudget(cgroup, 2).cpus()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_share_cpus_between_concurrent_processes() {
+		CpuBudget budget = new CpuBudget(cgroup, 16);
+		assertThat(budget.share(1)).isEqualTo(16);
+		assertThat(budget.share(4)).isEqualTo(4);
+		assertThat(budget.share(5)).isEqualTo(3);
+		assertThat(budget.share(32)).isEqualTo(1);
+		assertThat(budget.share(0)).isEqualTo(16);
+	}
+
+	@Test
+	public void it_should_give_share_to_well_known_tools() {
+		Map<String, String> environment = CpuBudget.environment(4, emptyMap());
+		assertThat(environment).contains(
+				entry("NODE_MAVEN_PLUGIN_CPUS", "4"),
+				entry("PARCEL_WORKERS", "4"),
+				entry("VITEST_MAX_THREADS", "4"),
+				entry("VITEST_MAX_FORKS", "4"),
+				entry("JOBS", "4"),
+				entry("GOMAXPROCS", "4"),
+				entry("RAYON_NUM_THREADS", "4")
+		);
+	}
+
+	@Test
+	public void it_should_not_override_variables_of_tools_set_by_user() {
+		Map<String, String> inherited = new HashMap<>();
+		inherited.put("GOMAXPROCS", "1");
+		inherited.put("JOBS", "8");
+
+		Map<String, String> environment = CpuBudget.environment(4, inherited);
+		assertThat(environment).doesNotContainKeys("GOMAXPROCS", "JOBS").contains(
+				entry("NODE_MAVEN_PLUGIN_CPUS", "4"),
+				entry("PARCEL_WORKERS", "4"),
+				entry("RAYON_NUM_THREADS", "4")
+		);
+	}
+
+	private void givenFile(String path, String content) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(US_ASCII));
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncrementalBuildCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void it_should_store_scan_by_includes_and_excludes() throws Exception {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		File baseDir = temporaryFolder.getRoot();
+		Set<String> includes = new LinkedHashSet<>(asList("**/*.js", "package.json"));
+		Set<String> excludes = singleton("**/node_modules/**/*");
+		givenFile("index.js", "foo");
+
+		assertThat(cache.getScan(baseDir, includes, excludes)).isNull();
+
+		cache.putScan(includes, excludes, scan("index.js"), givenDirectories(""), System.currentTimeMillis());
+
+		assertThat(cache.getScan(baseDir, new LinkedHashSet<>(asList("package.json", "**/*.js")), singleton("**/node_modules/**/*"))).containsOnlyKeys("index.js");
+		assertThat(cache.getScan(baseDir, includes, singleton("**/target/**/*"))).isNull();
+		assertThat(cache.getScan(baseDir, singleton("**/*.js"), excludes)).isNull();
+	}
+
+	@Test
+	public void it_should_invalidate_scans() throws Exception {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		File baseDir = temporaryFolder.getRoot();
+		Set<String> includes = singleton("**/*.js");
+		Set<String> excludes = singleton("**/node_modules/**/*");
+		givenFile("index.js", "foo");
+		cache.putScan(includes, excludes, scan("index.js"), givenDirectories(""), System.currentTimeMillis());
+
+		cache.invalidateScans();
+
+		assertThat(cache.getScan(baseDir, includes, excludes)).isNull();
+	}
+
+	@Test
+	public void it_should_read_current_attributes_of_scanned_files() throws Exception {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		File baseDir = temporaryFolder.getRoot();
+		Set<String> includes = singleton("**/*.js");
+		Set<String> excludes = singleton("**/node_modules/**/*");
+		File file = givenFile("index.js", "foo");
+		cache.putScan(includes, excludes, scan("index.js"), givenDirectories(""), System.currentTimeMillis());
+
+		java.nio.file.Files.write(file.toPath(), "foobar".getBytes(UTF_8));
+
+		Map<String, BasicFileAttributes> inputs = cache.getScan(baseDir, includes, excludes);
+		assertThat(inputs).containsOnlyKeys("index.js");
+		assertThat(inputs.get("index.js").size()).isEqualTo(6);
+	}
+
+	@Test
+	public void it_should_not_reuse_scan_once_a_file_has_been_created() throws Exception {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		File baseDir = temporaryFolder.getRoot();
+		Set<String> includes = singleton("**/*.js");
+		Set<String> excludes = singleton("**/node_modules/**/*");
+		givenFile("src/index.js", "foo");
+		cache.putScan(includes, excludes, scan("src/index.js"), givenDirectories("", "src"), System.currentTimeMillis());
+
+		givenFile("src/generated.js", "foo");
+
+		assertThat(cache.getScan(baseDir, includes, excludes)).isNull();
+	}
+
+	@Test
+	public void it_should_not_reuse_scan_of_directories_modified_just_before_the_scan() throws Exception {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		File baseDir = temporaryFolder.getRoot();
+		Set<String> includes = singleton("**/*.js");
+		Set<String> excludes = singleton("**/node_modules/**/*");
+		givenFile("index.js", "foo");
+		Map<String, FileTime> directories = singletonMap("", java.nio.file.Files.getLastModifiedTime(baseDir.toPath()));
+		cache.putScan(includes, excludes, scan("index.js"), directories, directories.get("").toMillis());
+
+		assertThat(cache.getScan(baseDir, includes, excludes)).isNull();
+	}
+
+	@Test
+	public void it_should_store_states_by_hash_algorithm() {
+		IncrementalBuildCache cache = new IncrementalBuildCache();
+		InputState md5 = inputState("index.js", "0123456789abcdef0123456789abcdef", 1, 1, null);
+		InputState crc32c = inputState("index.js", "01234567", 1, 1, null);
+		InputState packageJson = inputState("package.json", "fedcba9876543210fedcba9876543210", 1, 1, null);
+
+		cache.putState(HashAlgorithm.MD5, md5);
+		cache.putStates(HashAlgorithm.CRC32C, singletonList(crc32c));
+		cache.putStates(HashAlgorithm.MD5, singletonList(packageJson));
+
+		assertThat(cache.getState(HashAlgorithm.MD5, "index.js")).isSameAs(md5);
+		assertThat(cache.getState(HashAlgorithm.MD5, "package.json")).isSameAs(packageJson);
+		assertThat(cache.getState(HashAlgorithm.CRC32C, "index.js")).isSameAs(crc32c);
+		assertThat(cache.getState(HashAlgorithm.XXHASH64, "index.js")).isNull();
+	}
+
+	private File givenFile(String path, String content) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		java.nio.file.Files.createDirectories(file.getParentFile().toPath());
+		java.nio.file.Files.write(file.toPath(), content.getBytes(UTF_8));
+		return file;
+	}
+
+	private Map<String, FileTime> givenDirectories(String... paths) throws Exception {
+		// Directories are assumed to be modified long before the scan.
+		FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 60000);
+		Map<String, FileTime> directories = new HashMap<>();
+		for (String path : paths) {
+			java.nio.file.Files.setLastModifiedTime(new File(temporaryFolder.getRoot(), path).toPath(), lastModified);
+			directories.put(path, lastModified);
+		}
+
+		return directories;
+	}
+
+	private Map<String, BasicFileAttributes> scan(String path) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		return singletonMap(path, java.nio.file.Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+	}
+}
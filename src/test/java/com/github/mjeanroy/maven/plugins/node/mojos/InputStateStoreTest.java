@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.exceptions.FileAccessException;
+import com.github.mjeanroy.maven.plugins.node.model.HashAlgorithm;
+import com.github.mjeanroy.maven.plugins.node.model.InputState;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.mjeanroy.maven.plugins.node.model.InputState.inputState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class InputStateStoreTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Log log;
+	private File file;
+	private InputStateStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		log = mock(Log.class);
+		file = new File(temporaryFolder.getRoot(), "target/node-maven-plugin/build");
+		store = new InputStateStore(file, log);
+	}
+
+	@Test
+	public void it_should_write_and_read_input_states() {
+		List<InputState> states = asList(
+				inputState("package.json", "0123456789abcdef0123456789abcdef", 10, 1000, "(dev=1,ino=2)"),
+				inputState("src/index.js", "fedcba9876543210fedcba9876543210", 20, 2000, null),
+				inputState("src/app/app.js", "00000000000000000000000000000000", 30, 3000, "(dev=1,ino=3)"),
+				inputState("src/main.js", "ffffffffffffffffffffffffffffffff", 40, 4000, "(dev=1,ino=4)")
+		);
+
+		store.write(states, HashAlgorithm.MD5);
+		Map<String, InputState> result = store.read(HashAlgorithm.MD5);
+
+		assertThat(file).exists();
+		assertThat(result.keySet()).containsExactly("package.json", "src/index.js", "src/app/app.js", "src/main.js");
+		assertThat(result.values()).containsExactlyElementsOf(states);
+	}
+
+	@Test
+	public void it_should_store_each_directory_once() throws Exception {
+		store.write(singletonList(inputState("src/app/a.js", "01234567", 1, 1, null)), HashAlgorithm.CRC32C);
+		long oneFile = file.length();
+
+		store.write(asList(
+				inputState("src/app/a.js", "01234567", 1, 1, null),
+				inputState("src/app/b.js", "89abcdef", 1, 1, null)
+		), HashAlgorithm.CRC32C);
+
+		long twoFiles = file.length();
+
+		// Second entry: directory index (4) + file name (2 + 4) + size (8) + last modified (8) + file key (2) + hash (4).
+		assertThat(twoFiles - oneFile).isEqualTo(32);
+	}
+
+	@Test
+	public void it_should_return_empty_state_if_file_does_not_exist() {
+		assertThat(store.read(HashAlgorithm.MD5)).isEmpty();
+		verify(log).debug("Input state file does not exist, skipping.");
+	}
+
+	@Test
+	public void it_should_return_empty_state_if_hash_algorithm_changed() {
+		store.write(singletonList(inputState("index.js", "0123456789abcdef", 1, 1, null)), HashAlgorithm.XXHASH64);
+
+		assertThat(store.read(HashAlgorithm.MD5)).isEmpty();
+		assertThat(store.read(HashAlgorithm.XXHASH64)).hasSize(1);
+		verify(log).debug("Input state has been computed with hash algorithm 'XXHASH64' instead of 'MD5', skipping.");
+	}
+
+	@Test
+	public void it_should_return_empty_state_if_file_has_not_been_written_with_binary_format() throws Exception {
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), singletonList("/tmp/index.js::0123456789abcdef0123456789abcdef"), UTF_8);
+
+		assertThat(store.read(HashAlgorithm.MD5)).isEmpty();
+		verify(log).debug("Input state file has not been written in the expected format, skipping.");
+	}
+
+	@Test
+	public void it_should_return_empty_state_if_file_is_truncated() throws Exception {
+		store.write(singletonList(inputState("index.js", "0123456789abcdef0123456789abcdef", 1, 1, null)), HashAlgorithm.MD5);
+
+		byte[] content = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(content, content.length - 4));
+
+		assertThat(store.read(HashAlgorithm.MD5)).isEmpty();
+		verify(log).debug("Input state file is corrupted, skipping.");
+	}
+
+	@Test
+	public void it_should_delete_store_when_writing_empty_state() {
+		store.write(singletonList(inputState("index.js", "0123456789abcdef0123456789abcdef", 1, 1, null)), HashAlgorithm.MD5);
+		assertThat(file).exists();
+
+		store.write(emptyList(), HashAlgorithm.MD5);
+		assertThat(file).doesNotExist();
+	}
+
+	@Test
+	public void it_should_fail_to_write_hashes_with_different_width() {
+		List<InputState> states = asList(
+				inputState("a.js", "0123456789abcdef0123456789abcdef", 1, 1, null),
+				inputState("b.js", "01234567", 1, 1, null)
+		);
+
+		assertThatThrownBy(() -> store.write(states, HashAlgorithm.MD5))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Hash of 'b.js' does not have the expected width: 01234567");
+
+		assertThat(file).doesNotExist();
+		assertThat(file.getParentFile().list()).isEmpty();
+	}
+
+	@Test
+	public void it_should_wrap_io_errors() throws Exception {
+		Files.createDirectories(file.toPath());
+
+		assertThatThrownBy(() -> store.read(HashAlgorithm.MD5)).isInstanceOf(FileAccessException.class);
+	}
+}
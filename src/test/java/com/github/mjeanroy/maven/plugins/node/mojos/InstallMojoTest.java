@@ -29,6 +29,8 @@ import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
 import com.github.mjeanroy.maven.plugins.node.loggers.NpmLogger;
 import com.github.mjeanroy.maven.plugins.node.model.IncrementalBuildConfiguration;
 import com.github.mjeanroy.maven.plugins.node.tests.builders.IncrementalBuildConigurationTestBuilder;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -36,6 +38,8 @@ import org.mockito.ArgumentMatchers;
 
 import java.io.File;
 
+import static com.github.mjeanroy.maven.plugins.node.tests.CollectionTestUtils.newMap;
+import static com.github.mjeanroy.maven.plugins.node.tests.CollectionTestUtils.newMapEntry;
 import static com.github.mjeanroy.maven.plugins.node.tests.FileTestUtils.join;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.readPrivate;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.writePrivate;
@@ -45,8 +49,11 @@ import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static org.apache.commons.lang3.reflect.FieldUtils.readField;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -168,4 +175,56 @@ public class InstallMojoTest extends AbstractNpmScriptIncrementalMojoTest<Instal
 		verify(readPrivate(mojo, "log", Log.class)).info("Command npm install already done, no changes detected, skipping.");
 		verifyNoInteractions(readPrivate(mojo, "executor", CommandExecutor.class));
 	}
+
+	@Test
+	public void it_should_run_install_once_for_modules_sharing_the_same_working_directory() throws Exception {
+		MavenSession session = mock(MavenSession.class);
+		InstallMojo mojo1 = lookupMojo("mojo", singletonMap("session", session));
+		InstallMojo mojo2 = lookupMojo("mojo", singletonMap("session", session));
+
+		mojo1.execute();
+		mojo2.execute();
+
+		verify(readPrivate(mojo1, "executor", CommandExecutor.class)).execute(any(File.class), any(Command.class), any(NpmLogger.class), ArgumentMatchers.anyMap());
+		verify(readPrivate(mojo2, "log", Log.class)).info(startsWith("Command npm install already done by module "));
+		verifyNoInteractions(readPrivate(mojo2, "executor", CommandExecutor.class));
+	}
+
+	@Test
+	public void it_should_run_install_for_modules_with_different_settings() throws Exception {
+		MavenSession session = mock(MavenSession.class);
+		InstallMojo mojo1 = lookupMojo("mojo", singletonMap("session", session));
+		InstallMojo mojo2 = lookupMojo("mojo", newMap(asList(
+				newMapEntry("session", session),
+				newMapEntry("failOnError", false)
+		)));
+		InstallMojo mojo3 = lookupMojo("mojo", newMap(asList(
+				newMapEntry("session", session),
+				newMapEntry("incrementalBuild", IncrementalBuildConigurationTestBuilder.of(false))
+		)));
+
+		mojo1.execute();
+		mojo2.execute();
+		mojo3.execute();
+
+		verify(readPrivate(mojo2, "log", Log.class), never()).info(startsWith("Command npm install already done by module "));
+		verify(readPrivate(mojo3, "log", Log.class), never()).info(startsWith("Command npm install already done by module "));
+	}
+
+	@Test(timeout = 10000)
+	public void it_should_fail_modules_waiting_for_a_task_ending_with_an_error() throws Exception {
+		MavenSession session = mock(MavenSession.class);
+		InstallMojo mojo1 = lookupMojo("mojo", singletonMap("session", session));
+		InstallMojo mojo2 = lookupMojo("mojo", singletonMap("session", session));
+
+		AssertionError error = new AssertionError("Unexpected error");
+		CommandExecutor executor = readPrivate(mojo1, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(NpmLogger.class), ArgumentMatchers.anyMap())).thenThrow(error);
+
+		assertThatThrownBy(mojo1::execute).isSameAs(error);
+		assertThatThrownBy(mojo2::execute)
+				.isInstanceOf(MojoExecutionException.class)
+				.hasMessageStartingWith("Command npm install failed in module ")
+				.hasCause(error);
+	}
 }
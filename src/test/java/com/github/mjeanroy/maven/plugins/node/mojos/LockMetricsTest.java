@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.model.LockStrategy;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class LockMetricsTest {
+
+	@Test
+	public void it_should_report_lock_metrics_of_each_goal() {
+		Log log = mock(Log.class);
+		LockMetrics metrics = LockMetrics.of(null, log);
+
+		metrics.add("install", LockStrategy.WRITE, 0, MILLISECONDS.toNanos(5), MILLISECONDS.toNanos(1000));
+		metrics.add("build", LockStrategy.READ, 2, MILLISECONDS.toNanos(1500), MILLISECONDS.toNanos(200));
+		metrics.add("build", LockStrategy.READ, 1, MILLISECONDS.toNanos(500), MILLISECONDS.toNanos(300));
+		metrics.report();
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("Lock contention summary:");
+		inOrder.verify(log).info("  install (WRITE): 1 acquisition(s), waited 5 ms (max 5 ms), held 1000 ms (max 1000 ms), max queue length 0");
+		inOrder.verify(log).info("  build (READ): 2 acquisition(s), waited 2000 ms (max 1500 ms), held 500 ms (max 300 ms), max queue length 2");
+	}
+
+	@Test
+	public void it_should_not_report_anything_without_lock_acquisitions() {
+		Log log = mock(Log.class);
+		LockMetrics.of(null, log).report();
+		verifyNoInteractions(log);
+	}
+
+	@Test
+	public void it_should_share_metrics_of_a_session() {
+		Log log = mock(Log.class);
+		Object session = new Object();
+		LockMetrics metrics = LockMetrics.of(session, log);
+
+		assertThat(LockMetrics.of(session, log)).isSameAs(metrics);
+		assertThat(LockMetrics.remove(session)).isSameAs(metrics);
+		assertThat(LockMetrics.remove(session)).isNull();
+	}
+
+	@Test
+	public void it_should_report_metrics_at_the_end_of_the_session() {
+		Log log = mock(Log.class);
+		MavenExecutionRequest request = mock(MavenExecutionRequest.class);
+		MavenSession session = mock(MavenSession.class);
+		when(session.getRequest()).thenReturn(request);
+
+		LockMetrics.of(request, log).add("lint", LockStrategy.WRITE, 0, 0, MILLISECONDS.toNanos(10));
+
+		new LockMetricsReporter().afterSessionEnd(session);
+
+		InOrder inOrder = inOrder(log);
+		inOrder.verify(log).info("Lock contention summary:");
+		inOrder.verify(log).info("  lint (WRITE): 1 acquisition(s), waited 0 ms (max 0 ms), held 10 ms (max 10 ms), max queue length 0");
+		assertThat(LockMetrics.remove(request)).isNull();
+	}
+}
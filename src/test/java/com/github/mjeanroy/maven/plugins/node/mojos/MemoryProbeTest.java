@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryProbeTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File proc;
+	private File cgroup;
+	private MemoryProbe probe;
+
+	@Before
+	public void setUp() throws Exception {
+		proc = temporaryFolder.newFolder("proc");
+		cgroup = temporaryFolder.newFolder("cgroup");
+		probe = new MemoryProbe(new Cgroup(proc, cgroup));
+	}
+
+	@Test
+	public void it_should_return_unknown_without_proc() {
+		assertThat(probe.available()).isEqualTo(MemoryProbe.UNKNOWN);
+	}
+
+	@Test
+	public void it_should_read_available_memory_from_meminfo() throws Exception {
+		givenFile("proc/meminfo", "MemTotal:       16316412 kB\nMemFree:         1263636 kB\nMemAvailable:    8142336 kB\n");
+		assertThat(probe.available()).isEqualTo(8142336L * 1024);
+	}
+
+	@Test
+	public void it_should_use_the_headroom_of_the_cgroup() throws Exception {
+		givenFile("proc/meminfo", "MemAvailable:    8142336 kB\n");
+		givenFile("proc/self/cgroup", "0::/docker/build\n");
+		givenFile("cgroup/docker/build/memory.max", "2147483648\n");
+		givenFile("cgroup/docker/build/memory.current", "1073741824\n");
+
+		assertThat(probe.available()).isEqualTo(1073741824L);
+	}
+
+	@Test
+	public void it_should_use_the_smallest_headroom_of_the_cgroup_hierarchy() throws Exception {
+		givenFile("proc/self/cgroup", "0::/docker/build\n");
+		givenFile("cgroup/docker/memory.max", "1073741824\n");
+		givenFile("cgroup/docker/memory.current", "805306368\n");
+		givenFile("cgroup/docker/build/memory.max", "max\n");
+		givenFile("cgroup/docker/build/memory.current", "536870912\n");
+
+		assertThat(probe.available()).isEqualTo(268435456L);
+	}
+
+	@Test
+	public void it_should_ignore_unlimited_cgroup() throws Exception {
+		givenFile("proc/meminfo", "MemAvailable:    1024 kB\n");
+		givenFile("proc/self/cgroup", "0::/\n");
+		givenFile("cgroup/memory.current", "536870912\n");
+
+		assertThat(probe.available()).isEqualTo(1024L * 1024);
+	}
+
+	private void givenFile(String path, String content) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(US_ASCII));
+	}
+}
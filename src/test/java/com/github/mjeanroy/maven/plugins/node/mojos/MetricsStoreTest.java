@@ -0,0 +1,146 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.commands.Command;
+import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static com.github.mjeanroy.maven.plugins.node.commands.Commands.npm;
+import static com.github.mjeanroy.maven.plugins.node.commands.ResourceUsage.UNKNOWN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class MetricsStoreTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Log log;
+	private File file;
+	private MetricsStore store;
+
+	@Before
+	public void setUp() {
+		log = mock(Log.class);
+		file = new File(temporaryFolder.getRoot(), "target/node-maven-plugin/metrics.json");
+		store = new MetricsStore(file, log);
+	}
+
+	@Test
+	public void it_should_write_metrics() throws Exception {
+		ResourceUsage usage = new ResourceUsage(1000, 800, 100, 1024, 2048, 512);
+
+		store.save("build", "build", command("build"), new CommandResult(0, "", null, usage));
+
+		JsonArray goals = readGoals();
+		assertThat(goals.size()).isEqualTo(1);
+
+		JsonObject entry = goals.get(0).getAsJsonObject();
+		assertThat(entry.get("goal").getAsString()).isEqualTo("build");
+		assertThat(entry.get("script").getAsString()).isEqualTo("build");
+		assertThat(entry.get("command").getAsString()).isEqualTo("npm run build");
+		assertThat(entry.get("status").getAsInt()).isZero();
+		assertThat(entry.get("wallTimeMs").getAsLong()).isEqualTo(1000);
+		assertThat(entry.get("userTimeMs").getAsLong()).isEqualTo(800);
+		assertThat(entry.get("systemTimeMs").getAsLong()).isEqualTo(100);
+		assertThat(entry.get("peakRssBytes").getAsLong()).isEqualTo(1024);
+		assertThat(entry.get("readBytes").getAsLong()).isEqualTo(2048);
+		assertThat(entry.get("writtenBytes").getAsLong()).isEqualTo(512);
+	}
+
+	@Test
+	public void it_should_not_write_unknown_metrics() throws Exception {
+		ResourceUsage usage = new ResourceUsage(1000, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN);
+
+		store.save("build", "build", command("build"), new CommandResult(1, "", null, usage));
+
+		JsonObject entry = readGoals().get(0).getAsJsonObject();
+		assertThat(entry.get("status").getAsInt()).isEqualTo(1);
+		assertThat(entry.get("wallTimeMs").getAsLong()).isEqualTo(1000);
+		assertThat(entry.has("userTimeMs")).isFalse();
+		assertThat(entry.has("systemTimeMs")).isFalse();
+		assertThat(entry.has("peakRssBytes")).isFalse();
+		assertThat(entry.has("readBytes")).isFalse();
+		assertThat(entry.has("writtenBytes")).isFalse();
+	}
+
+	@Test
+	public void it_should_replace_metrics_of_the_same_goal() throws Exception {
+		store.save("lint", "lint", command("lint"), new CommandResult(0, "", null, new ResourceUsage(10, 1, 1, 1, 1, 1)));
+		store.save("build", "build", command("build"), new CommandResult(0, "", null, new ResourceUsage(20, 2, 2, 2, 2, 2)));
+		store.save("build", "build", command("build"), new CommandResult(0, "", null, new ResourceUsage(30, 3, 3, 3, 3, 3)));
+
+		JsonArray goals = readGoals();
+		assertThat(goals.size()).isEqualTo(2);
+		assertThat(goals.get(0).getAsJsonObject().get("goal").getAsString()).isEqualTo("lint");
+		assertThat(goals.get(1).getAsJsonObject().get("goal").getAsString()).isEqualTo("build");
+		assertThat(goals.get(1).getAsJsonObject().get("wallTimeMs").getAsLong()).isEqualTo(30);
+	}
+
+	@Test
+	public void it_should_not_write_metrics_if_resources_have_not_been_measured() {
+		store.save("build", "build", command("build"), new CommandResult(0, ""));
+		assertThat(file).doesNotExist();
+	}
+
+	@Test
+	public void it_should_overwrite_invalid_metrics_file() throws Exception {
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), singletonList("{ invalid"), UTF_8);
+
+		store.save("build", "build", command("build"), new CommandResult(0, "", null, new ResourceUsage(20, 2, 2, 2, 2, 2)));
+
+		assertThat(readGoals().size()).isEqualTo(1);
+		verify(log).debug(startsWith("Metrics file cannot be parsed, overwriting it"));
+	}
+
+	private JsonArray readGoals() throws Exception {
+		String json = new String(Files.readAllBytes(file.toPath()), UTF_8);
+		return JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("goals");
+	}
+
+	private static Command command(String script) {
+		Command command = npm();
+		command.addArgument("run");
+		command.addArgument(script);
+		return command;
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ProcessAdmissionTest {
+
+	private static final long MB = 1024 * 1024;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File proc;
+	private Log log;
+	private ProcessAdmission admission;
+
+	@Before
+	public void setUp() throws Exception {
+		proc = temporaryFolder.newFolder("proc");
+		log = mock(Log.class);
+		admission = new ProcessAdmission(new MemoryProbe(new Cgroup(proc, temporaryFolder.newFolder("cgroup"))));
+	}
+
+	@Test
+	public void it_should_admit_processes_up_to_the_maximum() throws Exception {
+		ProcessAdmission.Permit p1 = admission.acquire(2, 0, log);
+		ProcessAdmission.Permit p2 = admission.acquire(2, 0, log);
+		assertThat(admission.getRunning()).isEqualTo(2);
+		verifyNoInteractions(log);
+
+		p1.close();
+		p2.close();
+		assertThat(admission.getRunning()).isZero();
+	}
+
+	@Test
+	public void it_should_wait_until_a_process_ends() throws Exception {
+		ProcessAdmission.Permit permit = admission.acquire(1, 0, log);
+
+		CountDownLatch admitted = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			try (ProcessAdmission.Permit p = admission.acquire(1, 0, log)) {
+				admitted.countDown();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		thread.start();
+		assertThat(admitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+		permit.close();
+		assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+		thread.join();
+
+		verify(log).info(startsWith("Waiting to start process: 1 process(es) running"));
+		assertThat(admission.getRunning()).isZero();
+	}
+
+	@Test
+	public void it_should_always_admit_a_process_if_none_is_running() throws Exception {
+		givenMemAvailable(512 * MB);
+
+		try (ProcessAdmission.Permit permit = admission.acquire(0, 1024 * MB, log)) {
+			assertThat(admission.getRunning()).isEqualTo(1);
+		}
+
+		verifyNoInteractions(log);
+	}
+
+	@Test
+	public void it_should_wait_for_available_memory() throws Exception {
+		givenMemAvailable(2560 * MB);
+		ProcessAdmission.Permit permit = admission.acquire(0, 1024 * MB, log);
+
+		// The first process is still ramping up: 1.5 GB are left, enough for one more process only.
+		ProcessAdmission.Permit second = admission.acquire(0, 1024 * MB, log);
+
+		CountDownLatch admitted = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			try (ProcessAdmission.Permit p = admission.acquire(0, 1024 * MB, log)) {
+				admitted.countDown();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		thread.start();
+		assertThat(admitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+		verify(log).info("Waiting to start process: 2 process(es) running, 2560 MB of memory available.");
+
+		second.close();
+		assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+		thread.join();
+		permit.close();
+	}
+
+	@Test
+	public void it_should_ignore_memory_if_it_cannot_be_read() throws Exception {
+		try (ProcessAdmission.Permit p1 = admission.acquire(0, 1024 * MB, log);
+		     ProcessAdmission.Permit p2 = admission.acquire(0, 1024 * MB, log)) {
+			assertThat(admission.getRunning()).isEqualTo(2);
+		}
+	}
+
+	private void givenMemAvailable(long bytes) throws Exception {
+		Files.write(new File(proc, "meminfo").toPath(), ("MemAvailable: " + (bytes / 1024) + " kB\n").getBytes(US_ASCII));
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.commands.CommandResult;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.mjeanroy.maven.plugins.node.tests.builders.CommandResultTestBuilder.successResult;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReactorTasksTest {
+
+	@Test
+	public void it_should_return_the_task_of_the_first_module() throws Exception {
+		ReactorTasks tasks = ReactorTasks.of(null);
+		CommandResult result = successResult();
+
+		assertThat(tasks.claim("/workspace::install", "module-a")).isNull();
+
+		ReactorTasks.Task task = tasks.claim("/workspace::install", "module-b");
+		assertThat(task).isNotNull();
+		assertThat(task.getModule()).isEqualTo("module-a");
+
+		assertThat(task.isDone()).isFalse();
+
+		tasks.complete("/workspace::install", result);
+		assertThat(task.isDone()).isTrue();
+		assertThat(task.await()).isSameAs(result);
+		assertThat(tasks.claim("/workspace::install", "module-c").await()).isSameAs(result);
+	}
+
+	@Test
+	public void it_should_not_share_tasks_with_different_keys() {
+		ReactorTasks tasks = ReactorTasks.of(null);
+		assertThat(tasks.claim("/workspace::install", "module-a")).isNull();
+		assertThat(tasks.claim("/workspace::build", "module-a")).isNull();
+		assertThat(tasks.claim("/module::install", "module-b")).isNull();
+	}
+
+	@Test
+	public void it_should_wait_for_the_task_to_be_completed() throws Exception {
+		ReactorTasks tasks = ReactorTasks.of(null);
+		CommandResult result = successResult();
+		tasks.claim("/workspace::install", "module-a");
+
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicReference<CommandResult> awaited = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			ReactorTasks.Task task = tasks.claim("/workspace::install", "module-b");
+			started.countDown();
+			try {
+				awaited.set(task.await());
+			}
+			catch (InterruptedException | ExecutionException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+
+		thread.start();
+		started.await();
+		assertThat(awaited.get()).isNull();
+
+		tasks.complete("/workspace::install", result);
+		thread.join();
+		assertThat(awaited.get()).isSameAs(result);
+	}
+
+	@Test
+	public void it_should_fail_task() {
+		ReactorTasks tasks = ReactorTasks.of(null);
+		tasks.claim("/workspace::install", "module-a");
+
+		IllegalStateException error = new IllegalStateException("npm install failed");
+		tasks.fail("/workspace::install", error);
+
+		ReactorTasks.Task task = tasks.claim("/workspace::install", "module-b");
+		assertThatThrownBy(task::await).isInstanceOf(ExecutionException.class).hasCause(error);
+	}
+
+	@Test
+	public void it_should_share_tasks_of_a_session() {
+		Object session = new Object();
+		assertThat(ReactorTasks.of(session)).isSameAs(ReactorTasks.of(session));
+		assertThat(ReactorTasks.of(new Object())).isNotSameAs(ReactorTasks.of(session));
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2021 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.github.mjeanroy.maven.plugins.node.mojos;
+
+import com.github.mjeanroy.maven.plugins.node.cache.BuildCacheServer;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RemoteBuildCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File serverDirectory;
+	private File localDirectory;
+	private BuildCacheServer server;
+	private Log log;
+
+	@Before
+	public void setUp() throws Exception {
+		serverDirectory = temporaryFolder.newFolder("server");
+		localDirectory = temporaryFolder.newFolder("local");
+		server = BuildCacheServer.start(0, serverDirectory);
+		log = mock(Log.class);
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void it_should_download_entry() throws Exception {
+		Files.write(new File(serverDirectory, "1234.zip").toPath(), "content".getBytes(UTF_8));
+
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl() + "/", localDirectory, 2000, log);
+
+		assertThat(remote.fetch("1234.zip")).isTrue();
+		assertThat(new File(localDirectory, "1234.zip")).hasContent("content");
+		verify(log, never()).warn(anyString());
+	}
+
+	@Test
+	public void it_should_not_download_missing_entry() {
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+
+		assertThat(remote.fetch("1234.zip")).isFalse();
+		assertThat(localDirectory.list()).isEmpty();
+		verify(log, never()).warn(anyString());
+	}
+
+	@Test
+	public void it_should_upload_entry() throws Exception {
+		File archive = new File(localDirectory, "1234.zip");
+		Files.write(archive.toPath(), "content".getBytes(UTF_8));
+
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+		remote.upload("1234.zip", archive);
+
+		assertThat(new File(serverDirectory, "1234.zip")).hasContent("content");
+	}
+
+	@Test
+	public void it_should_upload_entry_after_missing_download() throws Exception {
+		File archive = new File(localDirectory, "1234.zip");
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+
+		assertThat(remote.fetch("1234.zip")).isFalse();
+
+		Files.write(archive.toPath(), "content".getBytes(UTF_8));
+		remote.upload("1234.zip", archive);
+
+		assertThat(new File(serverDirectory, "1234.zip")).hasContent("content");
+		verify(log, never()).warn(anyString());
+	}
+
+	@Test
+	public void it_should_upload_several_entries() throws Exception {
+		File first = new File(localDirectory, "1234.zip");
+		File second = new File(localDirectory, "5678.zip");
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+
+		Files.write(first.toPath(), "first".getBytes(UTF_8));
+		Files.write(second.toPath(), "second".getBytes(UTF_8));
+		remote.upload("1234.zip", first);
+		remote.upload("5678.zip", second);
+
+		assertThat(new File(serverDirectory, "1234.zip")).hasContent("first");
+		assertThat(new File(serverDirectory, "5678.zip")).hasContent("second");
+		verify(log, never()).warn(anyString());
+	}
+
+	@Test
+	public void it_should_prefetch_entry_once() throws Exception {
+		Files.write(new File(serverDirectory, "1234.zip").toPath(), "content".getBytes(UTF_8));
+
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+
+		assertThat(remote.prefetch("1234.zip")).isSameAs(remote.prefetch("1234.zip"));
+		assertThat(remote.prefetch("1234.zip").get()).isTrue();
+		assertThat(new File(localDirectory, "1234.zip")).hasContent("content");
+	}
+
+	@Test
+	public void it_should_not_wait_for_prefetch_tasks_to_fetch_entry() throws Exception {
+		Files.write(new File(serverDirectory, "1234.zip").toPath(), "content".getBytes(UTF_8));
+
+		RemoteBuildCache remote = RemoteBuildCache.of(null, server.getUrl(), localDirectory, 2000, log);
+		CountDownLatch latch = new CountDownLatch(1);
+
+		try {
+			for (int i = 0; i < 10; ++i) {
+				remote.submit(() -> await(latch));
+			}
+
+			assertThat(remote.fetch("1234.zip")).isTrue();
+		}
+		finally {
+			latch.countDown();
+		}
+	}
+
+	@Test
+	public void it_should_not_wait_for_slow_download_longer_than_timeout() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			// Connections are accepted by the backlog, but never answered.
+			RemoteBuildCache remote = RemoteBuildCache.of(null, "http://localhost:" + socket.getLocalPort(), localDirectory, 500, log);
+			Future<Boolean> download = remote.prefetch("1234.zip");
+
+			long start = System.nanoTime();
+			assertThat(remote.fetch("1234.zip")).isFalse();
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+			assertThat(download.get()).isFalse();
+		}
+	}
+
+	@Test
+	public void it_should_share_remote_cache_during_session() {
+		Object session = new Object();
+		RemoteBuildCache r1 = RemoteBuildCache.of(session, server.getUrl(), localDirectory, 2000, log);
+		RemoteBuildCache r2 = RemoteBuildCache.of(session, server.getUrl(), localDirectory, 2000, log);
+		RemoteBuildCache r3 = RemoteBuildCache.of(new Object(), server.getUrl(), localDirectory, 2000, log);
+
+		assertThat(r1).isSameAs(r2).isNotSameAs(r3);
+		assertThat(r1.markPrefetched()).isTrue();
+		assertThat(r2.markPrefetched()).isFalse();
+	}
+
+	@Test
+	public void it_should_be_disabled_once_server_is_unreachable() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		File archive = new File(localDirectory, "5678.zip");
+		Files.write(archive.toPath(), "content".getBytes(UTF_8));
+
+		RemoteBuildCache remote = RemoteBuildCache.of(null, "http://localhost:" + port, localDirectory, 500, log);
+
+		assertThat(remote.fetch("1234.zip")).isFalse();
+		assertThat(remote.fetch("4321.zip")).isFalse();
+		remote.upload("5678.zip", archive);
+
+		verify(log, times(1)).warn(anyString());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -23,15 +23,26 @@
 
 package com.github.mjeanroy.maven.plugins.node.mojos;
 
+import com.github.mjeanroy.maven.plugins.node.commands.Command;
 import com.github.mjeanroy.maven.plugins.node.commands.CommandExecutor;
+import com.github.mjeanroy.maven.plugins.node.commands.OutputHandler;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.readPrivate;
 import static com.github.mjeanroy.maven.plugins.node.tests.ReflectTestUtils.writePrivate;
+import static com.github.mjeanroy.maven.plugins.node.tests.builders.CommandResultTestBuilder.successResult;
 import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 public class TestMojoTest extends AbstractNpmScriptMojoTest<TestMojo> {
 
@@ -88,6 +99,49 @@ public class TestMojoTest extends AbstractNpmScriptMojoTest<TestMojo> {
 		verifyTestsHaveBeenSkipped(mojo);
 	}
 
+	@Test
+	public void it_should_run_test_script_directly() throws Exception {
+		TestMojo mojo = lookupMojo("mojo-with-script-hooks", singletonMap("directScripts", true));
+		List<Command> commands = givenExecutedCommands(mojo);
+
+		mojo.execute();
+
+		assertThat(commands).hasSize(2);
+		assertThat(commands.get(0).getArguments()).containsExactly("-c", "gulp lint");
+		assertThat(commands.get(1).getArguments()).containsExactly("-c", "gulp test");
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).info("Running script 'pretest': gulp lint");
+		verify(log).info("Running script 'test': gulp test");
+	}
+
+	@Test
+	public void it_should_run_test_with_npm_client_without_test_script() throws Exception {
+		TestMojo mojo = lookupMojo("mojo", singletonMap("directScripts", true));
+		List<Command> commands = givenExecutedCommands(mojo);
+
+		mojo.execute();
+
+		assertThat(commands).hasSize(1);
+		assertThat(commands.get(0).getName()).isEqualTo("npm");
+		assertThat(commands.get(0).getArguments()).startsWith("test");
+
+		Log log = readPrivate(mojo, "log");
+		verify(log).debug("Script 'test' is not defined in package.json, running it with the npm client");
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Command> givenExecutedCommands(TestMojo mojo) {
+		List<Command> commands = new ArrayList<>();
+		CommandExecutor executor = readPrivate(mojo, "executor");
+		when(executor.execute(any(File.class), any(Command.class), any(OutputHandler.class), anyMap())).thenAnswer(invocation -> {
+			commands.add(invocation.getArgument(1));
+			return successResult();
+		});
+
+		return commands;
+	}
+
 	private void verifyTestsHaveBeenSkipped(TestMojo mojo) {
 		verifyExecutorNotRunned(mojo);
 		verifySkipMessageOutput(mojo);
@@ -25,6 +25,12 @@ package com.github.mjeanroy.maven.plugins.node.tests.builders;
 
 import com.github.mjeanroy.maven.plugins.node.model.IncrementalBuildConfiguration;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
 /**
  * Builder for {@link IncrementalBuildConfiguration}.
  */
@@ -47,11 +53,50 @@ public class IncrementalBuildConigurationTestBuilder {
 	 */
 	private boolean enabled;
 
+	/**
+	 * Number of threads used to compute input states.
+	 *
+	 * @see IncrementalBuildConfiguration#getParallelism()
+	 */
+	private int parallelism;
+
+	/**
+	 * Enable/Disable file system watching.
+	 *
+	 * @see IncrementalBuildConfiguration#isWatch()
+	 */
+	private boolean watch;
+
+	/**
+	 * The build cache directory, {@code null} to disable build cache.
+	 *
+	 * @see IncrementalBuildConfiguration#getCache()
+	 */
+	private File buildCacheDirectory;
+
+	/**
+	 * The remote build cache URL.
+	 *
+	 * @see IncrementalBuildConfiguration#getCache()
+	 */
+	private String remoteBuildCacheUrl;
+
+	/**
+	 * Outputs of the {@code build} goal.
+	 *
+	 * @see IncrementalBuildConfiguration#getBuild()
+	 */
+	private final List<String> buildOutputs;
+
 	/**
 	 * Initialize builder with default values.
 	 */
 	public IncrementalBuildConigurationTestBuilder() {
 		this.enabled = true;
+		this.parallelism = 1;
+		this.watch = false;
+		this.buildCacheDirectory = null;
+		this.buildOutputs = new ArrayList<>();
 	}
 
 	/**
@@ -65,6 +110,61 @@ public class IncrementalBuildConigurationTestBuilder {
 		return this;
 	}
 
+	/**
+	 * Update {@link #parallelism}
+	 *
+	 * @param parallelism New {@link #parallelism}
+	 * @return The builder.
+	 */
+	public IncrementalBuildConigurationTestBuilder withParallelism(int parallelism) {
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Update {@link #watch}
+	 *
+	 * @param watch New {@link #watch}
+	 * @return The builder.
+	 */
+	public IncrementalBuildConigurationTestBuilder withWatch(boolean watch) {
+		this.watch = watch;
+		return this;
+	}
+
+	/**
+	 * Enable build cache, stored in given directory.
+	 *
+	 * @param buildCacheDirectory New {@link #buildCacheDirectory}
+	 * @return The builder.
+	 */
+	public IncrementalBuildConigurationTestBuilder withBuildCache(File buildCacheDirectory) {
+		this.buildCacheDirectory = buildCacheDirectory;
+		return this;
+	}
+
+	/**
+	 * Update {@link #remoteBuildCacheUrl}
+	 *
+	 * @param remoteBuildCacheUrl New {@link #remoteBuildCacheUrl}
+	 * @return The builder.
+	 */
+	public IncrementalBuildConigurationTestBuilder withRemoteBuildCache(String remoteBuildCacheUrl) {
+		this.remoteBuildCacheUrl = remoteBuildCacheUrl;
+		return this;
+	}
+
+	/**
+	 * Add outputs to {@link #buildOutputs}
+	 *
+	 * @param outputs Outputs.
+	 * @return The builder.
+	 */
+	public IncrementalBuildConigurationTestBuilder withBuildOutputs(String... outputs) {
+		this.buildOutputs.addAll(asList(outputs));
+		return this;
+	}
+
 	/**
 	 * Build final {@link IncrementalBuildConfiguration} instance.
 	 *
@@ -73,6 +173,16 @@ public class IncrementalBuildConigurationTestBuilder {
 	public IncrementalBuildConfiguration build() {
 		IncrementalBuildConfiguration incrementalBuildConfiguration = new IncrementalBuildConfiguration();
 		incrementalBuildConfiguration.setEnabled(enabled);
+		incrementalBuildConfiguration.setParallelism(parallelism);
+		incrementalBuildConfiguration.setWatch(watch);
+		incrementalBuildConfiguration.getBuild().setOutputs(new ArrayList<>(buildOutputs));
+
+		if (buildCacheDirectory != null) {
+			incrementalBuildConfiguration.getCache().setEnabled(true);
+			incrementalBuildConfiguration.getCache().setDirectory(buildCacheDirectory);
+			incrementalBuildConfiguration.getCache().setRemoteUrl(remoteBuildCacheUrl);
+		}
+
 		return incrementalBuildConfiguration;
 	}
 }